@@ -34,6 +34,15 @@ public final class BigFraction implements Comparable<BigFraction> {
      */
     public static final BigInteger TWO = new BigInteger("2");
     private static final MathContext TO_DOUBLE_CONTEXT = MathContext.DECIMAL64;
+    // what the checked long arithmetic returns on overflow, which is never part of a small fraction
+    static final long OVERFLOW = Long.MIN_VALUE;
+
+    // A fraction is small when its numerator and denominator both fit in a long other than Long.MIN_VALUE, and is then
+    // held by num and den, with ntor and dtor only made once asked for. Any other fraction is held by ntor and dtor, so
+    // that each value has exactly one representation. Package-private for BigFractionAccumulator.
+    boolean small;
+    long num;
+    long den;
     private BigInteger ntor;
     private BigInteger dtor;
 
@@ -61,7 +70,33 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @throws ArithmeticException If {@code denominator} is zero
      */
     public BigFraction(long numerator, long denominator) {
-        this(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+        if (denominator == 0) {
+            throw new ArithmeticException("/ by zero");
+        }
+
+        if (numerator == OVERFLOW || denominator == OVERFLOW) {
+            this.ntor = BigInteger.valueOf(numerator);
+            this.dtor = BigInteger.valueOf(denominator);
+            simplify();
+            return;
+        }
+
+        if (numerator == 0) {
+            denominator = 1;
+        } else {
+            if (denominator < 0) {
+                numerator = -numerator;
+                denominator = -denominator;
+            }
+
+            long commonFactor = gcd(Math.abs(numerator), denominator);
+            numerator /= commonFactor;
+            denominator /= commonFactor;
+        }
+
+        this.small = true;
+        this.num = numerator;
+        this.den = denominator;
     }
 
     /**
@@ -82,21 +117,139 @@ public final class BigFraction implements Comparable<BigFraction> {
         this(numerator, 1);
     }
 
+    private BigFraction() {
+    }
+
+    /**
+     * Creates a small fraction from a numerator and a positive denominator that are already coprime
+     */
+    private static BigFraction ofReduced(long numerator, long denominator) {
+        BigFraction result = new BigFraction();
+        result.small = true;
+        result.num = numerator;
+        result.den = denominator;
+        return result;
+    }
 
     private void simplify() {
         if (ntor.signum() == 0) {
             dtor = BigInteger.ONE;
-            return;
+        } else {
+            if (dtor.signum() == -1) {
+                ntor = ntor.negate();
+                dtor = dtor.negate();
+            }
+
+            BigInteger commonFactor = ntor.gcd(dtor);
+            ntor = ntor.divide(commonFactor);
+            dtor = dtor.divide(commonFactor);
+        }
+
+        if (fitsSmall(ntor) && fitsSmall(dtor)) {
+            small = true;
+            num = ntor.longValue();
+            den = dtor.longValue();
+        }
+    }
+
+    private static boolean fitsSmall(BigInteger value) {
+        return value.bitLength() < Long.SIZE && value.longValue() != OVERFLOW;
+    }
+
+    /**
+     * Returns the greatest common divisor of a non-negative and a positive long, by the binary algorithm
+     */
+    static long gcd(long a, long b) {
+        if (a == 0) {
+            return b;
+        }
+
+        int shift = Long.numberOfTrailingZeros(a | b);
+        a >>= Long.numberOfTrailingZeros(a);
+
+        do {
+            b >>= Long.numberOfTrailingZeros(b);
+
+            if (a > b) {
+                long t = a;
+                a = b;
+                b = t;
+            }
+
+            b -= a;
+        } while (b != 0);
+
+        return a << shift;
+    }
+
+    /**
+     * Returns x + y, or {@link #OVERFLOW} if it does not fit
+     */
+    static long addChecked(long x, long y) {
+        long result = x + y;
+        return ((x ^ result) & (y ^ result)) < 0 ? OVERFLOW : result;
+    }
+
+    /**
+     * Returns x * y, or {@link #OVERFLOW} if it does not fit, without the cost of the exception
+     * {@link Math#multiplyExact(long, long)} throws, since values that overflow are common
+     */
+    static long multiplyChecked(long x, long y) {
+        long result = x * y;
+
+        if (((Math.abs(x) | Math.abs(y)) >>> 31) != 0 && y != 0 && result / y != x) {
+            return OVERFLOW;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns n1 / d1 + n2 / d2 of small fractions, or null if it overflows, reducing by the gcd of the denominators
+     * first as in Knuth 4.5.1 so that the intermediate values stay small
+     */
+    private static BigFraction addSmall(long n1, long d1, long n2, long d2) {
+        long g = gcd(d1, d2);
+        long s = d1 / g;
+        long t = d2 / g;
+        long a = multiplyChecked(n1, t);
+        long b = multiplyChecked(n2, s);
+
+        if (a == OVERFLOW || b == OVERFLOW) {
+            return null;
+        }
+
+        long n = addChecked(a, b);
+
+        if (n == OVERFLOW) {
+            return null;
+        } else if (n == 0) {
+            return ZERO;
+        }
+
+        long g2 = gcd(Math.abs(n), g);
+        long d = multiplyChecked(s, d2 / g2);
+        return d == OVERFLOW ? null : ofReduced(n / g2, d);
+    }
+
+    /**
+     * Returns n1 / d1 * n2 / d2 of small fractions, or null if it overflows, where d2 may be negative
+     */
+    private static BigFraction multiplySmall(long n1, long d1, long n2, long d2) {
+        if (n1 == 0 || n2 == 0) {
+            return ZERO;
         }
 
-        if (dtor.signum() == -1) {
-            ntor = ntor.negate();
-            dtor = dtor.negate();
+        if (d2 < 0) {
+            n2 = -n2;
+            d2 = -d2;
         }
 
-        BigInteger commonFactor = ntor.gcd(dtor);
-        ntor = ntor.divide(commonFactor);
-        dtor = dtor.divide(commonFactor);
+        long g1 = gcd(Math.abs(n1), d2);
+        long g2 = gcd(Math.abs(n2), d1);
+        long n = multiplyChecked(n1 / g1, n2 / g2);
+        long d = multiplyChecked(d1 / g2, d2 / g1);
+        return n == OVERFLOW || d == OVERFLOW ? null : ofReduced(n, d);
     }
 
     /**
@@ -105,6 +258,9 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The numerator of this fraction
      */
     public BigInteger getNumerator() {
+        if (ntor == null) {
+            ntor = BigInteger.valueOf(num);
+        }
         return ntor;
     }
 
@@ -114,6 +270,9 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The denominator of this fraction
      */
     public BigInteger getDenominator() {
+        if (dtor == null) {
+            dtor = BigInteger.valueOf(den);
+        }
         return dtor;
     }
 
@@ -124,6 +283,9 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return A {@code BigDecimal} approximation of this fraction
      */
     public BigDecimal toBigDecimal(MathContext mc) {
+        if (small) {
+            return BigDecimal.valueOf(num).divide(BigDecimal.valueOf(den), mc);
+        }
         return new BigDecimal(ntor).divide(new BigDecimal(dtor), mc);
     }
 
@@ -133,6 +295,10 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return A {@code double} approximation of this fraction
      */
     public double toDouble() {
+        // an integer of at most 53 bits is exact both as a double and in the decimal context
+        if (small && den == 1 && Math.abs(num) <= 1L << 53) {
+            return num;
+        }
         return toBigDecimal(TO_DOUBLE_CONTEXT).doubleValue();
     }
 
@@ -143,9 +309,15 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The result of the sum
      */
     public BigFraction add(BigFraction other) {
+        if (small && other.small) {
+            BigFraction result = addSmall(num, den, other.num, other.den);
+            if (result != null) {
+                return result;
+            }
+        }
         return new BigFraction(
-            ntor.multiply(other.dtor).add(other.ntor.multiply(dtor)),
-            dtor.multiply(other.dtor));
+            getNumerator().multiply(other.getDenominator()).add(other.getNumerator().multiply(getDenominator())),
+            getDenominator().multiply(other.getDenominator()));
     }
 
     /**
@@ -155,7 +327,10 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The result of the addition
      */
     public BigFraction add(BigInteger other) {
-        return new BigFraction(ntor.add(other.multiply(dtor)), dtor);
+        if (small && fitsSmall(other)) {
+            return add(other.longValue());
+        }
+        return new BigFraction(getNumerator().add(other.multiply(getDenominator())), getDenominator());
     }
 
     /**
@@ -165,7 +340,15 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The result of the addition
      */
     public BigFraction add(long other) {
-        return add(BigInteger.valueOf(other));
+        if (small && other != OVERFLOW) {
+            // num + other * den is still coprime to den
+            long product = multiplyChecked(other, den);
+            long n = product == OVERFLOW ? OVERFLOW : addChecked(num, product);
+            if (n != OVERFLOW) {
+                return ofReduced(n, den);
+            }
+        }
+        return new BigFraction(getNumerator().add(BigInteger.valueOf(other).multiply(getDenominator())), getDenominator());
     }
 
     /**
@@ -175,9 +358,15 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The result of the subtraction
      */
     public BigFraction subtract(BigFraction other) {
+        if (small && other.small) {
+            BigFraction result = addSmall(num, den, -other.num, other.den);
+            if (result != null) {
+                return result;
+            }
+        }
         return new BigFraction(
-            ntor.multiply(other.dtor).subtract(other.ntor.multiply(dtor)),
-            dtor.multiply(other.dtor));
+            getNumerator().multiply(other.getDenominator()).subtract(other.getNumerator().multiply(getDenominator())),
+            getDenominator().multiply(other.getDenominator()));
     }
 
     /**
@@ -187,7 +376,10 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The result of the addition
      */
     public BigFraction subtract(BigInteger other) {
-        return new BigFraction(ntor.subtract(other.multiply(dtor)), dtor);
+        if (small && fitsSmall(other)) {
+            return add(-other.longValue());
+        }
+        return new BigFraction(getNumerator().subtract(other.multiply(getDenominator())), getDenominator());
     }
 
     /**
@@ -197,6 +389,9 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The result of the addition
      */
     public BigFraction subtract(long other) {
+        if (other != OVERFLOW) {
+            return add(-other);
+        }
         return subtract(BigInteger.valueOf(other));
     }
 
@@ -207,7 +402,13 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The result of the multiplication
      */
     public BigFraction multiply(BigFraction other) {
-        return new BigFraction(ntor.multiply(other.ntor), dtor.multiply(other.dtor));
+        if (small && other.small) {
+            BigFraction result = multiplySmall(num, den, other.num, other.den);
+            if (result != null) {
+                return result;
+            }
+        }
+        return new BigFraction(getNumerator().multiply(other.getNumerator()), getDenominator().multiply(other.getDenominator()));
     }
 
     /**
@@ -217,7 +418,10 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The result of the multiplication
      */
     public BigFraction multiply(BigInteger other) {
-        return new BigFraction(ntor.multiply(other), dtor);
+        if (small && fitsSmall(other)) {
+            return multiply(other.longValue());
+        }
+        return new BigFraction(getNumerator().multiply(other), getDenominator());
     }
 
     /**
@@ -227,7 +431,47 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The result of the multiplication
      */
     public BigFraction multiply(long other) {
-        return multiply(BigInteger.valueOf(other));
+        if (small && other != OVERFLOW) {
+            BigFraction result = multiplySmall(num, den, other, 1);
+            if (result != null) {
+                return result;
+            }
+        }
+        return new BigFraction(getNumerator().multiply(BigInteger.valueOf(other)), getDenominator());
+    }
+
+    /**
+     * Returns {@code this - a * b} as one operation, so that no fraction is made for the product and the result is only
+     * normalised once
+     *
+     * @param a The first factor of the product to subtract
+     * @param b The second factor of the product to subtract
+     * @return The result of the subtraction
+     */
+    public BigFraction subtractProduct(BigFraction a, BigFraction b) {
+        if (a.signum() == 0 || b.signum() == 0) {
+            return this;
+        }
+
+        if (small && a.small && b.small) {
+            // the product, cancelled crosswise so that it is reduced
+            long g1 = gcd(Math.abs(a.num), b.den);
+            long g2 = gcd(Math.abs(b.num), a.den);
+            long n = multiplyChecked(a.num / g1, b.num / g2);
+            long d = multiplyChecked(a.den / g2, b.den / g1);
+
+            if (n != OVERFLOW && d != OVERFLOW) {
+                BigFraction result = addSmall(num, den, -n, d);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+
+        BigInteger productDenominator = a.getDenominator().multiply(b.getDenominator());
+        return new BigFraction(
+            getNumerator().multiply(productDenominator).subtract(a.getNumerator().multiply(b.getNumerator()).multiply(getDenominator())),
+            getDenominator().multiply(productDenominator));
     }
 
     /**
@@ -238,9 +482,15 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @throws ArithmeticException If {@code other} is zero
      */
     public BigFraction divide(BigFraction other) {
+        if (small && other.small && other.num != 0) {
+            BigFraction result = multiplySmall(num, den, other.den, other.num);
+            if (result != null) {
+                return result;
+            }
+        }
         return new BigFraction(
-            ntor.multiply(other.dtor),
-            dtor.multiply(other.ntor));
+            getNumerator().multiply(other.getDenominator()),
+            getDenominator().multiply(other.getNumerator()));
     }
 
     /**
@@ -251,7 +501,10 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @throws ArithmeticException If {@code other} is zero
      */
     public BigFraction divide(BigInteger other) {
-        return new BigFraction(ntor, dtor.multiply(other));
+        if (small && fitsSmall(other)) {
+            return divide(other.longValue());
+        }
+        return new BigFraction(getNumerator(), getDenominator().multiply(other));
     }
 
     /**
@@ -262,7 +515,13 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @throws ArithmeticException If {@code other} is zero
      */
     public BigFraction divide(long other) {
-        return divide(BigInteger.valueOf(other));
+        if (small && other != OVERFLOW && other != 0) {
+            BigFraction result = multiplySmall(num, den, 1, other);
+            if (result != null) {
+                return result;
+            }
+        }
+        return new BigFraction(getNumerator(), getDenominator().multiply(BigInteger.valueOf(other)));
     }
 
     /**
@@ -271,6 +530,9 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The result of the negation
      */
     public BigFraction negate() {
+        if (small) {
+            return ofReduced(-num, den);
+        }
         return new BigFraction(ntor.negate(), dtor);
     }
 
@@ -281,7 +543,10 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @throws ArithmeticException If this fraction is zero
      */
     public BigFraction reciprocal() {
-        return new BigFraction(dtor, ntor);
+        if (small && num != 0) {
+            return num < 0 ? ofReduced(-den, -num) : ofReduced(den, num);
+        }
+        return new BigFraction(getDenominator(), getNumerator());
     }
 
     /**
@@ -290,7 +555,9 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The floor of this fraction
      */
     public BigInteger floor() {
-        if (dtor.equals(BigInteger.ONE)) {
+        if (small) {
+            return BigInteger.valueOf(Math.floorDiv(num, den));
+        } else if (dtor.equals(BigInteger.ONE)) {
             return ntor;
         } else if (ntor.signum() == -1) {
             return ntor.divide(dtor).subtract(BigInteger.ONE);
@@ -305,7 +572,9 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The floor of this fraction
      */
     public BigInteger ceil() {
-        if (dtor.equals(BigInteger.ONE)) {
+        if (small) {
+            return BigInteger.valueOf(-Math.floorDiv(-num, den));
+        } else if (dtor.equals(BigInteger.ONE)) {
             return ntor;
         } else if (ntor.signum() == 1) {
             return ntor.divide(dtor).add(BigInteger.ONE);
@@ -321,6 +590,15 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return This fraction rounded to the nearest integer
      */
     public BigInteger round() {
+        if (small) {
+            // floor((2 * num + den) / (2 * den))
+            long twiceNum = multiplyChecked(num, 2);
+            long n = twiceNum == OVERFLOW ? OVERFLOW : addChecked(twiceNum, den);
+            long d = multiplyChecked(den, 2);
+            if (n != OVERFLOW && d != OVERFLOW) {
+                return BigInteger.valueOf(Math.floorDiv(n, d));
+            }
+        }
         return add(HALF).floor();
     }
 
@@ -330,7 +608,7 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return -1 if negative, 0 if zero, 1 if positive
      */
     public int signum() {
-        return ntor.signum();
+        return small ? Long.signum(num) : ntor.signum();
     }
 
     /**
@@ -339,7 +617,7 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The absolute value of this fraction, always non-negative.
      */
     public BigFraction abs() {
-        return ntor.signum() == -1 ? negate() : this;
+        return signum() == -1 ? negate() : this;
     }
 
 
@@ -368,7 +646,7 @@ public final class BigFraction implements Comparable<BigFraction> {
      * @return The logarithm value of this fraction.
      */
     public BigFraction log() {
-        if (this.ntor.compareTo(BigInteger.ONE) == 0 && this.dtor.compareTo(BigInteger.ONE) == 0) {
+        if (this.equals(ONE)) {
             return ZERO;
         }
         String digits = Double.toString(this.toDouble()).split("\\.")[0];
@@ -400,7 +678,19 @@ public final class BigFraction implements Comparable<BigFraction> {
 
     @Override
     public int compareTo(BigFraction other) {
-        return ntor.multiply(other.dtor).compareTo(other.ntor.multiply(dtor));
+        if (small && other.small) {
+            if (den == other.den) {
+                return Long.compare(num, other.num);
+            }
+
+            long a = multiplyChecked(num, other.den);
+            long b = multiplyChecked(other.num, den);
+
+            if (a != OVERFLOW && b != OVERFLOW) {
+                return Long.compare(a, b);
+            }
+        }
+        return getNumerator().multiply(other.getDenominator()).compareTo(other.getNumerator().multiply(getDenominator()));
     }
 
     public int compareTo(BigInteger other) {
@@ -410,19 +700,38 @@ public final class BigFraction implements Comparable<BigFraction> {
 
     @Override
     public int hashCode() {
+        if (small) {
+            return hashCode(num) + 31 * hashCode(den);
+        }
         return ntor.hashCode() + 31 * dtor.hashCode();
     }
 
+    /**
+     * Returns the hash code of the {@code BigInteger} of the given value, so that the hash codes of the fractions stay
+     * as they were
+     */
+    private static int hashCode(long value) {
+        long magnitude = Math.abs(value);
+        int high = (int) (magnitude >>> 32);
+        int low = (int) magnitude;
+        return (high == 0 ? low : 31 * high + low) * Long.signum(value);
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == this) return true;
         if (other == null || other.getClass() != BigFraction.class) return false;
         BigFraction that = (BigFraction) other;
+        if (this.small != that.small) return false;
+        if (this.small) return this.num == that.num && this.den == that.den;
         return this.ntor.equals(that.ntor) && this.dtor.equals(that.dtor);
     }
 
     @Override
     public String toString() {
+        if (small) {
+            return den == 1 ? Long.toString(num) : num + "/" + den;
+        }
         if (dtor.equals(BigInteger.ONE)) {
             return ntor.toString();
         }
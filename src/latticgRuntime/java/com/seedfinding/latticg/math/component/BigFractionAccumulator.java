@@ -0,0 +1,206 @@
+package com.seedfinding.latticg.math.component;
+
+import java.math.BigInteger;
+
+/**
+ * A mutable sum of {@link BigFraction}s, for sums of many terms such as dot products.
+ *
+ * <p>The sum is kept over the least common multiple of the denominators added so far and is not reduced, so adding a
+ * term whose denominator divides that of the sum, such as any integer, is one multiplication and one addition. The sum
+ * is only normalised by {@link #toBigFraction()}. Like a {@code BigFraction}, it is held in longs until it no longer
+ * fits them.
+ */
+public final class BigFractionAccumulator {
+    private boolean small;
+    private long num;
+    private long den;
+    private BigInteger bigNum;
+    private BigInteger bigDen;
+
+    /**
+     * Creates an accumulator holding zero
+     */
+    public BigFractionAccumulator() {
+        this.reset();
+    }
+
+    /**
+     * Creates an accumulator holding the given value
+     *
+     * @param value The initial value
+     */
+    public BigFractionAccumulator(BigFraction value) {
+        this.set(value);
+    }
+
+    /**
+     * Sets this accumulator to zero
+     *
+     * @return This accumulator
+     */
+    public BigFractionAccumulator reset() {
+        this.small = true;
+        this.num = 0;
+        this.den = 1;
+        this.bigNum = null;
+        this.bigDen = null;
+        return this;
+    }
+
+    /**
+     * Sets this accumulator to the given value
+     *
+     * @param value The value to hold
+     * @return This accumulator
+     */
+    public BigFractionAccumulator set(BigFraction value) {
+        this.small = value.small;
+
+        if (value.small) {
+            this.num = value.num;
+            this.den = value.den;
+            this.bigNum = null;
+            this.bigDen = null;
+        } else {
+            this.bigNum = value.getNumerator();
+            this.bigDen = value.getDenominator();
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds the given fraction to this accumulator
+     *
+     * @param value The fraction to add
+     * @return This accumulator
+     */
+    public BigFractionAccumulator add(BigFraction value) {
+        if (value.small) {
+            this.addTerm(value.num, value.den);
+        } else {
+            this.addBig(value.getNumerator(), value.getDenominator());
+        }
+
+        return this;
+    }
+
+    /**
+     * Subtracts the given fraction from this accumulator
+     *
+     * @param value The fraction to subtract
+     * @return This accumulator
+     */
+    public BigFractionAccumulator subtract(BigFraction value) {
+        if (value.small) {
+            this.addTerm(-value.num, value.den);
+        } else {
+            this.addBig(value.getNumerator().negate(), value.getDenominator());
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds {@code a * b} to this accumulator, without making a fraction for the product
+     *
+     * @param a The first factor
+     * @param b The second factor
+     * @return This accumulator
+     */
+    public BigFractionAccumulator addProduct(BigFraction a, BigFraction b) {
+        this.addProduct(a, b, false);
+        return this;
+    }
+
+    /**
+     * Subtracts {@code a * b} from this accumulator, without making a fraction for the product
+     *
+     * @param a The first factor
+     * @param b The second factor
+     * @return This accumulator
+     */
+    public BigFractionAccumulator subtractProduct(BigFraction a, BigFraction b) {
+        this.addProduct(a, b, true);
+        return this;
+    }
+
+    /**
+     * Returns the sum as a normalised fraction, this accumulator is left as it is
+     *
+     * @return The value of this accumulator
+     */
+    public BigFraction toBigFraction() {
+        return this.small ? new BigFraction(this.num, this.den) : new BigFraction(this.bigNum, this.bigDen);
+    }
+
+    private void addProduct(BigFraction a, BigFraction b, boolean negate) {
+        if (a.signum() == 0 || b.signum() == 0) {
+            return;
+        }
+
+        if (a.small && b.small) {
+            // the product, cancelled crosswise so that the denominator of the sum grows as little as possible
+            long g1 = BigFraction.gcd(Math.abs(a.num), b.den);
+            long g2 = BigFraction.gcd(Math.abs(b.num), a.den);
+            long n = BigFraction.multiplyChecked(a.num / g1, b.num / g2);
+            long d = BigFraction.multiplyChecked(a.den / g2, b.den / g1);
+
+            if (n != BigFraction.OVERFLOW && d != BigFraction.OVERFLOW) {
+                this.addTerm(negate ? -n : n, d);
+                return;
+            }
+        }
+
+        BigInteger n = a.getNumerator().multiply(b.getNumerator());
+        this.addBig(negate ? n.negate() : n, a.getDenominator().multiply(b.getDenominator()));
+    }
+
+    /**
+     * Adds n / d, where d is positive and neither is {@link BigFraction#OVERFLOW}
+     */
+    private void addTerm(long n, long d) {
+        if (this.small) {
+            long g = BigFraction.gcd(this.den, d);
+            long scale = d / g;
+            long newDen = BigFraction.multiplyChecked(this.den, scale);
+            long a = BigFraction.multiplyChecked(this.num, scale);
+            long b = BigFraction.multiplyChecked(n, this.den / g);
+
+            if (newDen != BigFraction.OVERFLOW && a != BigFraction.OVERFLOW && b != BigFraction.OVERFLOW) {
+                long sum = BigFraction.addChecked(a, b);
+
+                if (sum != BigFraction.OVERFLOW) {
+                    this.num = sum;
+                    this.den = newDen;
+                    return;
+                }
+            }
+        }
+
+        this.addBig(BigInteger.valueOf(n), BigInteger.valueOf(d));
+    }
+
+    private void addBig(BigInteger n, BigInteger d) {
+        if (this.small) {
+            this.small = false;
+            this.bigNum = BigInteger.valueOf(this.num);
+            this.bigDen = BigInteger.valueOf(this.den);
+        }
+
+        BigInteger g = this.bigDen.gcd(d);
+
+        if (g.equals(d)) {
+            this.bigNum = this.bigNum.add(n.multiply(this.bigDen.divide(d)));
+        } else {
+            BigInteger scale = d.divide(g);
+            this.bigNum = this.bigNum.multiply(scale).add(n.multiply(this.bigDen.divide(g)));
+            this.bigDen = this.bigDen.multiply(scale);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.toBigFraction().toString();
+    }
+}
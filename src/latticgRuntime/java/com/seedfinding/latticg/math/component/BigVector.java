@@ -109,13 +109,13 @@ public final class BigVector {
      * @return The square of the magnitude of this vector
      */
     public BigFraction magnitudeSq() {
-        BigFraction magnitude = BigFraction.ZERO;
+        BigFractionAccumulator magnitude = new BigFractionAccumulator();
 
         for (int i = 0; i < this.getDimension(); i++) {
-            magnitude = magnitude.add(this.get(i).multiply(this.get(i)));
+            magnitude.addProduct(this.get(i), this.get(i));
         }
 
-        return magnitude;
+        return magnitude.toBigFraction();
     }
 
     /**
@@ -257,6 +257,49 @@ public final class BigVector {
         return this;
     }
 
+    /**
+     * Subtracts the given vector multiplied by the scalar from this vector, modifying this vector. Unlike
+     * {@code subtractAndSet(a.multiply(scalar))}, no vector is made for the product, and each element is only
+     * normalised once.
+     *
+     * @param a      The vector to subtract a multiple of from this vector
+     * @param scalar The multiple of the vector to subtract
+     * @return This vector
+     * @throws IllegalArgumentException If the dimension of the given vector is not the same as the dimension of this
+     *                                  vector
+     */
+    public BigVector subtractMultipleAndSet(BigVector a, BigFraction scalar) {
+        assertSameDimension(a);
+
+        if (scalar.signum() == 0) {
+            return this;
+        }
+
+        for (int i = 0; i < this.getDimension(); i++) {
+            BigFraction element = a.get(i);
+
+            if (element.signum() != 0) {
+                this.set(i, this.get(i).subtractProduct(element, scalar));
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Subtracts the given vector multiplied by the integer from this vector, modifying this vector
+     *
+     * @param a      The vector to subtract a multiple of from this vector
+     * @param scalar The multiple of the vector to subtract
+     * @return This vector
+     * @throws IllegalArgumentException If the dimension of the given vector is not the same as the dimension of this
+     *                                  vector
+     * @see #subtractMultipleAndSet(BigVector, BigFraction)
+     */
+    public BigVector subtractMultipleAndSet(BigVector a, BigInteger scalar) {
+        return this.subtractMultipleAndSet(a, new BigFraction(scalar));
+    }
+
     /**
      * Place the element at endIndex before the one at startIndex and shifts all the elements in between
      *
@@ -349,13 +392,13 @@ public final class BigVector {
     public BigFraction dot(BigVector v) {
         assertSameDimension(v);
 
-        BigFraction dot = BigFraction.ZERO;
+        BigFractionAccumulator dot = new BigFractionAccumulator();
 
         for (int i = 0; i < this.getDimension(); i++) {
-            dot = dot.add(this.get(i).multiply(v.get(i)));
+            dot.addProduct(this.get(i), v.get(i));
         }
 
-        return dot;
+        return dot.toBigFraction();
     }
 
     /**
@@ -0,0 +1,308 @@
+package com.seedfinding.latticg.math.component;
+
+import java.math.BigInteger;
+
+/**
+ * A matrix of fractions held as a matrix of integers, the numerators, over one denominator shared by every element.
+ *
+ * <p>Eliminations on it are fraction free, as in the Bareiss algorithm: a step multiplies each row by the pivot,
+ * subtracts its multiple of the pivot row and divides the result by the pivot of the step before, which always divides
+ * it exactly. The numerators so stay minors of the matrix, rather than each element carrying a denominator of its own
+ * which has to be reduced by a gcd after every operation. After a step every row is the matching row of the fraction
+ * elimination multiplied by the latest pivot, so the fractions are only reduced once, when they are read back.
+ */
+public final class CommonDenominatorMatrix {
+    private final BigInteger[][] numerators;
+    private final int rowCount;
+    private final int columnCount;
+    private final BigInteger denominator;
+
+    /**
+     * Constructs the matrix of the given matrices placed side by side, its denominator being the least common multiple
+     * of the denominators of their elements
+     *
+     * @param blocks The matrices to join, from left to right
+     * @throws IllegalArgumentException If there are no matrices or their row counts differ
+     */
+    public CommonDenominatorMatrix(BigMatrix... blocks) {
+        if (blocks.length == 0) {
+            throw new IllegalArgumentException("There must be at least one matrix");
+        }
+
+        int columnCount = 0;
+
+        for (BigMatrix block : blocks) {
+            if (block.getRowCount() != blocks[0].getRowCount()) {
+                throw new IllegalArgumentException("Row counts differ, " + blocks[0].getRowCount() + " and " + block.getRowCount());
+            }
+
+            columnCount += block.getColumnCount();
+        }
+
+        this.rowCount = blocks[0].getRowCount();
+        this.columnCount = columnCount;
+
+        BigInteger denominator = BigInteger.ONE;
+
+        for (BigMatrix block : blocks) {
+            for (int row = 0; row < block.getRowCount(); row++) {
+                for (int col = 0; col < block.getColumnCount(); col++) {
+                    BigInteger d = block.get(row, col).getDenominator();
+
+                    if (!d.equals(BigInteger.ONE) && denominator.mod(d).signum() != 0) {
+                        denominator = denominator.divide(denominator.gcd(d)).multiply(d);
+                    }
+                }
+            }
+        }
+
+        this.denominator = denominator;
+        this.numerators = new BigInteger[this.rowCount][this.columnCount];
+
+        for (int row = 0; row < this.rowCount; row++) {
+            int offset = 0;
+
+            for (BigMatrix block : blocks) {
+                for (int col = 0; col < block.getColumnCount(); col++) {
+                    BigFraction value = block.get(row, col);
+                    BigInteger d = value.getDenominator();
+                    this.numerators[row][offset + col] = d.equals(denominator) ? value.getNumerator() : value.getNumerator().multiply(denominator.divide(d));
+                }
+
+                offset += block.getColumnCount();
+            }
+        }
+    }
+
+    private CommonDenominatorMatrix(BigInteger[][] numerators, BigInteger denominator) {
+        this.numerators = numerators;
+        this.rowCount = numerators.length;
+        this.columnCount = numerators[0].length;
+        this.denominator = denominator;
+    }
+
+    /**
+     * Gets the number of rows in the matrix
+     *
+     * @return The number of rows in the matrix
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Gets the number of columns in the matrix
+     *
+     * @return The number of columns in the matrix
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Gets the denominator shared by every element of the matrix
+     *
+     * @return The denominator of the matrix
+     */
+    public BigInteger getDenominator() {
+        return denominator;
+    }
+
+    /**
+     * Gets the numerator of a single value of the matrix
+     *
+     * @param row The row of the value to get
+     * @param col The column of the value to get
+     * @return The numerator of the value in (row, col)
+     * @throws IndexOutOfBoundsException If {@code row} or {@code col} is out of bounds
+     */
+    public BigInteger getNumerator(int row, int col) {
+        return numerators[row][col];
+    }
+
+    /**
+     * Gets a single value of the matrix, as a normalised fraction
+     *
+     * @param row The row of the value to get
+     * @param col The column of the value to get
+     * @return The value in (row, col)
+     * @throws IndexOutOfBoundsException If {@code row} or {@code col} is out of bounds
+     */
+    public BigFraction get(int row, int col) {
+        return new BigFraction(numerators[row][col], denominator);
+    }
+
+    /**
+     * Converts this matrix to a matrix of fractions
+     *
+     * @return A new matrix containing the values of this matrix
+     */
+    public BigMatrix toBigMatrix() {
+        return new BigMatrix(rowCount, columnCount, this::get);
+    }
+
+    /**
+     * Swaps the two rows at the given indices, modifying this matrix
+     *
+     * @param row1 The row to swap with {@code row2}
+     * @param row2 The row to swap with {@code row1}
+     * @return This matrix
+     * @throws IndexOutOfBoundsException If {@code row1} or {@code row2} is out of bounds
+     */
+    public CommonDenominatorMatrix swapRowsAndSet(int row1, int row2) {
+        BigInteger[] temp = numerators[row1];
+        numerators[row1] = numerators[row2];
+        numerators[row2] = temp;
+        return this;
+    }
+
+    /**
+     * Does one fraction free elimination step, clearing the pivot column in every row from {@code startRow} on other
+     * than the pivot row, modifying this matrix. Each such row {@code r} becomes
+     * {@code (pivot * r - r[pivotColumn] * pivotRow) / previousPivot}, which is exact as long as
+     * {@code previousPivot} is the pivot of the step before, or one for the first step. Rows before {@code startRow}
+     * are left as they are, so a start of zero is a step of Gauss-Jordan elimination and a start past the pivot row one
+     * of Gaussian elimination.
+     *
+     * @param pivotRow      The row of the pivot
+     * @param pivotColumn   The column of the pivot, which must not be zero in the pivot row
+     * @param previousPivot The pivot of the step before
+     * @param startRow      The first row to eliminate in
+     * @return This matrix
+     * @throws IndexOutOfBoundsException If {@code pivotRow} or {@code pivotColumn} is out of bounds
+     */
+    public CommonDenominatorMatrix eliminate(int pivotRow, int pivotColumn, BigInteger previousPivot, int startRow) {
+        BigInteger[] pivotValues = numerators[pivotRow];
+        BigInteger pivot = pivotValues[pivotColumn];
+        boolean divide = !previousPivot.equals(BigInteger.ONE);
+
+        for (int row = startRow; row < rowCount; row++) {
+            if (row == pivotRow) {
+                continue;
+            }
+
+            BigInteger[] values = numerators[row];
+            BigInteger scale = values[pivotColumn];
+
+            for (int col = 0; col < columnCount; col++) {
+                BigInteger value = values[col].multiply(pivot);
+
+                if (scale.signum() != 0 && pivotValues[col].signum() != 0) {
+                    value = value.subtract(scale.multiply(pivotValues[col]));
+                }
+
+                values[col] = divide && value.signum() != 0 ? value.divide(previousPivot) : value;
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Computes the determinant of this matrix by Gaussian elimination, leaving this matrix as it is
+     *
+     * @return The determinant of this matrix
+     * @throws UnsupportedOperationException If this is not a square matrix
+     */
+    public BigFraction determinant() {
+        if (rowCount != columnCount) {
+            throw new UnsupportedOperationException("Matrix is not square");
+        }
+
+        CommonDenominatorMatrix m = this.copy();
+        BigInteger pivot = BigInteger.ONE;
+        boolean negate = false;
+
+        for (int i = 0; i < rowCount; i++) {
+            int pivotRow = i;
+
+            while (pivotRow < rowCount && m.numerators[pivotRow][i].signum() == 0) {
+                pivotRow++;
+            }
+
+            if (pivotRow == rowCount) {
+                return BigFraction.ZERO;
+            }
+
+            if (pivotRow != i) {
+                m.swapRowsAndSet(i, pivotRow);
+                negate = !negate;
+            }
+
+            m.eliminate(i, i, pivot, i + 1);
+            pivot = m.numerators[i][i];
+        }
+
+        // the last pivot is the determinant of the numerators, each row of which is the denominator times the matrix
+        BigFraction det = new BigFraction(pivot, denominator.pow(rowCount));
+        return negate ? det.negate() : det;
+    }
+
+    /**
+     * Computes the inverse of this matrix by Gauss-Jordan elimination, leaving this matrix as it is
+     *
+     * @return A new matrix containing the inverse
+     * @throws UnsupportedOperationException If this is not a square matrix
+     * @throws IllegalStateException         If this matrix is singular
+     */
+    public BigMatrix inverse() {
+        if (rowCount != columnCount) {
+            throw new UnsupportedOperationException("Matrix is not square");
+        }
+
+        int size = rowCount;
+        BigInteger[][] augmented = new BigInteger[size][size * 2];
+
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(numerators[row], 0, augmented[row], 0, size);
+
+            for (int col = 0; col < size; col++) {
+                augmented[row][size + col] = row == col ? BigInteger.ONE : BigInteger.ZERO;
+            }
+        }
+
+        CommonDenominatorMatrix m = new CommonDenominatorMatrix(augmented, BigInteger.ONE);
+        BigInteger pivot = BigInteger.ONE;
+
+        for (int i = 0; i < size; i++) {
+            int pivotRow = i;
+
+            while (pivotRow < size && m.numerators[pivotRow][i].signum() == 0) {
+                pivotRow++;
+            }
+
+            if (pivotRow == size) {
+                throw new IllegalStateException("Matrix is singular");
+            }
+
+            m.swapRowsAndSet(i, pivotRow);
+            m.eliminate(i, i, pivot, 0);
+            pivot = m.numerators[i][i];
+        }
+
+        // the right half is the last pivot times the inverse of the numerators, and the inverse of this matrix is the
+        // denominator times that
+        BigInteger finalPivot = pivot;
+        return new BigMatrix(size, size, (row, col) -> new BigFraction(m.numerators[row][size + col].multiply(denominator), finalPivot));
+    }
+
+    /**
+     * Creates a copy of this matrix
+     *
+     * @return A copy of this matrix
+     */
+    public CommonDenominatorMatrix copy() {
+        BigInteger[][] numerators = new BigInteger[rowCount][];
+
+        for (int row = 0; row < rowCount; row++) {
+            numerators[row] = this.numerators[row].clone();
+        }
+
+        return new CommonDenominatorMatrix(numerators, denominator);
+    }
+
+    @Override
+    public String toString() {
+        return this.toBigMatrix().toString();
+    }
+}
@@ -2,21 +2,28 @@ package com.seedfinding.latticg.math.component;
 
 import org.jetbrains.annotations.ApiStatus;
 
+import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.function.Consumer;
 
 @ApiStatus.Internal
 public class GaussJordan {
     private GaussJordan() { }
 
-    private static void forAll(BigMatrix matrix, Collection<BigMatrix> others, Consumer<BigMatrix> action) {
-        action.accept(matrix);
-        others.forEach(action);
-    }
-
     public static int[] reduce(BigMatrix matrix, Collection<BigMatrix> others, ReduceColumnPredicate reduceColumn) {
+        BigMatrix[] blocks = new BigMatrix[others.size() + 1];
+        blocks[0] = matrix;
+        int i = 1;
+
+        for (BigMatrix other : others) {
+            blocks[i++] = other;
+        }
+
+        // the elimination is done fraction free on all the matrices side by side, pivoting in the first one only
+        CommonDenominatorMatrix m = new CommonDenominatorMatrix(blocks);
+        BigInteger pivot = BigInteger.ONE;
+
         int[] pivotRows = new int[matrix.getColumnCount()];
         Arrays.fill(pivotRows, -1);
 
@@ -27,39 +34,39 @@ public class GaussJordan {
             int pivotRow;
 
             for (pivotRow = row; pivotRow < matrix.getRowCount(); ++pivotRow) {
-                if (!matrix.get(pivotRow, pivotColumn).equals(BigFraction.ZERO)) {
+                if (m.getNumerator(pivotRow, pivotColumn).signum() != 0) {
                     break;
                 }
             }
 
             if (pivotRow < matrix.getRowCount()) {
-                final int finalRow = row;
-                final int finalPivotRow = pivotRow;
-                final int finalPivotColumn = pivotColumn;
-
-                final BigFraction finalPivot = matrix.get(finalPivotRow, finalPivotColumn);
+                m.swapRowsAndSet(row, pivotRow);
+                m.eliminate(row, pivotColumn, pivot, 0);
+                pivot = m.getNumerator(row, pivotColumn);
+                pivotRows[pivotColumn] = row;
+                ++row;
+            }
 
-                forAll(matrix, others, m -> m.getRow(finalPivotRow).divideAndSet(finalPivot));
+            do {
+                ++pivotColumn;
+            } while (pivotColumn < matrix.getColumnCount() && !reduceColumn.test(pivotColumn, pivotRows));
+        }
 
-                for (int i = 0; i < matrix.getRowCount(); ++i) {
-                    if (i == finalPivotRow) {
-                        continue;
-                    }
+        // every row is now the last pivot times its reduced row, of the matrices scaled by their common denominator in
+        // the case of the rows without a pivot, since only the pivot rows are divided through by their pivot
+        BigInteger zeroRowDivisor = pivot.multiply(m.getDenominator());
+        int offset = 0;
 
-                    final int finalI = i;
-                    final BigFraction finalScale = matrix.get(i, finalPivotColumn);
+        for (BigMatrix block : blocks) {
+            for (i = 0; i < block.getRowCount(); i++) {
+                BigInteger divisor = i < row ? pivot : zeroRowDivisor;
 
-                    forAll(matrix, others, m -> m.getRow(finalI).subtractAndSet(m.getRow(finalPivotRow).multiply(finalScale)));
+                for (int col = 0; col < block.getColumnCount(); col++) {
+                    block.set(i, col, new BigFraction(m.getNumerator(i, offset + col), divisor));
                 }
-
-                forAll(matrix, others, m -> m.swapRowsAndSet(finalRow, finalPivotRow));
-                pivotRows[finalPivotColumn] = finalRow;
-                ++row;
             }
 
-            do {
-                ++pivotColumn;
-            } while (pivotColumn < matrix.getColumnCount() && !reduceColumn.test(pivotColumn, pivotRows));
+            offset += block.getColumnCount();
         }
 
         return pivotRows;
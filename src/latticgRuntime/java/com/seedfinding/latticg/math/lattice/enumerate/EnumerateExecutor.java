@@ -0,0 +1,292 @@
+package com.seedfinding.latticg.math.lattice.enumerate;
+
+import com.seedfinding.latticg.math.component.BigMatrix;
+import com.seedfinding.latticg.math.component.BigVector;
+import com.seedfinding.latticg.math.optimize.Optimize;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Spliterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs enumerations on a caller supplied executor rather than on the common fork join pool, which parallel streams
+ * always use.
+ *
+ * <p>Each job starts {@code parallelism} workers on the executor, and every worker owns a deque of subtrees. A worker
+ * takes the newest subtree of its own deque, and when that is empty steals the oldest subtree of another worker, which
+ * is usually the largest one. A worker only splits the subtree it is searching while another worker is idle and the
+ * job holds fewer than {@code maxInFlight} subtrees, so the number of subtrees waiting in memory stays bounded.
+ */
+public final class EnumerateExecutor {
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int maxInFlight;
+
+    /**
+     * Creates an executor using as many workers as the parallelism of the pool
+     */
+    public EnumerateExecutor(ForkJoinPool pool) {
+        this(pool, pool.getParallelism());
+    }
+
+    public EnumerateExecutor(ExecutorService executor, int parallelism) {
+        this(executor, parallelism, 4 * parallelism);
+    }
+
+    /**
+     * @param executor The executor the workers of each job run on
+     * @param parallelism The number of workers of each job
+     * @param maxInFlight The maximum number of subtrees a job holds at once, pending or being searched
+     * @throws IllegalArgumentException If the parallelism is not positive, or the bound on subtrees is below it
+     */
+    public EnumerateExecutor(ExecutorService executor, int parallelism, int maxInFlight) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive, got " + parallelism);
+        }
+
+        if (maxInFlight < parallelism) {
+            throw new IllegalArgumentException("maxInFlight must be at least the parallelism, got " + maxInFlight);
+        }
+
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    public int getMaxInFlight() {
+        return this.maxInFlight;
+    }
+
+    /**
+     * Starts enumerating the lattice points satisfying the constraints, see
+     * {@link EnumerateRt#enumerate(BigMatrix, BigVector, Optimize, BigMatrix, BigVector, EnumerateRt.Strategy)}
+     *
+     * @param action Called with every point, concurrently from several threads
+     * @throws IllegalArgumentException If the constraints are not feasible
+     */
+    public Job enumerate(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin, EnumerateRt.Strategy strategy, Consumer<? super BigVector> action) {
+        return this.execute(EnumerateRt.spliterator(basis, origin, constraints, rootInverse, rootOrigin, strategy), action);
+    }
+
+    /**
+     * Starts passing every element of the given search tree to the action
+     *
+     * @param action Called with every element, concurrently from several threads
+     * @throws RejectedExecutionException If the executor does not accept any worker
+     */
+    public Job execute(Spliterator<BigVector> root, Consumer<? super BigVector> action) {
+        Job job = new Job(root, action);
+
+        for (int i = 0; i < this.parallelism; ++i) {
+            int id = i;
+
+            try {
+                this.executor.execute(() -> job.work(id));
+            } catch (RejectedExecutionException e) {
+                // the workers that did start can finish the job on their own
+                if (i == 0) {
+                    job.fail(e);
+                    throw e;
+                }
+
+                break;
+            }
+        }
+
+        return job;
+    }
+
+    /**
+     * A running enumeration. Its result is the number of points passed to the action.
+     *
+     * <p>Cancelling a job stops every worker after the point it is processing, interrupting is never needed.
+     */
+    public final class Job implements Future<Long> {
+        private final Consumer<? super BigVector> action;
+        // guarded by this, like every other field that is not final or atomic
+        private final Deque<Spliterator<BigVector>>[] deques;
+        private final AtomicLong count = new AtomicLong();
+
+        // the number of subtrees that are pending or being searched, the job is complete once this reaches zero
+        private volatile int outstanding;
+        private volatile int idle;
+        private volatile boolean cancelled;
+        private Throwable failure;
+
+        @SuppressWarnings("unchecked")
+        private Job(Spliterator<BigVector> root, Consumer<? super BigVector> action) {
+            this.action = action;
+            this.deques = new Deque[EnumerateExecutor.this.parallelism];
+
+            for (int i = 0; i < this.deques.length; ++i) {
+                this.deques[i] = new ArrayDeque<>();
+            }
+
+            this.deques[0].addLast(root);
+            this.outstanding = 1;
+        }
+
+        private void work(int id) {
+            try {
+                while (true) {
+                    Spliterator<BigVector> current = null;
+
+                    synchronized (this) {
+                        while (!this.isDone() && (current = this.take(id)) == null) {
+                            this.idle++;
+
+                            try {
+                                this.wait();
+                            } finally {
+                                this.idle--;
+                            }
+                        }
+
+                        if (this.isDone()) {
+                            return;
+                        }
+                    }
+
+                    this.search(id, current);
+
+                    synchronized (this) {
+                        if (--this.outstanding == 0) {
+                            this.notifyAll();
+                        }
+                    }
+                }
+            } catch (Throwable t) {
+                this.fail(t);
+            }
+        }
+
+        private Spliterator<BigVector> take(int id) {
+            Spliterator<BigVector> result = this.deques[id].pollLast();
+
+            for (int i = 1; result == null && i < this.deques.length; ++i) {
+                result = this.deques[(id + i) % this.deques.length].pollFirst();
+            }
+
+            return result;
+        }
+
+        private void search(int id, Spliterator<BigVector> current) {
+            while (!this.cancelled) {
+                if (this.idle > 0 && this.outstanding < EnumerateExecutor.this.maxInFlight) {
+                    Spliterator<BigVector> split = current.trySplit();
+
+                    if (split != null) {
+                        synchronized (this) {
+                            this.outstanding++;
+                            this.deques[id].addLast(split);
+                            this.notifyAll();
+                        }
+                    }
+                }
+
+                if (!current.tryAdvance(this::accept)) {
+                    return;
+                }
+            }
+        }
+
+        private void accept(BigVector point) {
+            this.count.incrementAndGet();
+            this.action.accept(point);
+        }
+
+        private synchronized void fail(Throwable t) {
+            if (!this.isDone()) {
+                this.failure = t;
+                this.stop();
+            }
+        }
+
+        private void stop() {
+            this.cancelled = true;
+
+            for (Deque<Spliterator<BigVector>> deque : this.deques) {
+                deque.clear();
+            }
+
+            this.notifyAll();
+        }
+
+        /**
+         * Returns the number of points passed to the action so far
+         */
+        public long getCount() {
+            return this.count.get();
+        }
+
+        @Override
+        public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+            if (this.isDone()) {
+                return false;
+            }
+
+            this.stop();
+            return true;
+        }
+
+        @Override
+        public synchronized boolean isCancelled() {
+            return this.cancelled && this.failure == null;
+        }
+
+        @Override
+        public synchronized boolean isDone() {
+            return this.cancelled || this.outstanding == 0;
+        }
+
+        @Override
+        public synchronized Long get() throws InterruptedException, ExecutionException {
+            while (!this.isDone()) {
+                this.wait();
+            }
+
+            return this.result();
+        }
+
+        @Override
+        public synchronized Long get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+            while (!this.isDone()) {
+                long remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0) {
+                    throw new TimeoutException();
+                }
+
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+
+            return this.result();
+        }
+
+        private Long result() throws ExecutionException {
+            if (this.failure != null) {
+                throw new ExecutionException(this.failure);
+            } else if (this.cancelled) {
+                throw new CancellationException();
+            }
+
+            return this.count.get();
+        }
+    }
+}
@@ -4,21 +4,393 @@ import com.seedfinding.latticg.math.component.BigFraction;
 import com.seedfinding.latticg.math.component.BigMatrix;
 import com.seedfinding.latticg.math.component.BigVector;
 import com.seedfinding.latticg.math.optimize.Optimize;
+import com.seedfinding.latticg.util.Pair;
+import com.seedfinding.latticg.util.SerializeRt;
 
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 public final class EnumerateRt {
+    // how many values of the sharded coordinate the estimate is sampled at
+    private static final int SHARD_SAMPLES = 4096;
+
     private EnumerateRt() {
     }
 
     public static Stream<BigVector> enumerate(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin) {
+        return enumerate(basis, origin, constraints, rootInverse, rootOrigin, Strategy.AUTOMATIC);
+    }
+
+    public static Stream<BigVector> enumerate(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin, Strategy strategy) {
+        return StreamSupport.stream(spliterator(basis, origin, constraints, rootInverse, rootOrigin, strategy), true);
+    }
+
+    /**
+     * Returns the search tree of the lattice points satisfying the constraints, for callers that schedule the search
+     * themselves, such as {@link EnumerateExecutor}
+     *
+     * @throws IllegalArgumentException If the constraints are not feasible
+     */
+    public static Spliterator<BigVector> spliterator(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin, Strategy strategy) {
+        if (strategy == Strategy.GRAM_SCHMIDT) {
+            return gramSchmidtSearch(basis, origin, constraints, rootInverse, rootOrigin).spliterator();
+        }
+
+        FastSearch fast = strategy == Strategy.AUTOMATIC ? fastSearch(basis, origin, constraints, rootInverse, rootOrigin) : null;
+
+        if (fast != null) {
+            return fast.spliterator();
+        }
+
+        return new TransformSpliterator(searchTree(basis, constraints, rootInverse, rootOrigin, strategy).spliterator(), x -> origin.add(basis.multiply(x)));
+    }
+
+    public static LongStream enumerateRow(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin, int row) {
+        return enumerateRow(basis, origin, constraints, rootInverse, rootOrigin, row, Strategy.AUTOMATIC);
+    }
+
+    /**
+     * Enumerates a single row of the lattice points satisfying the constraints, such as the first seed of a reversal,
+     * without building the points themselves. Since different points can share a row, the stream can contain
+     * duplicates. Rows too wide for a {@code long} are truncated to their low 64 bits, which is what a seed of a
+     * modulus of {@code 2^64} needs.
+     *
+     * @throws IllegalArgumentException If the constraints are not feasible
+     * @throws ArithmeticException If the row of some point is not an integer
+     */
+    public static LongStream enumerateRow(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin, int row, Strategy strategy) {
+        return StreamSupport.longStream(rowSpliterator(basis, origin, constraints, rootInverse, rootOrigin, row, strategy), true);
+    }
+
+    /**
+     * Returns the search tree of {@link #enumerateRow(BigMatrix, BigVector, Optimize, BigMatrix, BigVector, int, Strategy)}
+     *
+     * @throws IllegalArgumentException If the constraints are not feasible
+     */
+    public static Spliterator.OfLong rowSpliterator(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin, int row, Strategy strategy) {
+        if (row < 0 || row >= basis.getRowCount()) {
+            throw new IndexOutOfBoundsException("Index " + row + ", size " + basis.getRowCount());
+        }
+
+        if (strategy == Strategy.GRAM_SCHMIDT) {
+            return new ProjectionSpliterator(gramSchmidtSearch(basis, origin, constraints, rootInverse, rootOrigin).spliterator(), point -> toLong(point.get(row)));
+        }
+
+        FastSearch fast = strategy == Strategy.AUTOMATIC ? fastSearch(basis, origin, constraints, rootInverse, rootOrigin) : null;
+
+        if (fast != null) {
+            return fast.rowSpliterator(row);
+        }
+
+        // only the one row of the basis is needed, rather than the whole product
+        BigVector gradient = basis.getRow(row);
+        BigFraction offset = origin.get(row);
+        return new ProjectionSpliterator(searchTree(basis, constraints, rootInverse, rootOrigin, strategy).spliterator(), x -> toLong(gradient.dot(x).add(offset)));
+    }
+
+    /**
+     * Starts a sequential enumeration of the lattice points satisfying the constraints, whose position can be saved
+     *
+     * @throws IllegalArgumentException If the constraints are not feasible
+     */
+    public static EnumerationCursor cursor(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin, Strategy strategy) {
+        long fingerprint = fingerprint(basis, origin, constraints);
+
+        if (strategy == Strategy.GRAM_SCHMIDT) {
+            Walk walk = gramSchmidtSearch(basis, origin, constraints, rootInverse, rootOrigin).spliterator();
+            return new EnumerationCursor(EnumerationCursor.GRAM_SCHMIDT, fingerprint, walk);
+        }
+
+        FastSearch fast = strategy == Strategy.AUTOMATIC ? fastSearch(basis, origin, constraints, rootInverse, rootOrigin) : null;
+
+        if (fast != null) {
+            return new EnumerationCursor(EnumerationCursor.PRIMITIVE_BOX, fingerprint, fast.spliterator());
+        }
+
+        Walk walk = new SearchCursor(searchTree(basis, constraints, rootInverse, rootOrigin, strategy), basis.getRowCount(), basis, origin);
+        return new EnumerationCursor(searchKind(strategy), fingerprint, walk);
+    }
+
+    /**
+     * Resumes an enumeration from a {@link EnumerationCursor#checkpoint()} taken on the same problem with the same
+     * strategy
+     *
+     * @throws IllegalArgumentException If the constraints are not feasible, or the checkpoint was not taken on this
+     * problem
+     */
+    public static EnumerationCursor resume(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin, Strategy strategy, byte[] checkpoint) {
+        EnumerationCursor cursor = cursor(basis, origin, constraints, rootInverse, rootOrigin, strategy);
+        cursor.restore(checkpoint);
+        return cursor;
+    }
+
+    /**
+     * Estimates how many nodes the enumeration of the lattice points satisfying the constraints visits at each level,
+     * and how many points it finds, without running it. This is cheap next to the enumeration, so it can be used to
+     * turn down or shard a search beforehand, or to pick the cheapest of several sets of constraints.
+     *
+     * @throws IllegalArgumentException If the constraints are not feasible
+     */
+    public static EnumerationEstimate estimate(BigMatrix basis, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin) {
+        try {
+            return EnumerationEstimate.create(basis, constraints, rootInverse, rootOrigin);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("constraints are not feasible", e);
+        }
+    }
+
+    public static List<Shard> shards(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin, int count) {
+        return shards(basis, origin, constraints, rootInverse, rootOrigin, count, Strategy.AUTOMATIC);
+    }
+
+    /**
+     * Splits the enumeration of the lattice points satisfying the constraints into {@code count} disjoint shards that
+     * can be searched independently, see {@link Shard}. The range of the first coordinate the search fixes is cut so
+     * that each shard holds about the same estimated number of points, so some shards can be empty when that range is
+     * narrow.
+     *
+     * @throws IllegalArgumentException If the count is not positive, or the constraints are not feasible
+     */
+    public static List<Shard> shards(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin, int count, Strategy strategy) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive, got " + count);
+        }
+
+        int size = basis.getRowCount();
+        int kind;
+        int coordinate;
+
+        if (strategy == Strategy.GRAM_SCHMIDT) {
+            kind = EnumerationCursor.GRAM_SCHMIDT;
+            coordinate = size - 1;
+        } else if (strategy == Strategy.AUTOMATIC && fastSearch(basis, origin, constraints, rootInverse, rootOrigin) != null) {
+            kind = EnumerationCursor.PRIMITIVE_BOX;
+            coordinate = size - 1;
+        } else {
+            kind = searchKind(strategy);
+            coordinate = searchTree(basis, constraints, rootInverse, rootOrigin, strategy).getNextCoordinate();
+        }
+
+        BigVector gradient = rootInverse.getRow(coordinate);
+        BigFraction offset = rootOrigin.get(coordinate);
+        BigFraction minValue;
+        BigFraction maxValue;
+
+        try {
+            minValue = constraints.copy().minimize(gradient).getSecond().subtract(offset);
+            maxValue = constraints.copy().maximize(gradient).getSecond().subtract(offset);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("constraints are not feasible", e);
+        }
+
+        BigInteger min = minValue.ceil();
+        BigInteger width = maxValue.floor().subtract(min).add(BigInteger.ONE).max(BigInteger.ZERO);
+        long fingerprint = fingerprint(basis, origin, constraints);
+        List<Shard> shards = new ArrayList<>(count);
+
+        // no integer value of the coordinate fits the constraints, so there is nothing to split
+        if (width.signum() == 0) {
+            for (int j = 0; j < count; ++j) {
+                shards.add(new Shard(j, count, strategy, kind, fingerprint, coordinate, min, min.subtract(BigInteger.ONE), 0.0D));
+            }
+
+            return shards;
+        }
+
+        // split the range into buckets of consecutive values, and weigh each bucket by the volume of the slice of the
+        // region through its middle. over a box the coordinate is a sum of independent uniform variables, which is
+        // close to normal, and otherwise the region is modelled as an ellipsoid like in the estimates of search nodes
+        int buckets = width.min(BigInteger.valueOf(SHARD_SAMPLES)).intValueExact();
+        BigInteger[] starts = new BigInteger[buckets + 1];
+        double[] weights = new double[buckets];
+        double center = minValue.add(maxValue).toDouble() / 2.0D;
+        double halfWidth = maxValue.subtract(minValue).toDouble() / 2.0D;
+        double exponent = (size - 1) / 2.0D;
+        double variance = 0.0D;
+        Pair<BigVector, BigVector> box = constraints.getBoxBounds();
+
+        if (box != null) {
+            for (int row = 0; row < size; ++row) {
+                double side = gradient.get(row).multiply(box.getSecond().get(row).subtract(box.getFirst().get(row))).toDouble();
+                variance += side * side / 12.0D;
+            }
+        }
+
+        for (int i = 0; i <= buckets; ++i) {
+            starts[i] = min.add(width.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(buckets)));
+        }
+
+        double total = 0.0D;
+
+        for (int i = 0; i < buckets; ++i) {
+            double length = starts[i + 1].subtract(starts[i]).doubleValue();
+            double middle = starts[i].doubleValue() + (length - 1.0D) / 2.0D - center;
+
+            if (variance > 0.0D) {
+                weights[i] = length * Math.exp(-middle * middle / (2.0D * variance));
+            } else {
+                double u = halfWidth > 0.0D ? middle / halfWidth : 0.0D;
+                weights[i] = length * Math.pow(Math.max(0.0D, 1.0D - u * u), exponent);
+            }
+
+            total += weights[i];
+        }
+
+        if (!(total > 0.0D)) {
+            for (int i = 0; i < buckets; ++i) {
+                weights[i] = starts[i + 1].subtract(starts[i]).doubleValue();
+                total += weights[i];
+            }
+        }
+
+        double taken = 0.0D;
+        int next = 0;
+
+        for (int j = 0; j < count; ++j) {
+            int start = next;
+            double target = total * (j + 1) / count;
+            double share = 0.0D;
+
+            // give each bucket to the shard holding the cut through its middle, and everything left to the last shard
+            while (next < buckets && (j == count - 1 || taken + weights[next] / 2.0D < target)) {
+                taken += weights[next];
+                share += weights[next];
+                next++;
+            }
+
+            shards.add(new Shard(j, count, strategy, kind, fingerprint, coordinate, starts[start], starts[next].subtract(BigInteger.ONE), total > 0.0D ? share / total : 0.0D));
+        }
+
+        return shards;
+    }
+
+    public static Stream<BigVector> enumerate(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin, Shard shard) {
+        return StreamSupport.stream(spliterator(basis, origin, constraints, rootInverse, rootOrigin, shard), true);
+    }
+
+    /**
+     * Returns the search tree of the lattice points of one shard of
+     * {@link #shards(BigMatrix, BigVector, Optimize, BigMatrix, BigVector, int, Strategy)}, which must be given the same
+     * problem as the shard was made from
+     *
+     * @throws IllegalArgumentException If the constraints are not feasible, or the shard was made from a different
+     * problem
+     */
+    public static Spliterator<BigVector> spliterator(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin, Shard shard) {
+        if (shard.getFingerprint() != fingerprint(basis, origin, constraints)) {
+            throw new IllegalArgumentException("The shard was made from a different problem");
+        }
+
+        int size = basis.getRowCount();
+        Strategy strategy = shard.getStrategy();
+
+        if (strategy == Strategy.GRAM_SCHMIDT) {
+            checkShard(shard, EnumerationCursor.GRAM_SCHMIDT, size - 1);
+            return gramSchmidtSearch(basis, origin, constraints, rootInverse, rootOrigin).restrict(size - 1, shard.getLow(), shard.getHigh()).spliterator();
+        }
+
+        FastSearch fast = strategy == Strategy.AUTOMATIC ? fastSearch(basis, origin, constraints, rootInverse, rootOrigin) : null;
+
+        if (fast != null) {
+            checkShard(shard, EnumerationCursor.PRIMITIVE_BOX, size - 1);
+            return fast.spliterator(clamp(shard.getLow()), clamp(shard.getHigh()), shard.getShare());
+        }
+
+        SearchNode root = searchTree(basis, constraints, rootInverse, rootOrigin, strategy);
+        checkShard(shard, searchKind(strategy), root.getNextCoordinate());
+        return new TransformSpliterator(root.restrict(shard.getLow(), shard.getHigh(), shard.getShare()).spliterator(), x -> origin.add(basis.multiply(x)));
+    }
+
+    private static int searchKind(Strategy strategy) {
+        return strategy == Strategy.ADAPTIVE ? EnumerationCursor.ADAPTIVE_LINEAR_PROGRAMMING : EnumerationCursor.LINEAR_PROGRAMMING;
+    }
+
+    private static void checkShard(Shard shard, int kind, int coordinate) {
+        if (shard.getKind() != kind || shard.getCoordinate() != coordinate) {
+            throw new IllegalArgumentException("The shard was made from a different problem");
+        }
+    }
+
+    private static long clamp(BigInteger value) {
+        return value.max(BigInteger.valueOf(Long.MIN_VALUE)).min(BigInteger.valueOf(Long.MAX_VALUE)).longValue();
+    }
+
+    /**
+     * Returns the first 8 bytes of the SHA-256 digest of the basis, the origin and the constraints, which tells apart the
+     * problems a checkpoint or shard can be taken on
+     */
+    static long fingerprint(BigMatrix basis, BigVector origin, Optimize constraints) {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        SerializeRt.writeVarInt(buf, basis.getRowCount());
+        SerializeRt.writeVarInt(buf, basis.getColumnCount());
+
+        for (int row = 0; row < basis.getRowCount(); ++row) {
+            for (int col = 0; col < basis.getColumnCount(); ++col) {
+                SerializeRt.writeBigInt(buf, basis.get(row, col).getNumerator());
+                SerializeRt.writeBigInt(buf, basis.get(row, col).getDenominator());
+            }
+        }
+
+        SerializeRt.writeVarInt(buf, origin.getDimension());
+
+        for (int i = 0; i < origin.getDimension(); ++i) {
+            SerializeRt.writeBigInt(buf, origin.get(i).getNumerator());
+            SerializeRt.writeBigInt(buf, origin.get(i).getDenominator());
+        }
+
+        constraints.writeConstraints(buf);
+
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(buf.toByteArray())).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has SHA-256
+            throw new AssertionError(e);
+        }
+    }
+
+    static long toLong(BigFraction value) {
+        if (!value.getDenominator().equals(BigInteger.ONE)) {
+            throw new ArithmeticException("value is not an integer: " + value);
+        }
+
+        return value.getNumerator().longValue();
+    }
+
+    private static GramSchmidtSearch gramSchmidtSearch(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin) {
+        try {
+            return GramSchmidtSearch.create(basis, origin, constraints, rootInverse, rootOrigin);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("constraints are not feasible", e);
+        }
+    }
+
+    /**
+     * Returns the tables for a search in primitive arithmetic, or null if the constraints are not a box that allows it
+     */
+    private static FastSearch fastSearch(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin) {
+        Pair<BigVector, BigVector> box = constraints.getBoxBounds();
+        return box == null ? null : FastSearch.create(basis, origin, box.getFirst(), box.getSecond(), rootInverse, rootOrigin);
+    }
+
+    /**
+     * Returns the root of the tree of the coordinates, rather than the points, satisfying the constraints, which fixes
+     * one coordinate per level by linear programming
+     */
+    private static SearchNode searchTree(BigMatrix basis, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin, Strategy strategy) {
         int rootSize = basis.getRowCount();
         BigVector rootFixed = new BigVector(rootSize);
         Optimize rootConstraints = constraints.copy();
+        Pair<BigVector, BigVector> box = constraints.getBoxBounds();
 
         List<BigFraction> widths = new ArrayList<>();
         List<Integer> order = new ArrayList<>();
@@ -32,16 +404,48 @@ public final class EnumerateRt {
 
         order.sort(Comparator.comparing(i -> widths.get(i)));
 
-        try {
-
+        List<BigFraction> extents = new ArrayList<>();
 
-            SearchNode root = new SearchNode(rootSize, 0, rootInverse, rootOrigin, rootFixed, rootConstraints, order);
+        for (int i = 0; i < rootSize; ++i) {
+            if (box != null) {
+                extents.add(box.getSecond().get(i).subtract(box.getFirst().get(i)));
+            } else {
+                BigVector gradient = BigVector.basis(rootSize, i);
+                BigFraction min = constraints.copy().minimize(gradient).getSecond();
+                BigFraction max = constraints.copy().maximize(gradient).getSecond();
+                extents.add(max.subtract(min));
+            }
+        }
 
-            return StreamSupport.stream(root.spliterator(), true)
-                .map(basis::multiply)
-                .map(origin::add);
+        try {
+            return new SearchNode(rootSize, 0, rootInverse, rootOrigin, rootFixed, rootConstraints, order, strategy == Strategy.ADAPTIVE, SearchNode.estimate(widths, extents, basis));
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("constraints are not feasible", e);
         }
     }
+
+    /**
+     * How the search tree is walked
+     */
+    public enum Strategy {
+        /**
+         * Use primitive arithmetic for boxes that allow it, and linear programming otherwise
+         */
+        AUTOMATIC,
+        /**
+         * Bound every coordinate by solving a linear program at each node of the tree
+         */
+        LINEAR_PROGRAMMING,
+        /**
+         * Like {@link #LINEAR_PROGRAMMING}, but fix next the coordinate with the fewest integer values left at each node
+         * rather than following one order fixed at the root. This solves a linear program per coordinate left at every
+         * node, and pays off when many branches of the tree turn out to be empty.
+         */
+        ADAPTIVE,
+        /**
+         * Bound every coordinate with the Gram-Schmidt data of the basis, in a Schnorr-Euchner walk, and only check the
+         * constraints at the leaves
+         */
+        GRAM_SCHMIDT
+    }
 }
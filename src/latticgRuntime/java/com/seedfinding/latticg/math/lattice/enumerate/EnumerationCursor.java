@@ -0,0 +1,115 @@
+package com.seedfinding.latticg.math.lattice.enumerate;
+
+import com.seedfinding.latticg.math.component.BigVector;
+import com.seedfinding.latticg.util.DeserializeRt;
+import com.seedfinding.latticg.util.SerializeRt;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A sequential enumeration whose position can be saved, so that a long search can be stopped and picked up again
+ * later, possibly in another process. Create one with
+ * {@link EnumerateRt#cursor(com.seedfinding.latticg.math.component.BigMatrix, BigVector, com.seedfinding.latticg.math.optimize.Optimize, com.seedfinding.latticg.math.component.BigMatrix, BigVector, EnumerateRt.Strategy)}
+ * and resume it by passing a {@link #checkpoint()} to
+ * {@link EnumerateRt#resume(com.seedfinding.latticg.math.component.BigMatrix, BigVector, com.seedfinding.latticg.math.optimize.Optimize, com.seedfinding.latticg.math.component.BigMatrix, BigVector, EnumerateRt.Strategy, byte[])}
+ * with the same problem.
+ *
+ * <p>A checkpoint holds the path of fixed coordinates to the current point, together with where the walk stands in the
+ * remaining values of each of them. It is written with the varint encoding of {@link SerializeRt}.
+ */
+public final class EnumerationCursor {
+    private static final int VERSION = 2;
+
+    // the kinds of search tree, which must match between a checkpoint and the cursor it is restored into
+    static final int PRIMITIVE_BOX = 0;
+    static final int LINEAR_PROGRAMMING = 1;
+    static final int GRAM_SCHMIDT = 2;
+    static final int ADAPTIVE_LINEAR_PROGRAMMING = 3;
+
+    private final int kind;
+    private final long fingerprint;
+    private final Walk walk;
+    private boolean hasPoint;
+
+    EnumerationCursor(int kind, long fingerprint, Walk walk) {
+        this.kind = kind;
+        this.fingerprint = fingerprint;
+        this.walk = walk;
+    }
+
+    /**
+     * Moves to the next point, or returns false if there is none left
+     */
+    public boolean advance() {
+        this.hasPoint = this.walk.advance();
+        return this.hasPoint;
+    }
+
+    /**
+     * Returns the point the cursor is at
+     *
+     * @throws IllegalStateException If the last call to {@link #advance()} did not return true
+     */
+    public BigVector point() {
+        this.checkHasPoint();
+        return this.walk.point();
+    }
+
+    /**
+     * Returns one row of the point the cursor is at, without building the whole point when the search allows it
+     *
+     * @throws IllegalStateException If the last call to {@link #advance()} did not return true
+     * @throws ArithmeticException If the row is not an integer
+     */
+    public long row(int row) {
+        this.checkHasPoint();
+        return this.walk.row(row);
+    }
+
+    private void checkHasPoint() {
+        if (!this.hasPoint) {
+            throw new IllegalStateException("The cursor is not at a point");
+        }
+    }
+
+    /**
+     * Saves the position of the cursor. Resuming from it continues with the point after the current one.
+     */
+    public byte[] checkpoint() {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        SerializeRt.writeVarInt(buf, VERSION);
+        SerializeRt.writeVarInt(buf, this.kind);
+        SerializeRt.writeLong(buf, this.fingerprint);
+        this.walk.save(buf);
+        return buf.toByteArray();
+    }
+
+    /**
+     * Moves this fresh cursor to a saved position
+     *
+     * @throws IllegalArgumentException If the checkpoint was not taken on the same problem
+     */
+    void restore(byte[] checkpoint) {
+        ByteBuffer buf = ByteBuffer.wrap(checkpoint);
+
+        try {
+            if (DeserializeRt.readVarInt(buf) != VERSION) {
+                throw new IllegalArgumentException("Unsupported checkpoint version");
+            }
+
+            if (DeserializeRt.readVarInt(buf) != this.kind || DeserializeRt.readLong(buf) != this.fingerprint) {
+                throw new IllegalArgumentException("The checkpoint was taken on a different problem");
+            }
+
+            this.walk.restore(buf);
+        } catch (BufferUnderflowException | ArithmeticException e) {
+            throw new IllegalArgumentException("Malformed checkpoint", e);
+        }
+
+        if (buf.hasRemaining()) {
+            throw new IllegalArgumentException("Malformed checkpoint");
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.seedfinding.latticg.math.lattice.enumerate;
+
+import com.seedfinding.latticg.math.component.BigFraction;
+import com.seedfinding.latticg.math.component.BigMatrix;
+import com.seedfinding.latticg.math.component.BigVector;
+import com.seedfinding.latticg.math.optimize.Optimize;
+import com.seedfinding.latticg.util.Pair;
+
+import java.math.BigInteger;
+
+/**
+ * The expected size of the enumeration of the lattice points satisfying some constraints, known before running it.
+ *
+ * <p>The bounding box of the constraints is scaled so that each side has length two, and the search then fixes the
+ * coordinates of the points from the last Gram-Schmidt vector of the scaled basis to the first, within a ball around
+ * the center of the box. By the Gaussian heuristic, the number of nodes with the last {@code k} coordinates fixed is
+ * about the volume of a {@code k}-ball of the search radius over the volume of the projection of the lattice onto the
+ * last {@code k} Gram-Schmidt vectors, capped by the number of combinations of the exact ranges of those coordinates.
+ * The number of solutions is likewise the volume of the box over the volume of the lattice, with the same cap. For
+ * constraints that are not a box, the bounding box stands in for them, which overestimates both.
+ *
+ * @see EnumerateRt#estimate(BigMatrix, Optimize, BigMatrix, BigVector)
+ */
+public final class EnumerationEstimate {
+    // nodes[k - 1] is the estimated number of nodes with the last k coordinates fixed
+    private final double[] nodes;
+    private final double solutions;
+
+    /**
+     * @param norms    the squared lengths of the Gram-Schmidt vectors of the scaled basis
+     * @param radiusSq the squared radius of the search
+     * @param ranges   the number of integer values of each coordinate over the constraints
+     */
+    EnumerationEstimate(double[] norms, double radiusSq, double[] ranges) {
+        int size = norms.length;
+        this.nodes = new double[size];
+
+        // logGamma[k] = log(gamma(k / 2 + 1)), using gamma(x + 1) = x * gamma(x)
+        double[] logGamma = new double[size + 1];
+
+        if (size > 0) {
+            logGamma[1] = 0.5D * Math.log(Math.PI) - Math.log(2.0D);
+        }
+
+        for (int k = 2; k <= size; ++k) {
+            logGamma[k] = logGamma[k - 2] + Math.log(k / 2.0D);
+        }
+
+        double logVolume = 0.0D;
+        double logRanges = 0.0D;
+
+        for (int k = 1; k <= size; ++k) {
+            int level = size - k;
+
+            logVolume += 0.5D * Math.log(Math.PI * radiusSq) - 0.5D * Math.log(norms[level]);
+            logRanges += Math.log(Math.max(1.0D, ranges[level]));
+
+            this.nodes[k - 1] = Math.exp(Math.min(logVolume - logGamma[k], logRanges));
+        }
+
+        double logPoints = size * Math.log(2.0D);
+
+        for (int level = 0; level < size; ++level) {
+            logPoints -= 0.5D * Math.log(norms[level]);
+        }
+
+        this.solutions = Math.exp(Math.min(logPoints, logRanges));
+    }
+
+    /**
+     * Estimates the enumeration of the given problem
+     *
+     * @throws IllegalArgumentException If the constraints are not feasible, or the basis is singular
+     */
+    static EnumerationEstimate create(BigMatrix basis, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin) {
+        int size = basis.getRowCount();
+        Pair<BigVector, BigVector> box = constraints.getBoxBounds();
+        BigFraction[] lower = new BigFraction[size];
+        BigFraction[] upper = new BigFraction[size];
+
+        for (int row = 0; row < size; ++row) {
+            if (box != null) {
+                lower[row] = box.getFirst().get(row);
+                upper[row] = box.getSecond().get(row);
+            } else {
+                BigVector gradient = BigVector.basis(size, row);
+                lower[row] = constraints.copy().minimize(gradient).getSecond();
+                upper[row] = constraints.copy().maximize(gradient).getSecond();
+            }
+        }
+
+        // scale row r by 2 / (upper - lower + 1) as in FastSearch, so that the box lands in the unit cube around its
+        // scaled center
+        double[][] columns = new double[size][size];
+        double radiusSq = 0.0D;
+
+        for (int row = 0; row < size; ++row) {
+            BigFraction width = upper[row].subtract(lower[row]);
+            BigFraction scale = new BigFraction(BigFraction.TWO).divide(width.add(BigFraction.ONE));
+
+            for (int col = 0; col < size; ++col) {
+                columns[col][row] = basis.get(row, col).multiply(scale).toDouble();
+            }
+
+            double halfWidth = width.multiply(scale).toDouble() / 2.0D;
+            radiusSq += halfWidth * halfWidth;
+        }
+
+        // modified Gram-Schmidt over the columns of the scaled basis
+        double[] norms = new double[size];
+        double[][] star = new double[size][];
+
+        for (int j = 0; j < size; ++j) {
+            star[j] = columns[j].clone();
+
+            for (int i = 0; i < j; ++i) {
+                double mu = dot(star[j], star[i]) / norms[i];
+
+                for (int k = 0; k < size; ++k) {
+                    star[j][k] -= mu * star[i][k];
+                }
+            }
+
+            norms[j] = dot(star[j], star[j]);
+
+            if (!(norms[j] > 0.0D)) {
+                throw new IllegalArgumentException("basis is singular");
+            }
+        }
+
+        // the exact range of each coordinate, x = rootInverse * y - rootOrigin, by interval arithmetic over a box and
+        // by linear programming otherwise
+        double[] ranges = new double[size];
+
+        for (int i = 0; i < size; ++i) {
+            BigFraction min;
+            BigFraction max;
+
+            if (box != null) {
+                min = rootOrigin.get(i).negate();
+                max = min;
+
+                for (int row = 0; row < size; ++row) {
+                    BigFraction g = rootInverse.get(i, row);
+
+                    if (g.signum() > 0) {
+                        min = min.add(g.multiply(lower[row]));
+                        max = max.add(g.multiply(upper[row]));
+                    } else if (g.signum() < 0) {
+                        min = min.add(g.multiply(upper[row]));
+                        max = max.add(g.multiply(lower[row]));
+                    }
+                }
+            } else {
+                min = constraints.copy().minimize(rootInverse.getRow(i)).getSecond().subtract(rootOrigin.get(i));
+                max = constraints.copy().maximize(rootInverse.getRow(i)).getSecond().subtract(rootOrigin.get(i));
+            }
+
+            ranges[i] = max.floor().subtract(min.ceil()).add(BigInteger.ONE).max(BigInteger.ZERO).doubleValue();
+        }
+
+        return new EnumerationEstimate(norms, radiusSq, ranges);
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double result = 0.0D;
+
+        for (int i = 0; i < a.length; ++i) {
+            result += a[i] * b[i];
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of levels of the search tree, one per coordinate
+     */
+    public int getLevelCount() {
+        return this.nodes.length;
+    }
+
+    /**
+     * Returns the estimated number of nodes of the search tree with the given number of coordinates fixed, from one up
+     * to the level count, the last of which are the leaves
+     */
+    public double getNodes(int fixed) {
+        if (fixed < 1 || fixed > this.nodes.length) {
+            throw new IndexOutOfBoundsException("Index " + fixed + ", range 1-" + this.nodes.length);
+        }
+
+        return this.nodes[fixed - 1];
+    }
+
+    /**
+     * Returns the estimated number of nodes of the whole search tree
+     */
+    public double getNodes() {
+        double total = 0.0D;
+
+        for (double count : this.nodes) {
+            total += count;
+        }
+
+        return total;
+    }
+
+    /**
+     * Returns the estimated number of lattice points satisfying the constraints
+     */
+    public double getSolutions() {
+        return this.solutions;
+    }
+
+    @Override
+    public String toString() {
+        return "EnumerationEstimate{nodes=" + this.getNodes() + ", solutions=" + this.solutions + "}";
+    }
+}
@@ -0,0 +1,315 @@
+package com.seedfinding.latticg.math.lattice.enumerate;
+
+import com.seedfinding.latticg.math.component.BigFraction;
+import com.seedfinding.latticg.math.component.BigMatrix;
+import com.seedfinding.latticg.math.component.BigVector;
+
+import java.math.BigInteger;
+import java.util.Spliterator;
+
+/**
+ * Precomputed tables for enumerating the lattice points of a box using only primitive arithmetic.
+ *
+ * <p>The box {@code lower <= origin + basis * x <= upper} is scaled so that it fits inside the unit cube, which in turn
+ * fits inside a ball of radius {@code sqrt(size)}. Coordinates are then fixed from the last Gram-Schmidt vector to the
+ * first, with the range of each coordinate given by the remaining radius of that ball (computed in {@code double}) and
+ * by the exact range of that coordinate over the whole box. Both bounds are over-approximations, so every leaf is
+ * checked exactly against the box in {@code long} arithmetic, falling back to {@link BigInteger} on overflow.
+ */
+final class FastSearch {
+    // a reduced basis whose Gram-Schmidt vectors are further than this from orthogonal is handed to the exact search
+    private static final double MAX_ORTHOGONALITY_ERROR = 1.0e-9;
+    // slack given to every double comparison, since leaves are checked exactly it only needs to cover rounding
+    private static final double EPSILON = 1.0e-7;
+    // above this many estimated nodes, the per node simplex of the exact search visits far fewer nodes
+    private static final double MAX_ESTIMATED_NODES = 1.0e9;
+
+    final int size;
+    final long[][] basis;
+    final long[] origin;
+    final long[] lower;
+    final long[] upper;
+
+    final double[][] mu;
+    final double[] norms;
+    final double[] target;
+    final double radiusSq;
+
+    final long[] minCoords;
+    final long[] maxCoords;
+
+    private FastSearch(int size, long[][] basis, long[] origin, long[] lower, long[] upper, double[][] mu, double[] norms, double[] target, double radiusSq, long[] minCoords, long[] maxCoords) {
+        this.size = size;
+        this.basis = basis;
+        this.origin = origin;
+        this.lower = lower;
+        this.upper = upper;
+        this.mu = mu;
+        this.norms = norms;
+        this.target = target;
+        this.radiusSq = radiusSq;
+        this.minCoords = minCoords;
+        this.maxCoords = maxCoords;
+    }
+
+    /**
+     * Builds the tables for the given problem if it qualifies for primitive arithmetic, that is, if every entry of the
+     * basis, the origin and the box is an integer fitting comfortably in a {@code long}, the Gram-Schmidt data is
+     * accurate in {@code double} and the estimated size of the search tree is reasonable.
+     *
+     * @return The tables, or {@code null} if the exact search should be used instead
+     */
+    static FastSearch create(BigMatrix basis, BigVector origin, BigVector lower, BigVector upper, BigMatrix rootInverse, BigVector rootOrigin) {
+        int size = basis.getRowCount();
+
+        if (size == 0 || basis.getColumnCount() != size) {
+            return null;
+        }
+
+        long[][] longBasis = new long[size][];
+
+        for (int row = 0; row < size; ++row) {
+            longBasis[row] = toLongs(basis.getRow(row));
+
+            if (longBasis[row] == null) {
+                return null;
+            }
+        }
+
+        long[] longOrigin = toLongs(origin);
+        long[] longLower = toLongs(lower);
+        long[] longUpper = toLongs(upper);
+
+        if (longOrigin == null || longLower == null || longUpper == null) {
+            return null;
+        }
+
+        // scale row r by 2 / (upper - lower + 1), so that every point of the box lands in the open unit cube around
+        // the scaled center
+        double[][] columns = new double[size][size];
+        double[] scaledTarget = new double[size];
+        double radiusSq = 0.0D;
+
+        for (int row = 0; row < size; ++row) {
+            BigInteger width = upper.get(row).getNumerator().subtract(lower.get(row).getNumerator());
+
+            if (width.signum() < 0) {
+                return null;
+            }
+
+            BigFraction scale = new BigFraction(BigFraction.TWO, width.add(BigInteger.ONE));
+
+            for (int col = 0; col < size; ++col) {
+                columns[col][row] = basis.get(row, col).multiply(scale).toDouble();
+            }
+
+            scaledTarget[row] = lower.get(row).add(upper.get(row)).multiply(BigFraction.HALF).subtract(origin.get(row)).multiply(scale).toDouble();
+
+            double halfWidth = width.doubleValue() / (width.doubleValue() + 1.0D);
+            radiusSq += halfWidth * halfWidth;
+        }
+
+        radiusSq = radiusSq * (1.0D + EPSILON) + EPSILON;
+
+        // modified Gram-Schmidt over the columns of the scaled basis
+        double[][] mu = new double[size][size];
+        double[] norms = new double[size];
+        double[][] star = new double[size][];
+
+        for (int j = 0; j < size; ++j) {
+            star[j] = columns[j].clone();
+
+            for (int i = 0; i < j; ++i) {
+                mu[j][i] = dot(star[j], star[i]) / norms[i];
+
+                for (int k = 0; k < size; ++k) {
+                    star[j][k] -= mu[j][i] * star[i][k];
+                }
+            }
+
+            norms[j] = dot(star[j], star[j]);
+
+            if (!(norms[j] > 0.0D) || Double.isInfinite(norms[j])) {
+                return null;
+            }
+        }
+
+        for (int j = 0; j < size; ++j) {
+            for (int i = 0; i < j; ++i) {
+                if (Math.abs(dot(star[i], star[j])) > MAX_ORTHOGONALITY_ERROR * Math.sqrt(norms[i] * norms[j])) {
+                    return null;
+                }
+            }
+        }
+
+        double[] target = new double[size];
+
+        for (int i = 0; i < size; ++i) {
+            target[i] = dot(scaledTarget, star[i]) / norms[i];
+        }
+
+        // the exact range of each coordinate over the whole box, x = rootInverse * y - rootOrigin
+        long[] minCoords = new long[size];
+        long[] maxCoords = new long[size];
+
+        for (int i = 0; i < size; ++i) {
+            BigFraction min = rootOrigin.get(i).negate();
+            BigFraction max = min;
+
+            for (int row = 0; row < size; ++row) {
+                BigFraction g = rootInverse.get(i, row);
+
+                if (g.signum() > 0) {
+                    min = min.add(g.multiply(lower.get(row)));
+                    max = max.add(g.multiply(upper.get(row)));
+                } else if (g.signum() < 0) {
+                    min = min.add(g.multiply(upper.get(row)));
+                    max = max.add(g.multiply(lower.get(row)));
+                }
+            }
+
+            BigInteger ceil = min.ceil();
+            BigInteger floor = max.floor();
+
+            if (ceil.bitLength() > 62 || floor.bitLength() > 62) {
+                return null;
+            }
+
+            minCoords[i] = ceil.longValue();
+            maxCoords[i] = floor.longValue();
+        }
+
+        FastSearch search = new FastSearch(size, longBasis, longOrigin, longLower, longUpper, mu, norms, target, radiusSq, minCoords, maxCoords);
+
+        if (search.estimateNodes() > MAX_ESTIMATED_NODES) {
+            return null;
+        }
+
+        return search;
+    }
+
+    private static long[] toLongs(BigVector vector) {
+        long[] result = new long[vector.getDimension()];
+
+        for (int i = 0; i < result.length; ++i) {
+            BigFraction value = vector.get(i);
+
+            if (!value.getDenominator().equals(BigInteger.ONE) || value.getNumerator().bitLength() > 62) {
+                return null;
+            }
+
+            result[i] = value.getNumerator().longValue();
+        }
+
+        return result;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double result = 0.0D;
+
+        for (int i = 0; i < a.length; ++i) {
+            result += a[i] * b[i];
+        }
+
+        return result;
+    }
+
+    EnumerationEstimate estimate() {
+        double[] ranges = new double[this.size];
+
+        for (int level = 0; level < this.size; ++level) {
+            ranges[level] = (double) this.maxCoords[level] - this.minCoords[level] + 1.0D;
+        }
+
+        return new EnumerationEstimate(this.norms, this.radiusSq, ranges);
+    }
+
+    /**
+     * Estimates the number of nodes of the search tree, see {@link EnumerationEstimate}
+     */
+    double estimateNodes() {
+        return this.estimate().getNodes();
+    }
+
+    /**
+     * Estimates the number of points in the box, see {@link EnumerationEstimate}
+     */
+    double estimatePoints() {
+        return this.estimate().getSolutions();
+    }
+
+    FastSearchSpliterator spliterator() {
+        return new FastSearchSpliterator(this, this.size - 1, new long[this.size], Long.MIN_VALUE, Long.MAX_VALUE, this.estimatePoints());
+    }
+
+    /**
+     * Returns a walk over the part of the tree where the last coordinate is between {@code low} and {@code high}, which
+     * holds about {@code share} of the points
+     */
+    FastSearchSpliterator spliterator(long low, long high, double share) {
+        return new FastSearchSpliterator(this, this.size - 1, new long[this.size], low, high, this.estimatePoints() * share);
+    }
+
+    Spliterator.OfLong rowSpliterator(int row) {
+        return new FastSearchRowSpliterator(this.spliterator(), row);
+    }
+
+    /**
+     * Returns the center of the projection of the target onto the {@code level}'th Gram-Schmidt vector, given the
+     * coordinates above that level
+     */
+    double center(int level, long[] coords) {
+        double center = this.target[level];
+
+        for (int j = level + 1; j < this.size; ++j) {
+            center -= this.mu[j][level] * coords[j];
+        }
+
+        return center;
+    }
+
+    /**
+     * Returns the point of the lattice with the given coordinates if it lies in the box, null otherwise. This computes
+     * the point from scratch, which the walk only needs when its running sums overflow.
+     */
+    BigVector leaf(long[] coords) {
+        BigFraction[] point = new BigFraction[this.size];
+
+        for (int row = 0; row < this.size; ++row) {
+            long value;
+
+            try {
+                value = this.origin[row];
+
+                for (int col = 0; col < this.size; ++col) {
+                    value = Math.addExact(value, Math.multiplyExact(this.basis[row][col], coords[col]));
+                }
+            } catch (ArithmeticException e) {
+                BigInteger bigValue = BigInteger.valueOf(this.origin[row]);
+
+                for (int col = 0; col < this.size; ++col) {
+                    bigValue = bigValue.add(BigInteger.valueOf(this.basis[row][col]).multiply(BigInteger.valueOf(coords[col])));
+                }
+
+                if (bigValue.compareTo(BigInteger.valueOf(this.lower[row])) < 0 || bigValue.compareTo(BigInteger.valueOf(this.upper[row])) > 0) {
+                    return null;
+                }
+
+                point[row] = new BigFraction(bigValue);
+                continue;
+            }
+
+            if (value < this.lower[row] || value > this.upper[row]) {
+                return null;
+            }
+
+            point[row] = new BigFraction(value);
+        }
+
+        return new BigVector(point);
+    }
+
+    static double epsilon(double center) {
+        return EPSILON * (1.0D + Math.abs(center));
+    }
+}
@@ -0,0 +1,51 @@
+package com.seedfinding.latticg.math.lattice.enumerate;
+
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Walks the same tree as a {@link FastSearchSpliterator}, but only hands out one row of each point
+ */
+class FastSearchRowSpliterator implements Spliterator.OfLong {
+    private final FastSearchSpliterator walk;
+    private final int row;
+
+    FastSearchRowSpliterator(FastSearchSpliterator walk, int row) {
+        this.walk = walk;
+        this.row = row;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+        if (!this.walk.advance()) {
+            return false;
+        }
+
+        action.accept(this.walk.row(this.row));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+        while (this.walk.advance()) {
+            action.accept(this.walk.row(this.row));
+        }
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+        FastSearchSpliterator split = this.walk.trySplit();
+        return split == null ? null : new FastSearchRowSpliterator(split, this.row);
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.walk.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        // distinct points can share a row
+        return this.walk.characteristics() & ~DISTINCT;
+    }
+}
@@ -0,0 +1,319 @@
+package com.seedfinding.latticg.math.lattice.enumerate;
+
+import com.seedfinding.latticg.math.component.BigFraction;
+import com.seedfinding.latticg.math.component.BigVector;
+import com.seedfinding.latticg.util.DeserializeRt;
+import com.seedfinding.latticg.util.SerializeRt;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Depth-first walk over the tree described by a {@link FastSearch}. The coordinates above {@code top} are a fixed
+ * prefix, the coordinate at {@code top} runs over a range, and everything below is searched.
+ */
+class FastSearchSpliterator implements Spliterator<BigVector>, Walk {
+    // how many points of a range are looked at to find where to split it
+    private static final int SPLIT_SAMPLES = 256;
+
+    private final FastSearch search;
+    private final int top;
+
+    private final long[] coords;
+    private final long[] high;
+    private final double[] centers;
+    // partial[i] is the squared distance contributed by the coordinates at levels i and above
+    private final double[] partial;
+    // sums[i] is the point with only the coordinates at levels i and above applied, unless overflow[i] is set
+    private final long[][] sums;
+    private final boolean[] overflow;
+    private int level;
+    private double estimate;
+
+    FastSearchSpliterator(FastSearch search, int top, long[] prefix, long low, long high, double estimate) {
+        this.search = search;
+        this.estimate = estimate;
+        this.top = top;
+        this.coords = prefix.clone();
+        this.high = new long[search.size];
+        this.centers = new double[search.size];
+        this.partial = new double[search.size + 1];
+        this.sums = new long[search.size + 1][search.size];
+        this.overflow = new boolean[search.size + 1];
+        this.sums[search.size] = search.origin.clone();
+
+        for (int i = search.size - 1; i > top; --i) {
+            this.centers[i] = search.center(i, this.coords);
+            double d = this.coords[i] - this.centers[i];
+            this.partial[i] = this.partial[i + 1] + d * d * search.norms[i];
+            this.updateSums(i);
+        }
+
+        this.level = top;
+        this.enter(top);
+
+        if (low > this.coords[top] + 1) {
+            this.coords[top] = low - 1;
+        }
+
+        this.high[top] = Math.min(this.high[top], high);
+    }
+
+    /**
+     * Computes the range of the coordinate at the given level and positions the walk just before its start
+     */
+    private void enter(int level) {
+        double center = this.search.center(level, this.coords);
+        double remaining = this.search.radiusSq - this.partial[level + 1];
+        this.centers[level] = center;
+
+        if (remaining < 0.0D) {
+            this.coords[level] = 0;
+            this.high[level] = -1;
+            return;
+        }
+
+        double radius = Math.sqrt(remaining / this.search.norms[level]) + FastSearch.epsilon(center);
+        long low = Math.max((long) Math.ceil(center - radius), this.search.minCoords[level]);
+        long high = Math.min((long) Math.floor(center + radius), this.search.maxCoords[level]);
+
+        // coords[level] holds the value before the first one to visit
+        this.coords[level] = low - 1;
+        this.high[level] = high;
+    }
+
+    /**
+     * Adds the coordinate at the given level to the sums of the levels above it, one row at a time rather than through
+     * a product with the whole basis at every leaf
+     */
+    private void updateSums(int level) {
+        boolean overflow = this.overflow[level + 1];
+
+        if (!overflow) {
+            long[] above = this.sums[level + 1];
+            long[] sums = this.sums[level];
+            long value = this.coords[level];
+
+            try {
+                for (int row = 0; row < this.search.size; ++row) {
+                    sums[row] = Math.addExact(above[row], Math.multiplyExact(this.search.basis[row][level], value));
+                }
+            } catch (ArithmeticException e) {
+                overflow = true;
+            }
+        }
+
+        this.overflow[level] = overflow;
+    }
+
+    /**
+     * Returns whether the point at the current leaf lies in the box
+     */
+    private boolean inBox() {
+        if (this.overflow[0]) {
+            return this.search.leaf(this.coords) != null;
+        }
+
+        long[] point = this.sums[0];
+
+        for (int row = 0; row < this.search.size; ++row) {
+            if (point[row] < this.search.lower[row] || point[row] > this.search.upper[row]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the point at the current leaf, which lies in the box
+     */
+    @Override
+    public BigVector point() {
+        if (this.overflow[0]) {
+            return this.search.leaf(this.coords);
+        }
+
+        BigFraction[] point = new BigFraction[this.search.size];
+
+        for (int row = 0; row < this.search.size; ++row) {
+            point[row] = new BigFraction(this.sums[0][row]);
+        }
+
+        return new BigVector(point);
+    }
+
+    /**
+     * Returns one row of the point at the current leaf, without building the point. The row lies between the bounds of
+     * the box, so it fits in a {@code long} even when the sums overflowed on the way.
+     */
+    @Override
+    public long row(int row) {
+        if (this.overflow[0]) {
+            return this.search.leaf(this.coords).get(row).getNumerator().longValue();
+        }
+
+        return this.sums[0][row];
+    }
+
+    /**
+     * Moves to the next leaf whose point lies in the box, or returns false if there is none left
+     */
+    @Override
+    public boolean advance() {
+        while (true) {
+            if (this.coords[this.level] >= this.high[this.level]) {
+                if (this.level == this.top) {
+                    return false;
+                }
+
+                this.level++;
+                continue;
+            }
+
+            long value = ++this.coords[this.level];
+            double d = value - this.centers[this.level];
+            double dist = this.partial[this.level + 1] + d * d * this.search.norms[this.level];
+
+            if (dist > this.search.radiusSq) {
+                continue;
+            }
+
+            this.partial[this.level] = dist;
+            this.updateSums(this.level);
+
+            if (this.level == 0) {
+                if (this.inBox()) {
+                    return true;
+                }
+
+                continue;
+            }
+
+            this.level--;
+            this.enter(this.level);
+        }
+    }
+
+    /**
+     * Writes the current level and the coordinates from there up, everything else is computed again from those
+     */
+    @Override
+    public void save(ByteArrayOutputStream buf) {
+        SerializeRt.writeVarInt(buf, this.level);
+
+        for (int i = this.level; i <= this.top; ++i) {
+            SerializeRt.writeLong(buf, this.coords[i]);
+        }
+    }
+
+    @Override
+    public void restore(ByteBuffer buf) {
+        int level = DeserializeRt.readVarInt(buf);
+
+        if (level < 0 || level > this.top) {
+            throw new IllegalArgumentException("Level " + level + " is not in this tree");
+        }
+
+        long[] saved = new long[this.search.size];
+
+        for (int i = level; i <= this.top; ++i) {
+            saved[i] = DeserializeRt.readLong(buf);
+        }
+
+        // enter every level the way the walk did, with the coordinates above it already fixed
+        for (int i = this.top; i >= level; --i) {
+            long value = saved[i];
+
+            if (i < this.top) {
+                this.enter(i);
+            }
+
+            this.coords[i] = value;
+
+            if (i > level) {
+                double d = value - this.centers[i];
+                this.partial[i] = this.partial[i + 1] + d * d * this.search.norms[i];
+                this.updateSums(i);
+            }
+        }
+
+        this.level = level;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super BigVector> action) {
+        if (!this.advance()) {
+            return false;
+        }
+
+        action.accept(this.point());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super BigVector> action) {
+        while (this.advance()) {
+            action.accept(this.point());
+        }
+    }
+
+    @Override
+    public FastSearchSpliterator trySplit() {
+        // hand out the upper part of the remaining values of the highest level that has any left, split so that both
+        // parts cover about the same volume of the ball
+        for (int i = this.top; i >= this.level; --i) {
+            long low = this.coords[i] + 1;
+            long count = this.high[i] - low + 1;
+
+            if (count < 2) {
+                continue;
+            }
+
+            // the slice of a ball through a value u radii from its center has volume proportional to (1 - u^2)^(i/2)
+            long step = Math.max(1, count / SPLIT_SAMPLES);
+            int samples = (int) ((count + step - 1) / step);
+            double radius = Math.sqrt(Math.max(0.0D, this.search.radiusSq - this.partial[i + 1]) / this.search.norms[i]);
+            double[] cumulative = new double[samples + 1];
+
+            for (int k = 0; k < samples; ++k) {
+                double u = radius > 0.0D ? (low + k * step - this.centers[i]) / radius : 0.0D;
+                double weight = Math.pow(Math.max(0.0D, 1.0D - u * u), i / 2.0D);
+                cumulative[k + 1] = cumulative[k] + weight * Math.min(step, count - k * step);
+            }
+
+            double total = cumulative[samples];
+            int k = 1;
+
+            while (k < samples - 1 && cumulative[k] < total / 2.0D) {
+                k++;
+            }
+
+            long split = low + k * step;
+            double share = total > 0.0D ? (total - cumulative[k]) / total : 0.5D;
+
+            long[] prefix = this.coords.clone();
+            prefix[i] = split;
+            FastSearchSpliterator result = new FastSearchSpliterator(this.search, i, prefix, split, this.high[i], this.estimate * share);
+            this.high[i] = split - 1;
+            this.estimate -= result.estimate;
+            return result;
+        }
+
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        // an estimate too large for a long saturates to Long.MAX_VALUE, which is what the spliterator api asks for
+        // when the size is unknown
+        return (long) Math.ceil(this.estimate);
+    }
+
+    @Override
+    public int characteristics() {
+        return DISTINCT | ORDERED | NONNULL | IMMUTABLE;
+    }
+}
@@ -0,0 +1,252 @@
+package com.seedfinding.latticg.math.lattice.enumerate;
+
+import com.seedfinding.latticg.math.component.BigFraction;
+import com.seedfinding.latticg.math.component.BigMatrix;
+import com.seedfinding.latticg.math.component.BigVector;
+import com.seedfinding.latticg.math.optimize.Optimize;
+
+import java.math.BigInteger;
+
+/**
+ * Precomputed tables for a Schnorr-Euchner enumeration of the lattice points satisfying some constraints.
+ *
+ * <p>The bounding box of the constraints is scaled so that each side has length one, which puts every feasible point
+ * inside a ball around the center of the box. The Gram-Schmidt data of the scaled basis is computed once, exactly,
+ * and the search then fixes coordinates from the last Gram-Schmidt vector to the first, visiting the values of each
+ * coordinate in order of distance from its projected center. All of this is done in exact arithmetic, so the only use
+ * of the constraints beyond the root is the final check of each leaf.
+ *
+ * <p>To keep the inner loop free of fraction reductions, every level is put over a common denominator: the center of
+ * level {@code l} is {@code (targets[l] - sum(mu[j][l] * x[j])) / denominators[l]}, and an offset of {@code k} from
+ * the numerator of that center adds {@code weights[l] * k^2} to the squared distance, which is bounded by
+ * {@code radiusSq}. All of these are integers.
+ */
+final class GramSchmidtSearch {
+    final int size;
+    final Optimize constraints;
+
+    // row r of a point is (offsets[r] + rows[r] * x) / rowDenominators[r], and lies within [lows[r], highs[r]] of
+    // that when inside the bounding box; when the constraints are exactly that box, nothing more is checked
+    final BigInteger[][] rows;
+    final BigInteger[] offsets;
+    final BigInteger[] rowDenominators;
+    final BigInteger[] lows;
+    final BigInteger[] highs;
+    final boolean exactBox;
+
+    final BigInteger[][] mu;
+    final BigInteger[] targets;
+    final BigInteger[] denominators;
+    final BigInteger[] weights;
+    final BigInteger radiusSq;
+
+    final BigInteger[] minCoords;
+    final BigInteger[] maxCoords;
+
+    private GramSchmidtSearch(int size, Optimize constraints, BigInteger[][] rows, BigInteger[] offsets, BigInteger[] rowDenominators, BigInteger[] lows, BigInteger[] highs, BigInteger[][] mu, BigInteger[] targets, BigInteger[] denominators, BigInteger[] weights, BigInteger radiusSq, BigInteger[] minCoords, BigInteger[] maxCoords) {
+        this.size = size;
+        this.constraints = constraints;
+        this.rows = rows;
+        this.offsets = offsets;
+        this.rowDenominators = rowDenominators;
+        this.lows = lows;
+        this.highs = highs;
+        this.exactBox = constraints.getBoxBounds() != null;
+        this.mu = mu;
+        this.targets = targets;
+        this.denominators = denominators;
+        this.weights = weights;
+        this.radiusSq = radiusSq;
+        this.minCoords = minCoords;
+        this.maxCoords = maxCoords;
+    }
+
+    /**
+     * Builds the tables for the given problem
+     *
+     * @throws IllegalArgumentException If the basis is singular
+     */
+    static GramSchmidtSearch create(BigMatrix basis, BigVector origin, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin) {
+        int size = basis.getRowCount();
+
+        // the bounding box of the feasible region, scaled so that each side has length one
+        BigFraction[] scales = new BigFraction[size];
+        BigFraction[] centers = new BigFraction[size];
+        BigFraction radiusSq = BigFraction.ZERO;
+
+        BigInteger[][] rows = new BigInteger[size][size];
+        BigInteger[] offsets = new BigInteger[size];
+        BigInteger[] rowDenominators = new BigInteger[size];
+        BigInteger[] lows = new BigInteger[size];
+        BigInteger[] highs = new BigInteger[size];
+
+        for (int row = 0; row < size; ++row) {
+            BigVector gradient = BigVector.basis(size, row);
+            BigFraction min = constraints.copy().minimize(gradient).getSecond();
+            BigFraction max = constraints.copy().maximize(gradient).getSecond();
+            BigFraction width = max.subtract(min);
+
+            BigInteger rowDenominator = origin.get(row).getDenominator();
+
+            for (int col = 0; col < size; ++col) {
+                rowDenominator = lcm(rowDenominator, basis.get(row, col).getDenominator());
+            }
+
+            for (int col = 0; col < size; ++col) {
+                rows[row][col] = basis.get(row, col).multiply(rowDenominator).getNumerator();
+            }
+
+            offsets[row] = origin.get(row).multiply(rowDenominator).getNumerator();
+            rowDenominators[row] = rowDenominator;
+            lows[row] = min.multiply(rowDenominator).ceil();
+            highs[row] = max.multiply(rowDenominator).floor();
+
+            // a flat side contributes nothing to the radius, any point off of it is pruned by any positive scale
+            scales[row] = width.signum() == 0 ? BigFraction.ONE : width.reciprocal();
+            centers[row] = min.add(max).multiply(BigFraction.HALF);
+
+            if (width.signum() != 0) {
+                radiusSq = radiusSq.add(BigFraction.HALF.multiply(BigFraction.HALF));
+            }
+        }
+
+        BigVector[] star = new BigVector[size];
+        BigFraction[][] mu = new BigFraction[size][size];
+        BigFraction[] norms = new BigFraction[size];
+        BigVector scaledTarget = new BigVector(size);
+
+        for (int row = 0; row < size; ++row) {
+            scaledTarget.set(row, centers[row].subtract(origin.get(row)).multiply(scales[row]));
+        }
+
+        for (int j = 0; j < size; ++j) {
+            star[j] = new BigVector(size);
+
+            for (int row = 0; row < size; ++row) {
+                star[j].set(row, basis.get(row, j).multiply(scales[row]));
+            }
+
+            for (int i = 0; i < j; ++i) {
+                mu[j][i] = star[j].dot(star[i]).divide(norms[i]);
+                star[j].subtractMultipleAndSet(star[i], mu[j][i]);
+            }
+
+            norms[j] = star[j].magnitudeSq();
+
+            if (norms[j].signum() == 0) {
+                throw new IllegalArgumentException("basis is singular");
+            }
+        }
+
+        BigFraction[] target = new BigFraction[size];
+
+        for (int i = 0; i < size; ++i) {
+            target[i] = scaledTarget.dot(star[i]).divide(norms[i]);
+        }
+
+        // the exact range of each coordinate over the feasible region, x = rootInverse * y - rootOrigin
+        BigInteger[] minCoords = new BigInteger[size];
+        BigInteger[] maxCoords = new BigInteger[size];
+
+        for (int i = 0; i < size; ++i) {
+            BigVector gradient = rootInverse.getRow(i);
+            BigFraction offset = rootOrigin.get(i);
+            minCoords[i] = constraints.copy().minimize(gradient).getSecond().subtract(offset).ceil();
+            maxCoords[i] = constraints.copy().maximize(gradient).getSecond().subtract(offset).floor();
+        }
+
+        // put each level over a common denominator, then all of the weights over another one
+        BigInteger[][] intMu = new BigInteger[size][size];
+        BigInteger[] targets = new BigInteger[size];
+        BigInteger[] denominators = new BigInteger[size];
+        BigFraction[] weights = new BigFraction[size];
+        BigInteger weightDenominator = BigInteger.ONE;
+
+        for (int level = 0; level < size; ++level) {
+            BigInteger denominator = target[level].getDenominator();
+
+            for (int j = level + 1; j < size; ++j) {
+                denominator = lcm(denominator, mu[j][level].getDenominator());
+            }
+
+            denominators[level] = denominator;
+            targets[level] = target[level].multiply(denominator).getNumerator();
+
+            for (int j = level + 1; j < size; ++j) {
+                intMu[j][level] = mu[j][level].multiply(denominator).getNumerator();
+            }
+
+            weights[level] = norms[level].divide(denominator.multiply(denominator));
+            weightDenominator = lcm(weightDenominator, weights[level].getDenominator());
+        }
+
+        BigInteger[] intWeights = new BigInteger[size];
+
+        for (int level = 0; level < size; ++level) {
+            intWeights[level] = weights[level].multiply(weightDenominator).getNumerator();
+        }
+
+        // the squared distance is an integer, so rounding the radius down loses nothing
+        BigInteger intRadiusSq = radiusSq.multiply(weightDenominator).floor();
+
+        return new GramSchmidtSearch(size, constraints, rows, offsets, rowDenominators, lows, highs, intMu, targets, denominators, intWeights, intRadiusSq, minCoords, maxCoords);
+    }
+
+    private static BigInteger lcm(BigInteger a, BigInteger b) {
+        return a.divide(a.gcd(b)).multiply(b);
+    }
+
+    /**
+     * Returns a copy of this search that only visits the values between {@code low} and {@code high} of the coordinate
+     * at the given level
+     */
+    GramSchmidtSearch restrict(int level, BigInteger low, BigInteger high) {
+        BigInteger[] minCoords = this.minCoords.clone();
+        BigInteger[] maxCoords = this.maxCoords.clone();
+        minCoords[level] = minCoords[level].max(low);
+        maxCoords[level] = maxCoords[level].min(high);
+
+        return new GramSchmidtSearch(this.size, this.constraints, this.rows, this.offsets, this.rowDenominators, this.lows, this.highs, this.mu, this.targets, this.denominators, this.weights, this.radiusSq, minCoords, maxCoords);
+    }
+
+    GramSchmidtSpliterator spliterator() {
+        return new GramSchmidtSpliterator(this, this.size - 1, new BigInteger[this.size]);
+    }
+
+    /**
+     * Returns the numerator of the center of the projection of the target onto the {@code level}'th Gram-Schmidt
+     * vector, given the coordinates above that level
+     */
+    BigInteger center(int level, BigInteger[] coords) {
+        BigInteger center = this.targets[level];
+
+        for (int j = level + 1; j < this.size; ++j) {
+            center = center.subtract(this.mu[j][level].multiply(coords[j]));
+        }
+
+        return center;
+    }
+
+    /**
+     * Returns the point of the lattice with the given coordinates if it satisfies the constraints, null otherwise
+     */
+    BigVector leaf(BigInteger[] coords) {
+        BigVector point = new BigVector(this.size);
+
+        for (int row = 0; row < this.size; ++row) {
+            BigInteger value = this.offsets[row];
+
+            for (int col = 0; col < this.size; ++col) {
+                value = value.add(this.rows[row][col].multiply(coords[col]));
+            }
+
+            if (value.compareTo(this.lows[row]) < 0 || value.compareTo(this.highs[row]) > 0) {
+                return null;
+            }
+
+            point.set(row, new BigFraction(value, this.rowDenominators[row]));
+        }
+
+        return this.exactBox || this.constraints.contains(point) ? point : null;
+    }
+}
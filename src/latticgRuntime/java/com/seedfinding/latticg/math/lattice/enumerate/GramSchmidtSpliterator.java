@@ -0,0 +1,292 @@
+package com.seedfinding.latticg.math.lattice.enumerate;
+
+import com.seedfinding.latticg.math.component.BigVector;
+import com.seedfinding.latticg.util.DeserializeRt;
+import com.seedfinding.latticg.util.SerializeRt;
+
+import java.math.BigInteger;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Zig-zag walk over the tree described by a {@link GramSchmidtSearch}. The coordinates above {@code top} are a fixed
+ * prefix and everything from {@code top} down is searched.
+ *
+ * <p>The values left to visit at each level form two rays, one going up from the center and one going down. Values are
+ * taken from whichever ray is closer to the center, and a ray is closed as soon as it leaves the ball, since every
+ * value further along it is even further away.
+ */
+class GramSchmidtSpliterator implements Spliterator<BigVector>, Walk {
+    private final GramSchmidtSearch search;
+    private final int top;
+
+    private final BigInteger[] coords;
+    // the numerators of the centers, over the denominator of their level
+    private final BigInteger[] centers;
+    // partial[i] is the squared distance contributed by the coordinates at levels i and above
+    private final BigInteger[] partial;
+
+    private final BigInteger[] up;
+    private final BigInteger[] down;
+    private final boolean[] upOpen;
+    private final boolean[] downOpen;
+    private int level;
+    private BigVector current;
+
+    GramSchmidtSpliterator(GramSchmidtSearch search, int top, BigInteger[] prefix) {
+        this.search = search;
+        this.top = top;
+        this.coords = prefix.clone();
+        this.centers = new BigInteger[search.size];
+        this.partial = new BigInteger[search.size + 1];
+        this.up = new BigInteger[search.size];
+        this.down = new BigInteger[search.size];
+        this.upOpen = new boolean[search.size];
+        this.downOpen = new boolean[search.size];
+
+        this.partial[search.size] = BigInteger.ZERO;
+
+        for (int i = search.size - 1; i > top; --i) {
+            this.centers[i] = search.center(i, this.coords);
+            this.partial[i] = this.partial[i + 1].add(this.distance(i, this.coords[i]));
+        }
+
+        this.level = top;
+        this.enter(top);
+    }
+
+    private BigInteger distance(int level, BigInteger value) {
+        BigInteger d = this.offset(level, value);
+        return d.multiply(d).multiply(this.search.weights[level]);
+    }
+
+    private BigInteger offset(int level, BigInteger value) {
+        return value.multiply(this.search.denominators[level]).subtract(this.centers[level]);
+    }
+
+    /**
+     * Computes the center of the coordinate at the given level and opens both of its rays
+     */
+    private void enter(int level) {
+        this.centers[level] = this.search.center(level, this.coords);
+
+        // round(center / denominator) = floor((2 * center + denominator) / (2 * denominator))
+        BigInteger denominator = this.search.denominators[level];
+        BigInteger[] qr = this.centers[level].shiftLeft(1).add(denominator).divideAndRemainder(denominator.shiftLeft(1));
+        this.up[level] = qr[1].signum() < 0 ? qr[0].subtract(BigInteger.ONE) : qr[0];
+        this.down[level] = this.up[level].subtract(BigInteger.ONE);
+        this.upOpen[level] = true;
+        this.downOpen[level] = true;
+    }
+
+    /**
+     * Takes the next value of the coordinate at the current level, or returns null if there is none left
+     */
+    private BigInteger take() {
+        int level = this.level;
+
+        while (this.upOpen[level] || this.downOpen[level]) {
+            boolean fromUp;
+
+            if (!this.downOpen[level]) {
+                fromUp = true;
+            } else if (!this.upOpen[level]) {
+                fromUp = false;
+            } else {
+                BigInteger upOffset = this.offset(level, this.up[level]);
+                BigInteger downOffset = this.offset(level, this.down[level]).negate();
+                fromUp = upOffset.compareTo(downOffset) <= 0;
+            }
+
+            BigInteger value = fromUp ? this.up[level] : this.down[level];
+
+            // a ray can start on the far side of the coordinate range, in which case it jumps to the near end
+            if (fromUp && value.compareTo(this.search.minCoords[level]) < 0) {
+                this.up[level] = this.search.minCoords[level];
+                continue;
+            } else if (!fromUp && value.compareTo(this.search.maxCoords[level]) > 0) {
+                this.down[level] = this.search.maxCoords[level];
+                continue;
+            }
+
+            if (fromUp) {
+                this.up[level] = value.add(BigInteger.ONE);
+            } else {
+                this.down[level] = value.subtract(BigInteger.ONE);
+            }
+
+            if (value.compareTo(this.search.minCoords[level]) < 0 || value.compareTo(this.search.maxCoords[level]) > 0) {
+                if (fromUp) {
+                    this.upOpen[level] = false;
+                } else {
+                    this.downOpen[level] = false;
+                }
+
+                continue;
+            }
+
+            BigInteger dist = this.partial[level + 1].add(this.distance(level, value));
+
+            if (dist.compareTo(this.search.radiusSq) > 0) {
+                if (fromUp) {
+                    this.upOpen[level] = false;
+                } else {
+                    this.downOpen[level] = false;
+                }
+
+                continue;
+            }
+
+            this.partial[level] = dist;
+            return value;
+        }
+
+        return null;
+    }
+
+    private BigVector next() {
+        while (true) {
+            BigInteger value = this.take();
+
+            if (value == null) {
+                if (this.level == this.top) {
+                    return null;
+                }
+
+                this.level++;
+                continue;
+            }
+
+            this.coords[this.level] = value;
+
+            if (this.level == 0) {
+                BigVector point = this.search.leaf(this.coords);
+
+                if (point != null) {
+                    return point;
+                }
+
+                continue;
+            }
+
+            this.level--;
+            this.enter(this.level);
+        }
+    }
+
+    @Override
+    public boolean advance() {
+        this.current = this.next();
+        return this.current != null;
+    }
+
+    @Override
+    public BigVector point() {
+        return this.current;
+    }
+
+    /**
+     * Writes the current level and the coordinates and rays from there up, the centers and distances are computed
+     * again from those
+     */
+    @Override
+    public void save(ByteArrayOutputStream buf) {
+        SerializeRt.writeVarInt(buf, this.level);
+
+        for (int i = this.level; i <= this.top; ++i) {
+            // nothing has been taken yet at a level that was just entered
+            SerializeRt.writeBoolean(buf, this.coords[i] != null);
+
+            if (this.coords[i] != null) {
+                SerializeRt.writeBigInt(buf, this.coords[i]);
+            }
+
+            SerializeRt.writeBigInt(buf, this.up[i]);
+            SerializeRt.writeBigInt(buf, this.down[i]);
+            SerializeRt.writeBoolean(buf, this.upOpen[i]);
+            SerializeRt.writeBoolean(buf, this.downOpen[i]);
+        }
+    }
+
+    @Override
+    public void restore(ByteBuffer buf) {
+        int level = DeserializeRt.readVarInt(buf);
+
+        if (level < 0 || level > this.top) {
+            throw new IllegalArgumentException("Level " + level + " is not in this tree");
+        }
+
+        for (int i = level; i <= this.top; ++i) {
+            this.coords[i] = DeserializeRt.readBoolean(buf) ? DeserializeRt.readBigInt(buf) : null;
+            this.up[i] = DeserializeRt.readBigInt(buf);
+            this.down[i] = DeserializeRt.readBigInt(buf);
+            this.upOpen[i] = DeserializeRt.readBoolean(buf);
+            this.downOpen[i] = DeserializeRt.readBoolean(buf);
+
+            if (i > level && this.coords[i] == null) {
+                throw new IllegalArgumentException("Level " + i + " has no coordinate");
+            }
+        }
+
+        for (int i = this.top; i >= level; --i) {
+            this.centers[i] = this.search.center(i, this.coords);
+
+            if (i > level) {
+                this.partial[i] = this.partial[i + 1].add(this.distance(i, this.coords[i]));
+            }
+        }
+
+        this.level = level;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super BigVector> action) {
+        BigVector point = this.next();
+
+        if (point == null) {
+            return false;
+        }
+
+        action.accept(point);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super BigVector> action) {
+        BigVector point;
+
+        while ((point = this.next()) != null) {
+            action.accept(point);
+        }
+    }
+
+    @Override
+    public Spliterator<BigVector> trySplit() {
+        // hand out the upward ray of the highest level that still has both
+        for (int i = this.top; i >= this.level; --i) {
+            if (!this.upOpen[i] || !this.downOpen[i]) {
+                continue;
+            }
+
+            GramSchmidtSpliterator result = new GramSchmidtSpliterator(this.search, i, this.coords);
+            result.up[i] = this.up[i];
+            result.downOpen[i] = false;
+            this.upOpen[i] = false;
+            return result;
+        }
+
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return DISTINCT | ORDERED | NONNULL | IMMUTABLE;
+    }
+}
@@ -0,0 +1,47 @@
+package com.seedfinding.latticg.math.lattice.enumerate;
+
+import com.seedfinding.latticg.math.component.BigVector;
+
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Maps every vector of another spliterator to a {@code long}, keeping its splits and sizes
+ */
+class ProjectionSpliterator implements Spliterator.OfLong {
+    private final Spliterator<BigVector> source;
+    private final ToLongFunction<BigVector> projection;
+
+    public ProjectionSpliterator(Spliterator<BigVector> source, ToLongFunction<BigVector> projection) {
+        this.source = source;
+        this.projection = projection;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+        return this.source.tryAdvance(vector -> action.accept(this.projection.applyAsLong(vector)));
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+        this.source.forEachRemaining(vector -> action.accept(this.projection.applyAsLong(vector)));
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+        Spliterator<BigVector> split = this.source.trySplit();
+        return split == null ? null : new ProjectionSpliterator(split, this.projection);
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        // distinct vectors can share a projection
+        return this.source.characteristics() & ~DISTINCT;
+    }
+}
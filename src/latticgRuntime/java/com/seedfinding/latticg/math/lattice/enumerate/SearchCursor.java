@@ -0,0 +1,120 @@
+package com.seedfinding.latticg.math.lattice.enumerate;
+
+import com.seedfinding.latticg.math.component.BigMatrix;
+import com.seedfinding.latticg.math.component.BigVector;
+import com.seedfinding.latticg.util.DeserializeRt;
+import com.seedfinding.latticg.util.SerializeRt;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Depth-first walk over the tree of {@link SearchNode}s. Its position is the index of the current child at each level
+ * of the path from the root, since the children of a node always come out in the same order.
+ */
+class SearchCursor implements Walk {
+    private final BigMatrix basis;
+    private final BigVector origin;
+
+    // children[d] are the children of the node at depth d of the path, and index[d] is the one being searched
+    private final List<SearchNode>[] children;
+    private final int[] index;
+    // the deepest level of the path, or -1 once the whole tree has been searched
+    private int depth;
+    private BigVector current;
+
+    @SuppressWarnings("unchecked")
+    public SearchCursor(SearchNode root, int size, BigMatrix basis, BigVector origin) {
+        this.basis = basis;
+        this.origin = origin;
+        this.children = new List[size];
+        this.index = new int[size];
+
+        this.children[0] = root.createChildren();
+        this.index[0] = -1;
+        this.depth = 0;
+    }
+
+    @Override
+    public boolean advance() {
+        while (this.depth >= 0) {
+            int depth = this.depth;
+
+            if (this.index[depth] >= 0) {
+                // let go of the subtree that is done with
+                this.children[depth].set(this.index[depth], null);
+            }
+
+            if (++this.index[depth] >= this.children[depth].size()) {
+                this.children[depth] = null;
+                this.depth--;
+                continue;
+            }
+
+            SearchNode child = this.children[depth].get(this.index[depth]);
+
+            if (child.isLeaf()) {
+                this.current = child.getFixed();
+                return true;
+            }
+
+            this.depth++;
+            this.children[this.depth] = child.createChildren();
+            this.index[this.depth] = -1;
+        }
+
+        return false;
+    }
+
+    @Override
+    public BigVector point() {
+        return this.origin.add(this.basis.multiply(this.current));
+    }
+
+    @Override
+    public long row(int row) {
+        return EnumerateRt.toLong(this.basis.getRow(row).dot(this.current).add(this.origin.get(row)));
+    }
+
+    @Override
+    public void save(ByteArrayOutputStream buf) {
+        SerializeRt.writeVarInt(buf, this.depth + 1);
+
+        for (int d = 0; d <= this.depth; ++d) {
+            SerializeRt.writeVarInt(buf, this.index[d] + 1);
+        }
+    }
+
+    @Override
+    public void restore(ByteBuffer buf) {
+        int depth = DeserializeRt.readVarInt(buf) - 1;
+
+        if (depth < -1 || depth >= this.children.length) {
+            throw new IllegalArgumentException("Depth " + depth + " is not in this tree");
+        }
+
+        for (int d = 0; d <= depth; ++d) {
+            int index = DeserializeRt.readVarInt(buf) - 1;
+
+            if (d > 0) {
+                this.children[d] = this.children[d - 1].get(this.index[d - 1]).createChildren();
+            }
+
+            // every level but the last is inside the child it points to
+            if (index < (d < depth ? 0 : -1) || index >= this.children[d].size() || (d < depth && this.children[d].get(index).isLeaf())) {
+                throw new IllegalArgumentException("Index " + index + " is not in this tree");
+            }
+
+            this.index[d] = index;
+        }
+
+        if (depth == -1) {
+            this.children[0] = null;
+        } else if (this.index[depth] >= 0 && this.children[depth].get(this.index[depth]).isLeaf()) {
+            this.current = this.children[depth].get(this.index[depth]).getFixed();
+        }
+
+        this.depth = depth;
+    }
+}
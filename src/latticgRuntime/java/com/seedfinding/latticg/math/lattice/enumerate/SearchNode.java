@@ -6,8 +6,8 @@ import com.seedfinding.latticg.math.component.BigVector;
 import com.seedfinding.latticg.math.optimize.Optimize;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Spliterator;
@@ -20,11 +20,24 @@ class SearchNode {
     private final BigVector origin;
     private final BigVector fixed;
     private final Optimize constraints;
+    // the first depth entries are the coordinates fixed so far, the rest are the ones left in order of preference
     private final List<Integer> order;
+    // whether the next coordinate is the one with the fewest values left rather than the next one in the order
+    private final boolean adaptive;
+    // the estimated number of points below this node
+    private final double estimate;
+    // bounds on the values of the next coordinate on top of the constraints, or null
+    private BigInteger low;
+    private BigInteger high;
+
+    // the order of the children, which fix the coordinate at position depth of it, and the range of that coordinate
+    private List<Integer> nextOrder;
+    private BigFraction nextMin;
+    private BigFraction nextMax;
 
     private Spliterator<BigVector> spliterator;
 
-    public SearchNode(int size, int depth, BigMatrix inverse, BigVector origin, BigVector fixed, Optimize constraints, List<Integer> order) {
+    public SearchNode(int size, int depth, BigMatrix inverse, BigVector origin, BigVector fixed, Optimize constraints, List<Integer> order, boolean adaptive, double estimate) {
         this.size = size;
         this.depth = depth;
         this.inverse = inverse;
@@ -32,37 +45,227 @@ class SearchNode {
         this.fixed = fixed;
         this.constraints = constraints;
         this.order = order;
+        this.adaptive = adaptive;
+        this.estimate = estimate;
+    }
+
+    /**
+     * Estimates the number of points in a region. The region is modelled as the ellipsoid inscribed in the box of the
+     * ranges of the coordinates over it, which is also what splits the estimate between children, and the estimate is
+     * capped by the volume of its bounding box over the volume of the lattice.
+     *
+     * @param widths The width of the range of each coordinate over the region
+     * @param extents The width of the region along each axis
+     * @param basis The basis of the lattice
+     */
+    public static double estimate(List<BigFraction> widths, List<BigFraction> extents, BigMatrix basis) {
+        int n = widths.size();
+        // log of the volume of the unit n-ball, pi^(n/2) / gamma(n/2 + 1)
+        double logEllipsoid = n / 2.0D * Math.log(Math.PI) - logGammaHalf(n + 2);
+        double logBox = -logDeterminant(basis);
+
+        for (BigFraction width : widths) {
+            logEllipsoid += Math.log((width.toDouble() + 1.0D) / 2.0D);
+        }
+
+        for (BigFraction extent : extents) {
+            logBox += Math.log(extent.toDouble() + 1.0D);
+        }
+
+        return Math.max(1.0D, Math.exp(Math.min(logEllipsoid, logBox)));
     }
 
-    private SearchNode createChild(int index, BigInteger i) {
+    /**
+     * Returns log(|det(matrix)|), in floating point since it only feeds an estimate
+     */
+    private static double logDeterminant(BigMatrix matrix) {
+        int n = matrix.getRowCount();
+        double[][] rows = new double[n][n];
+
+        for (int row = 0; row < n; ++row) {
+            for (int col = 0; col < n; ++col) {
+                rows[row][col] = matrix.get(row, col).toDouble();
+            }
+        }
+
+        double result = 0.0D;
+
+        for (int col = 0; col < n; ++col) {
+            int pivot = col;
+
+            for (int row = col + 1; row < n; ++row) {
+                if (Math.abs(rows[row][col]) > Math.abs(rows[pivot][col])) {
+                    pivot = row;
+                }
+            }
+
+            double[] temp = rows[col];
+            rows[col] = rows[pivot];
+            rows[pivot] = temp;
+
+            result += Math.log(Math.abs(rows[col][col]));
+
+            for (int row = col + 1; row < n; ++row) {
+                double factor = rows[row][col] / rows[col][col];
+
+                for (int k = col; k < n; ++k) {
+                    rows[row][k] -= factor * rows[col][k];
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns log(gamma(k / 2))
+     */
+    private static double logGammaHalf(int k) {
+        double result = k % 2 == 0 ? 0.0D : 0.5D * Math.log(Math.PI);
+
+        for (int i = k - 2; i > 0; i -= 2) {
+            result += Math.log(i / 2.0D);
+        }
+
+        return result;
+    }
+
+    public double getEstimate() {
+        return this.estimate;
+    }
+
+    /**
+     * Creates the child fixing the given coordinate to the given value, or returns null if no point of this node has
+     * that value
+     */
+    private SearchNode createChild(int index, BigInteger i, double estimate) {
         BigVector gradient = this.inverse.getRow(index);
         BigFraction offset = this.origin.get(index);
         BigFraction value = new BigFraction(i);
 
-        Optimize nextOptimize = this.constraints.withStrictBound(gradient, value.add(offset));
+        Optimize nextOptimize = this.constraints.tryWithStrictBound(gradient, value.add(offset));
+
+        if (nextOptimize == null) {
+            return null;
+        }
+
         BigVector nextFixed = this.fixed.add(BigVector.basis(this.size, index, value));
 
-        return new SearchNode(this.size, this.depth + 1, this.inverse, this.origin, nextFixed, nextOptimize, this.order);
+        return new SearchNode(this.size, this.depth + 1, this.inverse, this.origin, nextFixed, nextOptimize, this.nextOrder, this.adaptive, estimate);
+    }
+
+    /**
+     * Returns a copy of this node whose children only take the values between {@code low} and {@code high} of the next
+     * coordinate, and which holds about {@code share} of the points of this node
+     */
+    public SearchNode restrict(BigInteger low, BigInteger high, double share) {
+        SearchNode result = new SearchNode(this.size, this.depth, this.inverse, this.origin, this.fixed, this.constraints, this.order, this.adaptive, this.estimate * share);
+        result.low = low;
+        result.high = high;
+        return result;
+    }
+
+    /**
+     * Returns the index of the coordinate that the children of this node fix
+     */
+    public int getNextCoordinate() {
+        this.chooseNext();
+        return this.nextOrder.get(this.depth);
+    }
+
+    /**
+     * Picks the coordinate the children fix and finds its range. In adaptive mode, that is the coordinate with the
+     * fewest integer values left given the ones fixed so far, which is where dead ends show up first, and an empty
+     * range ends the search right away.
+     */
+    private void chooseNext() {
+        if (this.nextOrder != null) {
+            return;
+        }
+
+        int best = this.depth;
+        BigFraction bestMin = null;
+        BigFraction bestMax = null;
+        BigInteger bestCount = null;
+
+        for (int i = this.depth; i < (this.adaptive ? this.size : this.depth + 1); ++i) {
+            int index = this.order.get(i);
+            BigVector gradient = this.inverse.getRow(index);
+            BigFraction offset = this.origin.get(index);
+
+            // make copies since if we try to do max after min, we force the
+            // optimizer to retrace its steps
+            BigFraction min = this.constraints.copy().minimize(gradient).getSecond().subtract(offset);
+            BigFraction max = this.constraints.copy().maximize(gradient).getSecond().subtract(offset);
+            BigInteger count = max.floor().subtract(min.ceil()).add(BigInteger.ONE);
+
+            if (bestCount == null || count.compareTo(bestCount) < 0) {
+                best = i;
+                bestMin = min;
+                bestMax = max;
+                bestCount = count;
+
+                if (count.signum() <= 0) {
+                    break;
+                }
+            }
+        }
+
+        List<Integer> nextOrder = this.order;
+
+        if (best != this.depth) {
+            nextOrder = new ArrayList<>(this.order);
+            nextOrder.add(this.depth, nextOrder.remove(best));
+        }
+
+        this.nextMin = bestMin;
+        this.nextMax = bestMax;
+        this.nextOrder = nextOrder;
+    }
+
+    public boolean isLeaf() {
+        return this.depth == this.size;
+    }
+
+    /**
+     * Returns the coordinates fixed so far, which are all of them at a leaf
+     */
+    public BigVector getFixed() {
+        return this.fixed;
     }
 
     private void initialize() {
-        if (this.depth == this.size) {
+        if (this.isLeaf()) {
             this.spliterator = Collections.singleton(this.fixed).spliterator();
             return;
         }
 
-        int index = this.order.get(this.depth);
+        // the last coordinate determines the point, and every value in its
+        // range is feasible since the region is convex
+        this.spliterator = new SearchSpliterator(new LinkedList<>(this.createChildren()), this.depth == this.size - 1);
+    }
 
-        Deque<SearchNode> children = new LinkedList<>();
+    /**
+     * Creates the children of this node, which must not be a leaf, ordered from the center of the range of the next
+     * coordinate outwards
+     */
+    public List<SearchNode> createChildren() {
+        this.chooseNext();
+        int index = this.nextOrder.get(this.depth);
 
-        BigVector gradient = this.inverse.getRow(index);
-        BigFraction offset = this.origin.get(index);
+        List<SearchNode> children = new ArrayList<>();
 
-        // make copies since if we try to do max after min, we force the
-        // optimizer to retrace its steps
-        BigInteger min = this.constraints.copy().minimize(gradient).getSecond().subtract(offset).ceil();
-        BigInteger max = this.constraints.copy().maximize(gradient).getSecond().subtract(offset).floor();
+        BigFraction minValue = this.nextMin;
+        BigFraction maxValue = this.nextMax;
+        BigInteger min = minValue.ceil();
+        BigInteger max = maxValue.floor();
 
+        if (this.low != null) {
+            min = min.max(this.low);
+            max = max.min(this.high);
+        }
+
+        List<BigInteger> values = new ArrayList<>();
         BigInteger lower = min.add(max).shiftRight(1);
         BigInteger upper = lower.add(BigInteger.ONE);
         boolean either = true;
@@ -71,19 +274,54 @@ class SearchNode {
             either = false;
 
             if (lower.compareTo(min) >= 0) {
-                children.add(this.createChild(index, lower));
+                values.add(lower);
                 lower = lower.subtract(BigInteger.ONE);
                 either = true;
             }
 
             if (upper.compareTo(max) <= 0) {
-                children.add(this.createChild(index, upper));
+                values.add(upper);
                 upper = upper.add(BigInteger.ONE);
                 either = true;
             }
         }
 
-        this.spliterator = new SearchSpliterator(children);
+        boolean exact = this.depth == this.size - 1;
+        double[] weights = this.childWeights(values, minValue.toDouble(), maxValue.toDouble());
+
+        for (int i = 0; i < values.size(); ++i) {
+            SearchNode child = this.createChild(index, values.get(i), exact ? 1.0D : Math.max(1.0D, this.estimate * weights[i]));
+
+            if (child != null) {
+                children.add(child);
+            }
+        }
+
+        return children;
+    }
+
+    /**
+     * Splits this node's estimate between its children in proportion to the volume of the slice of the ellipsoid
+     * through each of them, which falls off as {@code (1 - u^2)^((k - 1) / 2)} in {@code k} dimensions
+     */
+    private double[] childWeights(List<BigInteger> values, double min, double max) {
+        double[] weights = new double[values.size()];
+        double center = (min + max) / 2.0D;
+        double halfWidth = (max - min) / 2.0D;
+        double exponent = (this.size - this.depth - 1) / 2.0D;
+        double total = 0.0D;
+
+        for (int i = 0; i < weights.length; ++i) {
+            double u = halfWidth > 0.0D ? (values.get(i).doubleValue() - center) / halfWidth : 0.0D;
+            weights[i] = Math.pow(Math.max(0.0D, 1.0D - u * u), exponent);
+            total += weights[i];
+        }
+
+        for (int i = 0; i < weights.length; ++i) {
+            weights[i] = total > 0.0D ? weights[i] / total : 1.0D / weights.length;
+        }
+
+        return weights;
     }
 
     public Spliterator<BigVector> spliterator() {
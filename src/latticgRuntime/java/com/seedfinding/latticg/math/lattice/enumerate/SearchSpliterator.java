@@ -9,12 +9,20 @@ import java.util.function.Consumer;
 
 class SearchSpliterator implements Spliterator<BigVector> {
     private final Deque<SearchNode> children;
+    // whether every child is a single point, in which case the size is known exactly
+    private final boolean exact;
 
-    public SearchSpliterator(Deque<SearchNode> children) {
+    public SearchSpliterator(Deque<SearchNode> children, boolean exact) {
         this.children = children;
+        this.exact = exact;
     }
 
     public boolean tryAdvance(Consumer<? super BigVector> action) {
+        if (this.exact) {
+            // drop the point before handing it out so that the size stays exact
+            return !this.children.isEmpty() && this.children.removeFirst().spliterator().tryAdvance(action);
+        }
+
         while (!this.children.isEmpty()) {
             if (this.children.getFirst().spliterator().tryAdvance(action)) {
                 return true;
@@ -47,26 +55,45 @@ class SearchSpliterator implements Spliterator<BigVector> {
             }
         }
 
-        int count = this.children.size() / 2;
+        // the children are ordered from the center outwards, so the first few
+        // usually hold most of the points. hand out a prefix holding about
+        // half of the estimate, but always leave at least one child behind
+        double half = this.estimate() / 2.0D;
+        double taken = 0.0D;
         Deque<SearchNode> split = new LinkedList<>();
 
-        for (int i = 0; i < count; ++i) {
-            split.addLast(this.children.removeFirst());
+        while (this.children.size() > 1 && (split.isEmpty() || taken < half)) {
+            SearchNode child = this.children.removeFirst();
+            taken += child.getEstimate();
+            split.addLast(child);
         }
 
-        return new SearchSpliterator(split);
+        return new SearchSpliterator(split, this.exact);
+    }
+
+    private double estimate() {
+        double total = 0.0D;
+
+        for (SearchNode child : this.children) {
+            total += child.getEstimate();
+        }
+
+        return total;
     }
 
     @Override
     public long estimateSize() {
-        // TODO: attempt to give an actual estimate?
-        // as it is, it's works well with streams, and is well-defined by the
-        // spliterator API
-        return Long.MAX_VALUE;
+        if (this.exact) {
+            return this.children.size();
+        }
+
+        // an estimate too large for a long saturates to Long.MAX_VALUE, which
+        // is what the spliterator api asks for when the size is unknown
+        return (long) Math.ceil(this.estimate());
     }
 
     @Override
     public int characteristics() {
-        return DISTINCT | ORDERED | NONNULL | IMMUTABLE;
+        return DISTINCT | ORDERED | NONNULL | IMMUTABLE | (this.exact ? SIZED | SUBSIZED : 0);
     }
 }
@@ -0,0 +1,165 @@
+package com.seedfinding.latticg.math.lattice.enumerate;
+
+import com.seedfinding.latticg.util.DeserializeRt;
+import com.seedfinding.latticg.util.SerializeRt;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * One part of an enumeration split by
+ * {@link EnumerateRt#shards(com.seedfinding.latticg.math.component.BigMatrix, com.seedfinding.latticg.math.component.BigVector, com.seedfinding.latticg.math.optimize.Optimize, com.seedfinding.latticg.math.component.BigMatrix, com.seedfinding.latticg.math.component.BigVector, int, EnumerateRt.Strategy)},
+ * so that one search can be spread over several processes or machines. Every shard covers a range of values of the
+ * first coordinate the search fixes, the ranges of the shards of one split are disjoint and together cover the whole
+ * search.
+ *
+ * <p>A shard only describes its part of the search, so it is small and can be sent anywhere with {@link #toBytes()}.
+ * The receiving side rebuilds the search from the same problem and passes the shard to
+ * {@link EnumerateRt#enumerate(com.seedfinding.latticg.math.component.BigMatrix, com.seedfinding.latticg.math.component.BigVector, com.seedfinding.latticg.math.optimize.Optimize, com.seedfinding.latticg.math.component.BigMatrix, com.seedfinding.latticg.math.component.BigVector, Shard)}.
+ */
+public final class Shard {
+    private static final int VERSION = 2;
+
+    private final int index;
+    private final int count;
+    private final EnumerateRt.Strategy strategy;
+    private final int kind;
+    private final long fingerprint;
+    private final int coordinate;
+    private final BigInteger low;
+    private final BigInteger high;
+    private final double share;
+
+    Shard(int index, int count, EnumerateRt.Strategy strategy, int kind, long fingerprint, int coordinate, BigInteger low, BigInteger high, double share) {
+        this.index = index;
+        this.count = count;
+        this.strategy = strategy;
+        this.kind = kind;
+        this.fingerprint = fingerprint;
+        this.coordinate = coordinate;
+        this.low = low;
+        this.high = high;
+        this.share = share;
+    }
+
+    /**
+     * Returns the position of this shard in its split, from 0 to {@link #getCount()} exclusive
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * Returns the number of shards of the split this shard is part of
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    public EnumerateRt.Strategy getStrategy() {
+        return this.strategy;
+    }
+
+    int getKind() {
+        return this.kind;
+    }
+
+    long getFingerprint() {
+        return this.fingerprint;
+    }
+
+    /**
+     * Returns the index of the coordinate whose values this shard covers
+     */
+    public int getCoordinate() {
+        return this.coordinate;
+    }
+
+    /**
+     * Returns the lowest value of the coordinate this shard covers
+     */
+    public BigInteger getLow() {
+        return this.low;
+    }
+
+    /**
+     * Returns the highest value of the coordinate this shard covers, which is below {@link #getLow()} when the shard is
+     * empty
+     */
+    public BigInteger getHigh() {
+        return this.high;
+    }
+
+    public boolean isEmpty() {
+        return this.low.compareTo(this.high) > 0;
+    }
+
+    /**
+     * Returns the estimated fraction of the points of the whole search that lie in this shard
+     */
+    public double getShare() {
+        return this.share;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        SerializeRt.writeVarInt(buf, VERSION);
+        SerializeRt.writeVarInt(buf, this.index);
+        SerializeRt.writeVarInt(buf, this.count);
+        SerializeRt.writeVarInt(buf, this.strategy.ordinal());
+        SerializeRt.writeVarInt(buf, this.kind);
+        SerializeRt.writeLong(buf, this.fingerprint);
+        SerializeRt.writeVarInt(buf, this.coordinate);
+        SerializeRt.writeBigInt(buf, this.low);
+        SerializeRt.writeBigInt(buf, this.high);
+        SerializeRt.writeLong(buf, Double.doubleToLongBits(this.share));
+        return buf.toByteArray();
+    }
+
+    /**
+     * Reads a shard written by {@link #toBytes()}
+     *
+     * @throws IllegalArgumentException If the bytes are not a shard
+     */
+    public static Shard fromBytes(byte[] bytes) {
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        Shard shard;
+
+        try {
+            if (DeserializeRt.readVarInt(buf) != VERSION) {
+                throw new IllegalArgumentException("Unsupported shard version");
+            }
+
+            int index = DeserializeRt.readVarInt(buf);
+            int count = DeserializeRt.readVarInt(buf);
+            int strategy = DeserializeRt.readVarInt(buf);
+            int kind = DeserializeRt.readVarInt(buf);
+            long fingerprint = DeserializeRt.readLong(buf);
+            int coordinate = DeserializeRt.readVarInt(buf);
+            BigInteger low = DeserializeRt.readBigInt(buf);
+            BigInteger high = DeserializeRt.readBigInt(buf);
+            double share = Double.longBitsToDouble(DeserializeRt.readLong(buf));
+
+            if (index < 0 || index >= count || strategy < 0 || strategy >= EnumerateRt.Strategy.values().length || coordinate < 0) {
+                throw new IllegalArgumentException("Malformed shard");
+            }
+
+            shard = new Shard(index, count, EnumerateRt.Strategy.values()[strategy], kind, fingerprint, coordinate, low, high, share);
+        } catch (BufferUnderflowException | ArithmeticException e) {
+            throw new IllegalArgumentException("Malformed shard", e);
+        }
+
+        if (buf.hasRemaining()) {
+            throw new IllegalArgumentException("Malformed shard");
+        }
+
+        return shard;
+    }
+
+    @Override
+    public String toString() {
+        return "Shard " + (this.index + 1) + "/" + this.count + " of x" + this.coordinate + " in [" + this.low + ", " + this.high + "]";
+    }
+}
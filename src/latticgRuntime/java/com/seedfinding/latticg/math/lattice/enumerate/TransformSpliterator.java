@@ -0,0 +1,47 @@
+package com.seedfinding.latticg.math.lattice.enumerate;
+
+import com.seedfinding.latticg.math.component.BigVector;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Applies a transformation to every vector of another spliterator, keeping its splits and sizes
+ */
+class TransformSpliterator implements Spliterator<BigVector> {
+    private final Spliterator<BigVector> source;
+    private final UnaryOperator<BigVector> transform;
+
+    public TransformSpliterator(Spliterator<BigVector> source, UnaryOperator<BigVector> transform) {
+        this.source = source;
+        this.transform = transform;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super BigVector> action) {
+        return this.source.tryAdvance(vector -> action.accept(this.transform.apply(vector)));
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super BigVector> action) {
+        this.source.forEachRemaining(vector -> action.accept(this.transform.apply(vector)));
+    }
+
+    @Override
+    public Spliterator<BigVector> trySplit() {
+        Spliterator<BigVector> split = this.source.trySplit();
+        return split == null ? null : new TransformSpliterator(split, this.transform);
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        // the transformation is an injective affine map, so distinctness is kept
+        return this.source.characteristics();
+    }
+}
@@ -0,0 +1,37 @@
+package com.seedfinding.latticg.math.lattice.enumerate;
+
+import com.seedfinding.latticg.math.component.BigVector;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A sequential walk over a search tree, whose position can be saved and restored
+ */
+interface Walk {
+    /**
+     * Moves to the next point, or returns false if there is none left
+     */
+    boolean advance();
+
+    /**
+     * Returns the current point
+     */
+    BigVector point();
+
+    /**
+     * Returns one row of the current point
+     */
+    default long row(int row) {
+        return EnumerateRt.toLong(this.point().get(row));
+    }
+
+    void save(ByteArrayOutputStream buf);
+
+    /**
+     * Moves a fresh walk to a position written by {@link #save(ByteArrayOutputStream)}
+     *
+     * @throws IllegalArgumentException If the position is not one of this tree
+     */
+    void restore(ByteBuffer buf);
+}
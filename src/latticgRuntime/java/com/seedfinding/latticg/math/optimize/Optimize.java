@@ -5,15 +5,22 @@ import com.seedfinding.latticg.math.component.BigMatrix;
 import com.seedfinding.latticg.math.component.BigVector;
 import com.seedfinding.latticg.math.component.GaussJordan;
 import com.seedfinding.latticg.util.Pair;
+import com.seedfinding.latticg.util.SerializeRt;
 
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 public class Optimize {
     private final BigMatrix transform;
-    private final BigMatrix table;
+    // the rows of the tableau, which may be shared with the optimizer this
+    // one was copied or derived from, and so are only written to once owned
+    private final BigFraction[][] table;
+    private final boolean[] owned;
     private final int[] basics;
+    // the variable of each column, or -1 for a column that has been
+    // eliminated by an equality constraint and must stay out of the basis
     private final int[] nonbasics;
 
     // these are purely here to make the code less cluttered with calls to
@@ -21,36 +28,108 @@ public class Optimize {
     private final int rows;
     private final int cols;
 
-    private Optimize(BigMatrix table, int[] basics, int[] nonbasics, BigMatrix transform) {
+    // the lower and upper bound of each variable when this optimizer was
+    // built from nothing but per-variable bounds, null otherwise
+    private Pair<BigVector, BigVector> boxBounds;
+
+    // the constraints this optimizer was built from, in the same form the
+    // builder collects them, so that points can be checked without solving
+    private List<Integer> slacks = new ArrayList<>();
+    private List<BigVector> lefts = new ArrayList<>();
+    private List<BigFraction> rights = new ArrayList<>();
+
+    // the last lhs given to withStrictBound and its row in the tableau with a
+    // zero rhs, since the children of a search node all bound the same lhs
+    private volatile Pair<BigVector, BigFraction[]> lastBound;
+
+    private Optimize(BigFraction[][] table, boolean[] owned, int[] basics, int[] nonbasics, BigMatrix transform) {
         this.table = table;
+        this.owned = owned;
         this.basics = basics;
         this.nonbasics = nonbasics;
         this.transform = transform;
 
-        this.rows = this.table.getRowCount();
-        this.cols = this.table.getColumnCount();
+        this.rows = this.table.length;
+        this.cols = this.table[0].length;
+    }
+
+    private Optimize(BigMatrix table, int[] basics, int[] nonbasics, BigMatrix transform) {
+        this(toRows(table), new boolean[table.getRowCount()], basics, nonbasics, transform);
+        Arrays.fill(this.owned, true);
     }
 
-    private BigVector transformForTable(BigVector lhs, BigFraction rhs) {
-        BigVector transformed = new BigVector(this.transform.getColumnCount());
-        BigVector eliminated = new BigVector(this.cols);
+    private static BigFraction[][] toRows(BigMatrix matrix) {
+        BigFraction[][] rows = new BigFraction[matrix.getRowCount()][matrix.getColumnCount()];
+
+        for (int row = 0; row < rows.length; ++row) {
+            for (int col = 0; col < rows[row].length; ++col) {
+                rows[row][col] = matrix.get(row, col);
+            }
+        }
 
-        transformed.set(this.transform.getColumnCount() - 1, rhs);
+        return rows;
+    }
 
+    /**
+     * Returns the given row of the tableau, copying it first if it is still shared
+     */
+    private BigFraction[] writableRow(int row) {
+        if (!this.owned[row]) {
+            this.table[row] = this.table[row].clone();
+            this.owned[row] = true;
+        }
+
+        return this.table[row];
+    }
+
+    private BigFraction[] transformForTable(BigVector lhs, BigFraction rhs) {
+        int variables = this.transform.getColumnCount() - 1;
+        BigFraction[] transformed = new BigFraction[variables + 1];
+        BigFraction[] eliminated = new BigFraction[this.cols];
+
+        Arrays.fill(transformed, BigFraction.ZERO);
+        transformed[variables] = rhs;
+
+        // the gradients and constraints we get are mostly sparse, so skip
+        // every zero rather than paying for a multiplication and a reduction
         for (int row = 0; row < this.transform.getRowCount(); ++row) {
             BigFraction x = lhs.get(row);
-            transformed.subtractAndSet(this.transform.getRow(row).multiply(x));
+
+            if (x.signum() == 0) {
+                continue;
+            }
+
+            for (int col = 0; col <= variables; ++col) {
+                BigFraction y = this.transform.get(row, col);
+
+                if (y.signum() != 0) {
+                    transformed[col] = transformed[col].subtract(y.multiply(x));
+                }
+            }
         }
 
         for (int col = 0; col < this.cols - 1; ++col) {
-            eliminated.set(col, transformed.get(this.nonbasics[col]));
+            eliminated[col] = this.nonbasics[col] == -1 ? BigFraction.ZERO : transformed[this.nonbasics[col]];
         }
 
-        eliminated.set(this.cols - 1, transformed.get(this.transform.getColumnCount() - 1));
+        eliminated[this.cols - 1] = transformed[variables];
 
         for (int row = 0; row < this.rows - 1; ++row) {
-            BigFraction x = transformed.get(this.basics[row]);
-            eliminated.subtractAndSet(this.table.getRow(row).multiply(x));
+            BigFraction x = transformed[this.basics[row]];
+
+            if (x.signum() == 0) {
+                continue;
+            }
+
+            BigFraction[] tableRow = this.table[row];
+
+            for (int col = 0; col < this.cols; ++col) {
+                if ((col < this.cols - 1 && this.nonbasics[col] == -1) || tableRow[col].signum() == 0) {
+                    continue;
+                }
+
+                eliminated[col] = eliminated[col].subtract(tableRow[col].multiply(x));
+            }
         }
 
         return eliminated;
@@ -66,8 +145,14 @@ public class Optimize {
             throw new IllegalArgumentException("invalid size of gradient");
         }
 
-        this.table.setRow(this.rows - 1, new BigVector(this.cols));
-        this.table.getRow(this.rows - 1).subtractAndSet(this.transformForTable(gradient, BigFraction.ZERO));
+        BigFraction[] objective = this.transformForTable(gradient, BigFraction.ZERO);
+
+        for (int col = 0; col < this.cols; ++col) {
+            objective[col] = objective[col].negate();
+        }
+
+        this.table[this.rows - 1] = objective;
+        this.owned[this.rows - 1] = true;
 
         this.solve();
 
@@ -75,10 +160,14 @@ public class Optimize {
 
         for (int row = 0; row < this.rows - 1; ++row) {
             int v0 = this.basics[row];
-            result.subtractAndSet(this.transform.getColumn(v0).multiply(this.table.get(row, this.cols - 1)));
+            BigFraction value = this.table[row][this.cols - 1];
+
+            if (value.signum() != 0) {
+                result.subtractMultipleAndSet(this.transform.getColumn(v0), value);
+            }
         }
 
-        return new Pair<>(result, this.table.get(this.rows - 1, this.cols - 1));
+        return new Pair<>(result, this.table[this.rows - 1][this.cols - 1]);
     }
 
     private void solve() {
@@ -96,16 +185,16 @@ public class Optimize {
         BigFraction candidate = BigFraction.ZERO;
 
         for (int row = 0; row < this.rows - 1; ++row) {
-            if (this.table.get(row, this.cols - 1).signum() == 0) {
+            if (this.table[row][this.cols - 1].signum() == 0) {
                 bland = true;
                 break;
             }
         }
 
         for (int col = 0; col < this.cols - 1; ++col) {
-            BigFraction x = this.table.get(this.rows - 1, col);
+            BigFraction x = this.table[this.rows - 1][col];
 
-            if (x.signum() <= 0 || (entering != -1 && x.compareTo(candidate) <= 0)) {
+            if (this.nonbasics[col] == -1 || x.signum() <= 0 || (entering != -1 && x.compareTo(candidate) <= 0)) {
                 continue;
             }
 
@@ -122,13 +211,13 @@ public class Optimize {
         }
 
         for (int row = 0; row < this.rows - 1; ++row) {
-            BigFraction x = this.table.get(row, entering);
+            BigFraction x = this.table[row][entering];
 
             if (x.signum() <= 0) {
                 continue;
             }
 
-            BigFraction y = this.table.get(row, this.cols - 1).divide(x);
+            BigFraction y = this.table[row][this.cols - 1].divide(x);
 
             if (exiting != -1 && y.compareTo(candidate) >= 0) {
                 continue;
@@ -143,74 +232,323 @@ public class Optimize {
     }
 
     private void pivot(int entering, int exiting) {
-        int rows = this.table.getRowCount();
-        int cols = this.table.getColumnCount();
-
-        int constraints = rows - 1;
-        int variables = cols - 1;
+        int constraints = this.rows - 1;
+        int variables = this.cols - 1;
 
         assert 0 <= entering && entering < variables;
         assert 0 <= exiting && exiting < constraints;
 
-        BigFraction pivot = this.table.get(exiting, entering);
+        BigFraction[] exitingRow = this.writableRow(exiting);
+        BigFraction pivot = exitingRow[entering];
 
-        for (int col = 0; col < cols; ++col) {
-            if (col == entering) {
+        for (int col = 0; col < this.cols; ++col) {
+            if (col == entering || (col < variables && this.nonbasics[col] == -1)) {
                 continue;
             }
 
-            this.table.set(exiting, col, this.table.get(exiting, col).divide(pivot));
+            exitingRow[col] = exitingRow[col].divide(pivot);
         }
 
-        for (int row = 0; row < rows; ++row) {
+        for (int row = 0; row < this.rows; ++row) {
             if (row == exiting) {
                 continue;
             }
 
-            BigFraction x = this.table.get(row, entering);
+            BigFraction x = this.table[row][entering];
 
-            for (int col = 0; col < cols; ++col) {
-                if (col == entering) {
+            // rows without the entering variable are left alone, and so stay shared
+            if (x.signum() == 0) {
+                continue;
+            }
+
+            BigFraction[] tableRow = this.writableRow(row);
+
+            for (int col = 0; col < this.cols; ++col) {
+                if (col == entering || (col < variables && this.nonbasics[col] == -1)) {
                     continue;
                 }
 
-                BigFraction y = table.get(exiting, col);
-
-                this.table.set(row, col, this.table.get(row, col).subtract(x.multiply(y)));
+                tableRow[col] = tableRow[col].subtractProduct(x, exitingRow[col]);
             }
 
-            this.table.set(row, entering, x.divide(pivot).negate());
+            tableRow[entering] = x.divide(pivot).negate();
         }
 
-        this.table.set(exiting, entering, pivot.reciprocal());
+        exitingRow[entering] = pivot.reciprocal();
 
         int temp = this.nonbasics[entering];
         this.nonbasics[entering] = this.basics[exiting];
         this.basics[exiting] = temp;
+
+        this.lastBound = null;
     }
 
     public Optimize copy() {
-        return new Optimize(this.table.copy(), Arrays.copyOf(this.basics, this.rows - 1), Arrays.copyOf(this.nonbasics, this.cols - 1), this.transform);
+        // the rows are now shared, so neither side may write to them in place
+        Arrays.fill(this.owned, false);
+
+        Optimize copy = new Optimize(this.table.clone(), new boolean[this.rows], Arrays.copyOf(this.basics, this.rows - 1), Arrays.copyOf(this.nonbasics, this.cols - 1), this.transform);
+        copy.boxBounds = this.boxBounds;
+        copy.slacks = this.slacks;
+        copy.lefts = this.lefts;
+        copy.rights = this.rights;
+        return copy;
     }
 
+    /**
+     * Checks whether the given point satisfies every constraint of this optimizer, using exact arithmetic and without
+     * touching the tableau
+     *
+     * @param point The point to check
+     * @return true if the point is in the feasible region, false otherwise
+     */
+    public boolean contains(BigVector point) {
+        if (point.getDimension() != this.transform.getRowCount()) {
+            throw new IllegalArgumentException("invalid size of point");
+        }
+
+        for (int constraint = 0; constraint < this.slacks.size(); ++constraint) {
+            int comparison = this.lefts.get(constraint).dot(point).compareTo(this.rights.get(constraint));
+            int slack = this.slacks.get(constraint);
+
+            if (slack == 0 ? comparison != 0 : comparison * slack > 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Writes the constraints this optimizer was built from, so that optimizers built from the same constraints write the
+     * same bytes
+     *
+     * @param buf The buffer to write the constraints to
+     */
+    public void writeConstraints(ByteArrayOutputStream buf) {
+        SerializeRt.writeVarInt(buf, this.slacks.size());
+
+        for (int constraint = 0; constraint < this.slacks.size(); ++constraint) {
+            BigVector lhs = this.lefts.get(constraint);
+            SerializeRt.writeLong(buf, this.slacks.get(constraint));
+            SerializeRt.writeVarInt(buf, lhs.getDimension());
+
+            for (int i = 0; i < lhs.getDimension(); ++i) {
+                SerializeRt.writeBigInt(buf, lhs.get(i).getNumerator());
+                SerializeRt.writeBigInt(buf, lhs.get(i).getDenominator());
+            }
+
+            SerializeRt.writeBigInt(buf, this.rights.get(constraint).getNumerator());
+            SerializeRt.writeBigInt(buf, this.rights.get(constraint).getDenominator());
+        }
+    }
+
+    /**
+     * Returns the per-variable bounds of this optimizer if every constraint it was built from bounds a single variable
+     * and every variable is bounded from both sides, i.e. if the feasible region is an axis-aligned box
+     *
+     * @return A pair of the lower and upper bound vectors, or {@code null} if the feasible region is not a box
+     */
+    public Pair<BigVector, BigVector> getBoxBounds() {
+        return this.boxBounds;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the bound leaves no feasible point
+     * @see #tryWithStrictBound(BigVector, BigFraction)
+     */
     public Optimize withStrictBound(BigVector lhs, BigFraction rhs) {
-        BigMatrix newTable = new BigMatrix(this.rows + 1, this.cols);
+        Optimize optimize = this.tryWithStrictBound(lhs, rhs);
 
-        for (int row = 0; row < this.rows - 1; ++row) {
-            newTable.setRow(row, this.table.getRow(row));
+        if (optimize == null) {
+            throw new IllegalArgumentException("table has no basic feasible solutions: " + lhs + " = " + rhs);
+        }
+
+        return optimize;
+    }
+
+    /**
+     * Returns an optimizer for the feasible region of this one intersected with {@code lhs * x = rhs}, or null if that
+     * intersection is empty. An empty intersection is a normal outcome of a search, so it is reported without an
+     * exception, and is usually caught by a sign check on the new row before any of the tableau is copied.
+     */
+    public Optimize tryWithStrictBound(BigVector lhs, BigFraction rhs) {
+        if (lhs.getDimension() != this.transform.getRowCount()) {
+            throw new IllegalArgumentException("invalid size of lhs");
+        }
+
+        BigFraction[] newRow = this.boundRow(lhs, rhs);
+        BigFraction value = newRow[this.cols - 1];
+
+        // pick a column to solve the new equality for, preferably one that
+        // leaves its variable non-negative so there is less to repair
+        int entering = -1;
+
+        for (int col = 0; col < this.cols - 1; ++col) {
+            if (this.nonbasics[col] == -1 || newRow[col].signum() == 0) {
+                continue;
+            }
+
+            if (entering == -1 || (newRow[col].signum() * value.signum() >= 0 && newRow[entering].signum() * value.signum() < 0)) {
+                entering = col;
+            }
+        }
+
+        // the new row reads sum(a * s) = value over non-negative nonbasic
+        // variables s, which has no solution if value is nonzero and no
+        // coefficient shares its sign. this also covers an equality without
+        // any free variable, which either already holds or can't hold at all
+        if (value.signum() != 0 && (entering == -1 || newRow[entering].signum() != value.signum())) {
+            return null;
+        }
+
+        Optimize optimize;
+
+        if (entering == -1) {
+            optimize = this.copy();
+        } else {
+            // the child shares every row it doesn't need to change
+            Arrays.fill(this.owned, false);
+
+            BigFraction[][] newTable = new BigFraction[this.rows + 1][];
+            System.arraycopy(this.table, 0, newTable, 0, this.rows - 1);
+            newTable[this.rows - 1] = newRow;
+            newTable[this.rows] = new BigFraction[this.cols];
+            Arrays.fill(newTable[this.rows], BigFraction.ZERO);
+
+            boolean[] newOwned = new boolean[this.rows + 1];
+            newOwned[this.rows - 1] = true;
+            newOwned[this.rows] = true;
+
+            int[] newBasics = Arrays.copyOf(this.basics, this.rows);
+            int[] newNonbasics = Arrays.copyOf(this.nonbasics, this.cols - 1);
+            newBasics[this.rows - 1] = newNonbasics[entering];
+            newNonbasics[entering] = -1;
+
+            optimize = new Optimize(newTable, newOwned, newBasics, newNonbasics, this.transform);
+            optimize.eliminate(entering, this.rows - 1);
+
+            if (!optimize.restoreFeasibility()) {
+                return null;
+            }
+        }
+
+        optimize.boxBounds = null;
+        optimize.slacks = new ArrayList<>(this.slacks);
+        optimize.lefts = new ArrayList<>(this.lefts);
+        optimize.rights = new ArrayList<>(this.rights);
+        optimize.slacks.add(0);
+        optimize.lefts.add(lhs.copy());
+        optimize.rights.add(rhs);
+        return optimize;
+    }
+
+    /**
+     * Returns the row of the tableau for the given constraint. Unless an
+     * artificial variable was left in the basis, the rhs only shows up in the
+     * last entry, so the rest is reused between calls with the same lhs
+     */
+    private BigFraction[] boundRow(BigVector lhs, BigFraction rhs) {
+        for (int basicRow = 0; basicRow < this.rows - 1; ++basicRow) {
+            if (this.basics[basicRow] >= this.transform.getColumnCount() - 1) {
+                return this.transformForTable(lhs, rhs);
+            }
+        }
+
+        Pair<BigVector, BigFraction[]> last = this.lastBound;
+
+        if (last == null || !last.getFirst().equals(lhs)) {
+            last = new Pair<>(lhs.copy(), this.transformForTable(lhs, BigFraction.ZERO));
+            this.lastBound = last;
         }
 
-        newTable.setRow(this.rows - 1, this.transformForTable(lhs, rhs));
+        BigFraction[] row = last.getSecond().clone();
+        row[this.cols - 1] = row[this.cols - 1].add(rhs);
+        return row;
+    }
+
+    /**
+     * Makes the variable of the given (now dead) column basic in the given
+     * row, and removes it from every other row
+     */
+    private void eliminate(int column, int basicRow) {
+        BigFraction[] pivotRow = this.writableRow(basicRow);
+        BigFraction pivot = pivotRow[column];
+
+        for (int col = 0; col < this.cols; ++col) {
+            if (col < this.cols - 1 && this.nonbasics[col] == -1) {
+                continue;
+            }
 
-        if (newTable.get(this.rows - 1, this.cols - 1).signum() < 0) {
-            newTable.getRow(this.rows - 1).multiplyAndSet(BigFraction.MINUS_ONE);
+            pivotRow[col] = pivotRow[col].divide(pivot);
         }
 
-        int[] newBasics = Arrays.copyOf(this.basics, this.rows);
-        int[] newNonbasics = Arrays.copyOf(this.nonbasics, this.cols - 1);
-        newBasics[this.rows - 1] = (this.rows - 1) + (this.cols - 1);
+        pivotRow[column] = BigFraction.ZERO;
+
+        for (int row = 0; row < this.rows - 1; ++row) {
+            BigFraction x = this.table[row][column];
+
+            if (row == basicRow || x.signum() == 0) {
+                continue;
+            }
+
+            BigFraction[] tableRow = this.writableRow(row);
+
+            for (int col = 0; col < this.cols; ++col) {
+                if (col < this.cols - 1 && this.nonbasics[col] == -1) {
+                    continue;
+                }
+
+                tableRow[col] = tableRow[col].subtract(x.multiply(pivotRow[col]));
+            }
+
+            tableRow[column] = BigFraction.ZERO;
+        }
+    }
+
+    /**
+     * Runs the dual simplex method against a zero objective, which every
+     * basis is optimal for, until no basic variable is negative. Bland's rule
+     * is used throughout since every pivot is degenerate in the dual
+     *
+     * @return false if the table has no feasible solution
+     */
+    private boolean restoreFeasibility() {
+        while (true) {
+            int exiting = -1;
+
+            for (int row = 0; row < this.rows - 1; ++row) {
+                if (this.table[row][this.cols - 1].signum() >= 0) {
+                    continue;
+                }
+
+                if (exiting == -1 || this.basics[row] < this.basics[exiting]) {
+                    exiting = row;
+                }
+            }
+
+            if (exiting == -1) {
+                return true;
+            }
+
+            int entering = -1;
+
+            for (int col = 0; col < this.cols - 1; ++col) {
+                if (this.nonbasics[col] == -1 || this.table[exiting][col].signum() >= 0) {
+                    continue;
+                }
+
+                if (entering == -1 || this.nonbasics[col] < this.nonbasics[entering]) {
+                    entering = col;
+                }
+            }
 
-        return from(newTable, newBasics, newNonbasics, 1, this.transform);
+            if (entering == -1) {
+                return false;
+            }
+
+            this.pivot(entering, exiting);
+        }
     }
 
     private static Optimize from(BigMatrix table, int[] basics, int[] nonbasics, int artificials, BigMatrix transform) {
@@ -230,14 +568,14 @@ public class Optimize {
         Optimize optimize = new Optimize(table, basics, nonbasics, null);
         optimize.solve();
 
-        if (table.get(rows - 1, cols - 1).signum() != 0) {
-            throw new IllegalArgumentException("table has no basic feasible solutions: " + table.get(rows - 1, cols - 1));
+        if (optimize.table[rows - 1][cols - 1].signum() != 0) {
+            return null;
         }
 
         for (int row = 0; row < rows - 1; ++row) {
             if (basics[row] >= realVariables) {
                 for (int col = 0; col < cols - 1; ++col) {
-                    if (nonbasics[col] >= realVariables || table.get(row, col).signum() == 0) {
+                    if (nonbasics[col] >= realVariables || optimize.table[row][col].signum() == 0) {
                         continue;
                     }
 
@@ -248,7 +586,8 @@ public class Optimize {
         }
 
         int finalCols = cols - artificials;
-        BigMatrix finalTable = new BigMatrix(rows, finalCols);
+        BigFraction[][] finalTable = new BigFraction[rows][finalCols];
+        Arrays.fill(finalTable[rows - 1], BigFraction.ZERO);
 
         for (int c0 = 0, c1 = 0; c0 < finalCols - 1; ++c0, ++c1) {
             for (; ; ++c1) {
@@ -257,7 +596,7 @@ public class Optimize {
                 }
 
                 for (int row = 0; row < rows - 1; ++row) {
-                    finalTable.set(row, c0, table.get(row, c1));
+                    finalTable[row][c0] = optimize.table[row][c1];
                 }
 
                 nonbasics[c0] = nonbasics[c1];
@@ -266,10 +605,13 @@ public class Optimize {
         }
 
         for (int row = 0; row < rows - 1; ++row) {
-            finalTable.set(row, finalCols - 1, table.get(row, cols - 1));
+            finalTable[row][finalCols - 1] = optimize.table[row][cols - 1];
         }
 
-        return new Optimize(finalTable, basics, nonbasics, transform);
+        boolean[] owned = new boolean[rows];
+        Arrays.fill(owned, true);
+
+        return new Optimize(finalTable, owned, basics, Arrays.copyOf(nonbasics, finalCols - 1), transform);
     }
 
     private static Optimize from(BigMatrix innerTable, BigMatrix transform) {
@@ -334,7 +676,7 @@ public class Optimize {
                 BigVector rowVector = innerTable.getRow(row);
                 BigVector basicVector = innerTable.getRow(basicRow);
 
-                rowVector.subtractAndSet(basicVector.multiply(rowVector.get(basics[basicRow])));
+                rowVector.subtractMultipleAndSet(basicVector, rowVector.get(basics[basicRow]));
             }
 
             for (int col = 0; col < nonbasicCount; ++col) {
@@ -370,7 +712,29 @@ public class Optimize {
             }
         }
 
+        /**
+         * @throws IllegalArgumentException If the constraints leave no feasible point
+         * @see #tryBuild()
+         */
         public Optimize build() {
+            Optimize optimize = this.tryBuild();
+
+            if (optimize == null) {
+                throw new IllegalArgumentException("table has no basic feasible solutions");
+            }
+
+            return optimize;
+        }
+
+        /**
+         * Builds the optimizer, or returns null if the constraints leave no feasible point. Constraints that contradict
+         * each other over the bounds of single variables are caught before the tableau is built.
+         */
+        public Optimize tryBuild() {
+            if (this.boundsConflict()) {
+                return null;
+            }
+
             int variables = this.size + this.slacks.size();
             int constraint = 0;
             int slack = this.size;
@@ -463,7 +827,123 @@ public class Optimize {
                 innerTable.set(row, slack - this.size, table.get(this.size + row, variables + 2 * this.size));
             }
 
-            return from(innerTable, transform);
+            Optimize optimize = from(innerTable, transform);
+
+            if (optimize == null) {
+                return null;
+            }
+
+            optimize.boxBounds = this.computeBoxBounds();
+            optimize.slacks = new ArrayList<>(this.slacks);
+            optimize.lefts = new ArrayList<>(this.lefts);
+            optimize.rights = new ArrayList<>(this.rights);
+            return optimize;
+        }
+
+        /**
+         * Checks the constraints against the interval of each variable given by the constraints on that variable
+         * alone, in interval arithmetic. This can miss an empty region, but never reports a feasible one as empty.
+         */
+        private boolean boundsConflict() {
+            BigFraction[] lower = new BigFraction[this.size];
+            BigFraction[] upper = new BigFraction[this.size];
+            this.singleVariableBounds(lower, upper);
+
+            for (int i = 0; i < this.size; ++i) {
+                if (lower[i] != null && upper[i] != null && lower[i].compareTo(upper[i]) > 0) {
+                    return true;
+                }
+            }
+
+            for (int constraint = 0; constraint < this.slacks.size(); ++constraint) {
+                BigVector lhs = this.lefts.get(constraint);
+                // the range of lhs * x over the intervals, where null is unbounded
+                BigFraction min = BigFraction.ZERO;
+                BigFraction max = BigFraction.ZERO;
+
+                for (int col = 0; col < this.size; ++col) {
+                    BigFraction a = lhs.get(col);
+
+                    if (a.signum() == 0) {
+                        continue;
+                    }
+
+                    BigFraction low = a.signum() > 0 ? lower[col] : upper[col];
+                    BigFraction high = a.signum() > 0 ? upper[col] : lower[col];
+                    min = min == null || low == null ? null : min.add(a.multiply(low));
+                    max = max == null || high == null ? null : max.add(a.multiply(high));
+                }
+
+                BigFraction rhs = this.rights.get(constraint);
+                int slack = this.slacks.get(constraint);
+
+                if (slack >= 0 && min != null && min.compareTo(rhs) > 0) {
+                    return true;
+                }
+
+                if (slack <= 0 && max != null && max.compareTo(rhs) < 0) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private Pair<BigVector, BigVector> computeBoxBounds() {
+            BigFraction[] lower = new BigFraction[this.size];
+            BigFraction[] upper = new BigFraction[this.size];
+
+            if (!this.singleVariableBounds(lower, upper)) {
+                return null;
+            }
+
+            for (int i = 0; i < this.size; ++i) {
+                if (lower[i] == null || upper[i] == null) {
+                    return null;
+                }
+            }
+
+            return new Pair<>(new BigVector(lower), new BigVector(upper));
+        }
+
+        /**
+         * Narrows the interval of each variable, where null is unbounded, by every constraint on that variable alone
+         *
+         * @return true if every constraint is on a single variable
+         */
+        private boolean singleVariableBounds(BigFraction[] lower, BigFraction[] upper) {
+            boolean single = true;
+
+            for (int constraint = 0; constraint < this.slacks.size(); ++constraint) {
+                BigVector lhs = this.lefts.get(constraint);
+                int index = -1;
+
+                for (int col = 0; col < this.size; ++col) {
+                    if (lhs.get(col).signum() != 0) {
+                        index = index == -1 ? col : -2;
+                    }
+                }
+
+                if (index < 0) {
+                    single = false;
+                    continue;
+                }
+
+                // normalize a * x (<=, =, >=) b to x (<=, =, >=) b / a, flipping the direction when a is negative
+                BigFraction scale = lhs.get(index);
+                BigFraction rhs = this.rights.get(constraint).divide(scale);
+                int slack = this.slacks.get(constraint) * scale.signum();
+
+                if (slack <= 0 && (lower[index] == null || rhs.compareTo(lower[index]) > 0)) {
+                    lower[index] = rhs;
+                }
+
+                if (slack >= 0 && (upper[index] == null || rhs.compareTo(upper[index]) < 0)) {
+                    upper[index] = rhs;
+                }
+            }
+
+            return single;
         }
 
         private void checkLHS(int lhs) {
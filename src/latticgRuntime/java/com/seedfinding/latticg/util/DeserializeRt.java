@@ -63,7 +63,7 @@ public final class DeserializeRt {
         return readBigInt(bufFromString(str));
     }
 
-    private static BigInteger readBigInt(ByteBuffer buf) {
+    public static BigInteger readBigInt(ByteBuffer buf) {
         BigInteger result = BigInteger.ZERO;
         int shift = 0;
         byte b;
@@ -80,7 +80,7 @@ public final class DeserializeRt {
         return result;
     }
 
-    private static int readVarInt(ByteBuffer buf) {
+    public static int readVarInt(ByteBuffer buf) {
         int result = 0;
         int shift = 0;
         byte b;
@@ -95,6 +95,17 @@ public final class DeserializeRt {
         return result;
     }
 
+    /**
+     * @throws ArithmeticException If the value does not fit in a {@code long}
+     */
+    public static long readLong(ByteBuffer buf) {
+        return readBigInt(buf).longValueExact();
+    }
+
+    public static boolean readBoolean(ByteBuffer buf) {
+        return buf.get() != 0;
+    }
+
     private static ByteBuffer bufFromString(String str) {
         ByteBuffer result = ByteBuffer.allocate(str.length() * 2);
         CharBuffer chars = result.asCharBuffer();
@@ -0,0 +1,48 @@
+package com.seedfinding.latticg.util;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+
+/**
+ * The writing side of {@link DeserializeRt}, for data that is written at runtime rather than into generated sources
+ */
+public final class SerializeRt {
+    private SerializeRt() {
+    }
+
+    public static void writeBigInt(ByteArrayOutputStream buf, BigInteger value) {
+        if (value.signum() == -1) {
+            value = value.negate().shiftLeft(1).setBit(0);
+        } else {
+            value = value.shiftLeft(1);
+        }
+
+        do {
+            byte b = (byte) (value.intValue() & 0x7F);
+            value = value.shiftRight(7);
+            if (value.signum() != 0) {
+                b |= (byte) 0x80;
+            }
+            buf.write(b);
+        } while (value.signum() != 0);
+    }
+
+    public static void writeLong(ByteArrayOutputStream buf, long value) {
+        writeBigInt(buf, BigInteger.valueOf(value));
+    }
+
+    public static void writeVarInt(ByteArrayOutputStream buf, int value) {
+        do {
+            byte b = (byte) (value & 0x7F);
+            value >>>= 7;
+            if (value != 0) {
+                b |= (byte) 0x80;
+            }
+            buf.write(b);
+        } while (value != 0);
+    }
+
+    public static void writeBoolean(ByteArrayOutputStream buf, boolean value) {
+        buf.write(value ? 1 : 0);
+    }
+}
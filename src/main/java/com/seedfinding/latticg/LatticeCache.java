@@ -0,0 +1,308 @@
+package com.seedfinding.latticg;
+
+import com.seedfinding.latticg.math.component.BigFraction;
+import com.seedfinding.latticg.math.component.BigMatrix;
+import com.seedfinding.latticg.util.DeserializeRt;
+import com.seedfinding.latticg.util.SerializeRt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of reduced lattices, shared by reversals with the same shape.
+ *
+ * <p>The lattice of a reversal, and so its reduction, only depends on the LCG, the calls and the skips between them,
+ * while the observed values only move the box the seeds are searched in. The box is scaled before the reduction, so
+ * the widths of its sides matter too, but not where it lies. A reversal of the same shape as an earlier one, with
+ * other observations, can then take the reduced basis, and the inverse the search needs, from this cache rather than
+ * reduce the lattice and invert the basis again. The key is the lattice itself along with the widths of the box, so two
+ * reversals share an entry exactly when their reductions would be the same.
+ *
+ * <p>The least recently used entry is dropped once there are more than the capacity. With a directory, entries are also
+ * written there, one file per entry named by the SHA-256 of its key, and read back on a miss, so that they outlive the
+ * process. A file that cannot be read or written is treated as a miss.
+ */
+public final class LatticeCache {
+    private static final int VERSION = 1;
+    private static final LatticeCache SHARED = new LatticeCache(64);
+
+    private final int capacity;
+    private final Path directory;
+    private final Map<Key, Reduction> entries;
+
+    /**
+     * Creates a cache kept in memory only
+     *
+     * @throws IllegalArgumentException If the capacity is not positive
+     */
+    public LatticeCache(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * Creates a cache also kept in the given directory, which is created if needed, or in memory only if it is null
+     *
+     * @throws IllegalArgumentException If the capacity is not positive
+     */
+    public LatticeCache(int capacity, Path directory) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive, got " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.directory = directory;
+        this.entries = new LinkedHashMap<Key, Reduction>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, LatticeCache.Reduction> eldest) {
+                return this.size() > LatticeCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the in-memory cache of 64 entries programs use unless given another one
+     */
+    public static LatticeCache shared() {
+        return SHARED;
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Drops every entry kept in memory, the files of the directory are left alone
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+
+    /**
+     * Returns a copy of the entry for the given lattice and widths, which the caller is free to change, or null if there
+     * is none
+     */
+    Reduction get(BigMatrix lattice, BigInteger[] sideLengths) {
+        Key key = new Key(lattice, sideLengths);
+        Reduction entry;
+
+        synchronized (this) {
+            entry = this.entries.get(key);
+        }
+
+        // the file is read without holding the lock, so that other reversals are not kept waiting on the disk
+        if (entry == null && this.directory != null) {
+            entry = this.read(key);
+
+            if (entry != null) {
+                synchronized (this) {
+                    this.entries.put(key, entry);
+                }
+            }
+        }
+
+        return entry == null ? null : entry.copy();
+    }
+
+    /**
+     * Stores a copy of the entry, so that the caller can go on changing its own
+     */
+    void put(BigMatrix lattice, BigInteger[] sideLengths, Reduction entry) {
+        Key key = new Key(lattice, sideLengths);
+        Reduction copy = entry.copy();
+
+        synchronized (this) {
+            this.entries.put(key, copy);
+        }
+
+        if (this.directory != null) {
+            this.write(key, copy);
+        }
+    }
+
+    private Reduction read(Key key) {
+        Path file = this.directory.resolve(key.fileName());
+
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+
+            if (DeserializeRt.readVarInt(buf) != VERSION) {
+                return null;
+            }
+
+            byte[] stored = new byte[readLength(buf, 1)];
+            buf.get(stored);
+
+            if (!Arrays.equals(stored, key.bytes)) {
+                return null;
+            }
+
+            BigMatrix reducedLattice = readMatrix(buf);
+            BigInteger[] seedCoefficients = new BigInteger[readLength(buf, 1)];
+
+            for (int i = 0; i < seedCoefficients.length; i++) {
+                seedCoefficients[i] = DeserializeRt.readBigInt(buf);
+            }
+
+            return new Reduction(reducedLattice, seedCoefficients, readMatrix(buf));
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private void write(Key key, Reduction entry) {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        SerializeRt.writeVarInt(buf, VERSION);
+        SerializeRt.writeVarInt(buf, key.bytes.length);
+        buf.write(key.bytes, 0, key.bytes.length);
+        writeMatrix(buf, entry.reducedLattice);
+        SerializeRt.writeVarInt(buf, entry.seedCoefficients.length);
+
+        for (BigInteger coefficient : entry.seedCoefficients) {
+            SerializeRt.writeBigInt(buf, coefficient);
+        }
+
+        writeMatrix(buf, entry.rootInverse);
+
+        try {
+            Files.createDirectories(this.directory);
+            // write to the side and move, so that another process never reads half a file
+            Path temp = Files.createTempFile(this.directory, key.fileName(), ".tmp");
+            Files.write(temp, buf.toByteArray());
+            Files.move(temp, this.directory.resolve(key.fileName()), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // the entry is still kept in memory
+        }
+    }
+
+    private static void writeMatrix(ByteArrayOutputStream buf, BigMatrix matrix) {
+        SerializeRt.writeVarInt(buf, matrix.getRowCount());
+        SerializeRt.writeVarInt(buf, matrix.getColumnCount());
+
+        for (int row = 0; row < matrix.getRowCount(); row++) {
+            for (int col = 0; col < matrix.getColumnCount(); col++) {
+                SerializeRt.writeBigInt(buf, matrix.get(row, col).getNumerator());
+                SerializeRt.writeBigInt(buf, matrix.get(row, col).getDenominator());
+            }
+        }
+    }
+
+    private static BigMatrix readMatrix(ByteBuffer buf) {
+        int rows = readLength(buf, 0);
+        int cols = readLength(buf, 0);
+
+        // every element is two integers of at least a byte each
+        if ((long) rows * cols * 2 > buf.remaining()) {
+            throw new IllegalArgumentException("Malformed cache file");
+        }
+
+        BigMatrix matrix = new BigMatrix(rows, cols);
+
+        for (int row = 0; row < matrix.getRowCount(); row++) {
+            for (int col = 0; col < matrix.getColumnCount(); col++) {
+                matrix.set(row, col, new BigFraction(DeserializeRt.readBigInt(buf), DeserializeRt.readBigInt(buf)));
+            }
+        }
+
+        return matrix;
+    }
+
+    /**
+     * Reads a length written with {@link SerializeRt#writeVarInt}, checking that the rest of the file can hold that many
+     * items of the given number of bytes, so that a corrupt file is not allocated for
+     *
+     * @throws IllegalArgumentException If the length is negative or too long for the rest of the file
+     */
+    private static int readLength(ByteBuffer buf, int bytesEach) {
+        int length = DeserializeRt.readVarInt(buf);
+
+        if (length < 0 || (long) length * bytesEach > buf.remaining()) {
+            throw new IllegalArgumentException("Malformed cache file");
+        }
+
+        return length;
+    }
+
+    /**
+     * The reduction of a lattice, as {@link RandomReverser} keeps it. The cache only hands out copies of its entries,
+     * since the matrices are mutable.
+     */
+    static final class Reduction {
+        final BigMatrix reducedLattice;
+        final BigInteger[] seedCoefficients;
+        // the inverse of the transpose of the reduced lattice, which is the basis of the search
+        final BigMatrix rootInverse;
+
+        Reduction(BigMatrix reducedLattice, BigInteger[] seedCoefficients, BigMatrix rootInverse) {
+            this.reducedLattice = reducedLattice;
+            this.seedCoefficients = seedCoefficients;
+            this.rootInverse = rootInverse;
+        }
+
+        Reduction copy() {
+            return new Reduction(this.reducedLattice.copy(), this.seedCoefficients.clone(), this.rootInverse.copy());
+        }
+    }
+
+    private static final class Key {
+        private final byte[] bytes;
+        private final int hash;
+
+        private Key(BigMatrix lattice, BigInteger[] sideLengths) {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            writeMatrix(buf, lattice);
+            SerializeRt.writeVarInt(buf, sideLengths.length);
+
+            for (BigInteger sideLength : sideLengths) {
+                SerializeRt.writeBigInt(buf, sideLength);
+            }
+
+            this.bytes = buf.toByteArray();
+            this.hash = Arrays.hashCode(this.bytes);
+        }
+
+        private String fileName() {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(this.bytes);
+                StringBuilder name = new StringBuilder(digest.length * 2);
+
+                for (byte b : digest) {
+                    name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+                }
+
+                return name.toString();
+            } catch (NoSuchAlgorithmException e) {
+                // every Java platform has SHA-256
+                throw new AssertionError(e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && Arrays.equals(this.bytes, ((Key) o).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
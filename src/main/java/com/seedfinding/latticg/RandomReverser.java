@@ -7,7 +7,11 @@ import com.seedfinding.latticg.math.component.BigVector;
 import com.seedfinding.latticg.math.lattice.LLL.LLL;
 import com.seedfinding.latticg.math.lattice.LLL.Params;
 import com.seedfinding.latticg.math.lattice.LLL.Result;
-import com.seedfinding.latticg.math.lattice.enumeration.Enumerate;
+import com.seedfinding.latticg.math.lattice.enumerate.EnumerateRt;
+import com.seedfinding.latticg.math.lattice.enumerate.EnumerationCursor;
+import com.seedfinding.latticg.math.lattice.enumerate.EnumerationEstimate;
+import com.seedfinding.latticg.math.optimize.Optimize;
+import com.seedfinding.latticg.reversal.ReversalCursor;
 import com.seedfinding.latticg.reversal.calltype.FilteredSkip;
 import com.seedfinding.latticg.util.LCG;
 import com.seedfinding.latticg.util.Mth;
@@ -16,7 +20,9 @@ import org.jetbrains.annotations.ApiStatus;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.LongStream;
 
 @ApiStatus.Internal
@@ -30,6 +36,14 @@ public class RandomReverser {
     protected final ArrayList<Long> callIndices;
     protected final List<FilteredSkip> filteredSkips;
     protected BigMatrix lattice;
+    // the reduced basis as of the last call to createLattice, with the coefficient of the first row of the lattice in
+    // each of its rows, which is all it takes to extend it with the dimensions added since
+    private BigMatrix reducedLattice;
+    private BigInteger[] reducedSeedCoefficients;
+    private int reducedDimensions;
+    // the inverse of the basis of the search, the transpose of the reduced basis, once needed
+    private BigMatrix rootInverse;
+    private LatticeCache latticeCache;
     protected long currentCallIndex;
     protected int dimensions;
     protected boolean verbose;
@@ -61,6 +75,49 @@ public class RandomReverser {
             return LongStream.range(0, this.lcg.modulus);
         }
 
+        Search search = prepareSearch();
+
+        // only the first seed is needed, so the points themselves are never built
+        return EnumerateRt.enumerateRow(search.basis, search.offset, search.constraints, search.rootInverse, search.rootOrigin, 0)
+            .map(search.r::nextSeed)
+            .filter(this::passesFilteredSkips);
+    }
+
+    /**
+     * Finds the same seeds as {@link #findAllValidSeeds()} one at a time, from the start or from a
+     * {@link ReversalCursor#checkpoint()} of the same reversal
+     *
+     * @param checkpoint The checkpoint to resume from, or null to start from the beginning
+     */
+    public ReversalCursor findAllValidSeedsCursor(byte[] checkpoint) {
+        if (dimensions == 0) {
+            return ReversalCursor.ofRange(this.lcg.modulus, checkpoint);
+        }
+
+        Search search = prepareSearch();
+        EnumerationCursor cursor = checkpoint == null
+            ? EnumerateRt.cursor(search.basis, search.offset, search.constraints, search.rootInverse, search.rootOrigin, EnumerateRt.Strategy.AUTOMATIC)
+            : EnumerateRt.resume(search.basis, search.offset, search.constraints, search.rootInverse, search.rootOrigin, EnumerateRt.Strategy.AUTOMATIC, checkpoint);
+
+        return ReversalCursor.ofEnumeration(cursor, search.r::nextSeed, this::passesFilteredSkips);
+    }
+
+    /**
+     * Estimates the size of the search {@link #findAllValidSeeds()} runs, without running it. The reduction of the
+     * lattice is done, and kept for the search.
+     *
+     * @throws IllegalStateException If there are no measured seeds, so that every seed is valid
+     */
+    public EnumerationEstimate estimateSearch() {
+        if (dimensions == 0) {
+            throw new IllegalStateException("There is no search without measured seeds");
+        }
+
+        Search search = prepareSearch();
+        return EnumerateRt.estimate(search.basis, search.constraints, search.rootInverse, search.rootOrigin);
+    }
+
+    private Search prepareSearch() {
         createLattice();
         BigVector lower = new BigVector(dimensions);
         BigVector upper = new BigVector(dimensions);
@@ -88,21 +145,44 @@ public class RandomReverser {
         if (successChance != 1.0)
             System.err.printf("Ignored approximately %.2e of all seeds %n", 1 - successChance);
 
-        return Enumerate.enumerate(lattice.transpose(), lower, upper, offset)
-            .map(vec -> vec.get(0))
-            .map(BigFraction::getNumerator)
-            .mapToLong(BigInteger::longValue)
-            .map(r::nextSeed)
-            .filter(seed -> {
-                    for (FilteredSkip call : this.filteredSkips) {
-                        Rand rr = Rand.ofInternalSeed(lcg, seed);
-                        if (!call.checkState(rr)) {
-                            return false;
-                        }
-                    }
-                    return true;
-                }
-            );
+        BigMatrix basis = reducedLattice.transpose();
+
+        if (rootInverse == null) {
+            rootInverse = BigMatrixUtil.inverse(basis);
+        }
+
+        return new Search(basis, offset, createConstraints(), rootInverse, rootInverse.multiply(offset), r);
+    }
+
+    /**
+     * Creates the bounds the measured seeds must fall in, without reducing the lattice
+     */
+    public Optimize createConstraints() {
+        Optimize.Builder constraints = Optimize.Builder.ofSize(dimensions);
+
+        for (int i = 0; i < dimensions; i++) {
+            constraints.withLowerBound(i, new BigFraction(mins.get(i))).withUpperBound(i, new BigFraction(maxes.get(i)));
+        }
+
+        return constraints.build();
+    }
+
+    /**
+     * Returns whether this reverser measures the same seeds on the same lattice as the other, so that a reduction of
+     * either lattice can search the bounds of both
+     */
+    public boolean hasLatticeOf(RandomReverser other) {
+        return lcg.equals(other.lcg) && callIndices.equals(other.callIndices) && Objects.equals(lattice, other.lattice);
+    }
+
+    public boolean passesFilteredSkips(long seed) {
+        for (FilteredSkip call : this.filteredSkips) {
+            Rand rr = Rand.ofInternalSeed(lcg, seed);
+            if (!call.checkState(rr)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private void createLattice() {
@@ -113,6 +193,10 @@ public class RandomReverser {
             return;
         }
 
+        if (reducedLattice != null && reducedDimensions == dimensions) {
+            return;
+        }
+
         BigInteger[] sideLengths = new BigInteger[dimensions]; //The lengths of the sides of the cuboid in which our seeds must fall
 
         for (int i = 0; i < dimensions; i++) {
@@ -124,6 +208,19 @@ public class RandomReverser {
             lcm = Mth.lcm(lcm, sideLengths[i]);
         }
 
+        // a verbose reversal prints the reduction, so it always runs one
+        if (latticeCache != null && !verbose) {
+            LatticeCache.Reduction entry = latticeCache.get(lattice, sideLengths);
+
+            if (entry != null) {
+                reducedLattice = entry.reducedLattice;
+                reducedSeedCoefficients = entry.seedCoefficients;
+                reducedDimensions = dimensions;
+                rootInverse = entry.rootInverse;
+                return;
+            }
+        }
+
         BigMatrix scales = new BigMatrix(dimensions, dimensions);
         for (int i = 0; i < dimensions; i++) {
             for (int j = 0; j < dimensions; j++)
@@ -131,7 +228,20 @@ public class RandomReverser {
             scales.set(i, i, new BigFraction(lcm.divide(sideLengths[i])));
         }
 
-        BigMatrix unscaledLattice = lattice;
+        BigMatrix unscaledLattice;
+        BigInteger[] seedCoefficients;
+
+        if (reducedLattice == null) {
+            unscaledLattice = lattice;
+            seedCoefficients = new BigInteger[dimensions + 1];
+            Arrays.fill(seedCoefficients, BigInteger.ZERO);
+            seedCoefficients[0] = BigInteger.ONE;
+        } else {
+            unscaledLattice = extendReducedLattice();
+            seedCoefficients = Arrays.copyOf(reducedSeedCoefficients, dimensions);
+            Arrays.fill(seedCoefficients, reducedDimensions, dimensions, BigInteger.ZERO);
+        }
+
         if (verbose)
             System.out.println("Looking for points on:\n" + BigMatrixUtil.toPrettyString(unscaledLattice));
 
@@ -140,7 +250,7 @@ public class RandomReverser {
         if (verbose)
             System.out.println("Reducing:\n" + BigMatrixUtil.toPrettyString(scaledLattice));
         // BigMatrix transformations = BigMatrix.identityMatrix(dimensions);
-        Result result = LLL.reduce(scaledLattice, params);
+        Result result = LLL.reduceFloating(scaledLattice, params);
         //System.out.println("found:\n" + transformations.multiply(unscaledLattice).toPrettyString());
         if (verbose) {
             System.out.println("Found Reduced Scaled Basis:\n" + BigMatrixUtil.toPrettyString(result.getReducedBasis()));
@@ -149,7 +259,60 @@ public class RandomReverser {
         }
         //Matrix m = new Matrix.Factory().fromBigMatrix(result.multiply(scales.inverse()));
         // lattice = result.getTransformations().multiply(unscaledLattice);
-        lattice = result.getReducedBasis().multiply(BigMatrixUtil.inverse(scales));
+        reducedLattice = result.getReducedBasis().multiply(BigMatrixUtil.inverse(scales));
+        reducedSeedCoefficients = new BigInteger[reducedLattice.getRowCount()];
+        reducedDimensions = dimensions;
+        BigMatrix transformations = result.getTransformations();
+
+        for (int row = 0; row < reducedSeedCoefficients.length; row++) {
+            BigInteger coefficient = BigInteger.ZERO;
+            for (int col = 0; col < seedCoefficients.length; col++)
+                coefficient = coefficient.add(transformations.get(row + result.getNumDependantVectors(), col).getNumerator().multiply(seedCoefficients[col]));
+            reducedSeedCoefficients[row] = coefficient;
+        }
+
+        rootInverse = null;
+
+        if (latticeCache != null) {
+            rootInverse = BigMatrixUtil.inverse(reducedLattice.transpose());
+            latticeCache.put(lattice, sideLengths, new LatticeCache.Reduction(reducedLattice, reducedSeedCoefficients, rootInverse));
+        }
+    }
+
+    /**
+     * Extends the reduced basis of the last call to createLattice to the dimensions added since. The new columns of
+     * the lattice are zero in every row but the first, so a reduced row gets its coefficient of the first row times
+     * the first row in them, reduced by the rows the new dimensions brought along, which are added as they are. The
+     * result spans the same lattice as the full one and is mostly reduced already, so reducing it is much cheaper.
+     */
+    private BigMatrix extendReducedLattice() {
+        BigMatrix extended = new BigMatrix(dimensions, dimensions);
+
+        for (int row = 0; row < reducedDimensions; row++) {
+            for (int col = 0; col < reducedDimensions; col++)
+                extended.set(row, col, reducedLattice.get(row, col));
+            for (int col = reducedDimensions; col < dimensions; col++)
+                extended.set(row, col, lattice.get(0, col).multiply(reducedSeedCoefficients[row]));
+        }
+
+        for (int row = reducedDimensions; row < dimensions; row++) {
+            for (int col = 0; col < dimensions; col++)
+                extended.set(row, col, lattice.get(row + 1, col));
+        }
+
+        // the new rows are triangular in the new columns, each starting at a column after the one before it
+        for (int newRow = reducedDimensions; newRow < dimensions; newRow++) {
+            int pivot = reducedDimensions;
+            while (extended.get(newRow, pivot).signum() == 0)
+                pivot++;
+            for (int row = 0; row < reducedDimensions; row++) {
+                BigInteger q = extended.get(row, pivot).divide(extended.get(newRow, pivot)).round();
+                if (q.signum() != 0)
+                    extended.getRow(row).subtractMultipleAndSet(extended.getRow(newRow), q);
+            }
+        }
+
+        return extended;
     }
 
     public void addMeasuredSeed(long min, long max) {
@@ -278,7 +441,7 @@ public class RandomReverser {
 
         LCG r = lcg.combine(-callIndices.get(0));
 
-        return new GenerationInfo(dimensions, lattice.transpose(), offset, r, successChance);
+        return new GenerationInfo(dimensions, reducedLattice.transpose(), offset, r, successChance);
     }
 
     public static final class GenerationInfo {
@@ -300,4 +463,31 @@ public class RandomReverser {
     public void setVerbose(boolean verbose) {
         this.verbose = verbose;
     }
+
+    /**
+     * Sets the cache the reduced lattice is looked up in and added to, or null for none, which is the default. A verbose
+     * reverser only adds to it
+     */
+    public void setLatticeCache(LatticeCache latticeCache) {
+        this.latticeCache = latticeCache;
+    }
+
+    private static final class Search {
+        private final BigMatrix basis;
+        private final BigVector offset;
+        private final Optimize constraints;
+        private final BigMatrix rootInverse;
+        private final BigVector rootOrigin;
+        // maps the first seed of the lattice to the seed before the first call
+        private final LCG r;
+
+        private Search(BigMatrix basis, BigVector offset, Optimize constraints, BigMatrix rootInverse, BigVector rootOrigin, LCG r) {
+            this.basis = basis;
+            this.offset = offset;
+            this.constraints = constraints;
+            this.rootInverse = rootInverse;
+            this.rootOrigin = rootOrigin;
+            this.r = r;
+        }
+    }
 }
@@ -15,9 +15,7 @@ import com.seedfinding.latticg.reversal.calltype.java.NextIntCall;
 import com.seedfinding.latticg.reversal.calltype.java.NextLongCall;
 import com.seedfinding.latticg.reversal.calltype.java.UnboundedNextIntCall;
 import com.seedfinding.latticg.util.DeserializeRt;
-import com.seedfinding.latticg.util.Mth;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -82,54 +80,9 @@ public final class ClassGenerator {
             throw new IllegalStateException("ClassGenerator does not support filtered skips");
         }
 
-        JavaRandomReverser reverser = new JavaRandomReverser(Collections.emptyList());
-
         List<CallType<?>> calls = program.getCalls();
         List<Long> skips = program.getSkips();
-        for (int i = 0; i < calls.size(); i++) {
-            CallType<?> call = calls.get(i);
-            reverser.addUnmeasuredSeeds(skips.get(i));
-
-            if (call instanceof NextBooleanCall) {
-                reverser.addNextBooleanCall(false);
-            } else if (call instanceof NextDoubleCall) {
-                reverser.addNextDoubleCall(0, 0, true, true);
-            } else if (call instanceof NextFloatCall) {
-                reverser.addNextFloatCall(0, 0, true, true);
-            } else if (call instanceof NextIntCall) {
-                reverser.addNextIntCall(((NextIntCall) call).getBound(), 0, 0);
-            } else if (call instanceof UnboundedNextIntCall) {
-                reverser.addNextIntCall(0, 0);
-            } else if (call instanceof NextLongCall) {
-                reverser.addNextLongCall(0, 0);
-            } else if (call instanceof NextFloatCall.FloatRange) {
-                reverser.addNextFloatCall(0.0F, 0.5F);
-            } else if (call instanceof NextIntCall.IntRange) {
-                int bound = ((NextIntCall.IntRange) call).getBound();
-                reverser.addNextIntCall(bound, 0, bound / 2);
-            } else if (call instanceof UnboundedNextIntCall.IntRange) {
-                reverser.addNextIntCall(0, Integer.MAX_VALUE - 1);
-            } else if (call instanceof NextDoubleCall.DoubleRange) {
-                reverser.addNextDoubleCall(0.0D, 0.5D);
-            } else if (call instanceof NextLongCall.LongRange) {
-                reverser.addNextLongCall(0, Long.MAX_VALUE);
-            } else if (call instanceof NextFloatCall.Ranged) {
-                reverser.addNextFloatCall(0, Mth.clamp(((NextFloatCall.Ranged) call).getExpectedSize(), 0, 1));
-            } else if (call instanceof NextIntCall.Ranged) {
-                NextIntCall.Ranged rangedCall = (NextIntCall.Ranged) call;
-                reverser.addNextIntCall(rangedCall.getBound(), 0, Mth.clamp(rangedCall.getExpectedSize(), 0, rangedCall.getBound() - 1));
-            } else if (call instanceof UnboundedNextIntCall.Ranged) {
-                reverser.addNextIntCall(0, ((UnboundedNextIntCall.Ranged) call).getExpectedSize());
-            } else if (call instanceof NextDoubleCall.Ranged) {
-                reverser.addNextDoubleCall(0, Mth.clamp(((NextDoubleCall.Ranged) call).getExpectedSize(), 0x1.0p-26, 1));
-            } else if (call instanceof NextLongCall.Ranged) {
-                reverser.addNextLongCall(0, Math.max(((NextLongCall.Ranged) call).getExpectedSize(), 1L << 32));
-            } else {
-                throw new IllegalStateException("ClassGenerator does not support " + call.getClass().getSimpleName() + " call type");
-            }
-        }
-
-        JavaRandomReverser.GenerationInfo generationInfo = reverser.createGenerationInfo();
+        JavaRandomReverser.GenerationInfo generationInfo = program.createShapeReverser().createGenerationInfo();
 
         classBody.append(TAB + "private static final ");
         appendClassName(classBody, BigMatrix.class);
@@ -263,8 +216,8 @@ public final class ClassGenerator {
         classBody.append(boundsConfig);
         classBody.append(TAB2 + "return ");
         appendClassName(classBody, EnumerateRt.class);
-        classBody.append(".enumerate(BASIS, ORIGIN, builder.build(), ROOT_INV, ROOT_ORIGIN)\n");
-        classBody.append(String.format(TAB3 + ".mapToLong(vec -> (vec.get(0).getNumerator().longValue() * 0x%xL + 0x%xL) & ((1L << 48) - 1));\n", generationInfo.r.multiplier, generationInfo.r.addend));
+        classBody.append(".enumerateRow(BASIS, ORIGIN, builder.build(), ROOT_INV, ROOT_ORIGIN, 0)\n");
+        classBody.append(String.format(TAB3 + ".map(seed -> (seed * 0x%xL + 0x%xL) & ((1L << 48) - 1));\n", generationInfo.r.multiplier, generationInfo.r.addend));
         classBody.append(TAB + "}\n");
     }
 
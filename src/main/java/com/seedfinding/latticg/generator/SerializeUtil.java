@@ -3,8 +3,10 @@ package com.seedfinding.latticg.generator;
 import com.seedfinding.latticg.math.component.BigFraction;
 import com.seedfinding.latticg.math.component.BigMatrix;
 import com.seedfinding.latticg.math.component.BigVector;
+import com.seedfinding.latticg.util.SerializeRt;
 
 import java.awt.event.KeyEvent;
+import java.io.ByteArrayOutputStream;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
@@ -65,31 +67,11 @@ public final class SerializeUtil {
     }
 
     private static void writeBigInt(ByteVector buf, BigInteger value) {
-        if (value.signum() == -1) {
-            value = value.negate().shiftLeft(1).setBit(0);
-        } else {
-            value = value.shiftLeft(1);
-        }
-
-        do {
-            byte b = (byte) (value.intValue() & 0x7F);
-            value = value.shiftRight(7);
-            if (value.signum() != 0) {
-                b |= (byte) 0x80;
-            }
-            buf.add(b);
-        } while (value.signum() != 0);
+        SerializeRt.writeBigInt(buf, value);
     }
 
     private static void writeVarInt(ByteVector buf, int value) {
-        do {
-            byte b = (byte) (value & 0x7F);
-            value >>>= 7;
-            if (value != 0) {
-                b |= (byte) 0x80;
-            }
-            buf.add(b);
-        } while (value != 0);
+        SerializeRt.writeVarInt(buf, value);
     }
 
     private static String bufToStringLiteral(String indent, ByteVector buf) {
@@ -182,19 +164,9 @@ public final class SerializeUtil {
         return false;
     }
 
-    private static final class ByteVector {
-        private byte[] array = new byte[16];
-        private int size = 0;
-
-        public void add(byte b) {
-            if (size >= array.length) {
-                array = Arrays.copyOf(array, array.length * 2);
-            }
-            array[size++] = b;
-        }
-
+    private static final class ByteVector extends ByteArrayOutputStream {
         public byte[] toEvenLengthArray() {
-            return Arrays.copyOf(array, (size + 1) & ~1);
+            return Arrays.copyOf(buf, (count + 1) & ~1);
         }
     }
 }
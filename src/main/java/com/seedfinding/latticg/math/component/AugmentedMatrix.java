@@ -26,8 +26,8 @@ public class AugmentedMatrix {
     }
 
     public void subtractScaledRow(int y1, double scalar, int y2) {
-        this.base.getRow(y1).subtractAndSet(this.base.getRow(y2).multiply(scalar));
-        this.extra.getRow(y1).subtractAndSet(this.extra.getRow(y2).multiply(scalar));
+        this.base.getRow(y1).subtractMultipleAndSet(this.base.getRow(y2), scalar);
+        this.extra.getRow(y1).subtractMultipleAndSet(this.extra.getRow(y2), scalar);
     }
 
     @Override
@@ -1,12 +1,14 @@
 package com.seedfinding.latticg.math.component;
 
-import com.seedfinding.latticg.math.decomposition.LUDecomposition;
 import com.seedfinding.latticg.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public final class BigMatrixUtil {
+    // the size from which the multi-modular methods beat fraction free elimination
+    private static final int MULTI_MODULAR_THRESHOLD = 12;
+
     private BigMatrixUtil() {
     }
 
@@ -19,7 +21,25 @@ public final class BigMatrixUtil {
      * @throws IllegalStateException         If this matrix is singular
      */
     public static BigMatrix inverse(BigMatrix matrix) {
-        return LUDecomposition.decompose(matrix).inverse();
+        if (matrix.getRowCount() >= MULTI_MODULAR_THRESHOLD) {
+            return MultiModular.inverse(matrix);
+        }
+
+        return new CommonDenominatorMatrix(matrix).inverse();
+    }
+
+    /**
+     * Computes the determinant of this matrix
+     *
+     * @return The determinant of this matrix
+     * @throws UnsupportedOperationException If this is not a square matrix
+     */
+    public static BigFraction determinant(BigMatrix matrix) {
+        if (matrix.getRowCount() >= MULTI_MODULAR_THRESHOLD) {
+            return MultiModular.determinant(matrix);
+        }
+
+        return new CommonDenominatorMatrix(matrix).determinant();
     }
 
     /**
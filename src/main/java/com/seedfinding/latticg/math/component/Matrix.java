@@ -11,6 +11,9 @@ import java.util.List;
  */
 public final class Matrix {
 
+    // the side of the square tiles the multiplication works through, 64 by 64 doubles filling a typical L1 data cache
+    private static final int BLOCK_SIZE = 64;
+
     private final double[] numbers;
     private final int rowCount;
     private final int columnCount;
@@ -259,10 +262,69 @@ public final class Matrix {
         }
 
         Matrix dest = new Matrix(this.rowCount, m.columnCount);
+        double[] left = this.numbers;
+        double[] right = m.numbers;
+        double[] result = dest.numbers;
+
+        // works through a tile of the rows of m at a time, adding its products to every row of the result while the
+        // tile is in cache. The products of each element are still added in order, so the result is the same as that of
+        // the dot product of each row and column
+        for (int k0 = 0; k0 < this.columnCount; k0 += BLOCK_SIZE) {
+            int k1 = Math.min(k0 + BLOCK_SIZE, this.columnCount);
+
+            for (int j0 = 0; j0 < dest.columnCount; j0 += BLOCK_SIZE) {
+                int j1 = Math.min(j0 + BLOCK_SIZE, dest.columnCount);
+
+                for (int row = 0; row < this.rowCount; row++) {
+                    int thisRow = this.startIndex + row * this.underlyingColumnCount;
+                    int destRow = row * dest.columnCount;
+
+                    for (int k = k0; k < k1; k++) {
+                        double value = left[thisRow + k];
+                        int mRow = m.startIndex + k * m.underlyingColumnCount;
+
+                        for (int j = j0; j < j1; j++) {
+                            result[destRow + j] += value * right[mRow + j];
+                        }
+                    }
+                }
+            }
+        }
+
+        return dest;
+    }
+
+    /**
+     * Computes {@code this * m}<sup>T</sup>, stores the result in a new matrix and returns that matrix. This is the
+     * same as {@code this.multiply(m.transpose())} without creating the transpose, each element being the dot product
+     * of a row of this matrix and a row of the given matrix
+     *
+     * @param m The matrix whose transpose to right-multiply by
+     * @return A new matrix containing the result
+     * @throws IllegalArgumentException If the number of columns in this matrix is not equal to the number of columns in
+     *                                  the given matrix
+     */
+    public Matrix multiplyTransposed(Matrix m) {
+        if (this.columnCount != m.columnCount) {
+            throw new IllegalArgumentException("Multiplying two matrices with disallowed dimensions");
+        }
+
+        Matrix dest = new Matrix(this.rowCount, m.rowCount);
+        double[] left = this.numbers;
+        double[] right = m.numbers;
 
         for (int row = 0; row < dest.rowCount; row++) {
+            int thisRow = this.startIndex + row * this.underlyingColumnCount;
+
             for (int column = 0; column < dest.columnCount; column++) {
-                dest.set(row, column, this.getRow(row).dot(m.getColumn(column)));
+                int mRow = m.startIndex + column * m.underlyingColumnCount;
+                double dot = 0.0D;
+
+                for (int k = 0; k < this.columnCount; k++) {
+                    dot += left[thisRow + k] * right[mRow + k];
+                }
+
+                dest.numbers[row * dest.columnCount + column] = dot;
             }
         }
 
@@ -334,8 +396,12 @@ public final class Matrix {
     public Matrix transpose() {
         Matrix dest = new Matrix(this.columnCount, this.rowCount);
 
-        for (int i = 0; i < this.columnCount; i++) {
-            dest.setRow(i, this.getColumn(i));
+        for (int row = 0; row < this.rowCount; row++) {
+            int thisRow = this.startIndex + row * this.underlyingColumnCount;
+
+            for (int col = 0; col < this.columnCount; col++) {
+                dest.numbers[col * this.rowCount + row] = this.numbers[thisRow + col];
+            }
         }
 
         return dest;
@@ -462,9 +528,19 @@ public final class Matrix {
      * @throws IndexOutOfBoundsException If {@code row1} or {@code row2} is out of bounds
      */
     public Matrix swapRowsAndSet(int row1, int row2) {
-        Vector temp = this.getRow(row1).copy();
-        this.setRow(row1, this.getRow(row2));
-        this.setRow(row2, temp);
+        if (row1 < 0 || row1 >= rowCount || row2 < 0 || row2 >= rowCount) {
+            throw new IndexOutOfBoundsException("Index " + row1 + ", " + row2 + ", size " + rowCount);
+        }
+
+        int index1 = startIndex + row1 * underlyingColumnCount;
+        int index2 = startIndex + row2 * underlyingColumnCount;
+
+        for (int col = 0; col < columnCount; col++) {
+            double temp = numbers[index1 + col];
+            numbers[index1 + col] = numbers[index2 + col];
+            numbers[index2 + col] = temp;
+        }
+
         return this;
     }
 
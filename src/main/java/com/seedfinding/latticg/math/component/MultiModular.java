@@ -0,0 +1,435 @@
+package com.seedfinding.latticg.math.component;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Exact determinants and inverses of matrices of fractions, computed modulo many primes and put back together with the
+ * Chinese remainder theorem.
+ *
+ * <p>A matrix is first written as an integer matrix {@code N} over a common denominator. Its determinant and its
+ * adjugate, the determinant times its inverse, are integers bounded by the Hadamard bound, the product of the lengths
+ * of its rows. Modulo each of enough primes for their product to exceed twice that bound, the determinant and adjugate
+ * are found by Gauss-Jordan elimination in {@code long} arithmetic, the primes being solved for one after another, or
+ * in parallel on a pool if one is given. Their values are then the unique residues of least absolute value. Unlike elimination over the fractions, whose numbers grow
+ * as it goes, the cost of each step is fixed, so this is the faster method for large matrices.
+ *
+ * <p>The primes are below 2<sup>31</sup>, so that the product of two residues fits in a {@code long}.
+ */
+public final class MultiModular {
+    // the number of bits each prime is known to add to the modulus
+    private static final int PRIME_BITS = 30;
+    private static long[] primes = new long[0];
+
+    private MultiModular() {
+    }
+
+    /**
+     * Computes the determinant of the given matrix
+     *
+     * @param matrix The matrix to find the determinant of
+     * @return The determinant of the matrix
+     * @throws UnsupportedOperationException If the matrix is not square
+     */
+    public static BigFraction determinant(BigMatrix matrix) {
+        return determinant(matrix, null);
+    }
+
+    /**
+     * Computes the determinant of the given matrix, solving for the primes in parallel on the given pool
+     *
+     * @param matrix The matrix to find the determinant of
+     * @param pool   The pool to solve for the primes on, or null to solve for them on the calling thread
+     * @return The determinant of the matrix
+     * @throws UnsupportedOperationException If the matrix is not square
+     */
+    public static BigFraction determinant(BigMatrix matrix, ForkJoinPool pool) {
+        if (!matrix.isSquare()) {
+            throw new UnsupportedOperationException("Matrix is not square");
+        }
+
+        CommonDenominatorMatrix m = new CommonDenominatorMatrix(matrix);
+        int count = primeCount(m);
+        Solution[] solutions = solveAll(m, 0, count, false, pool);
+        BigInteger det = reconstruct(solutions, s -> s.determinant);
+        return new BigFraction(det, m.getDenominator().pow(m.getRowCount()));
+    }
+
+    /**
+     * Computes the inverse of the given matrix, stores the result in a new matrix and returns that matrix
+     *
+     * @param matrix The matrix to invert
+     * @return A new matrix containing the result
+     * @throws UnsupportedOperationException If the matrix is not square
+     * @throws IllegalStateException         If the matrix is singular
+     */
+    public static BigMatrix inverse(BigMatrix matrix) {
+        return inverse(matrix, null);
+    }
+
+    /**
+     * Computes the inverse of the given matrix, solving for the primes in parallel on the given pool
+     *
+     * @param matrix The matrix to invert
+     * @param pool   The pool to solve for the primes on, or null to solve for them on the calling thread
+     * @return A new matrix containing the result
+     * @throws UnsupportedOperationException If the matrix is not square
+     * @throws IllegalStateException         If the matrix is singular
+     */
+    public static BigMatrix inverse(BigMatrix matrix, ForkJoinPool pool) {
+        if (!matrix.isSquare()) {
+            throw new UnsupportedOperationException("Matrix is not square");
+        }
+
+        CommonDenominatorMatrix m = new CommonDenominatorMatrix(matrix);
+        int size = m.getRowCount();
+        int count = primeCount(m);
+        Solution[] solutions = solveAll(m, 0, count, true, pool);
+        BigInteger det = reconstruct(solutions, s -> s.determinant);
+
+        if (det.signum() == 0) {
+            throw new IllegalStateException("Matrix is singular");
+        }
+
+        // the primes dividing the determinant have no inverse modulo them, and are replaced by further primes
+        List<Solution> lucky = new ArrayList<>(count);
+
+        for (Solution solution : solutions) {
+            if (solution.adjugate != null) {
+                lucky.add(solution);
+            }
+        }
+
+        // each batch starts after the last, so that no prime is used twice
+        int next = count;
+
+        while (lucky.size() < count) {
+            int batch = count - lucky.size();
+
+            for (Solution solution : solveAll(m, next, batch, true, pool)) {
+                if (solution.adjugate != null) {
+                    lucky.add(solution);
+                }
+            }
+
+            next += batch;
+        }
+
+        Solution[] used = lucky.toArray(new Solution[0]);
+        Garner garner = new Garner(used);
+        // the inverse of the matrix is the denominator times the inverse of N, which is the adjugate over the determinant
+        BigInteger denominator = m.getDenominator();
+        long[] residues = new long[used.length];
+
+        return new BigMatrix(size, size, (row, col) -> {
+            for (int i = 0; i < used.length; i++) {
+                residues[i] = used[i].adjugate[row * size + col];
+            }
+
+            return new BigFraction(garner.reconstruct(residues).multiply(denominator), det);
+        });
+    }
+
+    /**
+     * Returns the number of primes whose product is more than twice the Hadamard bound of the numerators of the matrix
+     */
+    private static int primeCount(CommonDenominatorMatrix m) {
+        long bits = 0;
+
+        for (int row = 0; row < m.getRowCount(); row++) {
+            BigInteger lengthSq = BigInteger.ZERO;
+
+            for (int col = 0; col < m.getColumnCount(); col++) {
+                BigInteger value = m.getNumerator(row, col);
+                lengthSq = lengthSq.add(value.multiply(value));
+            }
+
+            // an upper bound on the base 2 logarithm of the length, or zero for a length below one
+            bits += (lengthSq.bitLength() + 1) / 2;
+        }
+
+        return (int) ((bits + 2 + PRIME_BITS - 1) / PRIME_BITS);
+    }
+
+    private static Solution[] solveAll(CommonDenominatorMatrix m, int start, int count, boolean adjugate, ForkJoinPool pool) {
+        long[] primes = primes(start + count);
+
+        if (pool == null) {
+            return IntStream.range(start, start + count)
+                .mapToObj(i -> solve(m, primes[i], adjugate))
+                .toArray(Solution[]::new);
+        }
+
+        // a parallel stream started from a task of a pool runs on that pool
+        return pool.submit(() -> IntStream.range(start, start + count).parallel()
+            .mapToObj(i -> solve(m, primes[i], adjugate))
+            .toArray(Solution[]::new)).join();
+    }
+
+    /**
+     * Finds the determinant of the numerators modulo the prime, and if asked and it is not zero their adjugate, by
+     * Gauss-Jordan elimination of the numerators next to the identity
+     */
+    private static Solution solve(CommonDenominatorMatrix m, long p, boolean adjugate) {
+        int size = m.getRowCount();
+        int width = adjugate ? 2 * size : size;
+        long[][] a = new long[size][width];
+        BigInteger bigP = BigInteger.valueOf(p);
+
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                BigInteger value = m.getNumerator(row, col);
+                a[row][col] = value.bitLength() < Long.SIZE ? Math.floorMod(value.longValue(), p) : value.mod(bigP).longValue();
+            }
+
+            if (adjugate) {
+                a[row][size + row] = 1;
+            }
+        }
+
+        long det = 1;
+
+        for (int i = 0; i < size; i++) {
+            int pivotRow = i;
+
+            while (pivotRow < size && a[pivotRow][i] == 0) {
+                pivotRow++;
+            }
+
+            if (pivotRow == size) {
+                return new Solution(p, 0, null);
+            }
+
+            if (pivotRow != i) {
+                long[] temp = a[i];
+                a[i] = a[pivotRow];
+                a[pivotRow] = temp;
+                det = p - det;
+            }
+
+            long[] pivotValues = a[i];
+            long pivot = pivotValues[i];
+            long inverse = modInverse(pivot, p);
+            det = det * pivot % p;
+            // Gaussian elimination is enough for the determinant, the rows above only matter for the inverse
+            int startRow = adjugate ? 0 : i + 1;
+
+            if (adjugate) {
+                for (int col = i; col < width; col++) {
+                    pivotValues[col] = pivotValues[col] * inverse % p;
+                }
+
+                inverse = 1;
+            }
+
+            for (int row = startRow; row < size; row++) {
+                long[] values = a[row];
+                long scale = values[i] * inverse % p;
+
+                if (row == i || scale == 0) {
+                    continue;
+                }
+
+                long negScale = p - scale;
+
+                for (int col = i; col < width; col++) {
+                    values[col] = (values[col] + negScale * pivotValues[col]) % p;
+                }
+            }
+        }
+
+        if (!adjugate) {
+            return new Solution(p, det, null);
+        }
+
+        long[] result = new long[size * size];
+
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                result[row * size + col] = a[row][size + col] * det % p;
+            }
+        }
+
+        return new Solution(p, det, result);
+    }
+
+    private static BigInteger reconstruct(Solution[] solutions, ToLongFunction<Solution> residue) {
+        long[] residues = new long[solutions.length];
+
+        for (int i = 0; i < solutions.length; i++) {
+            residues[i] = residue.applyAsLong(solutions[i]);
+        }
+
+        return new Garner(solutions).reconstruct(residues);
+    }
+
+    private static long modInverse(long x, long p) {
+        long a = x;
+        long b = p;
+        long s = 1;
+        long t = 0;
+
+        while (b != 0) {
+            long q = a / b;
+            long r = a - q * b;
+            a = b;
+            b = r;
+            r = s - q * t;
+            s = t;
+            t = r;
+        }
+
+        return s < 0 ? s + p : s;
+    }
+
+    /**
+     * Returns at least the given number of the primes below 2<sup>31</sup>, from the largest down
+     */
+    private static synchronized long[] primes(int count) {
+        if (primes.length < count) {
+            long[] grown = Arrays.copyOf(primes, Math.max(count, 2 * primes.length));
+            long candidate = primes.length == 0 ? Integer.MAX_VALUE : primes[primes.length - 1] - 2;
+
+            for (int i = primes.length; i < grown.length; candidate -= 2) {
+                if (isPrime(candidate)) {
+                    grown[i++] = candidate;
+                }
+            }
+
+            primes = grown;
+        }
+
+        return primes;
+    }
+
+    /**
+     * Tests the primality of an odd number below 2<sup>32</sup>, with the Miller-Rabin bases which are known to be
+     * enough for that range
+     */
+    private static boolean isPrime(long n) {
+        long d = n - 1;
+        int shift = Long.numberOfTrailingZeros(d);
+        d >>= shift;
+
+        for (long base : new long[]{2, 7, 61}) {
+            if (base % n == 0) {
+                continue;
+            }
+
+            long x = modPow(base, d, n);
+
+            if (x == 1 || x == n - 1) {
+                continue;
+            }
+
+            boolean composite = true;
+
+            for (int i = 1; i < shift && composite; i++) {
+                x = x * x % n;
+                composite = x != n - 1;
+            }
+
+            if (composite) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static long modPow(long base, long exponent, long n) {
+        long result = 1;
+        base %= n;
+
+        for (; exponent > 0; exponent >>= 1) {
+            if ((exponent & 1) != 0) {
+                result = result * base % n;
+            }
+
+            base = base * base % n;
+        }
+
+        return result;
+    }
+
+    private static final class Solution {
+        private final long prime;
+        private final long determinant;
+        // the adjugate modulo the prime in row major order, or null if it was not asked for or cannot be found
+        private final long[] adjugate;
+
+        private Solution(long prime, long determinant, long[] adjugate) {
+            this.prime = prime;
+            this.determinant = determinant;
+            this.adjugate = adjugate;
+        }
+    }
+
+    /**
+     * Garner's algorithm, finding the integer of least absolute value with the given residues through its digits in
+     * the mixed radix of the primes, which only needs arithmetic modulo each prime until the digits are put together
+     */
+    private static final class Garner {
+        private final long[] moduli;
+        // the inverse of the product of the moduli before each, modulo it
+        private final long[] inverses;
+        private final BigInteger modulus;
+        private final BigInteger halfModulus;
+
+        private Garner(Solution[] solutions) {
+            this.moduli = new long[solutions.length];
+            this.inverses = new long[solutions.length];
+
+            for (int i = 0; i < solutions.length; i++) {
+                long p = solutions[i].prime;
+                long product = 1;
+
+                for (int j = 0; j < i; j++) {
+                    product = product * (moduli[j] % p) % p;
+                }
+
+                moduli[i] = p;
+                inverses[i] = modInverse(product, p);
+            }
+
+            BigInteger modulus = BigInteger.ONE;
+
+            for (long p : moduli) {
+                modulus = modulus.multiply(BigInteger.valueOf(p));
+            }
+
+            this.modulus = modulus;
+            this.halfModulus = modulus.shiftRight(1);
+        }
+
+        private BigInteger reconstruct(long[] residues) {
+            int count = moduli.length;
+            long[] digits = new long[count];
+
+            for (int i = 0; i < count; i++) {
+                long p = moduli[i];
+                // the value of the digits so far modulo this prime, by Horner's method
+                long value = 0;
+
+                for (int j = i - 1; j >= 0; j--) {
+                    value = (value * (moduli[j] % p) + digits[j]) % p;
+                }
+
+                digits[i] = Math.floorMod(residues[i] - value, p) * inverses[i] % p;
+            }
+
+            BigInteger result = BigInteger.ZERO;
+
+            for (int i = count - 1; i >= 0; i--) {
+                result = result.multiply(BigInteger.valueOf(moduli[i])).add(BigInteger.valueOf(digits[i]));
+            }
+
+            return result.compareTo(halfModulus) > 0 ? result.subtract(modulus) : result;
+        }
+    }
+}
@@ -114,8 +114,8 @@ public final class Vector {
     public double magnitudeSq() {
         double magnitude = 0.0D;
 
-        for (int i = 0; i < this.getDimension(); i++) {
-            magnitude += this.get(i) * this.get(i);
+        for (int i = 0, index = startPos; i < dimension; i++, index += step) {
+            magnitude += numbers[index] * numbers[index];
         }
 
         return magnitude;
@@ -224,8 +224,8 @@ public final class Vector {
     public Vector addAndSet(Vector a) {
         assertSameDimension(a);
 
-        for (int i = 0; i < this.getDimension(); i++) {
-            this.set(i, this.get(i) + a.get(i));
+        for (int i = 0, index = startPos, aIndex = a.startPos; i < dimension; i++, index += step, aIndex += a.step) {
+            numbers[index] += a.numbers[aIndex];
         }
 
         return this;
@@ -242,8 +242,28 @@ public final class Vector {
     public Vector subtractAndSet(Vector a) {
         assertSameDimension(a);
 
-        for (int i = 0; i < this.getDimension(); i++) {
-            this.set(i, this.get(i) - a.get(i));
+        for (int i = 0, index = startPos, aIndex = a.startPos; i < dimension; i++, index += step, aIndex += a.step) {
+            numbers[index] -= a.numbers[aIndex];
+        }
+
+        return this;
+    }
+
+    /**
+     * Subtracts the given vector multiplied by the scalar from this vector, modifying this vector. This does the same as
+     * {@code this.subtractAndSet(a.multiply(scalar))} without creating the intermediate vector
+     *
+     * @param a      The vector to subtract a multiple of from this vector
+     * @param scalar The multiple of the vector to subtract
+     * @return This vector
+     * @throws IllegalArgumentException If the dimension of the given vector is not the same as the dimension of this
+     *                                  vector
+     */
+    public Vector subtractMultipleAndSet(Vector a, double scalar) {
+        assertSameDimension(a);
+
+        for (int i = 0, index = startPos, aIndex = a.startPos; i < dimension; i++, index += step, aIndex += a.step) {
+            numbers[index] -= a.numbers[aIndex] * scalar;
         }
 
         return this;
@@ -256,8 +276,8 @@ public final class Vector {
      * @return This vector
      */
     public Vector multiplyAndSet(double scalar) {
-        for (int i = 0; i < this.getDimension(); i++) {
-            this.set(i, this.get(i) * scalar);
+        for (int i = 0, index = startPos; i < dimension; i++, index += step) {
+            numbers[index] *= scalar;
         }
 
         return this;
@@ -270,8 +290,8 @@ public final class Vector {
      * @return This vector
      */
     public Vector divideAndSet(double scalar) {
-        for (int i = 0; i < this.getDimension(); i++) {
-            this.set(i, this.get(i) / scalar);
+        for (int i = 0, index = startPos; i < dimension; i++, index += step) {
+            numbers[index] /= scalar;
         }
 
         return this;
@@ -305,8 +325,8 @@ public final class Vector {
 
         double dot = 0.0D;
 
-        for (int i = 0; i < this.getDimension(); i++) {
-            dot += this.get(i) * v.get(i);
+        for (int i = 0, index = startPos, vIndex = v.startPos; i < dimension; i++, index += step, vIndex += v.step) {
+            dot += numbers[index] * v.numbers[vIndex];
         }
 
         return dot;
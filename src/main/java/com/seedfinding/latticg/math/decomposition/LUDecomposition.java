@@ -4,9 +4,11 @@ import com.seedfinding.latticg.math.component.BigFraction;
 import com.seedfinding.latticg.math.component.BigMatrix;
 import com.seedfinding.latticg.math.component.BigMatrixUtil;
 import com.seedfinding.latticg.math.component.BigVector;
+import com.seedfinding.latticg.math.component.CommonDenominatorMatrix;
 import com.seedfinding.latticg.math.component.Matrix;
 import com.seedfinding.latticg.math.component.Vector;
 
+import java.math.BigInteger;
 import java.util.regex.Pattern;
 
 public class LUDecomposition {
@@ -52,9 +54,12 @@ public class LUDecomposition {
                 m.set(row, i, m.get(row, i) / m.get(i, i));
             }
 
-            for (int row = i + 1; row < size; row++) {
-                for (int col = i + 1; col < size; col++) {
-                    m.set(row, col, m.get(row, col) - m.get(row, i) * m.get(i, col));
+            if (i + 1 < size) {
+                // the rows right of the pivot column, updated in place a row at a time
+                Matrix trailing = m.submatrix(i, i + 1, size - i, size - i - 1);
+
+                for (int row = i + 1; row < size; row++) {
+                    trailing.getRow(row - i).subtractMultipleAndSet(trailing.getRow(0), m.get(row, i));
                 }
             }
         }
@@ -68,23 +73,23 @@ public class LUDecomposition {
 
         det *= (swaps & 1) == 0 ? 1 : -1;
 
-        //Inverse
-        for (int dcol = 0; dcol < size; dcol++) {
-            for (int row = 0; row < size; row++) {
-                for (int col = 0; col < row; col++) {
-                    inv.set(row, dcol, inv.get(row, dcol) - m.get(row, col) * inv.get(col, dcol));
-                }
+        //Inverse, solving for every column at once by operations on whole rows
+        for (int row = 0; row < size; row++) {
+            Vector invRow = inv.getRow(row);
+
+            for (int col = 0; col < row; col++) {
+                invRow.subtractMultipleAndSet(inv.getRow(col), m.get(row, col));
             }
         }
 
-        for (int dcol = 0; dcol < size; dcol++) {
-            for (int row = size - 1; row >= 0; row--) {
-                for (int col = size - 1; col > row; col--) {
-                    inv.set(row, dcol, inv.get(row, dcol) - m.get(row, col) * inv.get(col, dcol));
-                }
+        for (int row = size - 1; row >= 0; row--) {
+            Vector invRow = inv.getRow(row);
 
-                inv.set(row, dcol, inv.get(row, dcol) / m.get(row, row));
+            for (int col = size - 1; col > row; col--) {
+                invRow.subtractMultipleAndSet(inv.getRow(col), m.get(row, col));
             }
+
+            invRow.divideAndSet(m.get(row, row));
         }
 
         return new Result(m, p, det, inv);
@@ -95,19 +100,22 @@ public class LUDecomposition {
             throw new UnsupportedOperationException("Matrix is not square");
         }
 
-        BigMatrix m = matrix.copy();
-        int size = m.getRowCount();
+        int size = matrix.getRowCount();
+        // fraction free Gauss-Jordan elimination of the matrix next to the identity, reading the factors off as it goes
+        CommonDenominatorMatrix m = new CommonDenominatorMatrix(matrix, BigMatrix.identityMatrix(size));
+        BigMatrix lu = new BigMatrix(size, size);
         BigVector p = new BigVector(size);
-        BigMatrix inv = BigMatrix.identityMatrix(size);
+        BigInteger previousPivot = BigInteger.ONE;
         int swaps = 0;
 
         //Decomposition
         for (int i = 0; i < size; i++) {
             int pivot = -1;
-            BigFraction beegestNumbor = BigFraction.ZERO;
+            BigInteger beegestNumbor = BigInteger.ZERO;
 
+            // every candidate is the same multiple of its value, so the largest numerator is the largest value
             for (int row = i; row < size; row++) {
-                BigFraction d = m.get(row, i).abs();
+                BigInteger d = m.getNumerator(row, i).abs();
 
                 if (d.compareTo(beegestNumbor) > 0) {
                     beegestNumbor = d;
@@ -120,53 +128,39 @@ public class LUDecomposition {
             }
 
             p.set(i, new BigFraction(pivot));
-            inv.swapRowsAndSet(i, pivot);
 
             if (pivot != i) {
                 m.swapRowsAndSet(i, pivot);
+                lu.swapRowsAndSet(i, pivot);
                 swaps++;
             }
 
-            for (int row = i + 1; row < size; row++) {
-                m.set(row, i, m.get(row, i).divide(m.get(i, i)));
+            // the pivot row is the previous pivot times its row of U, of the matrix scaled by its denominator
+            BigInteger uDivisor = previousPivot.multiply(m.getDenominator());
+            BigInteger nextPivot = m.getNumerator(i, i);
+
+            for (int col = i; col < size; col++) {
+                lu.set(i, col, new BigFraction(m.getNumerator(i, col), uDivisor));
             }
 
             for (int row = i + 1; row < size; row++) {
-                for (int col = i + 1; col < size; col++) {
-                    m.set(row, col, m.get(row, col).subtract(m.get(row, i).multiply(m.get(i, col))));
-                }
+                lu.set(row, i, new BigFraction(m.getNumerator(row, i), nextPivot));
             }
-        }
-
-        //Determinant
-        BigFraction det = BigFraction.ONE;
 
-        for (int i = 0; i < size; i++) {
-            det = det.multiply(m.get(i, i));
+            m.eliminate(i, i, previousPivot, 0);
+            previousPivot = nextPivot;
         }
 
-        if ((swaps & 1) != 0) det.negate();
+        //Determinant, the last pivot being that of the rows in pivoted order each scaled by the denominator
+        BigFraction det = new BigFraction(previousPivot, m.getDenominator().pow(size));
 
-        //Inverse
-        for (int dcol = 0; dcol < size; dcol++) {
-            for (int row = 0; row < size; row++) {
-                for (int col = 0; col < row; col++) {
-                    inv.set(row, dcol, inv.get(row, dcol).subtract(m.get(row, col).multiply(inv.get(col, dcol))));
-                }
-            }
-        }
-
-        for (int dcol = 0; dcol < size; dcol++) {
-            for (int row = size - 1; row >= 0; row--) {
-                for (int col = size - 1; col > row; col--) {
-                    inv.set(row, dcol, inv.get(row, dcol).subtract(m.get(row, col).multiply(inv.get(col, dcol))));
-                }
+        if ((swaps & 1) != 0) det = det.negate();
 
-                inv.set(row, dcol, inv.get(row, dcol).divide(m.get(row, row)));
-            }
-        }
+        //Inverse, the right half being the last pivot times the inverse of the matrix
+        BigInteger lastPivot = previousPivot;
+        BigMatrix inv = new BigMatrix(size, size, (row, col) -> new BigFraction(m.getNumerator(row, size + col), lastPivot));
 
-        return new BigResult(m, p, det, inv);
+        return new BigResult(lu, p, det, inv);
     }
 
     public static final class Result {
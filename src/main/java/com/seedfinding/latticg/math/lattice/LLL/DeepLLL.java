@@ -0,0 +1,170 @@
+package com.seedfinding.latticg.math.lattice.LLL;
+
+import com.seedfinding.latticg.math.component.BigMatrix;
+
+import java.math.BigInteger;
+
+/**
+ * LLL with deep insertions, as described by Schnorr and Euchner in "Lattice basis reduction: Improved practical
+ * algorithms and solving subset sum problems".
+ *
+ * <p>Once row k is size reduced, it is compared with every Gram-Schmidt vector above it rather than only with the one
+ * of row k - 1: if the projection of row k orthogonally to the first i rows is shorter than delta times the i'th
+ * Gram-Schmidt vector, row k is moved up to position i. With only i = k - 1 allowed this is plain LLL.
+ *
+ * <p>The lattice first goes through a standard reduction, which also gets rid of dependent rows, and the insertions
+ * are then made in the integers of {@link IntegralLLL}. The length of the projection of row k orthogonally to the first
+ * i rows, times d_(i - 1), is the determinant of the Gram matrix of those rows and row k, which is computed for
+ * i = 0, 1, ... along the same recurrence that gives d_k.
+ */
+final class DeepLLL {
+    private final int rows;
+    private final BigInteger scale;
+    private final BigInteger[][] basis;
+    private final BigInteger[][] coordinates;
+    private final BigInteger[][] lambda;
+    private final BigInteger[] d;
+    private final BigInteger deltaNumerator;
+    private final BigInteger deltaDenominator;
+    private final int depth;
+
+    private DeepLLL(BigMatrix lattice, Params params) {
+        this.rows = lattice.getRowCount();
+        this.scale = IntegralLLL.denominator(lattice);
+        this.basis = new BigInteger[this.rows][lattice.getColumnCount()];
+        this.coordinates = new BigInteger[this.rows][this.rows];
+        this.lambda = new BigInteger[this.rows][this.rows];
+        this.d = new BigInteger[this.rows];
+        this.deltaNumerator = params.delta.getNumerator();
+        this.deltaDenominator = params.delta.getDenominator();
+        this.depth = params.insertionDepth;
+
+        for (int i = 0; i < this.rows; ++i) {
+            for (int col = 0; col < lattice.getColumnCount(); ++col) {
+                this.basis[i][col] = lattice.get(i, col).multiply(this.scale).getNumerator();
+            }
+
+            for (int j = 0; j < this.rows; ++j) {
+                this.coordinates[i][j] = i == j ? BigInteger.ONE : BigInteger.ZERO;
+            }
+        }
+    }
+
+    /**
+     * Reduces the lattice, see {@link Params.Strategy#DEEP_INSERTION}
+     */
+    static Result reduce(BigMatrix lattice, Params params) {
+        if (params.maxStage != -1) {
+            return new LLL(lattice, params).reduceLLL(lattice);
+        }
+
+        Result standard = FloatingLLL.reduce(lattice, params);
+
+        if (standard.getReducedBasis().getRowCount() < 2) {
+            return standard;
+        }
+
+        return standard.andThen(new DeepLLL(standard.getReducedBasis(), params).run());
+    }
+
+    private BigInteger d(int i) {
+        return i < 0 ? BigInteger.ONE : this.d[i];
+    }
+
+    private Result run() {
+        this.updateGSO(0);
+        int k = 1;
+
+        while (k < this.rows) {
+            this.updateGSO(k);
+
+            for (int l = k - 1; l >= 0; --l) {
+                this.red(k, l);
+            }
+
+            int position = this.insertionPosition(k);
+
+            if (position < k) {
+                this.insert(k, position);
+
+                if (position == 0) {
+                    this.updateGSO(0);
+                }
+
+                k = Math.max(1, position);
+            } else {
+                k++;
+            }
+        }
+
+        return IntegralLLL.result(0, this.scale, this.basis, this.coordinates, this.d, this.lambda);
+    }
+
+    /**
+     * Computes lambda(k, j) and d_k from the basis, given them for the rows above, as in {@link IntegralLLL}
+     */
+    private void updateGSO(int k) {
+        for (int j = 0; j <= k; ++j) {
+            BigInteger u = IntegralLLL.dot(this.basis[k], this.basis[j]);
+
+            for (int i = 0; i < j; ++i) {
+                u = this.d[i].multiply(u).subtract(this.lambda[j][i].multiply(this.lambda[k][i])).divide(this.d(i - 1));
+            }
+
+            if (j < k) {
+                this.lambda[k][j] = u;
+            } else {
+                this.d[k] = u;
+            }
+        }
+    }
+
+    private void red(int k, int l) {
+        BigInteger r = IntegralLLL.round(this.lambda[k][l], this.d[l]);
+
+        if (r.signum() == 0) {
+            return;
+        }
+
+        IntegralLLL.subtractMultiple(this.basis[k], this.basis[l], r);
+        IntegralLLL.subtractMultiple(this.coordinates[k], this.coordinates[l], r);
+        this.lambda[k][l] = this.lambda[k][l].subtract(r.multiply(this.d[l]));
+
+        for (int i = 0; i < l; ++i) {
+            this.lambda[k][i] = this.lambda[k][i].subtract(r.multiply(this.lambda[l][i]));
+        }
+    }
+
+    /**
+     * Returns the first position i row k should be inserted at, or k if there is none
+     */
+    private int insertionPosition(int k) {
+        // the Gram determinant of the first i rows and row k
+        BigInteger projected = IntegralLLL.dot(this.basis[k], this.basis[k]);
+
+        for (int i = 0; i < k; ++i) {
+            boolean allowed = this.depth <= 0 || i < this.depth || k - i <= this.depth;
+
+            // ||pi_i(b_k)||^2 < delta B_i, times d_(i - 1) and the denominator of delta
+            if (allowed && this.deltaDenominator.multiply(projected).compareTo(this.deltaNumerator.multiply(this.d[i])) < 0) {
+                return i;
+            }
+
+            projected = this.d[i].multiply(projected).subtract(this.lambda[k][i].multiply(this.lambda[k][i])).divide(this.d(i - 1));
+        }
+
+        return k;
+    }
+
+    /**
+     * Moves row k up to position i, the Gram-Schmidt data of the rows from i on is recomputed as they are reached
+     */
+    private void insert(int k, int i) {
+        BigInteger[] row = this.basis[k];
+        BigInteger[] coordinates = this.coordinates[k];
+        System.arraycopy(this.basis, i, this.basis, i + 1, k - i);
+        System.arraycopy(this.coordinates, i, this.coordinates, i + 1, k - i);
+        this.basis[i] = row;
+        this.coordinates[i] = coordinates;
+    }
+}
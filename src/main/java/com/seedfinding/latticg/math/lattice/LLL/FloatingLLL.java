@@ -0,0 +1,730 @@
+package com.seedfinding.latticg.math.lattice.LLL;
+
+import com.seedfinding.latticg.math.component.BigFraction;
+import com.seedfinding.latticg.math.component.BigMatrix;
+import com.seedfinding.latticg.math.component.BigVector;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * LLL reduction with the basis in exact integers and the Gram-Schmidt data in floating point, in the style of the L^2
+ * algorithm of Nguyen and Stehle.
+ *
+ * <p>The exact Gram matrix of the basis is kept up to date alongside it, and each row of the Gram-Schmidt data is
+ * recomputed from it whenever that row has changed too much for its floating point values to be trusted. The reduction
+ * takes the same steps as {@link LLL#reduceLLL(BigMatrix)}, and every decision that floating point cannot make with
+ * certainty (a coefficient close to a half, a Lovasz condition close to equality, a norm close to zero) is made again in
+ * exact arithmetic, so the result is normally the very same basis.
+ *
+ * <p>The result is checked in exact integer arithmetic before it is returned. If the check fails, or the numbers leave
+ * the range of a {@code double}, the reduction starts over with {@link BigDecimal}s of increasing precision, and finally
+ * with the exact arithmetic of {@link IntegralLLL}.
+ */
+final class FloatingLLL {
+    // a coefficient beyond this is not rounded exactly by a double, so the basis is reduced by the rounded value and
+    // the rest is left to another pass with fresh Gram-Schmidt data
+    private static final double DOUBLE_EXACT_LIMIT = 0x1.0p22;
+    // decisions within this of a tie, relative to the values involved, are made again in exact arithmetic
+    private static final double DOUBLE_TIE = 0x1.0p-30;
+    // a norm below this fraction of the squared length of its vector is checked for zero in exact arithmetic
+    private static final double DOUBLE_TINY = 0x1.0p-40;
+    // a reduction by more than this many bits throws away enough precision that the row is recomputed
+    private static final int REFRESH_BITS = 20;
+    // the precisions, in decimal digits, tried after doubles
+    private static final int[] DECIMAL_DIGITS = {40, 80, 160, 320};
+    // a row is only taken to depend on the rows above it if it does so modulo both of these primes
+    private static final long[] PRIMES = {2147483647L, 2147483629L};
+
+    private final int rows;
+    private final int cols;
+    private final BigInteger scale;
+    private final BigInteger[][] basis;
+    private final BigInteger[][] coordinates;
+    private final BigInteger[][] gram;
+    // whether the Gram-Schmidt vector of each row is known to be exactly zero
+    private final boolean[] zero;
+    private final BigFraction delta;
+    private final Approximation gso;
+    // the integral Gram-Schmidt data of de Weger behind exact(k), valid for the first exactRows rows, which only a
+    // change to one of those rows invalidates
+    private final BigInteger[] exactD;
+    private final BigInteger[][] exactLambda;
+    private final boolean[] exactZero;
+    private int exactRows;
+
+    private FloatingLLL(BigInteger scale, BigInteger[][] basis, int cols, Params params, Approximation gso) {
+        this.rows = basis.length;
+        this.cols = cols;
+        this.scale = scale;
+        this.basis = basis;
+        this.coordinates = new BigInteger[this.rows][this.rows];
+        this.gram = new BigInteger[this.rows][this.rows];
+        this.zero = new boolean[this.rows];
+        this.delta = params.delta;
+        this.gso = gso;
+        this.exactD = new BigInteger[this.rows];
+        this.exactLambda = new BigInteger[this.rows][this.rows];
+        this.exactZero = new boolean[this.rows];
+
+        for (int i = 0; i < this.rows; ++i) {
+            for (int j = 0; j < this.rows; ++j) {
+                this.coordinates[i][j] = i == j ? BigInteger.ONE : BigInteger.ZERO;
+            }
+
+            for (int j = 0; j <= i; ++j) {
+                this.gram[i][j] = this.gram[j][i] = IntegralLLL.dot(basis[i], basis[j]);
+            }
+        }
+    }
+
+    /**
+     * Reduces the lattice, see {@link LLL#reduceFloating(BigMatrix, Params)}
+     */
+    static Result reduce(BigMatrix lattice, Params params) {
+        if (params.maxStage != -1 || lattice.getRowCount() < 2) {
+            return new LLL(lattice, params).reduceLLL(lattice);
+        }
+
+        int rows = lattice.getRowCount();
+        int cols = lattice.getColumnCount();
+        BigInteger scale = IntegralLLL.denominator(lattice);
+
+        for (int attempt = -1; attempt < DECIMAL_DIGITS.length; ++attempt) {
+            BigInteger[][] basis = new BigInteger[rows][cols];
+
+            for (int row = 0; row < rows; ++row) {
+                for (int col = 0; col < cols; ++col) {
+                    basis[row][col] = lattice.get(row, col).multiply(scale).getNumerator();
+                }
+            }
+
+            Approximation gso = attempt == -1 ? new DoubleApproximation(rows) : new DecimalApproximation(rows, DECIMAL_DIGITS[attempt]);
+
+            try {
+                Result result = new FloatingLLL(scale, basis, cols, params, gso).run();
+
+                if (result != null) {
+                    return result;
+                }
+            } catch (PrecisionException e) {
+                // try again with more precision
+            }
+        }
+
+        return IntegralLLL.reduce(lattice, params);
+    }
+
+    /**
+     * Runs the reduction, and returns its result if it checks out
+     */
+    private Result run() {
+        this.refresh(0);
+        int k = 1;
+
+        while (k < this.rows) {
+            this.refresh(k);
+            this.red(k, k - 1);
+
+            if (this.lovasz(k)) {
+                this.swap(k);
+
+                if (k == 1) {
+                    this.refresh(0);
+                }
+
+                k = Math.max(1, k - 1);
+            } else {
+                for (int l = k - 2; l >= 0; --l) {
+                    this.red(k, l);
+                }
+
+                k++;
+            }
+        }
+
+        return this.result();
+    }
+
+    /**
+     * Recomputes the Gram-Schmidt data of row k, given fresh data for the rows above it
+     */
+    private void refresh(int k) {
+        boolean tiny = this.gso.refresh(k, this.gram, this.zero);
+        this.zero[k] = this.gram[k][k].signum() == 0;
+
+        if (tiny && !this.zero[k]) {
+            // the norm is lost in the rounding errors. a row depending on the rows above it is by far the most common
+            // reason, and is cheap to spot modulo a prime; anything else is settled exactly
+            if (this.dependent(k)) {
+                this.zero[k] = true;
+                this.gso.clearNorm(k);
+            } else {
+                this.gso.load(k, this.exact(k)[k]);
+            }
+        }
+    }
+
+    /**
+     * Returns whether row k is a linear combination of the rows above it whose Gram-Schmidt vector is not zero, modulo
+     * each of {@link #PRIMES}. A row that depends on them over the rationals always does so modulo any prime, while an
+     * independent one is only missed if both primes happen to divide the same minors.
+     */
+    private boolean dependent(int k) {
+        for (long prime : PRIMES) {
+            BigInteger modulus = BigInteger.valueOf(prime);
+            long[][] echelon = new long[k + 1][];
+            int[] pivots = new int[k + 1];
+            int count = 0;
+            boolean reduced = false;
+
+            for (int i = 0; i <= k && !reduced; ++i) {
+                if (i < k && this.zero[i]) {
+                    continue;
+                }
+
+                long[] row = new long[this.cols];
+
+                for (int col = 0; col < this.cols; ++col) {
+                    row[col] = this.basis[i][col].mod(modulus).longValue();
+                }
+
+                for (int e = 0; e < count; ++e) {
+                    long factor = row[pivots[e]];
+
+                    if (factor != 0) {
+                        for (int col = 0; col < this.cols; ++col) {
+                            row[col] = Math.floorMod(row[col] - factor * echelon[e][col] % prime, prime);
+                        }
+                    }
+                }
+
+                int pivot = 0;
+
+                while (pivot < this.cols && row[pivot] == 0) {
+                    pivot++;
+                }
+
+                if (pivot == this.cols) {
+                    // the last row reducing to zero is what we are after, an earlier one means the rows above are not
+                    // independent modulo this prime either, so nothing can be concluded from it
+                    reduced = i == k;
+                    break;
+                }
+
+                // scale the pivot to one, using Fermat's little theorem for the inverse
+                long inverse = BigInteger.valueOf(row[pivot]).modPow(modulus.subtract(BigInteger.valueOf(2)), modulus).longValue();
+
+                for (int col = 0; col < this.cols; ++col) {
+                    row[col] = row[col] * inverse % prime;
+                }
+
+                echelon[count] = row;
+                pivots[count] = pivot;
+                count++;
+            }
+
+            if (!reduced) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Size reduces row k by row l, with the same rounding as {@link BigFraction#round()}
+     */
+    private void red(int k, int l) {
+        if (this.zero[l]) {
+            return;
+        }
+
+        while (true) {
+            BigInteger r = this.gso.round(k, l);
+            boolean large = this.gso.isLarge(k, l);
+
+            if (r == null) {
+                r = this.exact(k)[k][l].round();
+                large = false;
+            }
+
+            if (r.signum() == 0) {
+                return;
+            }
+
+            this.apply(k, l, r);
+
+            if (!large) {
+                if (r.bitLength() > REFRESH_BITS) {
+                    this.refresh(k);
+                }
+
+                return;
+            }
+
+            // only the leading bits of the coefficient were known, so reduce by the rest of it with fresh data
+            this.refresh(k);
+        }
+    }
+
+    private void apply(int k, int l, BigInteger r) {
+        this.exactRows = Math.min(this.exactRows, k);
+
+        for (int col = 0; col < this.cols; ++col) {
+            if (this.basis[l][col].signum() != 0) {
+                this.basis[k][col] = this.basis[k][col].subtract(this.basis[l][col].multiply(r));
+            }
+        }
+
+        for (int col = 0; col < this.rows; ++col) {
+            if (this.coordinates[l][col].signum() != 0) {
+                this.coordinates[k][col] = this.coordinates[k][col].subtract(this.coordinates[l][col].multiply(r));
+            }
+        }
+
+        // <b_k - r b_l, b_k - r b_l> = <b_k, b_k> - 2 r <b_k, b_l> + r^2 <b_l, b_l>
+        BigInteger kk = this.gram[k][k].subtract(this.gram[k][l].multiply(r).shiftLeft(1)).add(this.gram[l][l].multiply(r).multiply(r));
+
+        for (int i = 0; i < this.rows; ++i) {
+            if (i != k) {
+                this.gram[k][i] = this.gram[i][k] = this.gram[k][i].subtract(this.gram[l][i].multiply(r));
+            }
+        }
+
+        this.gram[k][k] = kk;
+        this.gso.reduce(k, l, r);
+    }
+
+    /**
+     * Returns whether rows k - 1 and k should be swapped
+     */
+    private boolean lovasz(int k) {
+        int comparison = this.gso.lovasz(k, this.delta);
+
+        if (comparison != 0) {
+            return comparison > 0;
+        }
+
+        BigFraction[][] exact = this.exact(k);
+        BigFraction mu = exact[k][k - 1];
+        return exact[k][k].compareTo(exact[k - 1][k - 1].multiply(this.delta.subtract(mu.multiply(mu)))) < 0;
+    }
+
+    private void swap(int k) {
+        this.exactRows = Math.min(this.exactRows, k - 1);
+
+        BigInteger[] temp = this.basis[k];
+        this.basis[k] = this.basis[k - 1];
+        this.basis[k - 1] = temp;
+
+        temp = this.coordinates[k];
+        this.coordinates[k] = this.coordinates[k - 1];
+        this.coordinates[k - 1] = temp;
+
+        temp = this.gram[k];
+        this.gram[k] = this.gram[k - 1];
+        this.gram[k - 1] = temp;
+
+        for (int i = 0; i < this.rows; ++i) {
+            BigInteger value = this.gram[i][k];
+            this.gram[i][k] = this.gram[i][k - 1];
+            this.gram[i][k - 1] = value;
+        }
+
+        boolean zero = this.zero[k];
+        this.zero[k] = this.zero[k - 1];
+        this.zero[k - 1] = zero;
+    }
+
+    /**
+     * Computes the exact Gram-Schmidt data of rows k - 1 and k. Row i of the result holds mu(i, j) for j below i, and
+     * the squared norm of the i'th Gram-Schmidt vector on the diagonal, the rows above k - 1 are left null.
+     *
+     * <p>This goes through the integral data of de Weger, as {@link IntegralLLL} does, so that only the entries
+     * returned are ever reduced to lowest terms. That data is kept for the rows that have not changed since, so
+     * usually only row k is computed.
+     */
+    private BigFraction[][] exact(int k) {
+        BigFraction[][] result = new BigFraction[k + 1][];
+        BigInteger[][] lambda = this.exactLambda;
+        BigInteger[] d = this.exactD;
+        boolean[] zero = this.exactZero;
+
+        for (int i = this.exactRows; i <= k; ++i) {
+            for (int j = 0; j <= i; ++j) {
+                BigInteger u = this.gram[i][j];
+
+                for (int l = 0; l < j; ++l) {
+                    if (!zero[l]) {
+                        u = d[l].multiply(u).subtract(lambda[j][l].multiply(lambda[i][l])).divide(l == 0 ? BigInteger.ONE : d[l - 1]);
+                    }
+                }
+
+                if (j < i) {
+                    lambda[i][j] = zero[j] ? BigInteger.ZERO : u;
+                } else {
+                    zero[i] = u.signum() == 0;
+                    d[i] = zero[i] ? (i == 0 ? BigInteger.ONE : d[i - 1]) : u;
+                }
+            }
+        }
+
+        this.exactRows = Math.max(this.exactRows, k + 1);
+
+        for (int i = Math.max(0, k - 1); i <= k; ++i) {
+            result[i] = new BigFraction[i + 1];
+
+            for (int j = 0; j < i; ++j) {
+                result[i][j] = zero[j] ? BigFraction.ZERO : new BigFraction(lambda[i][j], d[j]);
+            }
+
+            result[i][i] = zero[i] ? BigFraction.ZERO : new BigFraction(d[i], i == 0 ? BigInteger.ONE : d[i - 1]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks the reduced basis in exact integer arithmetic and builds the result, or returns null if it is not reduced.
+     *
+     * <p>The check uses the integral Gram-Schmidt data of de Weger: {@code d_i} is the determinant of the Gram matrix of
+     * the first {@code i + 1} rows and {@code lambda(i, j) = d_j * mu(i, j)}, all integers, so that the norms are
+     * {@code d_i / d_(i - 1)}.
+     */
+    private Result result() {
+        int p = 0;
+
+        while (p < this.rows && this.gram[p][p].signum() == 0) {
+            p++;
+        }
+
+        int n = this.rows - p;
+        BigInteger[] d = new BigInteger[n];
+        BigInteger[][] lambda = new BigInteger[n][n];
+
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j <= i; ++j) {
+                BigInteger u = this.gram[p + i][p + j];
+
+                for (int l = 0; l < j; ++l) {
+                    u = d[l].multiply(u).subtract(lambda[i][l].multiply(lambda[j][l]));
+                    u = l == 0 ? u : u.divide(d[l - 1]);
+                }
+
+                if (j < i) {
+                    lambda[i][j] = u;
+                } else {
+                    d[i] = u;
+                }
+            }
+
+            // the zero rows must all be at the front, and the rest independent
+            if (d[i].signum() <= 0) {
+                return null;
+            }
+        }
+
+        BigInteger deltaNumerator = this.delta.getNumerator();
+        BigInteger deltaDenominator = this.delta.getDenominator();
+
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < i; ++j) {
+                if (lambda[i][j].abs().shiftLeft(1).compareTo(d[j]) > 0) {
+                    return null;
+                }
+            }
+
+            if (i > 0) {
+                // B_i >= (delta - mu^2) B_(i - 1), times d_(i - 1) d_(i - 2) and the denominator of delta
+                BigInteger previous = i > 1 ? d[i - 2] : BigInteger.ONE;
+                BigInteger left = d[i].multiply(previous).multiply(deltaDenominator);
+                BigInteger right = deltaNumerator.multiply(d[i - 1]).multiply(d[i - 1]).subtract(deltaDenominator.multiply(lambda[i][i - 1]).multiply(lambda[i][i - 1]));
+
+                if (left.compareTo(right) < 0) {
+                    return null;
+                }
+            }
+        }
+
+        BigInteger[][] reduced = new BigInteger[n][];
+        System.arraycopy(this.basis, p, reduced, 0, n);
+        return IntegralLLL.result(p, this.scale, reduced, this.coordinates, d, lambda);
+    }
+
+    /**
+     * Thrown when the floating point numbers in use cannot hold the values of the reduction
+     */
+    private static final class PrecisionException extends RuntimeException {
+        private static final PrecisionException INSTANCE = new PrecisionException();
+
+        private PrecisionException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * The Gram-Schmidt data in some floating point type. Row k holds mu(k, j) for j below k and the squared norm B_k of
+     * the k'th Gram-Schmidt vector.
+     */
+    private interface Approximation {
+        /**
+         * Recomputes row k from the Gram matrix and the rows above it
+         *
+         * @return whether the norm is too small, relative to the squared length of the vector, to tell apart from zero
+         * @throws PrecisionException If the values do not fit
+         */
+        boolean refresh(int k, BigInteger[][] gram, boolean[] zero);
+
+        /**
+         * Replaces row k with exact values
+         */
+        void load(int k, BigFraction[] row);
+
+        /**
+         * Sets the norm of row k to exactly zero
+         */
+        void clearNorm(int k);
+
+        /**
+         * Returns the closest integer to mu(k, l), the higher one on a tie, or null if mu(k, l) is too close to a tie
+         */
+        BigInteger round(int k, int l);
+
+        /**
+         * Returns whether mu(k, l) is too large for {@link #round(int, int)} to be exact
+         */
+        boolean isLarge(int k, int l);
+
+        /**
+         * Updates row k for row l having been subtracted from it r times
+         */
+        void reduce(int k, int l, BigInteger r);
+
+        /**
+         * Compares {@code (delta - mu(k, k - 1)^2) B_(k - 1)} to B_k
+         *
+         * @return 1 if it is larger, -1 if not, 0 if it is too close to tell
+         */
+        int lovasz(int k, BigFraction delta);
+    }
+
+    private static final class DoubleApproximation implements Approximation {
+        private final double[][] mu;
+        private final double[] norms;
+
+        DoubleApproximation(int rows) {
+            this.mu = new double[rows][rows];
+            this.norms = new double[rows];
+        }
+
+        private static double toDouble(BigInteger value) {
+            double result = value.doubleValue();
+
+            if (Double.isInfinite(result)) {
+                throw PrecisionException.INSTANCE;
+            }
+
+            return result;
+        }
+
+        @Override
+        public boolean refresh(int k, BigInteger[][] gram, boolean[] zero) {
+            double[] row = this.mu[k];
+            // r[j] = <b_k, b*_j> = mu(k, j) B_j
+            double[] r = new double[k];
+            double length = toDouble(gram[k][k]);
+            double norm = length;
+
+            for (int j = 0; j < k; ++j) {
+                if (zero[j]) {
+                    row[j] = 0.0D;
+                    continue;
+                }
+
+                double value = toDouble(gram[k][j]);
+
+                for (int l = 0; l < j; ++l) {
+                    value -= this.mu[j][l] * r[l];
+                }
+
+                r[j] = value;
+                row[j] = value / this.norms[j];
+                norm -= row[j] * value;
+            }
+
+            if (Double.isNaN(norm) || Double.isInfinite(norm)) {
+                throw PrecisionException.INSTANCE;
+            }
+
+            this.norms[k] = Math.max(norm, 0.0D);
+            return norm <= DOUBLE_TINY * length;
+        }
+
+        @Override
+        public void load(int k, BigFraction[] row) {
+            for (int j = 0; j < k; ++j) {
+                this.mu[k][j] = row[j].toDouble();
+            }
+
+            this.norms[k] = row[k].toDouble();
+
+            if (this.norms[k] == 0.0D && row[k].signum() != 0) {
+                throw PrecisionException.INSTANCE;
+            }
+        }
+
+        @Override
+        public void clearNorm(int k) {
+            this.norms[k] = 0.0D;
+        }
+
+        @Override
+        public BigInteger round(int k, int l) {
+            double x = this.mu[k][l] + 0.5D;
+            double floor = Math.floor(x);
+            double fraction = x - floor;
+            double tie = DOUBLE_TIE * Math.max(1.0D, Math.abs(x));
+
+            if (!this.isLarge(k, l) && (fraction < tie || fraction > 1.0D - tie)) {
+                return null;
+            }
+
+            return new BigDecimal(floor).toBigInteger();
+        }
+
+        @Override
+        public boolean isLarge(int k, int l) {
+            return Math.abs(this.mu[k][l]) > DOUBLE_EXACT_LIMIT;
+        }
+
+        @Override
+        public void reduce(int k, int l, BigInteger r) {
+            double x = r.doubleValue();
+
+            for (int j = 0; j < l; ++j) {
+                this.mu[k][j] -= x * this.mu[l][j];
+            }
+
+            this.mu[k][l] -= x;
+        }
+
+        @Override
+        public int lovasz(int k, BigFraction delta) {
+            double mu = this.mu[k][k - 1];
+            double left = (delta.toDouble() - mu * mu) * this.norms[k - 1];
+            double right = this.norms[k];
+
+            if (Math.abs(left - right) <= DOUBLE_TIE * (Math.abs(left) + Math.abs(right))) {
+                return 0;
+            }
+
+            return left > right ? 1 : -1;
+        }
+    }
+
+    private static final class DecimalApproximation implements Approximation {
+        private final MathContext context;
+        private final BigDecimal tie;
+        private final BigDecimal tiny;
+        private final BigDecimal exactLimit;
+        private final BigDecimal[][] mu;
+        private final BigDecimal[] norms;
+
+        DecimalApproximation(int rows, int digits) {
+            this.context = new MathContext(digits, RoundingMode.HALF_EVEN);
+            this.tie = BigDecimal.ONE.movePointLeft(digits / 2);
+            this.tiny = BigDecimal.ONE.movePointLeft(digits * 3 / 4);
+            this.exactLimit = BigDecimal.ONE.movePointRight(digits / 2);
+            this.mu = new BigDecimal[rows][rows];
+            this.norms = new BigDecimal[rows];
+        }
+
+        @Override
+        public boolean refresh(int k, BigInteger[][] gram, boolean[] zero) {
+            BigDecimal[] row = this.mu[k];
+            BigDecimal[] r = new BigDecimal[k];
+            BigDecimal length = new BigDecimal(gram[k][k]);
+            BigDecimal norm = length;
+
+            for (int j = 0; j < k; ++j) {
+                if (zero[j]) {
+                    row[j] = BigDecimal.ZERO;
+                    continue;
+                }
+
+                BigDecimal value = new BigDecimal(gram[k][j]);
+
+                for (int l = 0; l < j; ++l) {
+                    value = value.subtract(this.mu[j][l].multiply(r[l], this.context), this.context);
+                }
+
+                r[j] = value;
+                row[j] = value.divide(this.norms[j], this.context);
+                norm = norm.subtract(row[j].multiply(value, this.context), this.context);
+            }
+
+            this.norms[k] = norm.max(BigDecimal.ZERO);
+            return norm.compareTo(length.multiply(this.tiny, this.context)) <= 0;
+        }
+
+        @Override
+        public void load(int k, BigFraction[] row) {
+            for (int j = 0; j < k; ++j) {
+                this.mu[k][j] = row[j].toBigDecimal(this.context);
+            }
+
+            this.norms[k] = row[k].toBigDecimal(this.context);
+        }
+
+        @Override
+        public void clearNorm(int k) {
+            this.norms[k] = BigDecimal.ZERO;
+        }
+
+        @Override
+        public BigInteger round(int k, int l) {
+            BigDecimal x = this.mu[k][l].add(BigDecimal.ONE.divide(BigDecimal.valueOf(2)), this.context);
+            BigDecimal floor = x.setScale(0, RoundingMode.FLOOR);
+            BigDecimal fraction = x.subtract(floor);
+            BigDecimal tie = this.tie.multiply(x.abs().max(BigDecimal.ONE));
+
+            if (!this.isLarge(k, l) && (fraction.compareTo(tie) < 0 || fraction.compareTo(BigDecimal.ONE.subtract(tie)) > 0)) {
+                return null;
+            }
+
+            return floor.toBigInteger();
+        }
+
+        @Override
+        public boolean isLarge(int k, int l) {
+            return this.mu[k][l].abs().compareTo(this.exactLimit) > 0;
+        }
+
+        @Override
+        public void reduce(int k, int l, BigInteger r) {
+            BigDecimal x = new BigDecimal(r);
+
+            for (int j = 0; j < l; ++j) {
+                this.mu[k][j] = this.mu[k][j].subtract(x.multiply(this.mu[l][j], this.context), this.context);
+            }
+
+            this.mu[k][l] = this.mu[k][l].subtract(x, this.context);
+        }
+
+        @Override
+        public int lovasz(int k, BigFraction delta) {
+            BigDecimal mu = this.mu[k][k - 1];
+            BigDecimal left = delta.toBigDecimal(this.context).subtract(mu.multiply(mu, this.context), this.context).multiply(this.norms[k - 1], this.context);
+            BigDecimal right = this.norms[k];
+
+            if (left.subtract(right).abs().compareTo(this.tie.multiply(left.abs().add(right.abs()))) <= 0) {
+                return 0;
+            }
+
+            return left.compareTo(right) > 0 ? 1 : -1;
+        }
+    }
+}
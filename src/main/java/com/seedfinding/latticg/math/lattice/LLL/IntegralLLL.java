@@ -0,0 +1,346 @@
+package com.seedfinding.latticg.math.lattice.LLL;
+
+import com.seedfinding.latticg.math.component.BigFraction;
+import com.seedfinding.latticg.math.component.BigMatrix;
+import com.seedfinding.latticg.math.component.BigVector;
+
+import java.math.BigInteger;
+
+/**
+ * LLL reduction in integers only, as in algorithm 2.6.7 of Cohen's "A course in computational algebraic number theory"
+ * (after de Weger), extended to dependent vectors.
+ *
+ * <p>The basis is scaled by the common denominator of its entries, and instead of the Gram-Schmidt coefficients and
+ * norms the reduction keeps {@code d_i}, the determinant of the Gram matrix of the rows up to {@code i} whose
+ * Gram-Schmidt vector is not zero, and {@code lambda(i, j) = d_j * mu(i, j)}. Both are integers, and every division
+ * made on them is exact, so no gcd is ever computed. The norms are {@code d_i / d_(i - 1)}, or zero for the rows
+ * flagged as such.
+ *
+ * <p>The reduction takes the very same steps as {@link LLL#reduceLLL(BigMatrix)}, including its handling of dependent
+ * vectors, so the result is the same.
+ */
+final class IntegralLLL {
+    private final int rows;
+    private final int cols;
+    private final BigInteger scale;
+    private final BigInteger[][] basis;
+    private final BigInteger[][] coordinates;
+    private final BigInteger[][] lambda;
+    private final BigInteger[] d;
+    // whether the Gram-Schmidt vector of each row is zero, in which case d_i = d_(i - 1)
+    private final boolean[] zero;
+    private final BigInteger deltaNumerator;
+    private final BigInteger deltaDenominator;
+
+    private IntegralLLL(BigMatrix lattice, Params params) {
+        this.rows = lattice.getRowCount();
+        this.cols = lattice.getColumnCount();
+        this.scale = denominator(lattice);
+        this.basis = new BigInteger[this.rows][this.cols];
+        this.coordinates = new BigInteger[this.rows][this.rows];
+        this.lambda = new BigInteger[this.rows][this.rows];
+        this.d = new BigInteger[this.rows];
+        this.zero = new boolean[this.rows];
+        this.deltaNumerator = params.delta.getNumerator();
+        this.deltaDenominator = params.delta.getDenominator();
+
+        for (int i = 0; i < this.rows; ++i) {
+            for (int col = 0; col < this.cols; ++col) {
+                this.basis[i][col] = lattice.get(i, col).multiply(this.scale).getNumerator();
+            }
+
+            for (int j = 0; j < this.rows; ++j) {
+                this.coordinates[i][j] = i == j ? BigInteger.ONE : BigInteger.ZERO;
+                this.lambda[i][j] = BigInteger.ZERO;
+            }
+        }
+    }
+
+    /**
+     * Reduces the lattice, see {@link LLL#reduceIntegral(BigMatrix, Params)}
+     */
+    static Result reduce(BigMatrix lattice, Params params) {
+        if (params.maxStage != -1 || lattice.getRowCount() < 2) {
+            return new LLL(lattice, params).reduceLLL(lattice);
+        }
+
+        return new IntegralLLL(lattice, params).run();
+    }
+
+    /**
+     * Returns the least common multiple of the denominators of the entries of the lattice
+     */
+    static BigInteger denominator(BigMatrix lattice) {
+        BigInteger result = BigInteger.ONE;
+
+        for (int row = 0; row < lattice.getRowCount(); ++row) {
+            for (int col = 0; col < lattice.getColumnCount(); ++col) {
+                BigInteger denominator = lattice.get(row, col).getDenominator();
+                result = result.divide(result.gcd(denominator)).multiply(denominator);
+            }
+        }
+
+        return result;
+    }
+
+    static BigInteger dot(BigInteger[] a, BigInteger[] b) {
+        BigInteger result = BigInteger.ZERO;
+
+        for (int i = 0; i < a.length; ++i) {
+            if (a[i].signum() != 0 && b[i].signum() != 0) {
+                result = result.add(a[i].multiply(b[i]));
+            }
+        }
+
+        return result;
+    }
+
+    private BigInteger d(int i) {
+        return i < 0 ? BigInteger.ONE : this.d[i];
+    }
+
+    private Result run() {
+        int k = 1;
+        int kmax = 0;
+        boolean updateGSO = true;
+        this.updateGSO(0);
+
+        while (k < this.rows) {
+            if (k > kmax && updateGSO) {
+                kmax = k;
+                this.updateGSO(k);
+            }
+
+            this.red(k, k - 1);
+
+            if (this.lovasz(k)) {
+                this.swap(k, kmax);
+                k = Math.max(1, k - 1);
+                updateGSO = false;
+            } else {
+                for (int l = k - 2; l >= 0; --l) {
+                    this.red(k, l);
+                }
+
+                k++;
+                updateGSO = true;
+            }
+        }
+
+        int p = 0;
+
+        while (p < this.rows && this.zero[p]) {
+            p++;
+        }
+
+        int n = this.rows - p;
+        BigInteger[][] reduced = new BigInteger[n][];
+        BigInteger[][] lambda = new BigInteger[n][n];
+        BigInteger[] d = new BigInteger[n];
+
+        for (int i = 0; i < n; ++i) {
+            reduced[i] = this.basis[p + i];
+            d[i] = this.d[p + i];
+            System.arraycopy(this.lambda[p + i], p, lambda[i], 0, n);
+        }
+
+        return result(p, this.scale, reduced, this.coordinates, d, lambda);
+    }
+
+    /**
+     * Computes lambda(k, j) and d_k from the basis, given them for the rows above, step 2 of algorithm 2.6.7
+     */
+    private void updateGSO(int k) {
+        for (int j = 0; j <= k; ++j) {
+            BigInteger u = dot(this.basis[k], this.basis[j]);
+
+            for (int i = 0; i < j; ++i) {
+                if (!this.zero[i]) {
+                    u = this.d[i].multiply(u).subtract(this.lambda[j][i].multiply(this.lambda[k][i])).divide(this.d(i - 1));
+                }
+            }
+
+            if (j < k) {
+                this.lambda[k][j] = this.zero[j] ? BigInteger.ZERO : u;
+            } else {
+                this.zero[k] = u.signum() == 0;
+                this.d[k] = this.zero[k] ? this.d(k - 1) : u;
+            }
+        }
+    }
+
+    private void red(int k, int l) {
+        if (this.zero[l]) {
+            return;
+        }
+
+        BigInteger r = round(this.lambda[k][l], this.d[l]);
+
+        if (r.signum() == 0) {
+            return;
+        }
+
+        subtractMultiple(this.basis[k], this.basis[l], r);
+        subtractMultiple(this.coordinates[k], this.coordinates[l], r);
+        this.lambda[k][l] = this.lambda[k][l].subtract(r.multiply(this.d[l]));
+
+        for (int i = 0; i < l; ++i) {
+            if (this.lambda[l][i].signum() != 0) {
+                this.lambda[k][i] = this.lambda[k][i].subtract(r.multiply(this.lambda[l][i]));
+            }
+        }
+    }
+
+    /**
+     * Returns lambda / d rounded the same way as {@link BigFraction#round()}, that is floor((2 lambda + d) / 2 d), for a
+     * positive d
+     */
+    static BigInteger round(BigInteger lambda, BigInteger d) {
+        BigInteger[] qr = lambda.shiftLeft(1).add(d).divideAndRemainder(d.shiftLeft(1));
+        return qr[1].signum() < 0 ? qr[0].subtract(BigInteger.ONE) : qr[0];
+    }
+
+    static void subtractMultiple(BigInteger[] row, BigInteger[] other, BigInteger r) {
+        for (int i = 0; i < row.length; ++i) {
+            if (other[i].signum() != 0) {
+                row[i] = row[i].subtract(r.multiply(other[i]));
+            }
+        }
+    }
+
+    /**
+     * Returns whether B_k {@literal <} (delta - mu(k, k - 1)^2) B_(k - 1), multiplied through by the denominator of
+     * delta and d_(k - 1) d_(k - 2)
+     */
+    private boolean lovasz(int k) {
+        if (this.zero[k - 1]) {
+            return false;
+        }
+
+        BigInteger l = this.lambda[k][k - 1];
+        BigInteger left = this.zero[k] ? BigInteger.ZERO : this.deltaDenominator.multiply(this.d[k]).multiply(this.d(k - 2));
+        BigInteger right = this.deltaNumerator.multiply(this.d[k - 1]).multiply(this.d[k - 1]).subtract(this.deltaDenominator.multiply(l).multiply(l));
+        return left.compareTo(right) < 0;
+    }
+
+    /**
+     * Swaps rows k and k - 1, the three cases are those of {@link LLL}
+     */
+    private void swap(int k, int kmax) {
+        BigInteger[] tmp = this.basis[k];
+        this.basis[k] = this.basis[k - 1];
+        this.basis[k - 1] = tmp;
+        tmp = this.coordinates[k];
+        this.coordinates[k] = this.coordinates[k - 1];
+        this.coordinates[k - 1] = tmp;
+
+        for (int j = 0; j < k - 1; ++j) {
+            BigInteger t = this.lambda[k][j];
+            this.lambda[k][j] = this.lambda[k - 1][j];
+            this.lambda[k - 1][j] = t;
+        }
+
+        BigInteger l = this.lambda[k][k - 1];
+
+        if (this.zero[k] && (l.signum() == 0 || this.zero[k - 1])) {
+            // the new row k - 1 has a zero Gram-Schmidt vector, the old one moves down unchanged
+            this.zero[k] = this.zero[k - 1];
+            this.zero[k - 1] = true;
+            this.d[k - 1] = this.d(k - 2);
+
+            for (int i = k + 1; i <= kmax; ++i) {
+                this.lambda[i][k] = this.lambda[i][k - 1];
+                this.lambda[i][k - 1] = BigInteger.ZERO;
+            }
+        } else if (this.zero[k]) {
+            // the new row k - 1 is mu times the old one, row k stays zero, and the Gram determinants of every
+            // later row scale by mu^2
+            BigInteger old = this.d[k - 1];
+            BigInteger scaled = l.multiply(l).divide(old);
+
+            for (int i = k + 1; i <= kmax; ++i) {
+                this.lambda[i][k - 1] = l.multiply(this.lambda[i][k - 1]).divide(old);
+
+                for (int j = k + 1; j < i; ++j) {
+                    this.lambda[i][j] = this.lambda[i][j].multiply(scaled).divide(old);
+                }
+            }
+
+            for (int j = k + 1; j <= kmax; ++j) {
+                this.d[j] = this.d[j].multiply(scaled).divide(old);
+            }
+
+            this.d[k - 1] = scaled;
+            this.d[k] = scaled;
+        } else {
+            BigInteger b = this.d(k - 2).multiply(this.d[k]).add(l.multiply(l)).divide(this.d[k - 1]);
+
+            for (int i = k + 1; i <= kmax; ++i) {
+                BigInteger t = this.lambda[i][k];
+                this.lambda[i][k] = this.d[k].multiply(this.lambda[i][k - 1]).subtract(l.multiply(t)).divide(this.d[k - 1]);
+                this.lambda[i][k - 1] = b.multiply(t).add(l.multiply(this.lambda[i][k])).divide(this.d[k]);
+            }
+
+            this.d[k - 1] = b;
+        }
+    }
+
+    /**
+     * Builds the result of a reduction from its integral Gram-Schmidt data
+     *
+     * @param p           the number of zero rows removed from the front of the basis
+     * @param scale       the common denominator the basis was multiplied by
+     * @param basis       the rows of the reduced basis that are not zero, scaled
+     * @param coordinates the coordinates of every row of the reduced basis, zero ones included
+     * @param d           the Gram determinants of the rows of the basis
+     * @param lambda      lambda(i, j) of the rows of the basis
+     */
+    static Result result(int p, BigInteger scale, BigInteger[][] basis, BigInteger[][] coordinates, BigInteger[] d, BigInteger[][] lambda) {
+        int n = basis.length;
+        int cols = n == 0 ? 0 : basis[0].length;
+        int rows = coordinates.length;
+        BigFraction scaleSq = new BigFraction(scale.multiply(scale));
+        BigMatrix reduced = new BigMatrix(n, cols);
+        BigMatrix transformations = new BigMatrix(rows, rows);
+        BigMatrix mu = new BigMatrix(n, n);
+        BigVector norms = new BigVector(n);
+
+        for (int i = 0; i < n; ++i) {
+            for (int col = 0; col < cols; ++col) {
+                reduced.set(i, col, new BigFraction(basis[i][col], scale));
+            }
+
+            for (int j = 0; j < i; ++j) {
+                mu.set(i, j, new BigFraction(lambda[i][j], d[j]));
+            }
+
+            norms.set(i, new BigFraction(d[i], i > 0 ? d[i - 1] : BigInteger.ONE).divide(scaleSq));
+        }
+
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < rows; ++j) {
+                transformations.set(i, j, new BigFraction(coordinates[i][j]));
+            }
+        }
+
+        return new Result(p, reduced, transformations).setGramSchmidtInfo(() -> gramSchmidtBasis(reduced, mu), mu, norms);
+    }
+
+    private static BigMatrix gramSchmidtBasis(BigMatrix basis, BigMatrix mu) {
+        BigMatrix result = new BigMatrix(basis.getRowCount(), basis.getColumnCount());
+
+        for (int i = 0; i < basis.getRowCount(); ++i) {
+            BigVector row = basis.getRow(i).copy();
+
+            for (int j = 0; j < i; ++j) {
+                if (mu.get(i, j).signum() != 0) {
+                    row.subtractMultipleAndSet(result.getRow(j), mu.get(i, j));
+                }
+            }
+
+            result.setRow(i, row);
+        }
+
+        return result;
+    }
+}
@@ -1,6 +1,7 @@
 package com.seedfinding.latticg.math.lattice.LLL;
 
 import com.seedfinding.latticg.math.component.BigFraction;
+import com.seedfinding.latticg.math.component.BigFractionAccumulator;
 import com.seedfinding.latticg.math.component.BigMatrix;
 import com.seedfinding.latticg.math.component.BigVector;
 
@@ -123,13 +124,47 @@ public class LLL {
      * @return the reduced lattice
      */
     public static Result reduce(BigMatrix lattice, Params params) {
-        return new LLL(lattice, params).reduceLLL(lattice);
+        switch (params.strategy) {
+            case DEEP_INSERTION:
+                return DeepLLL.reduce(lattice, params);
+            case SEGMENT:
+                return SegmentLLL.reduce(lattice, params);
+            default:
+                return new LLL(lattice, params).reduceLLL(lattice);
+        }
     }
 
     public static Result reduce(BigMatrix lattice) {
         return new LLL(lattice, new Params()).reduceLLL(lattice);
     }
 
+    /**
+     * LLL lattice reduction with the Gram-Schmidt data in floating point rather than in fractions, which is much
+     * faster on large lattices. The basis is still updated exactly, every close call is settled exactly, and the result
+     * is checked exactly, so this normally returns the same result as {@link #reduce(BigMatrix, Params)}, and is
+     * always reduced.
+     *
+     * @param lattice the lattice to reduce
+     * @param params  the parameters to be passed to LLL
+     * @return the reduced lattice
+     */
+    public static Result reduceFloating(BigMatrix lattice, Params params) {
+        return FloatingLLL.reduce(lattice, params);
+    }
+
+    /**
+     * LLL lattice reduction in integers only, keeping the integral Gram-Schmidt data of de Weger rather than
+     * fractions, so that no gcd is ever computed. This takes the same steps as {@link #reduce(BigMatrix, Params)} and
+     * returns the same result.
+     *
+     * @param lattice the lattice to reduce
+     * @param params  the parameters to be passed to LLL
+     * @return the reduced lattice
+     */
+    public static Result reduceIntegral(BigMatrix lattice, Params params) {
+        return IntegralLLL.reduce(lattice, params);
+    }
+
     public void setParams(Params params) {
         this.params = params;
     }
@@ -141,15 +176,27 @@ public class LLL {
     }
 
     private void updateGSO(int k) {
-        BigVector newRow = basis.getRow(k).copy();
-        for (int j = 0; j <= k - 1; j++) {
-            if (!norms.get(j).equals(BigFraction.ZERO)) {
-                mu.set(k, j, basis.getRow(k).dot(baseGSO.getRow(j)).divide(norms.get(j)));
-            } else {
-                mu.set(k, j, BigFraction.ZERO);
+        BigVector row = basis.getRow(k);
+        BigVector newRow = row.copy();
+        // mu(k,j) only depends on bk and bj*, so the coefficients are independent of each other and so are the columns
+        ParallelKernels.forRange(params, k, nbCols, (from, to) -> {
+            for (int j = from; j < to; j++) {
+                if (!norms.get(j).equals(BigFraction.ZERO)) {
+                    mu.set(k, j, row.dot(baseGSO.getRow(j)).divide(norms.get(j)));
+                } else {
+                    mu.set(k, j, BigFraction.ZERO);
+                }
             }
-            newRow.subtractAndSet(baseGSO.getRow(j).multiply(mu.get(k, j)));
-        }
+        });
+        ParallelKernels.forRange(params, nbCols, k, (from, to) -> {
+            for (int col = from; col < to; col++) {
+                BigFractionAccumulator value = new BigFractionAccumulator(newRow.get(col));
+                for (int j = 0; j <= k - 1; j++) {
+                    value.subtractProduct(baseGSO.get(j, col), mu.get(k, j));
+                }
+                newRow.set(col, value.toBigFraction());
+            }
+        });
         baseGSO.setRow(k, newRow);
         norms.set(k, newRow.magnitudeSq());
         //if (norms.get(k).equals(BigFraction.ZERO)) {System.err.print("The bi's did not form a basis\n");}
@@ -160,14 +207,25 @@ public class LLL {
         if (r.equals(BigInteger.ZERO)) { // case |mu(i,j)|<1/2 since it is rounded towards zero that's exactly that
             return;
         }
-        basis.getRow(i).subtractAndSet(basis.getRow(j).multiply(r));
-        coordinates.getRow(i).subtractAndSet(coordinates.getRow(j).multiply(r));
+        BigFraction factor = new BigFraction(r);
+        subtractMultiple(basis.getRow(i), basis.getRow(j), factor);
+        subtractMultiple(coordinates.getRow(i), coordinates.getRow(j), factor);
         mu.set(i, j, mu.get(i, j).subtract(r));
         for (int col = 0; col <= j - 1; col++) {
-            mu.set(i, col, mu.get(i, col).subtract(mu.get(j, col).multiply(r)));
+            mu.set(i, col, mu.get(i, col).subtractProduct(mu.get(j, col), factor));
         }
     }
 
+    private void subtractMultiple(BigVector row, BigVector other, BigFraction r) {
+        ParallelKernels.forRange(params, row.getDimension(), 1, (from, to) -> {
+            for (int col = from; col < to; col++) {
+                if (other.get(col).signum() != 0) {
+                    row.set(col, row.get(col).subtractProduct(other.get(col), r));
+                }
+            }
+        });
+    }
+
     private void swapg(int k, int kmax) {
         basis.swapRowsAndSet(k, k - 1);
         coordinates.swapRowsAndSet(k, k - 1);
@@ -203,7 +261,7 @@ public class LLL {
             norms.set(k - 1, tB);
             for (int i = k + 1; i <= kmax; i++) {
                 t = mu.get(i, k);
-                mu.set(i, k, mu.get(i, k - 1).subtract(tmu.multiply(t)));
+                mu.set(i, k, mu.get(i, k - 1).subtractProduct(tmu, t));
                 mu.set(i, k - 1, t.add(mu.get(k, k - 1).multiply(mu.get(i, k))));
             }
         }
@@ -0,0 +1,69 @@
+package com.seedfinding.latticg.math.lattice.LLL;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the loops of the reduction whose iterations are independent, such as the update of a row column by column, on
+ * the pool of {@link Params#pool}. A loop is only split while each part still does at least
+ * {@link Params#parallelThreshold} element operations, below which running it on the calling thread is faster. Only the
+ * exact reduction of {@link LLL#reduce(com.seedfinding.latticg.math.component.BigMatrix, Params)} with the STANDARD
+ * strategy goes through here, not {@link LLL#reduceFloating}.
+ */
+final class ParallelKernels {
+    private ParallelKernels() {
+    }
+
+    @FunctionalInterface
+    interface Range {
+        void run(int from, int to);
+    }
+
+    /**
+     * Runs the body over 0 to size - 1, in parts run in parallel if worth it
+     *
+     * @param cost the number of element operations of one iteration
+     */
+    static void forRange(Params params, int size, int cost, Range body) {
+        ForkJoinPool pool = params.pool;
+
+        if (pool == null || pool.getParallelism() < 2 || (long) size * cost < 2L * params.parallelThreshold) {
+            body.run(0, size);
+            return;
+        }
+
+        RangeTask task = new RangeTask(body, 0, size, Math.max(1, params.parallelThreshold / Math.max(1, cost)));
+
+        if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private final Range body;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        RangeTask(Range body, int from, int to, int grain) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from < 2 * this.grain) {
+                this.body.run(this.from, this.to);
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new RangeTask(this.body, this.from, middle, this.grain), new RangeTask(this.body, middle, this.to, this.grain));
+        }
+    }
+}
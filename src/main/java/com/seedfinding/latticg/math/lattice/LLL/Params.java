@@ -2,11 +2,22 @@ package com.seedfinding.latticg.math.lattice.LLL;
 
 import com.seedfinding.latticg.math.component.BigFraction;
 
+import java.util.concurrent.ForkJoinPool;
+
 public class Params {
     public BigFraction delta = new BigFraction(75, 100);
     public boolean debug = false;
     public int maxStage = -1;
     public int pruneFactor = 0; // set to [10-15] for BlockSize >= 30.
+    public Strategy strategy = Strategy.STANDARD;
+    public int insertionDepth = 0; // for DEEP_INSERTION, 0 allows insertions at any depth
+    public int segmentSize = 16; // for SEGMENT
+    public ForkJoinPool pool = null; // for the row updates of STANDARD and the segments of SEGMENT, null runs them serially
+    public int parallelThreshold = 192; // element operations a row update needs before it is split across the pool
+    public int maxTours = 0; // for BKZ 2.0, 0 runs tours until one inserts nothing
+    public int pruningTrials = 0; // for BKZ 2.0, 0 enumerates blocks in full, otherwise with extreme pruning this many times
+    public long timeBudget = 0; // for progressive BKZ 2.0, in milliseconds, 0 for none
+    public int tourBudget = 0; // for progressive BKZ 2.0, tours over all block sizes, 0 for none
     public static BigFraction recommendedDelta = new BigFraction(99, 100);
 
     public Params setPruneFactor(int pruneFactor) {
@@ -28,4 +39,96 @@ public class Params {
         this.debug = debug;
         return this;
     }
+
+    public Params setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+        return this;
+    }
+
+    public Params setInsertionDepth(int insertionDepth) {
+        this.insertionDepth = insertionDepth;
+        return this;
+    }
+
+    public Params setSegmentSize(int segmentSize) {
+        if (segmentSize < 2) {
+            throw new IllegalArgumentException("segmentSize must be at least 2, got " + segmentSize);
+        }
+
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    public Params setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    public Params setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("parallelThreshold must be positive, got " + parallelThreshold);
+        }
+
+        this.parallelThreshold = parallelThreshold;
+        return this;
+    }
+
+    public Params setMaxTours(int maxTours) {
+        if (maxTours < 0) {
+            throw new IllegalArgumentException("maxTours must not be negative, got " + maxTours);
+        }
+
+        this.maxTours = maxTours;
+        return this;
+    }
+
+    public Params setPruningTrials(int pruningTrials) {
+        if (pruningTrials < 0) {
+            throw new IllegalArgumentException("pruningTrials must not be negative, got " + pruningTrials);
+        }
+
+        this.pruningTrials = pruningTrials;
+        return this;
+    }
+
+    public Params setTimeBudget(long timeBudget) {
+        if (timeBudget < 0) {
+            throw new IllegalArgumentException("timeBudget must not be negative, got " + timeBudget);
+        }
+
+        this.timeBudget = timeBudget;
+        return this;
+    }
+
+    public Params setTourBudget(int tourBudget) {
+        if (tourBudget < 0) {
+            throw new IllegalArgumentException("tourBudget must not be negative, got " + tourBudget);
+        }
+
+        this.tourBudget = tourBudget;
+        return this;
+    }
+
+    /**
+     * The reduction {@link LLL#reduce(com.seedfinding.latticg.math.component.BigMatrix, Params)} runs
+     */
+    public enum Strategy {
+        /**
+         * The LLL algorithm as described by Cohen
+         */
+        STANDARD,
+        /**
+         * LLL with the deep insertions of Schnorr and Euchner: a row is inserted at the first position where it is
+         * shorter than delta times the Gram-Schmidt vector there once projected, not just compared with the row before
+         * it. This is slower, but the basis is usually closer to orthogonal, which makes enumerating it cheaper.
+         * Only positions within {@link Params#insertionDepth} of either end are tried, if set.
+         */
+        DEEP_INSERTION,
+        /**
+         * LLL on segments of {@link Params#segmentSize} rows at a time, reduced in parallel on {@link Params#pool} if one
+         * is given, with boundaries that alternate between rounds, followed by a standard pass over the whole basis that only has the work across the
+         * segments left to do.
+         */
+        SEGMENT
+    }
 }
@@ -3,11 +3,15 @@ package com.seedfinding.latticg.math.lattice.LLL;
 import com.seedfinding.latticg.math.component.BigMatrix;
 import com.seedfinding.latticg.math.component.BigVector;
 
+import java.util.function.Supplier;
+
 public class Result {
     private final int numDependantVectors;
     private final BigMatrix reducedBasis;
     private final BigMatrix transformationsDone;
     private BigMatrix gramSchmidtBasis;
+    // computes the Gram-Schmidt basis on first use, for reductions that never need the vectors themselves
+    private Supplier<BigMatrix> gramSchmidtBasisSupplier;
     private BigMatrix gramSchmidtCoefficients;
     private BigVector gramSchmidtSizes;
 
@@ -24,6 +28,42 @@ public class Result {
         return this;
     }
 
+    Result setGramSchmidtInfo(Supplier<BigMatrix> gramSchmidtBasis, BigMatrix GSCoefficients, BigVector norms) {
+        this.gramSchmidtBasisSupplier = gramSchmidtBasis;
+        this.gramSchmidtCoefficients = GSCoefficients;
+        this.gramSchmidtSizes = norms;
+        return this;
+    }
+
+    /**
+     * Returns the result of reducing the reduced basis of this result further, with the transformations of both
+     *
+     * @param next the result of reducing {@link #getReducedBasis()}
+     */
+    public Result andThen(Result next) {
+        int p = this.numDependantVectors;
+        int rows = this.transformationsDone.getRowCount();
+        BigMatrix transformations = new BigMatrix(rows, rows);
+        BigMatrix remaining = this.transformationsDone.submatrix(p, 0, rows - p, rows);
+
+        for (int row = 0; row < p; ++row) {
+            transformations.setRow(row, this.transformationsDone.getRow(row));
+        }
+
+        BigMatrix composed = next.transformationsDone.multiply(remaining);
+
+        for (int row = 0; row < rows - p; ++row) {
+            transformations.setRow(p + row, composed.getRow(row));
+        }
+
+        Result result = new Result(p + next.numDependantVectors, next.reducedBasis, transformations);
+        result.gramSchmidtBasis = next.gramSchmidtBasis;
+        result.gramSchmidtBasisSupplier = next.gramSchmidtBasisSupplier;
+        result.gramSchmidtCoefficients = next.gramSchmidtCoefficients;
+        result.gramSchmidtSizes = next.gramSchmidtSizes;
+        return result;
+    }
+
     public int getNumDependantVectors() {
         return numDependantVectors;
     }
@@ -37,6 +77,11 @@ public class Result {
     }
 
     public BigMatrix getGramSchmidtBasis() {
+        if (gramSchmidtBasis == null && gramSchmidtBasisSupplier != null) {
+            gramSchmidtBasis = gramSchmidtBasisSupplier.get();
+            gramSchmidtBasisSupplier = null;
+        }
+
         return gramSchmidtBasis;
     }
 
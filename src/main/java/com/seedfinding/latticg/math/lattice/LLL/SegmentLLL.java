@@ -0,0 +1,241 @@
+package com.seedfinding.latticg.math.lattice.LLL;
+
+import com.seedfinding.latticg.math.component.BigFraction;
+import com.seedfinding.latticg.math.component.BigMatrix;
+
+import java.math.BigInteger;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * LLL on segments of consecutive rows, in the spirit of the segment LLL of Koy and Schnorr.
+ *
+ * <p>Reducing rows a to e - 1 of a basis only needs the Gram-Schmidt data of those rows, and that data only depends on
+ * the rows before a through the space they span, which reducing other segments leaves alone. So in every round the
+ * integral Gram-Schmidt data of {@link IntegralLLL} is computed for the whole basis, every row being size reduced by all
+ * the rows above it on the way so that the entries stay small, and then every segment is reduced on its own, in
+ * parallel on {@link Params#pool} if one is given, by the steps of {@link IntegralLLL} limited to its rows. The boundaries between segments
+ * shift by half a segment from one round to the next, so that rows can move across them, and the rounds stop once two
+ * of them in a row change nothing. A standard pass over the whole basis then does the size reduction across segments,
+ * and whatever else is left.
+ *
+ * <p>The rows must be independent, so a generating set with dependent rows first goes through the standard reduction.
+ */
+final class SegmentLLL {
+    private final int rows;
+    private final int size;
+    private final BigInteger scale;
+    private final BigInteger[][] basis;
+    private final BigInteger[][] coordinates;
+    private final BigInteger[][] lambda;
+    private final BigInteger[] d;
+    private final BigInteger deltaNumerator;
+    private final BigInteger deltaDenominator;
+
+    private SegmentLLL(BigMatrix lattice, Params params) {
+        this.rows = lattice.getRowCount();
+        this.size = params.segmentSize;
+        this.scale = IntegralLLL.denominator(lattice);
+        this.basis = new BigInteger[this.rows][lattice.getColumnCount()];
+        this.coordinates = new BigInteger[this.rows][this.rows];
+        this.lambda = new BigInteger[this.rows][this.rows];
+        this.d = new BigInteger[this.rows];
+        this.deltaNumerator = params.delta.getNumerator();
+        this.deltaDenominator = params.delta.getDenominator();
+
+        for (int i = 0; i < this.rows; ++i) {
+            for (int col = 0; col < lattice.getColumnCount(); ++col) {
+                this.basis[i][col] = lattice.get(i, col).multiply(this.scale).getNumerator();
+            }
+
+            for (int j = 0; j < this.rows; ++j) {
+                this.coordinates[i][j] = i == j ? BigInteger.ONE : BigInteger.ZERO;
+            }
+        }
+    }
+
+    /**
+     * Reduces the lattice, see {@link Params.Strategy#SEGMENT}
+     */
+    static Result reduce(BigMatrix lattice, Params params) {
+        if (params.maxStage != -1 || lattice.getRowCount() <= params.segmentSize) {
+            return FloatingLLL.reduce(lattice, params);
+        }
+
+        SegmentLLL segments = new SegmentLLL(lattice, params);
+
+        if (segments.updateGSO()) {
+            return segments.run(params);
+        }
+
+        Result standard = FloatingLLL.reduce(lattice, params);
+
+        if (standard.getReducedBasis().getRowCount() <= params.segmentSize) {
+            return standard;
+        }
+
+        segments = new SegmentLLL(standard.getReducedBasis(), params);
+        segments.updateGSO();
+        return standard.andThen(segments.run(params));
+    }
+
+    private BigInteger d(int i) {
+        return i < 0 ? BigInteger.ONE : this.d[i];
+    }
+
+    /**
+     * Runs the rounds on a basis whose Gram-Schmidt data is fresh, followed by the standard pass
+     */
+    private Result run(Params params) {
+        int unchanged = 0;
+
+        for (int round = 0; unchanged < 2; ++round) {
+            if (round > 0) {
+                this.updateGSO();
+            }
+
+            int offset = (round & 1) == 0 ? 0 : this.size / 2;
+            int count = (this.rows - offset + this.size - 1) / this.size + (offset > 0 ? 1 : 0);
+            IntUnaryOperator reduceSegment = segment -> {
+                int start = Math.max(0, offset + (segment - (offset > 0 ? 1 : 0)) * this.size);
+                int end = Math.min(this.rows, offset + (segment + (offset > 0 ? 0 : 1)) * this.size);
+                return this.reduceSegment(start, end) ? 1 : 0;
+            };
+            boolean changed;
+
+            if (params.pool == null) {
+                changed = IntStream.range(0, count).map(reduceSegment).sum() > 0;
+            } else {
+                // a parallel stream started from a task of a pool runs on that pool
+                changed = params.pool.submit(() -> IntStream.range(0, count).parallel().map(reduceSegment).sum()).join() > 0;
+            }
+
+            unchanged = changed ? 0 : unchanged + 1;
+        }
+
+        BigMatrix reduced = new BigMatrix(this.rows, this.basis[0].length);
+        BigMatrix coordinates = new BigMatrix(this.rows, this.rows);
+
+        for (int i = 0; i < this.rows; ++i) {
+            for (int col = 0; col < this.basis[i].length; ++col) {
+                reduced.set(i, col, new BigFraction(this.basis[i][col], this.scale));
+            }
+
+            for (int j = 0; j < this.rows; ++j) {
+                coordinates.set(i, j, new BigFraction(this.coordinates[i][j]));
+            }
+        }
+
+        return new Result(0, reduced, coordinates).andThen(FloatingLLL.reduce(reduced, params));
+    }
+
+    /**
+     * Computes the integral Gram-Schmidt data of every row, as in {@link IntegralLLL}, and size reduces the rows
+     *
+     * @return false if the rows are not independent
+     */
+    private boolean updateGSO() {
+        for (int k = 0; k < this.rows; ++k) {
+            for (int j = 0; j <= k; ++j) {
+                BigInteger u = IntegralLLL.dot(this.basis[k], this.basis[j]);
+
+                for (int i = 0; i < j; ++i) {
+                    u = this.d[i].multiply(u).subtract(this.lambda[j][i].multiply(this.lambda[k][i])).divide(this.d(i - 1));
+                }
+
+                if (j < k) {
+                    this.lambda[k][j] = u;
+                } else if (u.signum() == 0) {
+                    return false;
+                } else {
+                    this.d[k] = u;
+                }
+            }
+
+            for (int l = k - 1; l >= 0; --l) {
+                this.red(0, k, l);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Reduces rows start to end - 1 among themselves, only reading and writing the data of those rows, apart from
+     * d_(start - 1) which no segment changes
+     *
+     * @return whether any row was swapped
+     */
+    private boolean reduceSegment(int start, int end) {
+        boolean changed = false;
+        int k = start + 1;
+
+        while (k < end) {
+            this.red(start, k, k - 1);
+
+            if (this.lovasz(k)) {
+                this.swap(k, end);
+                changed = true;
+                k = Math.max(start + 1, k - 1);
+            } else {
+                for (int l = k - 2; l >= start; --l) {
+                    this.red(start, k, l);
+                }
+
+                k++;
+            }
+        }
+
+        return changed;
+    }
+
+    private void red(int start, int k, int l) {
+        BigInteger r = IntegralLLL.round(this.lambda[k][l], this.d[l]);
+
+        if (r.signum() == 0) {
+            return;
+        }
+
+        IntegralLLL.subtractMultiple(this.basis[k], this.basis[l], r);
+        IntegralLLL.subtractMultiple(this.coordinates[k], this.coordinates[l], r);
+        this.lambda[k][l] = this.lambda[k][l].subtract(r.multiply(this.d[l]));
+
+        // the coefficients on rows before the segment are left stale, the next round recomputes them
+        for (int i = start; i < l; ++i) {
+            this.lambda[k][i] = this.lambda[k][i].subtract(r.multiply(this.lambda[l][i]));
+        }
+    }
+
+    private boolean lovasz(int k) {
+        BigInteger l = this.lambda[k][k - 1];
+        BigInteger left = this.deltaDenominator.multiply(this.d[k]).multiply(this.d(k - 2));
+        BigInteger right = this.deltaNumerator.multiply(this.d[k - 1]).multiply(this.d[k - 1]).subtract(this.deltaDenominator.multiply(l).multiply(l));
+        return left.compareTo(right) < 0;
+    }
+
+    private void swap(int k, int end) {
+        BigInteger[] tmp = this.basis[k];
+        this.basis[k] = this.basis[k - 1];
+        this.basis[k - 1] = tmp;
+        tmp = this.coordinates[k];
+        this.coordinates[k] = this.coordinates[k - 1];
+        this.coordinates[k - 1] = tmp;
+
+        for (int j = 0; j < k - 1; ++j) {
+            BigInteger t = this.lambda[k][j];
+            this.lambda[k][j] = this.lambda[k - 1][j];
+            this.lambda[k - 1][j] = t;
+        }
+
+        BigInteger l = this.lambda[k][k - 1];
+        BigInteger b = this.d(k - 2).multiply(this.d[k]).add(l.multiply(l)).divide(this.d[k - 1]);
+
+        for (int i = k + 1; i < end; ++i) {
+            BigInteger t = this.lambda[i][k];
+            this.lambda[i][k] = this.d[k].multiply(this.lambda[i][k - 1]).subtract(l.multiply(t)).divide(this.d[k - 1]);
+            this.lambda[i][k - 1] = b.multiply(t).add(l.multiply(this.lambda[i][k])).divide(this.d[k]);
+        }
+
+        this.d[k - 1] = b;
+    }
+}
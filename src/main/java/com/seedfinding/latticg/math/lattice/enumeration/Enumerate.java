@@ -3,17 +3,107 @@ package com.seedfinding.latticg.math.lattice.enumeration;
 import com.seedfinding.latticg.math.component.BigMatrix;
 import com.seedfinding.latticg.math.component.BigMatrixUtil;
 import com.seedfinding.latticg.math.component.BigVector;
+import com.seedfinding.latticg.math.lattice.enumerate.EnumerateExecutor;
 import com.seedfinding.latticg.math.lattice.enumerate.EnumerateRt;
+import com.seedfinding.latticg.math.lattice.enumerate.EnumerationCursor;
+import com.seedfinding.latticg.math.lattice.enumerate.EnumerationEstimate;
+import com.seedfinding.latticg.math.lattice.enumerate.Shard;
 import com.seedfinding.latticg.math.optimize.Optimize;
 
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 public class Enumerate {
     public static Stream<BigVector> enumerate(BigMatrix basis, BigVector origin, Optimize constraints) {
+        return enumerate(basis, origin, constraints, EnumerateRt.Strategy.AUTOMATIC);
+    }
+
+    public static Stream<BigVector> enumerate(BigMatrix basis, BigVector origin, Optimize constraints, EnumerateRt.Strategy strategy) {
+        BigMatrix rootInverse = BigMatrixUtil.inverse(basis);
+        BigVector rootOrigin = rootInverse.multiply(origin);
+
+        return EnumerateRt.enumerate(basis, origin, constraints, rootInverse, rootOrigin, strategy);
+    }
+
+    /**
+     * Enumerates a single row of the lattice points satisfying the constraints, without building the points
+     *
+     * @see EnumerateRt#enumerateRow(BigMatrix, BigVector, Optimize, BigMatrix, BigVector, int, EnumerateRt.Strategy)
+     */
+    public static LongStream enumerateRow(BigMatrix basis, BigVector origin, Optimize constraints, int row) {
+        BigMatrix rootInverse = BigMatrixUtil.inverse(basis);
+        BigVector rootOrigin = rootInverse.multiply(origin);
+
+        return EnumerateRt.enumerateRow(basis, origin, constraints, rootInverse, rootOrigin, row);
+    }
+
+    /**
+     * Starts an enumeration of the lattice points satisfying the constraints whose position can be saved
+     */
+    public static EnumerationCursor cursor(BigMatrix basis, BigVector origin, Optimize constraints) {
+        BigMatrix rootInverse = BigMatrixUtil.inverse(basis);
+        BigVector rootOrigin = rootInverse.multiply(origin);
+
+        return EnumerateRt.cursor(basis, origin, constraints, rootInverse, rootOrigin, EnumerateRt.Strategy.AUTOMATIC);
+    }
+
+    /**
+     * Resumes an enumeration from a checkpoint of a cursor over the same problem
+     */
+    public static EnumerationCursor resume(BigMatrix basis, BigVector origin, Optimize constraints, byte[] checkpoint) {
+        BigMatrix rootInverse = BigMatrixUtil.inverse(basis);
+        BigVector rootOrigin = rootInverse.multiply(origin);
+
+        return EnumerateRt.resume(basis, origin, constraints, rootInverse, rootOrigin, EnumerateRt.Strategy.AUTOMATIC, checkpoint);
+    }
+
+    /**
+     * Estimates the size of the enumeration of the lattice points satisfying the constraints without running it
+     *
+     * @see EnumerateRt#estimate(BigMatrix, Optimize, BigMatrix, BigVector)
+     */
+    public static EnumerationEstimate estimate(BigMatrix basis, BigVector origin, Optimize constraints) {
+        BigMatrix rootInverse = BigMatrixUtil.inverse(basis);
+        BigVector rootOrigin = rootInverse.multiply(origin);
+
+        return EnumerateRt.estimate(basis, constraints, rootInverse, rootOrigin);
+    }
+
+    /**
+     * Splits the enumeration of the lattice points satisfying the constraints into disjoint shards that can be searched
+     * in different processes
+     *
+     * @see EnumerateRt#shards(BigMatrix, BigVector, Optimize, BigMatrix, BigVector, int, EnumerateRt.Strategy)
+     */
+    public static List<Shard> shards(BigMatrix basis, BigVector origin, Optimize constraints, int count) {
+        BigMatrix rootInverse = BigMatrixUtil.inverse(basis);
+        BigVector rootOrigin = rootInverse.multiply(origin);
+
+        return EnumerateRt.shards(basis, origin, constraints, rootInverse, rootOrigin, count);
+    }
+
+    /**
+     * Enumerates the lattice points of one shard of {@link #shards(BigMatrix, BigVector, Optimize, int)}, given the same
+     * problem as the shard was made from
+     */
+    public static Stream<BigVector> enumerate(BigMatrix basis, BigVector origin, Optimize constraints, Shard shard) {
+        BigMatrix rootInverse = BigMatrixUtil.inverse(basis);
+        BigVector rootOrigin = rootInverse.multiply(origin);
+
+        return EnumerateRt.enumerate(basis, origin, constraints, rootInverse, rootOrigin, shard);
+    }
+
+    /**
+     * Enumerates the lattice points satisfying the constraints on the workers of the given executor, passing each of
+     * them to the action as they are found
+     */
+    public static EnumerateExecutor.Job enumerate(BigMatrix basis, BigVector origin, Optimize constraints, EnumerateRt.Strategy strategy, EnumerateExecutor executor, Consumer<? super BigVector> action) {
         BigMatrix rootInverse = BigMatrixUtil.inverse(basis);
         BigVector rootOrigin = rootInverse.multiply(origin);
 
-        return EnumerateRt.enumerate(basis, origin, constraints, rootInverse, rootOrigin);
+        return executor.enumerate(basis, origin, constraints, rootInverse, rootOrigin, strategy, action);
     }
 
     @Deprecated // TODO: remove
@@ -7,6 +7,7 @@ import com.seedfinding.latticg.math.lattice.LLL.LLL;
 import com.seedfinding.latticg.math.lattice.LLL.Params;
 import com.seedfinding.latticg.math.lattice.LLL.Result;
 
+import java.math.BigDecimal;
 import java.math.BigInteger;
 
 public class BKZ {
@@ -26,7 +27,7 @@ public class BKZ {
     private BigVector norms; // those are simply the magnitude of each GS vectors
     private int nbRows;
     private int nbCols;
-    private BigVector BKZConstant = null;
+    private double[] BKZConstant = null;
     private BigVector BKZTresh = null;
 
     public BKZ(BigMatrix lattice, Params params) {
@@ -282,49 +283,52 @@ public class BKZ {
         return fudge;
     }
 
-    private BigVector calculateBKZConstant(int beta, int p) {
-        BigVector res = new BigVector(beta - 1);
-        BigVector log = new BigVector(beta);
-
-        for (int j = 1; j <= beta; j++) {
-            log.set(j, BigVector.LOG_TABLE.get(j));
-        }
-        BigFraction x, y;
+    // computed in doubles as NTL does, these only steer the pruning
+    private double[] calculateBKZConstant(int beta, int p) {
+        double[] res = new double[beta - 1];
+        double x, y;
         for (int i = 1; i <= beta - 1; i++) {
             // First, we compute x = gamma(i/2)^{2/i}
-            BigFraction k = new BigFraction(i).divide(BigFraction.TWO);
+            int k = i / 2;
             if ((i & 1) == 0) { // i even
-                x = BigFraction.ZERO;
-                for (int j = 1; j <= k.toDouble(); j++) {
-                    x = x.add(log.get(j));
+                x = 0;
+                for (int j = 1; j <= k; j++) {
+                    x += Math.log(j);
                 }
-                x = x.multiply(BigFraction.ONE.divide(k));
-                x = x.exp();
+                x = Math.exp(x / k);
             } else { // i odd
-                x = BigFraction.ZERO;
-                for (int j = k.round().intValue() + 2; j <= 2 * k.toDouble() + 2; j++) {
-                    x = x.add(log.get(j));
+                x = 0;
+                for (int j = k + 2; j <= 2 * k + 2; j++) {
+                    x += Math.log(j);
                 }
-                x = BigFraction.HALF.multiply(BigFraction.LOG_PI).add(x).subtract((k.add(BigInteger.ONE).multiply(log.get(2))).multiply(BigFraction.TWO));
-                x = x.multiply(new BigFraction(2, i));
-                x = x.exp();
+                x = 0.5 * Math.log(Math.PI) + x - 2 * (k + 1) * Math.log(2);
+                x = Math.exp(x * 2 / i);
             }
             // Second, we compute y = 2^{2*p/i}
-            y = new BigFraction(-2, i).multiply(log.get(2)).multiply(p);
-            y = y.exp();
-            res.set(i - 1, x.multiply(y).divide(BigFraction.PI));
+            y = Math.exp(-2.0 * p / i * Math.log(2));
+            res[i - 1] = x * y / Math.PI;
         }
         return res;
     }
 
     private BigVector computeBKZThresh(int j, int beta) {
+        // j is one-indexed, so the norms of the block start at j - 1
         BigVector res = new BigVector(beta - 1);
-        BigFraction x = BigFraction.ZERO;
+        double x = 0;
         for (int i = 0; i < beta - 1; i++) {
-            x.add(norms.get(j + i).log());
-            res.set(i, x.divide(new BigFraction(i + 1)).exp().multiply(BKZConstant.get(i)));
+            x += Math.log(norms.get(j - 1 + i).toDouble());
+            double y = Math.exp(x / (i + 1)) * BKZConstant[i];
+            res.set(i, Double.isFinite(y) ? fromDouble(y) : BigFraction.ZERO);
         }
         return res;
     }
 
+    private static BigFraction fromDouble(double value) {
+        BigDecimal decimal = new BigDecimal(value);
+        if (decimal.scale() <= 0) {
+            return new BigFraction(decimal.toBigInteger());
+        }
+        return new BigFraction(decimal.unscaledValue(), BigInteger.TEN.pow(decimal.scale()));
+    }
+
 }
@@ -0,0 +1,703 @@
+package com.seedfinding.latticg.math.lattice.optimization;
+
+import com.seedfinding.latticg.math.component.BigFraction;
+import com.seedfinding.latticg.math.component.BigMatrix;
+import com.seedfinding.latticg.math.lattice.LLL.LLL;
+import com.seedfinding.latticg.math.lattice.LLL.Params;
+import com.seedfinding.latticg.math.lattice.LLL.Result;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * BKZ 2.0, as described by Chen and Nguyen in "BKZ 2.0: Better lattice security estimates".
+ *
+ * <p>Like {@link BKZ}, every tour goes over the blocks of consecutive rows of the basis, finds the shortest vector of
+ * the projection of each block, and inserts it at the start of the block if it is shorter than delta times the first
+ * Gram-Schmidt vector of the block. Unlike it:
+ * <ul>
+ *     <li>the basis is kept in exact integers along with its exact Gram matrix, and the Gram-Schmidt data is kept in
+ *     doubles, so the enumeration of the blocks runs in floating point</li>
+ *     <li>a new vector is inserted by a unimodular transformation of the rows of its block, so only those rows, and the
+ *     one after them, go through LLL again</li>
+ *     <li>blocks of {@value #PREPROCESSING_MIN_BLOCK_SIZE} rows or more are first reduced by a tour of BKZ with half
+ *     their size, recursively</li>
+ *     <li>with {@link Params#pruningTrials} set, blocks are enumerated under extreme pruning: the enumeration is
+ *     pruned by a linear bounding function, which misses the shortest vector with high probability but is much
+ *     faster, and a block is rerandomized and enumerated again up to that many times</li>
+ *     <li>the tours stop early after {@link Params#maxTours}, if set</li>
+ * </ul>
+ *
+ * <p>{@link #reduceProgressive(BigMatrix, int, Params, TourListener)} raises the block size progressively instead,
+ * within a budget, and reports the {@link BasisQuality} after every tour.
+ *
+ * <p>Floating point only steers the reduction, the basis always stays a basis of the same lattice, and it is LLL
+ * reduced in exact arithmetic once the tours are done.
+ */
+public final class BKZ2 {
+    // blocks at least this large are preprocessed by a tour with half their size
+    private static final int PREPROCESSING_MIN_BLOCK_SIZE = 20;
+    // a size reduction by more than this loses enough precision that the row is recomputed from the Gram matrix
+    private static final double REFRESH_LIMIT = 0x1.0p20;
+    // the number of rows added to each row of a block when rerandomizing it
+    private static final int RERANDOMIZE_ROWS = 3;
+    // the tours stop once this many in a row leave the potential of the basis above its best so far
+    private static final int AUTO_ABORT_TOURS = 5;
+
+    private final int rows;
+    private final int cols;
+    private final BigInteger scale;
+    private final BigInteger[][] basis;
+    private final BigInteger[][] coordinates;
+    private final BigInteger[][] gram;
+    private final double[][] mu;
+    private final double[] norms;
+    private final double delta;
+    private final int pruningTrials;
+    private final Random random = new Random(0);
+    // the number of leading rows whose Gram-Schmidt data is up to date
+    private int valid;
+    // the nodes the enumeration went through and the time it took, which give the rate it runs at
+    private long nodes;
+    private long enumerationNanos;
+
+    private BKZ2(BigMatrix lattice, Params params) {
+        this.rows = lattice.getRowCount();
+        this.cols = lattice.getColumnCount();
+        this.scale = denominator(lattice);
+        this.basis = new BigInteger[this.rows][this.cols];
+        this.coordinates = new BigInteger[this.rows][this.rows];
+        this.gram = new BigInteger[this.rows][this.rows];
+        this.mu = new double[this.rows][this.rows];
+        this.norms = new double[this.rows];
+        this.delta = params.delta.toDouble();
+        this.pruningTrials = params.pruningTrials;
+
+        for (int i = 0; i < this.rows; ++i) {
+            for (int col = 0; col < this.cols; ++col) {
+                this.basis[i][col] = lattice.get(i, col).multiply(this.scale).getNumerator();
+            }
+
+            for (int j = 0; j < this.rows; ++j) {
+                this.coordinates[i][j] = i == j ? BigInteger.ONE : BigInteger.ZERO;
+            }
+
+            for (int j = 0; j <= i; ++j) {
+                this.gram[i][j] = this.gram[j][i] = dot(this.basis[i], this.basis[j]);
+            }
+        }
+    }
+
+    /**
+     * The BKZ 2.0 algorithm as described
+     *
+     * @param lattice   the lattice to reduce
+     * @param blockSize the block size to use in BKZ
+     * @param params    the parameters to be passed to LLL, along with those of BKZ 2.0
+     * @return the reduced lattice
+     */
+    public static Result reduce(BigMatrix lattice, int blockSize, Params params) {
+        if (blockSize < 2 || blockSize > lattice.getRowCount()) {
+            throw new IllegalArgumentException("Invalid blocksize: " + blockSize + " for range 2-" + lattice.getRowCount());
+        }
+
+        Result lll = LLL.reduceFloating(lattice, params);
+        BigMatrix reduced = lll.getReducedBasis();
+
+        if (reduced.getRowCount() < 2) {
+            return lll;
+        }
+
+        BKZ2 bkz = new BKZ2(reduced, params);
+
+        try {
+            bkz.runTours(Math.min(blockSize, bkz.rows), params, tourNanos -> true);
+        } catch (PrecisionException e) {
+            // the basis is left as reduced as it got
+        }
+
+        return lll.andThen(bkz.result(params));
+    }
+
+    public static Result reduce(BigMatrix lattice, int blockSize) {
+        return reduce(lattice, blockSize, new Params());
+    }
+
+    /**
+     * Progressive BKZ 2.0: runs tours with block sizes 2, 3, ... up to maxBlockSize, moving to the next block size
+     * once tours with the current one stop improving the basis, and reports the quality of the basis after every tour.
+     *
+     * <p>The reduction stops early once {@link Params#timeBudget} or {@link Params#tourBudget} runs out, both checked
+     * between tours, or once enumerating the shortest vector of the whole basis is predicted to take less time than the
+     * last tour did, that is once reducing further costs more than it can save on the enumeration that follows. The
+     * prediction is {@link BasisQuality#getEnumerationNodes()} at the rate at which the tours so far enumerated nodes.
+     *
+     * @param lattice      the lattice to reduce
+     * @param maxBlockSize the largest block size to use
+     * @param params       the parameters to be passed to LLL, along with those of BKZ 2.0 and the budgets
+     * @param listener     called after every tour
+     * @return the reduced lattice
+     */
+    public static Result reduceProgressive(BigMatrix lattice, int maxBlockSize, Params params, TourListener listener) {
+        if (maxBlockSize < 2 || maxBlockSize > lattice.getRowCount()) {
+            throw new IllegalArgumentException("Invalid blocksize: " + maxBlockSize + " for range 2-" + lattice.getRowCount());
+        }
+
+        Result lll = LLL.reduceFloating(lattice, params);
+        BigMatrix reduced = lll.getReducedBasis();
+
+        if (reduced.getRowCount() < 2) {
+            return lll;
+        }
+
+        BKZ2 bkz = new BKZ2(reduced, params);
+        long deadline = params.timeBudget > 0 ? System.nanoTime() + params.timeBudget * 1_000_000L : Long.MAX_VALUE;
+        int[] tours = new int[1];
+
+        try {
+            for (int blockSize = 2; blockSize <= Math.min(maxBlockSize, bkz.rows); ++blockSize) {
+                int currentBlockSize = blockSize;
+                boolean proceed = bkz.runTours(blockSize, params, tourNanos -> {
+                    BasisQuality quality = bkz.quality();
+                    listener.onTour(currentBlockSize, ++tours[0], quality);
+
+                    if (System.nanoTime() - deadline >= 0 || (params.tourBudget > 0 && tours[0] >= params.tourBudget)) {
+                        return false;
+                    }
+
+                    return bkz.nodes == 0 || quality.getEnumerationNodes() * bkz.enumerationNanos / bkz.nodes >= tourNanos;
+                });
+
+                if (!proceed) {
+                    break;
+                }
+            }
+        } catch (PrecisionException e) {
+            // the basis is left as reduced as it got
+        }
+
+        return lll.andThen(bkz.result(params));
+    }
+
+    public static Result reduceProgressive(BigMatrix lattice, int maxBlockSize, Params params) {
+        return reduceProgressive(lattice, maxBlockSize, params, (blockSize, tours, quality) -> {
+        });
+    }
+
+    /**
+     * Runs tours with the given block size until one inserts nothing, {@link Params#maxTours} are done, the potential
+     * of the basis stops going down, or the check after a tour, given how long it took, says to stop
+     *
+     * @return false if the check said to stop
+     */
+    private boolean runTours(int blockSize, Params params, TourCheck check) {
+        double best = Double.POSITIVE_INFINITY;
+        int stalled = 0;
+
+        for (int tour = 0; params.maxTours <= 0 || tour < params.maxTours; ++tour) {
+            long start = System.nanoTime();
+            boolean changed = this.tour(0, this.rows, blockSize, Math.max(1, params.pruningTrials));
+
+            if (!check.proceed(System.nanoTime() - start)) {
+                return false;
+            }
+
+            if (!changed) {
+                break;
+            }
+
+            double potential = this.potential();
+
+            if (potential < best) {
+                best = potential;
+                stalled = 0;
+            } else if (++stalled == AUTO_ABORT_TOURS) {
+                break;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Runs a tour over the blocks of rows start to end - 1, enumerating each block up to the given number of times
+     *
+     * @return whether any vector was inserted
+     */
+    private boolean tour(int start, int end, int blockSize, int trials) {
+        boolean changed = false;
+
+        for (int k = start; k < end - 1; ++k) {
+            int blockEnd = Math.min(k + blockSize, end);
+            changed |= this.reduceBlock(k, blockEnd, trials);
+            this.lll(k, Math.min(blockEnd + 1, end));
+        }
+
+        return changed;
+    }
+
+    /**
+     * Inserts the shortest vector of the projection of rows k to end - 1 at row k, if it is shorter than delta B_k. The
+     * block is rerandomized between trials, and the preprocessing runs a single one
+     *
+     * @return whether a vector was inserted
+     */
+    private boolean reduceBlock(int k, int end, int trials) {
+        int size = end - k;
+        BigInteger[][][] saved = null;
+
+        for (int trial = 0; trial < trials; ++trial) {
+            if (trial > 0) {
+                if (saved == null) {
+                    saved = this.save(end);
+                }
+
+                this.rerandomize(k, end);
+                this.lll(k, end);
+            }
+
+            if (size >= PREPROCESSING_MIN_BLOCK_SIZE) {
+                this.tour(k, end, size / 2, 1);
+            }
+
+            this.refreshUpTo(end);
+            long start = System.nanoTime();
+            long[] coefficients = this.enumerate(k, end, this.pruningTrials > 0);
+            this.enumerationNanos += System.nanoTime() - start;
+
+            if (coefficients != null) {
+                this.insert(k, coefficients);
+                return true;
+            }
+        }
+
+        if (saved != null) {
+            // a failed search leaves the block as it found it, so that a tour without insertions changes nothing
+            this.restore(end, saved);
+        }
+
+        return false;
+    }
+
+    /**
+     * Copies rows 0 to end - 1, which are all the LLL of a block can reach, along with the Gram matrix
+     */
+    private BigInteger[][][] save(int end) {
+        BigInteger[][][] saved = new BigInteger[3][][];
+        saved[0] = new BigInteger[end][];
+        saved[1] = new BigInteger[end][];
+        saved[2] = new BigInteger[this.rows][];
+
+        for (int i = 0; i < end; ++i) {
+            saved[0][i] = this.basis[i].clone();
+            saved[1][i] = this.coordinates[i].clone();
+        }
+
+        for (int i = 0; i < this.rows; ++i) {
+            saved[2][i] = this.gram[i].clone();
+        }
+
+        return saved;
+    }
+
+    private void restore(int end, BigInteger[][][] saved) {
+        System.arraycopy(saved[0], 0, this.basis, 0, end);
+        System.arraycopy(saved[1], 0, this.coordinates, 0, end);
+        System.arraycopy(saved[2], 0, this.gram, 0, this.rows);
+        this.valid = 0;
+    }
+
+    /**
+     * LLL reduces rows 0 to end - 1, given that the rows before start already are
+     */
+    private void lll(int start, int end) {
+        int k = Math.max(1, start);
+        this.refreshUpTo(k);
+
+        while (k < end) {
+            this.refresh(k);
+            this.sizeReduce(k);
+            double m = this.mu[k][k - 1];
+
+            if (this.norms[k] < (this.delta - m * m) * this.norms[k - 1]) {
+                this.swap(k);
+                k = Math.max(1, k - 1);
+                this.refreshUpTo(k);
+            } else {
+                k++;
+            }
+        }
+    }
+
+    private void sizeReduce(int k) {
+        boolean large = true;
+
+        while (large) {
+            large = false;
+
+            for (int l = k - 1; l >= 0; --l) {
+                double r = Math.rint(this.mu[k][l]);
+
+                if (r == 0.0D) {
+                    continue;
+                }
+
+                large |= Math.abs(r) > REFRESH_LIMIT;
+                this.combine(k, l, BigInteger.ONE, toBigInteger(-r), BigInteger.ZERO, BigInteger.ONE);
+                this.mu[k][l] -= r;
+
+                for (int j = 0; j < l; ++j) {
+                    this.mu[k][j] -= r * this.mu[l][j];
+                }
+            }
+
+            if (large) {
+                this.refresh(k);
+            }
+        }
+    }
+
+    /**
+     * Returns the coefficients on rows k to end - 1 of the shortest vector of the projection of those rows, if it is
+     * shorter than delta B_k, or null.
+     *
+     * <p>This is the enumeration of Schnorr and Euchner: the coefficients are fixed from the last row down, each one
+     * going through the integers by distance to its center, and a branch is left as soon as the projection of the
+     * partial vector is too long. With pruning, the projection orthogonally to the first i rows of the block may only
+     * take up (size - i) / size of the radius.
+     */
+    private long[] enumerate(int k, int end, boolean pruned) {
+        int size = end - k;
+        double[] pruning = new double[size];
+        double[] bounds = new double[size];
+        double radius = this.delta * this.norms[k];
+
+        for (int i = 0; i < size; ++i) {
+            pruning[i] = pruned ? (double) (size - i) / size : 1.0D;
+            bounds[i] = pruning[i] * radius;
+        }
+
+        long[] x = new long[size];
+        long[] dx = new long[size];
+        long[] ddx = new long[size];
+        double[] centers = new double[size];
+        // partial[i] is the squared length of the projection of the partial vector fixed from row i on
+        double[] partial = new double[size + 1];
+        long[] best = null;
+        int i = size - 1;
+
+        while (true) {
+            this.nodes++;
+            double difference = x[i] - centers[i];
+            double length = partial[i + 1] + difference * difference * this.norms[k + i];
+
+            if (length < bounds[i]) {
+                if (i > 0) {
+                    partial[i] = length;
+                    i--;
+                    double center = 0.0D;
+
+                    for (int j = i + 1; j < size; ++j) {
+                        center -= x[j] * this.mu[k + j][k + i];
+                    }
+
+                    centers[i] = center;
+                    x[i] = Math.round(center);
+                    dx[i] = ddx[i] = center >= x[i] ? 1 : -1;
+                    continue;
+                }
+
+                if (length > 0.0D) {
+                    best = x.clone();
+                    radius = length;
+
+                    for (int j = 0; j < size; ++j) {
+                        bounds[j] = pruning[j] * radius;
+                    }
+                }
+            } else if (++i == size) {
+                return best;
+            }
+
+            if (partial[i + 1] == 0.0D) {
+                // the rows above are all zero, so the opposite coefficients give the opposite vectors
+                x[i]++;
+            } else {
+                x[i] += dx[i];
+                ddx[i] = -ddx[i];
+                dx[i] = ddx[i] - dx[i];
+            }
+        }
+    }
+
+    /**
+     * Makes the vector with the given coefficients on the rows from k on, divided by their gcd, row k, by a unimodular
+     * transformation of those rows
+     */
+    private void insert(int k, long[] coefficients) {
+        int last = -1;
+        long a = 0;
+
+        for (int i = coefficients.length - 1; i >= 0; --i) {
+            long b = coefficients[i];
+
+            if (b == 0) {
+                continue;
+            }
+
+            if (last >= 0) {
+                // with g = s b + t a, row i becomes b / g row i + a / g row last, the row with the sum so far, and row
+                // last becomes -t row i + s row last, which has determinant one
+                long[] gcd = extendedGcd(b, a);
+                long g = gcd[0];
+                this.combine(k + i, k + last, BigInteger.valueOf(b / g), BigInteger.valueOf(a / g), BigInteger.valueOf(-gcd[2]), BigInteger.valueOf(gcd[1]));
+                a = g;
+            } else {
+                a = b;
+            }
+
+            last = i;
+        }
+
+        for (int i = k + last; i > k; --i) {
+            this.swap(i);
+        }
+    }
+
+    /**
+     * Adds a few random rows after each row of the block to it, which changes the basis of the block but not the
+     * lattice it generates
+     */
+    private void rerandomize(int k, int end) {
+        for (int i = k; i < end - 1; ++i) {
+            for (int n = 0; n < RERANDOMIZE_ROWS; ++n) {
+                int j = i + 1 + this.random.nextInt(end - i - 1);
+                this.combine(i, j, BigInteger.ONE, this.random.nextBoolean() ? BigInteger.ONE : BigInteger.ONE.negate(), BigInteger.ZERO, BigInteger.ONE);
+            }
+        }
+    }
+
+    /**
+     * Replaces rows p and q by a11 b_p + a12 b_q and a21 b_p + a22 b_q. The Gram-Schmidt data is left to the caller
+     */
+    private void combine(int p, int q, BigInteger a11, BigInteger a12, BigInteger a21, BigInteger a22) {
+        combineRows(this.basis, p, q, a11, a12, a21, a22);
+        combineRows(this.coordinates, p, q, a11, a12, a21, a22);
+        BigInteger pp = this.gram[p][p];
+        BigInteger pq = this.gram[p][q];
+        BigInteger qq = this.gram[q][q];
+
+        for (int i = 0; i < this.rows; ++i) {
+            if (i != p && i != q) {
+                BigInteger ip = this.gram[i][p];
+                BigInteger iq = this.gram[i][q];
+                this.gram[i][p] = this.gram[p][i] = a11.multiply(ip).add(a12.multiply(iq));
+                this.gram[i][q] = this.gram[q][i] = a21.multiply(ip).add(a22.multiply(iq));
+            }
+        }
+
+        this.gram[p][p] = a11.multiply(a11).multiply(pp).add(a11.multiply(a12).multiply(pq).shiftLeft(1)).add(a12.multiply(a12).multiply(qq));
+        this.gram[q][q] = a21.multiply(a21).multiply(pp).add(a21.multiply(a22).multiply(pq).shiftLeft(1)).add(a22.multiply(a22).multiply(qq));
+        this.gram[p][q] = this.gram[q][p] = a11.multiply(a21).multiply(pp).add(a11.multiply(a22).add(a12.multiply(a21)).multiply(pq)).add(a12.multiply(a22).multiply(qq));
+
+        // a size reduction of p by an earlier row leaves its Gram-Schmidt vector, and so every other row, as it was
+        if (!(a11.equals(BigInteger.ONE) && a21.signum() == 0 && a22.equals(BigInteger.ONE) && q < p)) {
+            this.valid = Math.min(this.valid, Math.min(p, q));
+        }
+    }
+
+    private static void combineRows(BigInteger[][] matrix, int p, int q, BigInteger a11, BigInteger a12, BigInteger a21, BigInteger a22) {
+        BigInteger[] rowP = matrix[p];
+        BigInteger[] rowQ = matrix[q];
+
+        for (int col = 0; col < rowP.length; ++col) {
+            BigInteger valueP = rowP[col];
+            BigInteger valueQ = rowQ[col];
+            rowP[col] = a11.multiply(valueP).add(a12.multiply(valueQ));
+            rowQ[col] = a21.multiply(valueP).add(a22.multiply(valueQ));
+        }
+    }
+
+    private void swap(int k) {
+        BigInteger[] tmp = this.basis[k];
+        this.basis[k] = this.basis[k - 1];
+        this.basis[k - 1] = tmp;
+        tmp = this.coordinates[k];
+        this.coordinates[k] = this.coordinates[k - 1];
+        this.coordinates[k - 1] = tmp;
+        tmp = this.gram[k];
+        this.gram[k] = this.gram[k - 1];
+        this.gram[k - 1] = tmp;
+
+        for (int i = 0; i < this.rows; ++i) {
+            BigInteger t = this.gram[i][k];
+            this.gram[i][k] = this.gram[i][k - 1];
+            this.gram[i][k - 1] = t;
+        }
+
+        this.valid = Math.min(this.valid, k - 1);
+    }
+
+    /**
+     * Returns the sum of (n - i) log B_i, the log of the product of the determinants of the lattices generated by the
+     * first rows of the basis, which the reduction brings down
+     */
+    private double potential() {
+        this.refreshUpTo(this.rows);
+        double potential = 0.0D;
+
+        for (int i = 0; i < this.rows; ++i) {
+            potential += (this.rows - i) * Math.log(this.norms[i]);
+        }
+
+        return potential;
+    }
+
+    private BasisQuality quality() {
+        this.refreshUpTo(this.rows);
+        return new BasisQuality(this.norms.clone());
+    }
+
+    private void refreshUpTo(int end) {
+        while (this.valid < end) {
+            this.refresh(this.valid);
+        }
+    }
+
+    /**
+     * Recomputes the Gram-Schmidt data of row k from the Gram matrix, given up to date data for the rows above it
+     */
+    private void refresh(int k) {
+        double[] row = this.mu[k];
+        // r[j] = <b_k, b*_j> = mu(k, j) B_j
+        double[] r = new double[k];
+        double norm = toDouble(this.gram[k][k]);
+
+        for (int j = 0; j < k; ++j) {
+            double value = toDouble(this.gram[k][j]);
+
+            for (int l = 0; l < j; ++l) {
+                value -= this.mu[j][l] * r[l];
+            }
+
+            r[j] = value;
+            row[j] = value / this.norms[j];
+            norm -= row[j] * value;
+        }
+
+        if (!(norm > 0.0D) || Double.isInfinite(norm)) {
+            throw PrecisionException.INSTANCE;
+        }
+
+        this.norms[k] = norm;
+        this.valid = k + 1;
+    }
+
+    private Result result(Params params) {
+        BigMatrix reduced = new BigMatrix(this.rows, this.cols);
+        BigMatrix transformations = new BigMatrix(this.rows, this.rows);
+
+        for (int i = 0; i < this.rows; ++i) {
+            for (int col = 0; col < this.cols; ++col) {
+                reduced.set(i, col, new BigFraction(this.basis[i][col], this.scale));
+            }
+
+            for (int j = 0; j < this.rows; ++j) {
+                transformations.set(i, j, new BigFraction(this.coordinates[i][j]));
+            }
+        }
+
+        return new Result(0, reduced, transformations).andThen(LLL.reduceFloating(reduced, params));
+    }
+
+    private static BigInteger denominator(BigMatrix lattice) {
+        BigInteger scale = BigInteger.ONE;
+
+        for (int row = 0; row < lattice.getRowCount(); ++row) {
+            for (int col = 0; col < lattice.getColumnCount(); ++col) {
+                BigInteger denominator = lattice.get(row, col).getDenominator();
+                scale = scale.divide(scale.gcd(denominator)).multiply(denominator);
+            }
+        }
+
+        return scale;
+    }
+
+    private static BigInteger dot(BigInteger[] a, BigInteger[] b) {
+        BigInteger result = BigInteger.ZERO;
+
+        for (int i = 0; i < a.length; ++i) {
+            result = result.add(a[i].multiply(b[i]));
+        }
+
+        return result;
+    }
+
+    private static double toDouble(BigInteger value) {
+        double result = value.doubleValue();
+
+        if (Double.isInfinite(result)) {
+            throw PrecisionException.INSTANCE;
+        }
+
+        return result;
+    }
+
+    private static BigInteger toBigInteger(double value) {
+        return Math.abs(value) < 0x1.0p62 ? BigInteger.valueOf((long) value) : new BigDecimal(value).toBigInteger();
+    }
+
+    /**
+     * Returns {g, s, t} with g = gcd(a, b) = s a + t b and g positive, for a and b not both zero
+     */
+    private static long[] extendedGcd(long a, long b) {
+        long oldR = a, r = b;
+        long oldS = 1, s = 0;
+        long oldT = 0, t = 1;
+
+        while (r != 0) {
+            long q = oldR / r;
+            long tmp = oldR - q * r;
+            oldR = r;
+            r = tmp;
+            tmp = oldS - q * s;
+            oldS = s;
+            s = tmp;
+            tmp = oldT - q * t;
+            oldT = t;
+            t = tmp;
+        }
+
+        return oldR < 0 ? new long[] {-oldR, -oldS, -oldT} : new long[] {oldR, oldS, oldT};
+    }
+
+    /**
+     * Called after every tour of {@link #reduceProgressive(BigMatrix, int, Params, TourListener)}
+     */
+    @FunctionalInterface
+    public interface TourListener {
+        /**
+         * @param blockSize the block size of the tour
+         * @param tours     the number of tours so far, over all block sizes
+         * @param quality   the quality of the basis after the tour
+         */
+        void onTour(int blockSize, int tours, BasisQuality quality);
+    }
+
+    @FunctionalInterface
+    private interface TourCheck {
+        boolean proceed(long tourNanos);
+    }
+
+    /**
+     * Thrown when doubles cannot hold the Gram-Schmidt data of the basis
+     */
+    private static final class PrecisionException extends RuntimeException {
+        private static final PrecisionException INSTANCE = new PrecisionException();
+
+        private PrecisionException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.seedfinding.latticg.math.lattice.optimization;
+
+import com.seedfinding.latticg.math.component.BigVector;
+import com.seedfinding.latticg.math.lattice.LLL.Result;
+
+/**
+ * Measures of how reduced a basis is, computed from the squared lengths B_i of its Gram-Schmidt vectors.
+ *
+ * <p>The Hermite factor is ||b_0|| / vol(L)^(1 / n), its root is the n'th root of it, and the slope is that of the line
+ * fitted to log ||b*_i|| by least squares. A better reduced basis has a smaller Hermite factor and a flatter slope.
+ *
+ * <p>The number of enumeration nodes is the number of nodes the enumeration of the vectors of the lattice no longer
+ * than b_0 is expected to go through, by the Gaussian heuristic: level k of the enumeration, which fixes the
+ * coefficients on the last k rows, goes through about as many nodes as the projection of the lattice orthogonally to
+ * the other rows has points in the ball of radius ||b_0||, that is the volume of the ball over the volume of that
+ * projection, halved since only one of v and -v is enumerated.
+ */
+public final class BasisQuality {
+    private final double[] logNorms;
+    private final double hermiteFactor;
+    private final double rootHermiteFactor;
+    private final double slope;
+    private final double enumerationNodes;
+
+    BasisQuality(double[] norms) {
+        int n = norms.length;
+        this.logNorms = new double[n];
+        double logVolume = 0.0D;
+
+        for (int i = 0; i < n; ++i) {
+            // log ||b*_i||
+            this.logNorms[i] = 0.5D * Math.log(norms[i]);
+            logVolume += this.logNorms[i];
+        }
+
+        double logHermiteFactor = this.logNorms[0] - logVolume / n;
+        this.hermiteFactor = Math.exp(logHermiteFactor);
+        this.rootHermiteFactor = Math.exp(logHermiteFactor / n);
+        this.slope = slope(this.logNorms);
+        this.enumerationNodes = enumerationNodes(this.logNorms, this.logNorms[0]);
+    }
+
+    /**
+     * Measures the basis of the result from its Gram-Schmidt data
+     */
+    public static BasisQuality of(Result result) {
+        BigVector sizes = result.getGramSchmidtSizes();
+        double[] norms = new double[sizes.getDimension()];
+
+        for (int i = 0; i < norms.length; ++i) {
+            norms[i] = sizes.get(i).toDouble();
+        }
+
+        return new BasisQuality(norms);
+    }
+
+    public int getDimension() {
+        return this.logNorms.length;
+    }
+
+    public double getHermiteFactor() {
+        return this.hermiteFactor;
+    }
+
+    public double getRootHermiteFactor() {
+        return this.rootHermiteFactor;
+    }
+
+    /**
+     * Returns the slope of log ||b*_i|| against i, negative for a reduced basis and closer to zero the better reduced
+     */
+    public double getSlope() {
+        return this.slope;
+    }
+
+    public double getEnumerationNodes() {
+        return this.enumerationNodes;
+    }
+
+    /**
+     * Returns log ||b*_i||
+     */
+    public double getLogNorm(int i) {
+        return this.logNorms[i];
+    }
+
+    private static double slope(double[] values) {
+        int n = values.length;
+
+        if (n < 2) {
+            return 0.0D;
+        }
+
+        double meanX = (n - 1) / 2.0D;
+        double meanY = 0.0D;
+
+        for (double value : values) {
+            meanY += value;
+        }
+
+        meanY /= n;
+        double covariance = 0.0D;
+        double variance = 0.0D;
+
+        for (int i = 0; i < n; ++i) {
+            covariance += (i - meanX) * (values[i] - meanY);
+            variance += (i - meanX) * (i - meanX);
+        }
+
+        return covariance / variance;
+    }
+
+    /**
+     * Returns half the sum over k of the volume of the k dimensional ball of the given radius over the product of the
+     * last k Gram-Schmidt lengths, all taken as logs
+     */
+    static double enumerationNodes(double[] logNorms, double logRadius) {
+        int n = logNorms.length;
+        double nodes = 0.0D;
+        double logProjectedVolume = 0.0D;
+
+        for (int k = 1; k <= n; ++k) {
+            logProjectedVolume += logNorms[n - k];
+            nodes += Math.exp(logBallVolume(k) + k * logRadius - logProjectedVolume);
+        }
+
+        return nodes / 2.0D;
+    }
+
+    /**
+     * Returns the log of the volume of the unit ball in k dimensions, pi^(k / 2) / Gamma(k / 2 + 1)
+     */
+    static double logBallVolume(int k) {
+        // Gamma(k / 2 + 1) from Gamma(1) = 1 or Gamma(3 / 2) = sqrt(pi) / 2, by Gamma(x + 1) = x Gamma(x)
+        double logGamma = (k & 1) == 0 ? 0.0D : Math.log(Math.sqrt(Math.PI) / 2.0D);
+
+        for (int twice = (k & 1) == 0 ? 4 : 5; twice <= k + 2; twice += 2) {
+            logGamma += Math.log((twice - 2) / 2.0D);
+        }
+
+        return k / 2.0D * Math.log(Math.PI) - logGamma;
+    }
+
+    @Override
+    public String toString() {
+        return "BasisQuality{dimension=" + this.getDimension() + ", hermiteFactor=" + this.hermiteFactor + ", rootHermiteFactor=" + this.rootHermiteFactor + ", slope=" + this.slope + ", enumerationNodes=" + this.enumerationNodes + "}";
+    }
+}
@@ -0,0 +1,125 @@
+package com.seedfinding.latticg.reversal;
+
+import com.seedfinding.latticg.JavaRandomReverser;
+import com.seedfinding.latticg.math.component.BigMatrix;
+import com.seedfinding.latticg.math.component.BigMatrixUtil;
+import com.seedfinding.latticg.math.component.BigVector;
+import com.seedfinding.latticg.math.lattice.enumerate.EnumerateRt;
+import com.seedfinding.latticg.util.LCG;
+
+import java.util.stream.LongStream;
+
+/**
+ * A program whose lattice is reduced once, ahead of its reversals, holding the same data as the class
+ * {@link com.seedfinding.latticg.generator.ClassGenerator} writes for it but built at runtime. A reversal then only
+ * bounds the measured seeds by the observations and enumerates the points of the reduced basis within them.
+ *
+ * <p>The reduction is done with made up observations, which is fine since the lattice does not depend on them, only
+ * how well the reduced basis suits their bounds does. A range call observed so that it spans every value, or in a way
+ * that cannot be measured, changes which seeds are measured, and so the lattice. The reversal of such observations
+ * falls back to that of {@link ProgramInstance#reverse()}.
+ *
+ * <p>A compiled program is not changed by its reversals, so it can be shared between threads.
+ */
+public final class CompiledProgram {
+    private final Program program;
+    // the reverser the basis was reduced from, to tell whether the lattice of a reversal is the same
+    private final JavaRandomReverser shape;
+    private final int dimensions;
+    private final BigMatrix basis;
+    private final BigMatrix rootInverse;
+    private final BigVector origin;
+    private final BigVector rootOrigin;
+    private final LCG postLcg;
+    private final double successChance;
+
+    CompiledProgram(Program program, JavaRandomReverser shape) {
+        JavaRandomReverser.GenerationInfo generationInfo = shape.createGenerationInfo();
+        this.program = program;
+        this.shape = shape;
+        this.dimensions = generationInfo.dimensions;
+        this.basis = generationInfo.basis;
+        this.origin = generationInfo.offset;
+        this.postLcg = generationInfo.r;
+        this.successChance = generationInfo.successChance;
+
+        if (this.dimensions == 0) {
+            this.rootInverse = new BigMatrix(0, 0);
+            this.rootOrigin = new BigVector(0);
+        } else {
+            this.rootInverse = BigMatrixUtil.inverse(this.basis);
+            this.rootOrigin = this.rootInverse.multiply(this.origin);
+        }
+    }
+
+    public Program getProgram() {
+        return program;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Returns the reduced basis the points are enumerated on, one vector per column
+     */
+    public BigMatrix getBasis() {
+        return basis;
+    }
+
+    public BigMatrix getRootInverse() {
+        return rootInverse;
+    }
+
+    /**
+     * Returns the measured seeds of the seed zero, the lattice moved by which holds the measured seeds of every seed
+     */
+    public BigVector getOrigin() {
+        return origin;
+    }
+
+    public BigVector getRootOrigin() {
+        return rootOrigin;
+    }
+
+    /**
+     * Returns the LCG taking the first measured seed of a point to the seed before the first call
+     */
+    public LCG getPostLcg() {
+        return postLcg;
+    }
+
+    /**
+     * Returns the share of the seeds the reversal can find, which is less than one when a call is measured on fewer
+     * seeds than it can produce its values from
+     */
+    public double getSuccessChance() {
+        return successChance;
+    }
+
+    /**
+     * Finds the seeds producing the given observations, one per call of the program in order, as
+     * {@link ProgramInstance#reverse()} does
+     *
+     * @throws IndexOutOfBoundsException If there are more observations than calls
+     * @throws ClassCastException        If an observation is not of the type of its call
+     * @throws IllegalStateException     If there are fewer observations than calls
+     */
+    public LongStream reverse(Object... observations) {
+        ProgramInstance instance = program.start();
+
+        for (Object observation : observations) {
+            instance.add(observation);
+        }
+
+        JavaRandomReverser reverser = instance.createReverser();
+
+        if (dimensions == 0 || !reverser.hasLatticeOf(shape)) {
+            return reverser.findAllValidSeeds();
+        }
+
+        return EnumerateRt.enumerateRow(basis, origin, reverser.createConstraints(), rootInverse, rootOrigin, 0)
+            .map(postLcg::nextSeed)
+            .filter(reverser::passesFilteredSkips);
+    }
+}
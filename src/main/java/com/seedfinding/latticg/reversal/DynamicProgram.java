@@ -1,5 +1,6 @@
 package com.seedfinding.latticg.reversal;
 
+import com.seedfinding.latticg.math.lattice.enumerate.EnumerationEstimate;
 import com.seedfinding.latticg.reversal.calltype.CallType;
 import com.seedfinding.latticg.util.LCG;
 import com.seedfinding.latticg.util.Rand;
@@ -47,6 +48,40 @@ public final class DynamicProgram {
     }
 
     public LongStream reverse() {
+        LongStream seeds = start().reverse();
+        valid = false;
+        return seeds;
+    }
+
+    /**
+     * @see ProgramInstance#reverseCursor()
+     */
+    public ReversalCursor reverseCursor() {
+        ReversalCursor cursor = start().reverseCursor();
+        valid = false;
+        return cursor;
+    }
+
+    /**
+     * @see ProgramInstance#reverseCursor(byte[])
+     */
+    public ReversalCursor reverseCursor(byte[] checkpoint) {
+        ReversalCursor cursor = start().reverseCursor(checkpoint);
+        valid = false;
+        return cursor;
+    }
+
+    /**
+     * Estimates the size of the search of {@link #reverse()} without running it, this program can still be reversed
+     * afterwards
+     *
+     * @see ProgramInstance#estimate()
+     */
+    public EnumerationEstimate estimate() {
+        return start().estimate();
+    }
+
+    private ProgramInstance start() {
         checkValid();
         Program program = programBuilder.build();
         if (this.verbose) {
@@ -56,9 +91,7 @@ public final class DynamicProgram {
         for (Object value : values) {
             instance.add(value);
         }
-        LongStream seeds = instance.reverse();
-        valid = false;
-        return seeds;
+        return instance;
     }
 
     private void checkValid() {
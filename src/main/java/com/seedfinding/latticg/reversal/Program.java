@@ -1,8 +1,17 @@
 package com.seedfinding.latticg.reversal;
 
+import com.seedfinding.latticg.JavaRandomReverser;
+import com.seedfinding.latticg.LatticeCache;
 import com.seedfinding.latticg.reversal.calltype.CallType;
 import com.seedfinding.latticg.reversal.calltype.FilteredSkip;
+import com.seedfinding.latticg.reversal.calltype.java.NextBooleanCall;
+import com.seedfinding.latticg.reversal.calltype.java.NextDoubleCall;
+import com.seedfinding.latticg.reversal.calltype.java.NextFloatCall;
+import com.seedfinding.latticg.reversal.calltype.java.NextIntCall;
+import com.seedfinding.latticg.reversal.calltype.java.NextLongCall;
+import com.seedfinding.latticg.reversal.calltype.java.UnboundedNextIntCall;
 import com.seedfinding.latticg.util.LCG;
+import com.seedfinding.latticg.util.Mth;
 import org.jetbrains.annotations.ApiStatus;
 
 import java.util.List;
@@ -14,6 +23,7 @@ public class Program {
     private final List<Long> skips;
     private final List<FilteredSkip> filteredSkips;
     private boolean verbose = false;
+    private LatticeCache latticeCache = LatticeCache.shared();
 
     protected Program(LCG lcg, List<CallType<?>> calls, List<Long> skips, List<FilteredSkip> filteredSkips) {
         this.lcg = lcg;
@@ -57,4 +67,85 @@ public class Program {
     public void setVerbose(boolean verbose) {
         this.verbose = verbose;
     }
+
+    @ApiStatus.Internal
+    public LatticeCache getLatticeCache() {
+        return latticeCache;
+    }
+
+    /**
+     * Sets the cache the reductions of the lattices of this program are shared through, {@link LatticeCache#shared()}
+     * by default, or null to reduce the lattice on every reversal
+     */
+    public void setLatticeCache(LatticeCache latticeCache) {
+        this.latticeCache = latticeCache;
+    }
+
+    /**
+     * Reduces the lattice of this program once, so that its instances can be reversed without a reduction each
+     *
+     * @see CompiledProgram
+     */
+    public CompiledProgram compile() {
+        return new CompiledProgram(this, createShapeReverser());
+    }
+
+    /**
+     * Creates a reverser of the calls of this program with made up observations. Every instance whose observations
+     * measure each call the same way, which only a range call observed to span everything or observed in a way the
+     * reversal does not support changes, has the lattice of this reverser.
+     */
+    @ApiStatus.Internal
+    public JavaRandomReverser createShapeReverser() {
+        if (!LCG.JAVA.equals(lcg)) {
+            throw new IllegalStateException("Only the Java LCG is currently supported");
+        }
+
+        JavaRandomReverser reverser = new JavaRandomReverser(filteredSkips);
+
+        for (int i = 0; i < calls.size(); i++) {
+            CallType<?> call = calls.get(i);
+            reverser.addUnmeasuredSeeds(skips.get(i));
+
+            if (call instanceof NextBooleanCall) {
+                reverser.addNextBooleanCall(false);
+            } else if (call instanceof NextDoubleCall) {
+                reverser.addNextDoubleCall(0, 0, true, true);
+            } else if (call instanceof NextFloatCall) {
+                reverser.addNextFloatCall(0, 0, true, true);
+            } else if (call instanceof NextIntCall) {
+                reverser.addNextIntCall(((NextIntCall) call).getBound(), 0, 0);
+            } else if (call instanceof UnboundedNextIntCall) {
+                reverser.addNextIntCall(0, 0);
+            } else if (call instanceof NextLongCall) {
+                reverser.addNextLongCall(0, 0);
+            } else if (call instanceof NextFloatCall.FloatRange) {
+                reverser.addNextFloatCall(0.0F, 0.5F);
+            } else if (call instanceof NextIntCall.IntRange) {
+                int bound = ((NextIntCall.IntRange) call).getBound();
+                reverser.addNextIntCall(bound, 0, bound / 2);
+            } else if (call instanceof UnboundedNextIntCall.IntRange) {
+                reverser.addNextIntCall(0, Integer.MAX_VALUE - 1);
+            } else if (call instanceof NextDoubleCall.DoubleRange) {
+                reverser.addNextDoubleCall(0.0D, 0.5D);
+            } else if (call instanceof NextLongCall.LongRange) {
+                reverser.addNextLongCall(0, Long.MAX_VALUE);
+            } else if (call instanceof NextFloatCall.Ranged) {
+                reverser.addNextFloatCall(0, Mth.clamp(((NextFloatCall.Ranged) call).getExpectedSize(), 0, 1));
+            } else if (call instanceof NextIntCall.Ranged) {
+                NextIntCall.Ranged rangedCall = (NextIntCall.Ranged) call;
+                reverser.addNextIntCall(rangedCall.getBound(), 0, Mth.clamp(rangedCall.getExpectedSize(), 0, rangedCall.getBound() - 1));
+            } else if (call instanceof UnboundedNextIntCall.Ranged) {
+                reverser.addNextIntCall(0, ((UnboundedNextIntCall.Ranged) call).getExpectedSize());
+            } else if (call instanceof NextDoubleCall.Ranged) {
+                reverser.addNextDoubleCall(0, Mth.clamp(((NextDoubleCall.Ranged) call).getExpectedSize(), 0x1.0p-26, 1));
+            } else if (call instanceof NextLongCall.Ranged) {
+                reverser.addNextLongCall(0, Math.max(((NextLongCall.Ranged) call).getExpectedSize(), 1L << 32));
+            } else {
+                throw new IllegalStateException("Unsupported call type: " + call.getClass().getName());
+            }
+        }
+
+        return reverser;
+    }
 }
@@ -1,6 +1,7 @@
 package com.seedfinding.latticg.reversal;
 
 import com.seedfinding.latticg.JavaRandomReverser;
+import com.seedfinding.latticg.math.lattice.enumerate.EnumerationEstimate;
 import com.seedfinding.latticg.reversal.calltype.CallType;
 import com.seedfinding.latticg.reversal.calltype.java.NextBooleanCall;
 import com.seedfinding.latticg.reversal.calltype.java.NextDoubleCall;
@@ -42,8 +43,37 @@ public class ProgramInstance {
         return this;
     }
 
-    @SuppressWarnings("unchecked")
     public LongStream reverse() {
+        return createReverser().findAllValidSeeds();
+    }
+
+    /**
+     * Finds the same seeds as {@link #reverse()}, one at a time through a cursor whose position can be saved
+     */
+    public ReversalCursor reverseCursor() {
+        return createReverser().findAllValidSeedsCursor(null);
+    }
+
+    /**
+     * Resumes a reversal from a {@link ReversalCursor#checkpoint()} taken on a cursor of an instance with the same
+     * program and observations
+     *
+     * @throws IllegalArgumentException If the checkpoint was not taken on this reversal
+     */
+    public ReversalCursor reverseCursor(byte[] checkpoint) {
+        return createReverser().findAllValidSeedsCursor(checkpoint);
+    }
+
+    /**
+     * Estimates the number of nodes {@link #reverse()} visits and the number of seeds it finds before any filtered skips,
+     * without running it
+     */
+    public EnumerationEstimate estimate() {
+        return createReverser().estimateSearch();
+    }
+
+    @SuppressWarnings("unchecked")
+    JavaRandomReverser createReverser() {
         if (!LCG.JAVA.equals(program.getLcg())) {
             throw new IllegalStateException("Only the Java LCG is currently supported");
         }
@@ -56,6 +86,7 @@ public class ProgramInstance {
         if (this.program.isVerbose()) {
             reverser.setVerbose(true);
         }
+        reverser.setLatticeCache(program.getLatticeCache());
         List<CallType<?>> calls = program.getCalls();
         List<Long> skips = program.getSkips();
         for (int i = 0; i < calls.size(); i++) {
@@ -215,7 +246,7 @@ public class ProgramInstance {
             }
         }
 
-        return reverser.findAllValidSeeds();
+        return reverser;
     }
 
 }
@@ -0,0 +1,142 @@
+package com.seedfinding.latticg.reversal;
+
+import com.seedfinding.latticg.math.lattice.enumerate.EnumerationCursor;
+import com.seedfinding.latticg.util.DeserializeRt;
+import com.seedfinding.latticg.util.SerializeRt;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Goes through the seeds of a reversal one at a time, and can save its position so that a long reversal can be stopped
+ * and resumed later with {@link ProgramInstance#reverseCursor(byte[])}.
+ */
+public final class ReversalCursor {
+    // a checkpoint of a range starts like one of an EnumerationCursor, with a kind none of its searches use
+    private static final int VERSION = 2;
+    private static final int RANGE = 4;
+
+    // null when no call was measured, in which case every seed below the end is a candidate
+    private final EnumerationCursor cursor;
+    private final LongUnaryOperator toSeed;
+    private final LongPredicate filter;
+    private long next;
+    private final long end;
+
+    private long seed;
+    private boolean hasSeed;
+
+    private ReversalCursor(EnumerationCursor cursor, LongUnaryOperator toSeed, LongPredicate filter, long next, long end) {
+        this.cursor = cursor;
+        this.toSeed = toSeed;
+        this.filter = filter;
+        this.next = next;
+        this.end = end;
+    }
+
+    /**
+     * Goes through the seeds from 0 up to, but not including, {@code end}
+     *
+     * @param checkpoint The checkpoint to resume from, or null to start from the beginning
+     * @throws IllegalArgumentException If the checkpoint was not taken on a range with the same end
+     */
+    @ApiStatus.Internal
+    public static ReversalCursor ofRange(long end, byte[] checkpoint) {
+        long next = 0;
+
+        if (checkpoint != null) {
+            ByteBuffer buf = ByteBuffer.wrap(checkpoint);
+
+            try {
+                if (DeserializeRt.readVarInt(buf) != VERSION) {
+                    throw new IllegalArgumentException("Unsupported checkpoint version");
+                }
+
+                if (DeserializeRt.readVarInt(buf) != RANGE) {
+                    throw new IllegalArgumentException("The checkpoint was taken on a different problem");
+                }
+
+                next = DeserializeRt.readLong(buf);
+            } catch (BufferUnderflowException | ArithmeticException e) {
+                throw new IllegalArgumentException("Malformed checkpoint", e);
+            }
+
+            if (buf.hasRemaining() || next < 0 || next > end) {
+                throw new IllegalArgumentException("Malformed checkpoint");
+            }
+        }
+
+        return new ReversalCursor(null, null, null, next, end);
+    }
+
+    /**
+     * Goes through the first rows of the points of a cursor
+     *
+     * @param toSeed Maps the first row of a point to its seed
+     * @param filter Decides which of those seeds are kept
+     */
+    @ApiStatus.Internal
+    public static ReversalCursor ofEnumeration(EnumerationCursor cursor, LongUnaryOperator toSeed, LongPredicate filter) {
+        return new ReversalCursor(cursor, toSeed, filter, 0, 0);
+    }
+
+    /**
+     * Moves to the next seed, or returns false if there is none left
+     */
+    public boolean advance() {
+        if (this.cursor == null) {
+            this.hasSeed = this.next < this.end;
+
+            if (this.hasSeed) {
+                this.seed = this.next++;
+            }
+
+            return this.hasSeed;
+        }
+
+        while (this.cursor.advance()) {
+            long seed = this.toSeed.applyAsLong(this.cursor.row(0));
+
+            if (this.filter.test(seed)) {
+                this.seed = seed;
+                this.hasSeed = true;
+                return true;
+            }
+        }
+
+        this.hasSeed = false;
+        return false;
+    }
+
+    /**
+     * Returns the seed the cursor is at
+     *
+     * @throws IllegalStateException If the last call to {@link #advance()} did not return true
+     */
+    public long getSeed() {
+        if (!this.hasSeed) {
+            throw new IllegalStateException("The cursor is not at a seed");
+        }
+
+        return this.seed;
+    }
+
+    /**
+     * Saves the position of the cursor. Resuming from it continues with the seed after the current one.
+     */
+    public byte[] checkpoint() {
+        if (this.cursor != null) {
+            return this.cursor.checkpoint();
+        }
+
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        SerializeRt.writeVarInt(buf, VERSION);
+        SerializeRt.writeVarInt(buf, RANGE);
+        SerializeRt.writeLong(buf, this.next);
+        return buf.toByteArray();
+    }
+}
@@ -0,0 +1,62 @@
+package com.seedfinding.latticg;
+
+import com.seedfinding.latticg.math.component.BigMatrix;
+import com.seedfinding.latticg.math.component.BigMatrixUtil;
+import com.seedfinding.latticg.util.LCG;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JavaRandomReverserTest {
+
+    @Test
+    public void testIncrementalMatchesFullReduction() {
+        long seed = 123456789L;
+        Random random = new Random(seed ^ LCG.JAVA.multiplier);
+        JavaRandomReverser incremental = new JavaRandomReverser(new ArrayList<>());
+        List<Consumer<JavaRandomReverser>> calls = new ArrayList<>();
+
+        for (int i = 0; i < 16; i++) {
+            int bound = i % 3 == 2 ? 10 : 16;
+            int value = random.nextInt(bound);
+            Consumer<JavaRandomReverser> call = reverser -> reverser.addNextIntCall(bound, value, value);
+            calls.add(call);
+            call.accept(incremental);
+
+            JavaRandomReverser full = new JavaRandomReverser(new ArrayList<>());
+            calls.forEach(c -> c.accept(full));
+
+            BigMatrix incrementalBasis = incremental.createGenerationInfo().basis;
+            BigMatrix fullBasis = full.createGenerationInfo().basis;
+            assertSameLattice(fullBasis, incrementalBasis);
+        }
+
+        JavaRandomReverser full = new JavaRandomReverser(new ArrayList<>());
+        calls.forEach(c -> c.accept(full));
+        List<Long> seeds = incremental.findAllValidSeeds().boxed().collect(Collectors.toList());
+        assertEquals(full.findAllValidSeeds().boxed().collect(Collectors.toList()).size(), seeds.size());
+        assertTrue(seeds.contains(seed));
+    }
+
+    private static void assertSameLattice(BigMatrix expected, BigMatrix actual) {
+        // the columns span the same lattice exactly when each basis has integer coordinates in the other
+        assertIntegral(BigMatrixUtil.inverse(expected).multiply(actual));
+        assertIntegral(BigMatrixUtil.inverse(actual).multiply(expected));
+    }
+
+    private static void assertIntegral(BigMatrix matrix) {
+        for (int row = 0; row < matrix.getRowCount(); row++) {
+            for (int col = 0; col < matrix.getColumnCount(); col++) {
+                assertEquals(BigInteger.ONE, matrix.get(row, col).getDenominator());
+            }
+        }
+    }
+}
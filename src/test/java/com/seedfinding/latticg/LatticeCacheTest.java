@@ -0,0 +1,135 @@
+package com.seedfinding.latticg;
+
+import com.seedfinding.latticg.math.component.BigFraction;
+import com.seedfinding.latticg.math.component.BigMatrix;
+import com.seedfinding.latticg.util.LCG;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatticeCacheTest {
+
+    @Test
+    public void testHitMatchesReduction() {
+        LatticeCache cache = new LatticeCache(4);
+
+        for (long seed : new long[]{123456789L, 987654321L, 42L}) {
+            List<Long> cached = findSeeds(seed, cache);
+            assertEquals(findSeeds(seed, null), cached);
+            assertTrue(cached.contains(seed));
+        }
+
+        // the observations differ but not the shape, so all three share one entry
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsDropped() {
+        LatticeCache cache = new LatticeCache(2);
+        findSeeds(1L, cache, 12);
+        findSeeds(1L, cache, 13);
+        findSeeds(1L, cache, 12);
+        findSeeds(1L, cache, 14);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testDirectoryOutlivesMemory() throws IOException {
+        Path directory = Files.createTempDirectory("latticg");
+
+        try {
+            LatticeCache cache = new LatticeCache(4, directory);
+            List<Long> expected = findSeeds(123456789L, cache);
+
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(1, files.count());
+            }
+
+            LatticeCache reopened = new LatticeCache(4, directory);
+            assertEquals(expected, findSeeds(123456789L, reopened));
+            assertEquals(1, reopened.size());
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCorruptFileIsMiss() throws IOException {
+        Path directory = Files.createTempDirectory("latticg");
+
+        try {
+            List<Long> expected = findSeeds(123456789L, new LatticeCache(4, directory));
+            Path file;
+
+            try (Stream<Path> files = Files.list(directory)) {
+                file = files.findFirst().orElseThrow(AssertionError::new);
+            }
+
+            // the version, then a key length that decodes to -1 and one far longer than the file
+            for (byte[] corrupt : new byte[][]{{1, -1, -1, -1, -1, 15}, {1, -1, -1, -1, -1, 7}}) {
+                Files.write(file, corrupt);
+                assertEquals(expected, findSeeds(123456789L, new LatticeCache(4, directory)));
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEntriesAreCopied() {
+        LatticeCache cache = new LatticeCache(4);
+        BigMatrix lattice = BigMatrix.identityMatrix(2);
+        BigInteger[] sideLengths = {BigInteger.ONE, BigInteger.ONE};
+        LatticeCache.Reduction entry = new LatticeCache.Reduction(BigMatrix.identityMatrix(2), new BigInteger[]{BigInteger.ONE}, BigMatrix.identityMatrix(2));
+        cache.put(lattice, sideLengths, entry);
+        entry.reducedLattice.set(0, 0, new BigFraction(5));
+
+        LatticeCache.Reduction cached = cache.get(lattice, sideLengths);
+        assertEquals(BigMatrix.identityMatrix(2), cached.reducedLattice);
+        cached.rootInverse.set(0, 0, new BigFraction(5));
+        assertEquals(BigMatrix.identityMatrix(2), cache.get(lattice, sideLengths).rootInverse);
+    }
+
+    @Test
+    public void testCapacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new LatticeCache(0));
+    }
+
+    private static List<Long> findSeeds(long seed, LatticeCache cache) {
+        return findSeeds(seed, cache, 12);
+    }
+
+    private static List<Long> findSeeds(long seed, LatticeCache cache, int calls) {
+        Random random = new Random(seed ^ LCG.JAVA.multiplier);
+        JavaRandomReverser reverser = new JavaRandomReverser(new ArrayList<>());
+        reverser.setLatticeCache(cache);
+
+        for (int i = 0; i < calls; i++) {
+            int value = random.nextInt(16);
+            reverser.addNextIntCall(16, value, value);
+        }
+
+        return reverser.findAllValidSeeds().boxed().collect(Collectors.toList());
+    }
+}
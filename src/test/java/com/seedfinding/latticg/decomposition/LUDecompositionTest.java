@@ -1,5 +1,8 @@
 package com.seedfinding.latticg.decomposition;
 
+import com.seedfinding.latticg.math.component.BigFraction;
+import com.seedfinding.latticg.math.component.BigMatrix;
+import com.seedfinding.latticg.math.component.BigMatrixUtil;
 import com.seedfinding.latticg.math.component.Matrix;
 import com.seedfinding.latticg.math.decomposition.LUDecomposition;
 import org.junit.jupiter.api.Test;
@@ -67,6 +70,14 @@ public class LUDecompositionTest {
         assertEquals(602.0D, result.getDet(), 0.0001D);
     }
 
+    @Test
+    public void testBigDet() {
+        BigMatrix m = BigMatrixUtil.fromString("{{0, 5, 3}, {2, -3, 1}, {-9, 3, 4}}");
+        LUDecomposition.BigResult result = LUDecomposition.decompose(m);
+        assertEquals(new BigFraction(-148), result.getDet());
+        assertEquals(m, result.getP().transpose().multiply(result.getL().multiply(result.getU())));
+    }
+
     @Test
     public void testInverse1() {
         Matrix m = Matrix.identityMatrix(4);
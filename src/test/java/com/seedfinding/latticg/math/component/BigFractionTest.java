@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.MathContext;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -318,4 +319,88 @@ public class BigFractionTest {
         assertEquals(0, a_log.toDouble(), Double.MIN_VALUE);
     }
 
+    @Test
+    public void testSmallMatchesBig() {
+        Random random = new Random(42);
+        long[] edges = {0, 1, -1, 2, 3, Long.MAX_VALUE, -Long.MAX_VALUE, Long.MIN_VALUE, 1L << 62, 1L << 31, (1L << 31) + 1, 3037000499L, 3037000500L};
+
+        for (int i = 0; i < 20000; i++) {
+            BigFraction a = randomFraction(random, edges);
+            BigFraction b = randomFraction(random, edges);
+            BigInteger an = a.getNumerator();
+            BigInteger ad = a.getDenominator();
+            BigInteger bn = b.getNumerator();
+            BigInteger bd = b.getDenominator();
+
+            assertEquals(new BigFraction(an.multiply(bd).add(bn.multiply(ad)), ad.multiply(bd)), a.add(b));
+            assertEquals(new BigFraction(an.multiply(bd).subtract(bn.multiply(ad)), ad.multiply(bd)), a.subtract(b));
+            assertEquals(new BigFraction(an.multiply(bn), ad.multiply(bd)), a.multiply(b));
+            assertEquals(new BigFraction(an.add(bn.multiply(ad)), ad), a.add(bn));
+            assertEquals(new BigFraction(an.multiply(bn), ad), a.multiply(bn));
+            assertEquals(Integer.signum(an.multiply(bd).compareTo(bn.multiply(ad))), Integer.signum(a.compareTo(b)));
+            assertEquals(an.hashCode() + 31 * ad.hashCode(), a.hashCode());
+            assertEquals(new BigDecimal(an).divide(new BigDecimal(ad), MathContext.DECIMAL64).doubleValue(), a.toDouble());
+
+            if (b.signum() != 0) {
+                assertEquals(new BigFraction(an.multiply(bd), ad.multiply(bn)), a.divide(b));
+                assertEquals(new BigFraction(bd, bn), b.reciprocal());
+            }
+
+            BigInteger[] division = an.divideAndRemainder(ad);
+            BigInteger floor = division[1].signum() < 0 ? division[0].subtract(BigInteger.ONE) : division[0];
+            assertEquals(floor, a.floor());
+            assertEquals(division[1].signum() > 0 ? division[0].add(BigInteger.ONE) : division[0], a.ceil());
+            assertEquals(new BigFraction(an.shiftLeft(1).add(ad), ad.shiftLeft(1)).floor(), a.round());
+        }
+    }
+
+    @Test
+    public void testAccumulatorMatchesBig() {
+        Random random = new Random(42);
+        long[] edges = {0, 1, -1, 2, 3, Long.MAX_VALUE, -Long.MAX_VALUE, 1L << 62, 1L << 31, 3037000499L, 3037000500L};
+
+        for (int i = 0; i < 2000; i++) {
+            BigFractionAccumulator accumulator = new BigFractionAccumulator();
+            BigFraction expected = BigFraction.ZERO;
+
+            for (int j = 0; j < 8; j++) {
+                BigFraction a = randomFraction(random, edges);
+                BigFraction b = randomFraction(random, edges);
+
+                switch (random.nextInt(4)) {
+                    case 0:
+                        accumulator.add(a);
+                        expected = expected.add(a);
+                        break;
+                    case 1:
+                        accumulator.subtract(a);
+                        expected = expected.subtract(a);
+                        break;
+                    case 2:
+                        accumulator.addProduct(a, b);
+                        expected = expected.add(a.multiply(b));
+                        break;
+                    default:
+                        accumulator.subtractProduct(a, b);
+                        assertEquals(expected.subtract(a.multiply(b)), expected.subtractProduct(a, b));
+                        expected = expected.subtract(a.multiply(b));
+                }
+
+                assertEquals(expected, accumulator.toBigFraction());
+            }
+        }
+    }
+
+    private static BigFraction randomFraction(Random random, long[] edges) {
+        long numerator = random.nextBoolean() ? edges[random.nextInt(edges.length)] : random.nextLong() >> random.nextInt(64);
+        long denominator = random.nextBoolean() ? edges[random.nextInt(edges.length)] : random.nextLong() >> random.nextInt(64);
+
+        if (denominator == 0) {
+            denominator = 1;
+        }
+
+        return random.nextInt(8) == 0
+            ? new BigFraction(BigInteger.valueOf(numerator).shiftLeft(70), BigInteger.valueOf(denominator))
+            : new BigFraction(numerator, denominator);
+    }
 }
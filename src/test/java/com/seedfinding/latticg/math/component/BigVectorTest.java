@@ -2,6 +2,8 @@ package com.seedfinding.latticg.math.component;
 
 import org.junit.jupiter.api.Test;
 
+import java.math.BigInteger;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
@@ -147,6 +149,20 @@ public class BigVectorTest {
         assertThrows(IllegalArgumentException.class, () -> new BigVector(1, 2).subtractAndSet(new BigVector(3, 4, 5)));
     }
 
+    @Test
+    public void testSubtractMultipleAndSet() {
+        BigVector a = new BigVector(1, 2, 3, 4, 5);
+        BigVector b = new BigVector(2, 0, -1, 4, 1);
+        BigVector result = a.subtractMultipleAndSet(b, new BigFraction(3, 2));
+        assertSame(result, a);
+        assertEquals(new BigVector(new BigFraction(-2), new BigFraction(2), new BigFraction(9, 2), new BigFraction(-2), new BigFraction(7, 2)), a);
+    }
+
+    @Test
+    public void testSubtractMultipleAndSetFail() {
+        assertThrows(IllegalArgumentException.class, () -> new BigVector(1, 2).subtractMultipleAndSet(new BigVector(3, 4, 5), BigInteger.ONE));
+    }
+
     @Test
     public void testMultiplyAndSet() {
         BigVector a = new BigVector(1, 2, 3, 4, 5);
@@ -0,0 +1,71 @@
+package com.seedfinding.latticg.math.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CommonDenominatorMatrixTest {
+
+    @Test
+    public void testDenominator() {
+        BigMatrix m = BigMatrixUtil.fromString("{{1/2, 1/3}, {4, 5/6}}");
+        CommonDenominatorMatrix cd = new CommonDenominatorMatrix(m, BigMatrixUtil.fromString("{{1/4}, {0}}"));
+        assertEquals(BigInteger.valueOf(12), cd.getDenominator());
+        assertEquals(BigInteger.valueOf(48), cd.getNumerator(1, 0));
+        assertEquals(BigInteger.valueOf(3), cd.getNumerator(0, 2));
+        assertEquals(new BigFraction(5, 6), cd.get(1, 1));
+    }
+
+    @Test
+    public void testBlockRowCountsDiffer() {
+        assertThrows(IllegalArgumentException.class, () -> new CommonDenominatorMatrix(new BigMatrix(2, 2), new BigMatrix(3, 2)));
+    }
+
+    @Test
+    public void testDeterminant() {
+        assertEquals(new BigFraction(-13), new CommonDenominatorMatrix(BigMatrixUtil.fromString("{{1, 5}, {2, -3}}")).determinant());
+        assertEquals(new BigFraction(-1), new CommonDenominatorMatrix(BigMatrixUtil.fromString("{{0, 1}, {1, 0}}")).determinant());
+        assertEquals(new BigFraction(-148), new CommonDenominatorMatrix(BigMatrixUtil.fromString("{{0, 5, 3}, {2, -3, 1}, {-9, 3, 4}}")).determinant());
+        assertEquals(new BigFraction(1, 12), new CommonDenominatorMatrix(BigMatrixUtil.fromString("{{1/2, 0}, {7, 1/6}}")).determinant());
+        assertEquals(BigFraction.ZERO, new CommonDenominatorMatrix(BigMatrixUtil.fromString("{{1, 2}, {1/2, 1}}")).determinant());
+    }
+
+    @Test
+    public void testInverse() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20; i++) {
+            int size = 1 + random.nextInt(8);
+            BigMatrix m = new BigMatrix(size, size, (row, col) -> new BigFraction(random.nextInt(41) - 20, random.nextInt(6) + 1));
+            CommonDenominatorMatrix cd = new CommonDenominatorMatrix(m);
+
+            if (cd.determinant().signum() != 0) {
+                assertEquals(BigMatrix.identityMatrix(size), m.multiply(cd.inverse()));
+            }
+        }
+    }
+
+    @Test
+    public void testInverseSingular() {
+        assertThrows(IllegalStateException.class, () -> new CommonDenominatorMatrix(BigMatrixUtil.fromString("{{1, 2}, {2, 4}}")).inverse());
+    }
+
+    @Test
+    public void testInverseNotSquare() {
+        assertThrows(UnsupportedOperationException.class, () -> new CommonDenominatorMatrix(new BigMatrix(2, 3)).inverse());
+    }
+
+    @Test
+    public void testEliminate() {
+        CommonDenominatorMatrix cd = new CommonDenominatorMatrix(BigMatrixUtil.fromString("{{2, 1, 1}, {4, 3, 3}, {8, 7, 9}}"));
+        cd.eliminate(0, 0, BigInteger.ONE, 1);
+        cd.eliminate(1, 1, BigInteger.valueOf(2), 2);
+        // the last pivot of Gaussian elimination is the determinant
+        assertEquals(BigInteger.valueOf(4), cd.getNumerator(2, 2));
+        assertEquals(BigMatrixUtil.fromString("{{2, 1, 1}, {0, 2, 2}, {0, 0, 4}}"), cd.toBigMatrix());
+    }
+}
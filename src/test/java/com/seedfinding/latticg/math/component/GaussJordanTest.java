@@ -2,6 +2,8 @@ package com.seedfinding.latticg.math.component;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -46,4 +48,20 @@ public class GaussJordanTest {
         assertArrayEquals(pivotRows, new int[] {0, 1, -1, -1});
         assertEquals(m, BigMatrixUtil.fromString("{{1, 0, 0, 0}, {0, 1, 0, 0}, {0, 0, 0, 0}, {0, 0, 0, 0}}"));
     }
+
+    @Test
+    public void testFractionsAndOthers() {
+        BigMatrix m = BigMatrixUtil.fromString("{{0, 1/2, 1}, {1/3, 0, 2}, {2/3, 1, 6}, {0, 0, 0}}");
+        BigMatrix copy = m.copy();
+        BigMatrix transform = BigMatrix.identityMatrix(m.getRowCount());
+        BigMatrix other = BigMatrixUtil.fromString("{{1/5}, {0}, {3}, {-1/7}}");
+        BigMatrix otherCopy = other.copy();
+
+        int[] pivotRows = GaussJordan.reduce(m, Arrays.asList(transform, other));
+
+        assertArrayEquals(new int[] {0, 1, -1}, pivotRows);
+        assertEquals(BigMatrixUtil.fromString("{{1, 0, 6}, {0, 1, 2}, {0, 0, 0}, {0, 0, 0}}"), m);
+        assertEquals(m, transform.multiply(copy));
+        assertEquals(other, transform.multiply(otherCopy));
+    }
 }
@@ -2,6 +2,7 @@ package com.seedfinding.latticg.math.component;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -141,6 +142,34 @@ public class MatrixTest {
         assertThrows(IllegalArgumentException.class, () -> new Matrix(1, 2).multiply(new Matrix(1, 2)));
     }
 
+    @Test
+    public void testMultiplyMatrixLarge() {
+        // larger than a tile of the blocked multiplication, which has to give the dot products exactly
+        Random random = new Random(42);
+        Matrix m1 = new Matrix(70, 150, (row, col) -> random.nextGaussian());
+        Matrix m2 = new Matrix(150, 90, (row, col) -> random.nextGaussian());
+        Matrix product = m1.multiply(m2);
+
+        for (int row = 0; row < product.getRowCount(); row++) {
+            for (int col = 0; col < product.getColumnCount(); col++) {
+                assertEquals(m1.getRow(row).dot(m2.getColumn(col)), product.get(row, col));
+            }
+        }
+    }
+
+    @Test
+    public void testMultiplyTransposed() {
+        testMatrixFlavors2(Matrix.fromString("{{2, 3}, {5, 7}}"), Matrix.fromString("{{11, 13}, {17, 19}}"), (m1, m2) -> {
+            assertEquals(Matrix.fromString("{{61, 91}, {146, 218}}"), m1.multiplyTransposed(m2));
+            assertEquals(m1.multiply(m2.transpose()), m1.multiplyTransposed(m2));
+        });
+    }
+
+    @Test
+    public void testMultiplyTransposedFail() {
+        assertThrows(IllegalArgumentException.class, () -> new Matrix(1, 2).multiplyTransposed(new Matrix(2, 1)));
+    }
+
     @Test
     public void testMultiplyVector() {
         testMatrixFlavors(Matrix.fromString("{{2, 3}, {5, 7}}"), m -> {
@@ -0,0 +1,99 @@
+package com.seedfinding.latticg.math.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MultiModularTest {
+
+    @Test
+    public void testDeterminant() {
+        assertEquals(new BigFraction(-13), MultiModular.determinant(BigMatrixUtil.fromString("{{1, 5}, {2, -3}}")));
+        assertEquals(new BigFraction(-148), MultiModular.determinant(BigMatrixUtil.fromString("{{0, 5, 3}, {2, -3, 1}, {-9, 3, 4}}")));
+        assertEquals(new BigFraction(1, 12), MultiModular.determinant(BigMatrixUtil.fromString("{{1/2, 0}, {7, 1/6}}")));
+        assertEquals(BigFraction.ZERO, MultiModular.determinant(BigMatrixUtil.fromString("{{1, 2}, {1/2, 1}}")));
+    }
+
+    @Test
+    public void testMatchesElimination() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 30; i++) {
+            int size = 1 + random.nextInt(12);
+            boolean big = random.nextBoolean();
+            BigMatrix m = new BigMatrix(size, size, (row, col) -> big
+                ? new BigFraction(new BigInteger(64, random).subtract(BigInteger.ONE.shiftLeft(63)), BigInteger.valueOf(random.nextInt(1000) + 1))
+                : new BigFraction(random.nextInt(5) - 2));
+            CommonDenominatorMatrix cd = new CommonDenominatorMatrix(m);
+            BigFraction det = cd.determinant();
+            assertEquals(det, MultiModular.determinant(m));
+
+            if (det.signum() != 0) {
+                assertEquals(cd.inverse(), MultiModular.inverse(m));
+            }
+        }
+    }
+
+    @Test
+    public void testPoolMatchesSerial() {
+        Random random = new Random(7);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            BigMatrix m = new BigMatrix(12, 12, (row, col) -> new BigFraction(new BigInteger(64, random).subtract(BigInteger.ONE.shiftLeft(63)), BigInteger.valueOf(random.nextInt(1000) + 1)));
+            assertEquals(MultiModular.determinant(m), MultiModular.determinant(m, pool));
+            assertEquals(MultiModular.inverse(m), MultiModular.inverse(m, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testDeterminantDivisibleByPrime() {
+        // the determinant is the largest prime used, so the inverse cannot be found modulo it
+        BigMatrix m = BigMatrixUtil.fromString("{{2147483647, 1}, {0, 1}}");
+        assertEquals(new BigFraction(2147483647), MultiModular.determinant(m));
+        assertEquals(BigMatrix.identityMatrix(2), m.multiply(MultiModular.inverse(m)));
+    }
+
+    @Test
+    public void testDeterminantDivisibleBySeveralPrimes() {
+        // the primes are taken from the largest down, the way MultiModular picks them
+        List<BigInteger> primes = new ArrayList<>();
+
+        for (BigInteger candidate = BigInteger.valueOf(Integer.MAX_VALUE); primes.size() < 5; candidate = candidate.subtract(BigInteger.valueOf(2))) {
+            if (candidate.isProbablePrime(50)) {
+                primes.add(candidate);
+            }
+        }
+
+        // the first batch has two unlucky primes and the batch replacing them one more
+        BigMatrix m = BigMatrix.identityMatrix(12);
+        m.set(0, 0, new BigFraction(primes.get(0)));
+        m.set(1, 1, new BigFraction(primes.get(1)));
+        m.set(2, 2, new BigFraction(primes.get(4)));
+        m.set(3, 4, new BigFraction(5));
+
+        BigMatrix inverse = MultiModular.inverse(m);
+        assertEquals(new BigFraction(-5), inverse.get(3, 4));
+        assertEquals(BigMatrix.identityMatrix(12), m.multiply(inverse));
+    }
+
+    @Test
+    public void testInverseSingular() {
+        assertThrows(IllegalStateException.class, () -> MultiModular.inverse(BigMatrixUtil.fromString("{{1, 2}, {2, 4}}")));
+    }
+
+    @Test
+    public void testNotSquare() {
+        assertThrows(UnsupportedOperationException.class, () -> MultiModular.inverse(new BigMatrix(2, 3)));
+        assertThrows(UnsupportedOperationException.class, () -> MultiModular.determinant(new BigMatrix(2, 3)));
+    }
+}
@@ -146,6 +146,20 @@ public class VectorTest {
         assertEquals(new Vector(6, 5, 9, 0, 4), a);
     }
 
+    @Test
+    public void testSubtractMultipleAndSet() {
+        Vector a = new Vector(1, 2, 3, 4, 5);
+        Vector b = new Vector(2, 0, -1, 4, 1);
+        Vector result = a.subtractMultipleAndSet(b, 1.5);
+        assertSame(result, a);
+        assertEquals(new Vector(-2, 2, 4.5, -2, 3.5), a);
+    }
+
+    @Test
+    public void testSubtractMultipleAndSetFail() {
+        assertThrows(IllegalArgumentException.class, () -> new Vector(1, 2).subtractMultipleAndSet(new Vector(3, 4, 5), 1));
+    }
+
     @Test
     public void testSubtractAndSetFail() {
         assertThrows(IllegalArgumentException.class, () -> new Vector(1, 2).subtractAndSet(new Vector(3, 4, 5)));
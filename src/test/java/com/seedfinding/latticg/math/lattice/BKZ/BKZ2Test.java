@@ -0,0 +1,128 @@
+package com.seedfinding.latticg.math.lattice.BKZ;
+
+import com.seedfinding.latticg.math.component.BigFraction;
+import com.seedfinding.latticg.math.component.BigMatrix;
+import com.seedfinding.latticg.math.component.BigMatrixUtil;
+import com.seedfinding.latticg.math.component.BigVector;
+import com.seedfinding.latticg.math.decomposition.LUDecomposition;
+import com.seedfinding.latticg.math.lattice.LLL.LLL;
+import com.seedfinding.latticg.math.lattice.LLL.Params;
+import com.seedfinding.latticg.math.lattice.LLL.Result;
+import com.seedfinding.latticg.math.lattice.optimization.BKZ;
+import com.seedfinding.latticg.math.lattice.optimization.BKZ2;
+import com.seedfinding.latticg.math.lattice.optimization.BasisQuality;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.seedfinding.latticg.math.lattice.LLL.Params.recommendedDelta;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BKZ2Test {
+    // row 0 of the basis NTL's BKZ_QP gives for block size 12, see BKZBlockSizeTest
+    private static final BigVector SHORTEST = BigMatrixUtil.fromString("{{-3220584277339,-678163098047,-8530386804819,4029288934057,2295848026101,-9298238777007,-3232365392515,-4654942041031,3688082483781,1145092603233,4158323460173,-885077887287}}").getRow(0);
+
+    private static BigMatrix javaRandomLattice(int size) {
+        BigInteger modulus = BigInteger.ONE.shiftLeft(48);
+        BigInteger multiplier = BigInteger.valueOf(0x5DEECE66DL);
+        BigMatrix basis = new BigMatrix(size, size);
+        BigInteger power = BigInteger.ONE;
+
+        for (int col = 0; col < size; col++) {
+            basis.set(0, col, new BigFraction(power));
+
+            if (col > 0) {
+                basis.set(col, col, new BigFraction(modulus));
+            }
+
+            power = power.multiply(multiplier).mod(modulus);
+        }
+
+        return basis;
+    }
+
+    @Test
+    public void testBlockSizeTooSmall() {
+        BigMatrix basis = javaRandomLattice(12);
+        assertThrows(IllegalArgumentException.class, () -> BKZ2.reduce(basis, 1, new Params()));
+    }
+
+    @Test
+    public void testFullBlockFindsShortest() {
+        BigMatrix basis = javaRandomLattice(12);
+        Params params = new Params().setDelta(recommendedDelta);
+        Result result = BKZ2.reduce(basis, 12, params);
+        assertReduced(basis, result, params.delta);
+        assertEquals(SHORTEST.magnitudeSq(), result.getReducedBasis().getRow(0).magnitudeSq());
+    }
+
+    @Test
+    public void testPrunedAndBoundedTours() {
+        BigMatrix basis = javaRandomLattice(16);
+        Params pruned = new Params().setDelta(recommendedDelta).setPruningTrials(4);
+        Params bounded = new Params().setDelta(recommendedDelta).setMaxTours(1);
+        assertReduced(basis, BKZ2.reduce(basis, 8, pruned), pruned.delta);
+        assertReduced(basis, BKZ2.reduce(basis, 8, bounded), bounded.delta);
+    }
+
+    @Test
+    public void testOldBKZWithPruning() {
+        BigMatrix basis = javaRandomLattice(12);
+        Params params = new Params().setDelta(recommendedDelta).setPruneFactor(10);
+        assertEquals(SHORTEST.magnitudeSq(), BKZ.reduce(basis, 12, params).getReducedBasis().getRow(0).magnitudeSq());
+    }
+
+    @Test
+    public void testProgressiveWithinTourBudget() {
+        BigMatrix basis = javaRandomLattice(16);
+        Params params = new Params().setDelta(recommendedDelta).setTourBudget(5);
+        List<Integer> blockSizes = new ArrayList<>();
+        Result result = BKZ2.reduceProgressive(basis, 16, params, (blockSize, tours, quality) -> {
+            assertEquals(blockSizes.size() + 1, tours);
+            assertEquals(16, quality.getDimension());
+            blockSizes.add(blockSize);
+        });
+
+        assertReduced(basis, result, params.delta);
+        assertTrue(blockSizes.size() <= 5);
+
+        for (int i = 1; i < blockSizes.size(); i++) {
+            assertTrue(blockSizes.get(i - 1) <= blockSizes.get(i));
+        }
+
+        BasisQuality lll = BasisQuality.of(LLL.reduce(basis, params));
+        assertTrue(BasisQuality.of(result).getHermiteFactor() <= lll.getHermiteFactor() * (1 + 1e-9));
+    }
+
+    @Test
+    public void testQualityOfOrthogonalBasis() {
+        BasisQuality quality = BasisQuality.of(LLL.reduce(BigMatrix.identityMatrix(4), new Params()));
+        assertEquals(1.0, quality.getHermiteFactor(), 1e-12);
+        assertEquals(0.0, quality.getSlope(), 1e-12);
+        // the points of Z^4 no longer than 1 are 0 and the 8 unit vectors, against volumes 2 + pi + 4 pi / 3 + pi^2 / 2
+        assertEquals((2 + Math.PI + 4 * Math.PI / 3 + Math.PI * Math.PI / 2) / 2, quality.getEnumerationNodes(), 1e-9);
+    }
+
+    private static void assertReduced(BigMatrix basis, Result result, BigFraction delta) {
+        BigMatrix transformed = result.getTransformations().multiply(basis);
+        BigMatrix reduced = result.getReducedBasis();
+        int rows = reduced.getRowCount();
+        assertEquals(basis.getRowCount(), rows);
+
+        for (int row = 0; row < rows; row++) {
+            assertEquals(reduced.getRow(row), transformed.getRow(row));
+        }
+
+        assertEquals(BigFraction.ONE, LUDecomposition.decompose(result.getTransformations()).getDet().abs());
+
+        for (int i = 1; i < rows; i++) {
+            BigFraction mu = result.getGramSchmidtCoefficients().get(i, i - 1);
+            assertTrue(mu.abs().compareTo(BigFraction.HALF) <= 0);
+            assertTrue(result.getGramSchmidtSizes().get(i).compareTo(delta.subtract(mu.multiply(mu)).multiply(result.getGramSchmidtSizes().get(i - 1))) >= 0);
+        }
+    }
+}
@@ -1,23 +1,345 @@
 package com.seedfinding.latticg.math.lattice;
 
+import com.seedfinding.latticg.math.component.BigFraction;
 import com.seedfinding.latticg.math.component.BigMatrix;
 import com.seedfinding.latticg.math.component.BigMatrixUtil;
 import com.seedfinding.latticg.math.component.BigVector;
 import com.seedfinding.latticg.math.component.BigVectorUtil;
+import com.seedfinding.latticg.math.lattice.enumerate.EnumerateExecutor;
+import com.seedfinding.latticg.math.lattice.enumerate.EnumerationCursor;
+import com.seedfinding.latticg.math.lattice.enumerate.EnumerationEstimate;
+import com.seedfinding.latticg.math.lattice.enumerate.EnumerateRt;
+import com.seedfinding.latticg.math.lattice.enumerate.Shard;
 import com.seedfinding.latticg.math.lattice.enumeration.Enumerate;
+import com.seedfinding.latticg.math.optimize.Optimize;
+import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class EnumerateTest {
+    // the problem most of the tests share, with the box of box() around it
+    private static final BigMatrix BASIS = BigMatrixUtil.fromString("{{3, -7, 2}, {5, 1, -4}, {-2, 6, 9}}");
+    private static final BigVector ORIGIN = BigVectorUtil.fromString("{1, -2, 3}");
+    private static final BigMatrix ROOT_INVERSE = BigMatrixUtil.inverse(BASIS);
+    private static final BigVector ROOT_ORIGIN = ROOT_INVERSE.multiply(ORIGIN);
+
     public static void main(String[] args) {
         testBKZ17Reverse();
     }
 
+    @Test
+    public void boxMatchesGeneralConstraints() {
+        // a redundant constraint that keeps the general search from treating the region as a box
+        Optimize general = box().withUpperBound(new BigVector(1, 1, 1), new BigFraction(1000)).build();
+
+        List<BigVector> fast = Enumerate.enumerate(BASIS, ORIGIN, box().build()).collect(Collectors.toList());
+        Set<BigVector> exact = Enumerate.enumerate(BASIS, ORIGIN, general).collect(Collectors.toSet());
+
+        assertEquals(exact.size(), fast.size());
+        assertTrue(exact.containsAll(fast));
+    }
+
+    @Test
+    public void gramSchmidtMatchesLinearProgramming() {
+        BigVector origin = BigVectorUtil.fromString("{1/2, -2, 3}");
+
+        Optimize constraints = box()
+            .withUpperBound(new BigVector(2, -1, 3), new BigFraction(17, 3))
+            .withLowerBound(new BigVector(1, 1, 0), new BigFraction(-30))
+            .build();
+
+        Set<BigVector> expected = Enumerate.enumerate(BASIS, origin, constraints, EnumerateRt.Strategy.LINEAR_PROGRAMMING).collect(Collectors.toSet());
+        List<BigVector> actual = Enumerate.enumerate(BASIS, origin, constraints, EnumerateRt.Strategy.GRAM_SCHMIDT).collect(Collectors.toList());
+
+        assertEquals(expected.size(), actual.size());
+        assertTrue(expected.containsAll(actual));
+    }
+
+    @Test
+    public void adaptiveMatchesLinearProgramming() {
+        BigMatrix basis = BigMatrixUtil.fromString("{{3, -7, 2, 1}, {5, 1, -4, 0}, {-2, 6, 9, -3}, {1, 1, 1, 8}}");
+        BigVector origin = BigVectorUtil.fromString("{1, -2, 3, 0}");
+
+        // a thin slab across the box, so that many branches of a fixed order come up empty
+        Optimize constraints = Optimize.Builder.ofSize(4)
+            .withLowerBound(0, -40).withUpperBound(0, 35)
+            .withLowerBound(1, -25).withUpperBound(1, 50)
+            .withLowerBound(2, -60).withUpperBound(2, 20)
+            .withLowerBound(3, -30).withUpperBound(3, 30)
+            .withLowerBound(new BigVector(3, 1, -2, 5), new BigFraction(10))
+            .withUpperBound(new BigVector(3, 1, -2, 5), new BigFraction(14))
+            .build();
+
+        Set<BigVector> expected = Enumerate.enumerate(basis, origin, constraints, EnumerateRt.Strategy.LINEAR_PROGRAMMING).collect(Collectors.toSet());
+        List<BigVector> actual = Enumerate.enumerate(basis, origin, constraints, EnumerateRt.Strategy.ADAPTIVE).collect(Collectors.toList());
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.size(), actual.size());
+        assertTrue(expected.containsAll(actual));
+    }
+
+    @Test
+    public void estimateSizeIsFinite() {
+        Optimize constraints = box()
+            .withUpperBound(new BigVector(1, 1, 1), new BigFraction(1000))
+            .build();
+
+        for (EnumerateRt.Strategy strategy : new EnumerateRt.Strategy[] {EnumerateRt.Strategy.AUTOMATIC, EnumerateRt.Strategy.LINEAR_PROGRAMMING}) {
+            Spliterator<BigVector> spliterator = Enumerate.enumerate(BASIS, ORIGIN, constraints, strategy).spliterator();
+            long estimate = spliterator.estimateSize();
+            long actual = Enumerate.enumerate(BASIS, ORIGIN, constraints, strategy).count();
+
+            assertTrue(estimate < Long.MAX_VALUE);
+            assertTrue(estimate > actual / 4 && estimate < actual * 4, "estimate " + estimate + " for " + actual + " points");
+        }
+    }
+
+    @Test
+    public void estimateMatchesSearch() {
+        Optimize box = box().build();
+        Optimize general = box()
+            .withUpperBound(new BigVector(1, 1, 1), new BigFraction(1000))
+            .build();
+
+        long actual = Enumerate.enumerate(BASIS, ORIGIN, box).count();
+
+        for (Optimize constraints : new Optimize[] {box, general}) {
+            EnumerationEstimate estimate = Enumerate.estimate(BASIS, ORIGIN, constraints);
+
+            assertEquals(3, estimate.getLevelCount());
+            assertTrue(estimate.getSolutions() > actual / 4.0 && estimate.getSolutions() < actual * 4.0, "estimate " + estimate + " for " + actual + " points");
+            // the leaves are the points of a ball around the box, and every level has at least the nodes of the one above
+            assertTrue(estimate.getNodes(3) >= estimate.getSolutions());
+            assertTrue(estimate.getNodes(1) <= estimate.getNodes(2) && estimate.getNodes(2) <= estimate.getNodes(3));
+            assertEquals(estimate.getNodes(1) + estimate.getNodes(2) + estimate.getNodes(3), estimate.getNodes(), 1e-9 * estimate.getNodes());
+        }
+    }
+
+    @Test
+    public void rowMatchesPoints() {
+        Optimize constraints = box().build();
+
+        for (EnumerateRt.Strategy strategy : EnumerateRt.Strategy.values()) {
+            for (int row = 0; row < 3; ++row) {
+                int r = row;
+                List<Long> expected = Enumerate.enumerate(BASIS, ORIGIN, constraints, strategy)
+                    .map(point -> point.get(r).getNumerator().longValue())
+                    .sorted()
+                    .collect(Collectors.toList());
+                List<Long> actual = EnumerateRt.enumerateRow(BASIS, ORIGIN, constraints, ROOT_INVERSE, ROOT_ORIGIN, row, strategy)
+                    .sorted()
+                    .boxed()
+                    .collect(Collectors.toList());
+
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void cursorResumesFromCheckpoint() {
+        Optimize constraints = box().build();
+
+        for (EnumerateRt.Strategy strategy : EnumerateRt.Strategy.values()) {
+            Set<BigVector> expected = Enumerate.enumerate(BASIS, ORIGIN, constraints, strategy).collect(Collectors.toSet());
+            List<BigVector> actual = new ArrayList<>();
+
+            // stop and resume after every few points, including before the first and after the last
+            EnumerationCursor cursor = EnumerateRt.cursor(BASIS, ORIGIN, constraints, ROOT_INVERSE, ROOT_ORIGIN, strategy);
+
+            while (true) {
+                cursor = EnumerateRt.resume(BASIS, ORIGIN, constraints, ROOT_INVERSE, ROOT_ORIGIN, strategy, cursor.checkpoint());
+                boolean more = true;
+
+                for (int i = 0; i < 7 && more; ++i) {
+                    more = cursor.advance();
+
+                    if (more) {
+                        actual.add(cursor.point());
+                        assertEquals(cursor.point().get(1).getNumerator().longValue(), cursor.row(1));
+                    }
+                }
+
+                if (!more) {
+                    break;
+                }
+            }
+
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected, new HashSet<>(actual));
+            assertFalse(EnumerateRt.resume(BASIS, ORIGIN, constraints, ROOT_INVERSE, ROOT_ORIGIN, strategy, cursor.checkpoint()).advance());
+        }
+    }
+
+    @Test
+    public void cursorRejectsOtherProblems() {
+        Optimize constraints = box().build();
+
+        BigVector otherOrigin = BigVectorUtil.fromString("{0, 0, 0}");
+
+        EnumerationCursor cursor = EnumerateRt.cursor(BASIS, ORIGIN, constraints, ROOT_INVERSE, ROOT_ORIGIN, EnumerateRt.Strategy.AUTOMATIC);
+        cursor.advance();
+        byte[] checkpoint = cursor.checkpoint();
+
+        assertThrows(IllegalArgumentException.class, () -> EnumerateRt.resume(BASIS, ORIGIN, constraints, ROOT_INVERSE, ROOT_ORIGIN, EnumerateRt.Strategy.LINEAR_PROGRAMMING, checkpoint));
+        assertThrows(IllegalArgumentException.class, () -> EnumerateRt.resume(BASIS, otherOrigin, constraints, ROOT_INVERSE, ROOT_INVERSE.multiply(otherOrigin), EnumerateRt.Strategy.AUTOMATIC, checkpoint));
+        assertThrows(IllegalArgumentException.class, () -> EnumerateRt.resume(BASIS, ORIGIN, constraints, ROOT_INVERSE, ROOT_ORIGIN, EnumerateRt.Strategy.AUTOMATIC, Arrays.copyOf(checkpoint, checkpoint.length - 1)));
+    }
+
+    @Test
+    public void cursorRejectsOtherBounds() {
+        Optimize constraints = box().build();
+        Optimize sameConstraints = box().build();
+        Optimize otherConstraints = Optimize.Builder.ofSize(3)
+            .withLowerBound(0, -40).withUpperBound(0, 35)
+            .withLowerBound(1, -25).withUpperBound(1, 51)
+            .withLowerBound(2, -60).withUpperBound(2, 20)
+            .build();
+
+        for (EnumerateRt.Strategy strategy : EnumerateRt.Strategy.values()) {
+            EnumerationCursor cursor = EnumerateRt.cursor(BASIS, ORIGIN, constraints, ROOT_INVERSE, ROOT_ORIGIN, strategy);
+            cursor.advance();
+            byte[] checkpoint = cursor.checkpoint();
+
+            EnumerateRt.resume(BASIS, ORIGIN, sameConstraints, ROOT_INVERSE, ROOT_ORIGIN, strategy, checkpoint);
+            assertThrows(IllegalArgumentException.class, () -> EnumerateRt.resume(BASIS, ORIGIN, otherConstraints, ROOT_INVERSE, ROOT_ORIGIN, strategy, checkpoint), strategy.name());
+
+            Shard shard = EnumerateRt.shards(BASIS, ORIGIN, constraints, ROOT_INVERSE, ROOT_ORIGIN, 2, strategy).get(0);
+            assertThrows(IllegalArgumentException.class, () -> EnumerateRt.spliterator(BASIS, ORIGIN, otherConstraints, ROOT_INVERSE, ROOT_ORIGIN, shard), strategy.name());
+        }
+    }
+
+    @Test
+    public void shardsPartitionPoints() {
+        Optimize constraints = box().build();
+
+        for (EnumerateRt.Strategy strategy : EnumerateRt.Strategy.values()) {
+            Set<BigVector> expected = EnumerateRt.enumerate(BASIS, ORIGIN, constraints, ROOT_INVERSE, ROOT_ORIGIN, strategy).collect(Collectors.toSet());
+            List<Shard> shards = EnumerateRt.shards(BASIS, ORIGIN, constraints, ROOT_INVERSE, ROOT_ORIGIN, 7, strategy);
+            Set<BigVector> actual = new HashSet<>();
+            int total = 0;
+
+            assertEquals(7, shards.size());
+
+            for (Shard shard : shards) {
+                Shard copy = Shard.fromBytes(shard.toBytes());
+                List<BigVector> points = EnumerateRt.enumerate(BASIS, ORIGIN, constraints, ROOT_INVERSE, ROOT_ORIGIN, copy).collect(Collectors.toList());
+                actual.addAll(points);
+                total += points.size();
+            }
+
+            assertEquals(expected, actual, strategy.name());
+            assertEquals(expected.size(), total, strategy.name());
+        }
+
+        Shard shard = EnumerateRt.shards(BASIS, ORIGIN, constraints, ROOT_INVERSE, ROOT_ORIGIN, 2).get(0);
+        BigVector otherOrigin = BigVectorUtil.fromString("{0, 0, 0}");
+        assertThrows(IllegalArgumentException.class, () -> EnumerateRt.spliterator(BASIS, otherOrigin, constraints, ROOT_INVERSE, ROOT_INVERSE.multiply(otherOrigin), shard));
+    }
+
+    @Test
+    public void shardsOfBoxWithoutPoints() {
+        BigMatrix basis = BigMatrixUtil.fromString("{{1, 0}, {0, 1}}");
+        BigVector origin = BigVectorUtil.fromString("{0, 0}");
+
+        // feasible, but too thin to hold an integer in either coordinate
+        Optimize constraints = Optimize.Builder.ofSize(2)
+            .withLowerBound(0, new BigFraction(1, 4)).withUpperBound(0, new BigFraction(3, 4))
+            .withLowerBound(1, new BigFraction(1, 3)).withUpperBound(1, new BigFraction(2, 3))
+            .build();
+
+        BigMatrix rootInverse = BigMatrixUtil.inverse(basis);
+        BigVector rootOrigin = rootInverse.multiply(origin);
+
+        for (EnumerateRt.Strategy strategy : EnumerateRt.Strategy.values()) {
+            List<Shard> shards = EnumerateRt.shards(basis, origin, constraints, rootInverse, rootOrigin, 3, strategy);
+            assertEquals(3, shards.size(), strategy.name());
+
+            for (Shard shard : shards) {
+                assertEquals(0L, EnumerateRt.enumerate(basis, origin, constraints, rootInverse, rootOrigin, shard).count(), strategy.name());
+            }
+        }
+    }
+
+    @Test
+    public void executorMatchesStream() throws Exception {
+        Optimize constraints = box()
+            .withUpperBound(new BigVector(2, -1, 3), new BigFraction(17, 3))
+            .build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            for (EnumerateRt.Strategy strategy : EnumerateRt.Strategy.values()) {
+                Set<BigVector> expected = Enumerate.enumerate(BASIS, ORIGIN, constraints, strategy).collect(Collectors.toSet());
+                Set<BigVector> actual = ConcurrentHashMap.newKeySet();
+
+                EnumerateExecutor executor = new EnumerateExecutor(pool, 3, 4);
+                long count = Enumerate.enumerate(BASIS, ORIGIN, constraints, strategy, executor, actual::add).get();
+
+                assertEquals(expected.size(), count);
+                assertEquals(expected, actual);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void executorCancels() throws Exception {
+        Optimize constraints = Optimize.Builder.ofSize(3)
+            .withLowerBound(0, -400).withUpperBound(0, 350)
+            .withLowerBound(1, -250).withUpperBound(1, 500)
+            .withLowerBound(2, -600).withUpperBound(2, 200)
+            .build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        BlockingQueue<BigVector> found = new LinkedBlockingQueue<>();
+
+        try {
+            EnumerateExecutor.Job job = Enumerate.enumerate(BASIS, ORIGIN, constraints, EnumerateRt.Strategy.AUTOMATIC, new EnumerateExecutor(pool, 2), found::add);
+            found.take();
+
+            assertTrue(job.cancel(false));
+            assertTrue(job.isCancelled());
+            assertThrows(CancellationException.class, job::get);
+
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+            assertTrue(job.getCount() < Enumerate.enumerate(BASIS, ORIGIN, constraints).count());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns a builder holding the box [-40, 35] x [-25, 50] x [-60, 20], for a test to add its own constraints to
+     */
+    private static Optimize.Builder box() {
+        return Optimize.Builder.ofSize(3)
+            .withLowerBound(0, -40).withUpperBound(0, 35)
+            .withLowerBound(1, -25).withUpperBound(1, 50)
+            .withLowerBound(2, -60).withUpperBound(2, 20);
+    }
+
     private static void testBKZ17Reverse() {
         BigMatrix basis = BigMatrixUtil.fromString(
             "{\n" +
@@ -0,0 +1,182 @@
+package com.seedfinding.latticg.math.lattice;
+
+import com.seedfinding.latticg.math.component.BigFraction;
+import com.seedfinding.latticg.math.component.BigMatrix;
+import com.seedfinding.latticg.math.lattice.LLL.LLL;
+import com.seedfinding.latticg.math.lattice.LLL.Params;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static com.seedfinding.latticg.math.lattice.LLL.Params.recommendedDelta;
+
+/**
+ * Times {@link LLL#reduce(BigMatrix, Params)} with the STANDARD strategy serially and with the row updates split across
+ * a pool at several values of {@link Params#parallelThreshold}, for bases of increasing width, to find where splitting
+ * starts to pay off. It then measures the cost of one element operation, of one split and of handing a row update to
+ * the pool from the reducing thread, which give the number of element operations that pay for each.
+ *
+ * <p>Run it with the parallelism of the pool as its argument, which defaults to the number of processors.
+ */
+public class LLLParallelBenchmark {
+    private static final int ROWS = 8;
+    private static final int[] COLUMNS = {8, 16, 32, 64, 128, 256, 512};
+    private static final int[] THRESHOLDS = {24, 48, 96, 192, 384, 768, 1536};
+    private static final int RUNS = 9;
+
+    public static void main(String[] args) {
+        int parallelism = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Random random = new Random(5);
+
+        try {
+            // compile the reduction and the pool's task paths before anything is timed
+            for (int i = 0; i < 20; i++) {
+                BigMatrix basis = randomBasis(random, 64);
+                LLL.reduce(basis, new Params().setDelta(recommendedDelta));
+                LLL.reduce(basis, new Params().setDelta(recommendedDelta).setPool(pool).setParallelThreshold(THRESHOLDS[0]));
+            }
+
+            System.out.printf("pool parallelism: %d, processors: %d, rows: %d, median of %d runs in ms%n", parallelism, Runtime.getRuntime().availableProcessors(), ROWS, RUNS);
+            System.out.print("   cols   serial");
+
+            for (int threshold : THRESHOLDS) {
+                System.out.printf(" %8d", threshold);
+            }
+
+            System.out.println();
+
+            for (int cols : COLUMNS) {
+                BigMatrix basis = randomBasis(random, cols);
+                System.out.printf("%7d %8.2f", cols, time(basis, new Params().setDelta(recommendedDelta)));
+
+                for (int threshold : THRESHOLDS) {
+                    System.out.printf(" %8.2f", time(basis, new Params().setDelta(recommendedDelta).setPool(pool).setParallelThreshold(threshold)));
+                }
+
+                System.out.println();
+            }
+
+            double operation = operationCost(random);
+            double split = splitCost(pool);
+            double invoke = invokeCost(pool);
+            System.out.printf("element operation: %.3fus, split: %.3fus, handing a row update to the pool: %.3fus%n", operation / 1.0e3, split / 1.0e3, invoke / 1.0e3);
+            System.out.printf("operations that pay for a split: %.0f, for handing a row update to the pool: %.0f%n", split / operation, invoke / operation);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static BigMatrix randomBasis(Random random, int cols) {
+        BigMatrix basis = new BigMatrix(ROWS, cols);
+
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < cols; col++) {
+                basis.set(row, col, new BigFraction(BigInteger.valueOf(random.nextInt(2001) - 1000), BigInteger.valueOf(1 + random.nextInt(3))));
+            }
+        }
+
+        return basis;
+    }
+
+    private static double time(BigMatrix basis, Params params) {
+        double[] times = new double[RUNS];
+        LLL.reduce(basis, params);
+
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            LLL.reduce(basis, params);
+            times[i] = (System.nanoTime() - start) / 1.0e6;
+        }
+
+        Arrays.sort(times);
+        return times[RUNS / 2];
+    }
+
+    /**
+     * Returns the nanoseconds of one multiply-subtract on fractions of the size the reduction of the benchmark sees
+     */
+    private static double operationCost(Random random) {
+        int count = 1 << 16;
+        BigFraction[] values = new BigFraction[count];
+
+        for (int i = 0; i < count; i++) {
+            values[i] = new BigFraction(BigInteger.valueOf(random.nextInt(2001) - 1000), BigInteger.valueOf(1 + random.nextInt(3)));
+        }
+
+        BigFraction factor = new BigFraction(-7);
+        BigFraction sink = BigFraction.ZERO;
+        long best = Long.MAX_VALUE;
+
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+
+            for (int i = 1; i < count; i++) {
+                sink = values[i].subtractProduct(values[i - 1], factor);
+            }
+
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        if (sink == null) {
+            throw new AssertionError();
+        }
+
+        return (double) best / (count - 1);
+    }
+
+    /**
+     * Returns the nanoseconds of forking and joining two empty halves of a task on the pool, as a split does
+     */
+    private static double splitCost(ForkJoinPool pool) {
+        int count = 1 << 14;
+        long best = Long.MAX_VALUE;
+
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            pool.invoke(new SplitTask(count));
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        return (double) best / count;
+    }
+
+    /**
+     * Returns the nanoseconds of handing a task that splits once to the pool from outside it and waiting for it, as
+     * every row update that is split does
+     */
+    private static double invokeCost(ForkJoinPool pool) {
+        int count = 1 << 12;
+        long best = Long.MAX_VALUE;
+
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+
+            for (int i = 0; i < count; i++) {
+                pool.invoke(new SplitTask(2));
+            }
+
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        return (double) best / count;
+    }
+
+    private static final class SplitTask extends RecursiveAction {
+        private final int count;
+
+        SplitTask(int count) {
+            this.count = count;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.count > 1) {
+                invokeAll(new SplitTask(this.count / 2), new SplitTask(this.count - this.count / 2));
+            }
+        }
+    }
+}
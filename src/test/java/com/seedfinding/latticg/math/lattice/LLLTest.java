@@ -1,13 +1,21 @@
 package com.seedfinding.latticg.math.lattice;
 
+import com.seedfinding.latticg.math.component.BigFraction;
 import com.seedfinding.latticg.math.component.BigMatrix;
 import com.seedfinding.latticg.math.component.BigMatrixUtil;
+import com.seedfinding.latticg.math.component.BigVector;
 import com.seedfinding.latticg.math.lattice.LLL.LLL;
 import com.seedfinding.latticg.math.lattice.LLL.Params;
+import com.seedfinding.latticg.math.lattice.LLL.Result;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 import static com.seedfinding.latticg.math.lattice.LLL.Params.recommendedDelta;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class LLLTest {
 
@@ -76,4 +84,198 @@ public class LLLTest {
         BigMatrix expected = BigMatrixUtil.fromString("{{-2, 0, -30, -31}, {-12, -51, -15, -9}, {-2, 3, 68, -46}}");
         assertEquals(expected, LLL.reduce(basis, new Params()).getReducedBasis());
     }
+
+    @Test
+    public void testFloatingMatchesExact() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50; i++) {
+            int rows = 2 + random.nextInt(5);
+            int cols = 2 + random.nextInt(4);
+            BigMatrix basis = new BigMatrix(rows, cols);
+
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    basis.set(row, col, new BigFraction(BigInteger.valueOf(random.nextInt(2001) - 1000), BigInteger.valueOf(1 + random.nextInt(3))));
+                }
+            }
+
+            Params params = new Params().setDelta(recommendedDelta);
+            Result exact = LLL.reduce(basis, params);
+            Result floating = LLL.reduceFloating(basis, params);
+            assertEquals(exact.getReducedBasis(), floating.getReducedBasis());
+            assertEquals(exact.getTransformations(), floating.getTransformations());
+            assertEquals(exact.getNumDependantVectors(), floating.getNumDependantVectors());
+        }
+    }
+
+    @Test
+    public void testIntegralMatchesExact() {
+        Random random = new Random(7);
+
+        for (int i = 0; i < 50; i++) {
+            int rows = 2 + random.nextInt(6);
+            int cols = Math.max(1, rows - random.nextInt(4));
+            BigMatrix basis = new BigMatrix(rows, cols);
+
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    basis.set(row, col, new BigFraction(BigInteger.valueOf(random.nextInt(21) - 10), BigInteger.valueOf(1 + random.nextInt(3))));
+                }
+            }
+
+            Params params = new Params().setDelta(recommendedDelta);
+            Result exact = LLL.reduce(basis, params);
+            Result integral = LLL.reduceIntegral(basis, params);
+            assertEquals(exact.getReducedBasis(), integral.getReducedBasis());
+            assertEquals(exact.getTransformations(), integral.getTransformations());
+            assertEquals(exact.getNumDependantVectors(), integral.getNumDependantVectors());
+            assertEquals(exact.getGramSchmidtCoefficients(), integral.getGramSchmidtCoefficients());
+            assertEquals(exact.getGramSchmidtSizes(), integral.getGramSchmidtSizes());
+            assertEquals(exact.getGramSchmidtBasis(), integral.getGramSchmidtBasis());
+        }
+    }
+
+    @Test
+    public void testFloatingLongCallChain() {
+        BigInteger modulus = BigInteger.ONE.shiftLeft(48);
+        BigInteger multiplier = BigInteger.valueOf(0x5DEECE66DL);
+        int size = 16;
+        BigMatrix basis = new BigMatrix(size + 1, size);
+        BigInteger power = BigInteger.ONE;
+
+        for (int col = 0; col < size; col++) {
+            basis.set(0, col, new BigFraction(power));
+            basis.set(col + 1, col, new BigFraction(modulus));
+            power = power.multiply(multiplier).mod(modulus);
+        }
+
+        Params params = new Params().setDelta(recommendedDelta);
+        assertEquals(LLL.reduce(basis, params).getReducedBasis(), LLL.reduceFloating(basis, params).getReducedBasis());
+    }
+
+    @Test
+    public void testStrategiesGiveReducedBases() {
+        Random random = new Random(11);
+
+        for (int i = 0; i < 60; i++) {
+            int rows = 2 + random.nextInt(10);
+            int cols = Math.max(1, rows - random.nextInt(3));
+            BigMatrix basis = new BigMatrix(rows, cols);
+
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    basis.set(row, col, new BigFraction(BigInteger.valueOf(random.nextInt(2001) - 1000), BigInteger.valueOf(1 + random.nextInt(2))));
+                }
+            }
+
+            Params deep = new Params().setDelta(recommendedDelta).setStrategy(Params.Strategy.DEEP_INSERTION).setInsertionDepth(random.nextInt(3));
+            Params segment = new Params().setDelta(recommendedDelta).setStrategy(Params.Strategy.SEGMENT).setSegmentSize(2 + random.nextInt(4));
+            assertReduced(basis, LLL.reduce(basis, deep), deep.delta);
+            assertReduced(basis, LLL.reduce(basis, segment), segment.delta);
+        }
+    }
+
+    @Test
+    public void testSegmentLongCallChain() {
+        BigInteger modulus = BigInteger.ONE.shiftLeft(48);
+        BigInteger multiplier = BigInteger.valueOf(0x5DEECE66DL);
+        int size = 24;
+        BigMatrix basis = new BigMatrix(size, size);
+        BigInteger power = BigInteger.ONE;
+
+        for (int col = 0; col < size; col++) {
+            basis.set(0, col, new BigFraction(power));
+
+            if (col > 0) {
+                basis.set(col, col, new BigFraction(modulus));
+            }
+
+            power = power.multiply(multiplier).mod(modulus);
+        }
+
+        Params params = new Params().setDelta(recommendedDelta).setStrategy(Params.Strategy.SEGMENT).setSegmentSize(8);
+        Result expected = LLL.reduce(basis, params);
+        assertReduced(basis, expected, params.delta);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            Result actual = LLL.reduce(basis, new Params().setDelta(recommendedDelta).setStrategy(Params.Strategy.SEGMENT).setSegmentSize(8).setPool(pool));
+            assertEquals(expected.getReducedBasis(), actual.getReducedBasis());
+            assertEquals(expected.getTransformations(), actual.getTransformations());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelKernelsMatchSerial() {
+        Random random = new Random(5);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (int cols : new int[] {4, 16, 64, 256}) {
+                BigMatrix basis = new BigMatrix(6, cols);
+
+                for (int row = 0; row < 6; row++) {
+                    for (int col = 0; col < cols; col++) {
+                        basis.set(row, col, new BigFraction(BigInteger.valueOf(random.nextInt(2001) - 1000), BigInteger.valueOf(1 + random.nextInt(3))));
+                    }
+                }
+
+                Params serial = new Params().setDelta(recommendedDelta);
+                Params split = new Params().setDelta(recommendedDelta).setPool(pool).setParallelThreshold(1);
+                Params threshold = new Params().setDelta(recommendedDelta).setPool(pool);
+
+                Result expected = LLL.reduce(basis, serial);
+                Result actual = LLL.reduce(basis, threshold);
+                assertEquals(expected.getReducedBasis(), actual.getReducedBasis());
+                assertEquals(expected.getTransformations(), actual.getTransformations());
+
+                Result splitResult = LLL.reduce(basis, split);
+                assertEquals(expected.getReducedBasis(), splitResult.getReducedBasis());
+                assertEquals(expected.getGramSchmidtBasis(), splitResult.getGramSchmidtBasis());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void assertReduced(BigMatrix basis, Result result, BigFraction delta) {
+        int dependent = result.getNumDependantVectors();
+        BigMatrix transformed = result.getTransformations().multiply(basis);
+        BigMatrix reduced = result.getReducedBasis();
+        int rows = reduced.getRowCount();
+
+        for (int row = 0; row < dependent; row++) {
+            assertTrue(transformed.getRow(row).isZero());
+        }
+
+        for (int row = 0; row < rows; row++) {
+            assertEquals(reduced.getRow(row), transformed.getRow(dependent + row));
+        }
+
+        BigVector[] orthogonal = new BigVector[rows];
+        BigFraction[] sizes = new BigFraction[rows];
+
+        for (int i = 0; i < rows; i++) {
+            orthogonal[i] = reduced.getRow(i).copy();
+
+            for (int j = 0; j < i; j++) {
+                BigFraction mu = reduced.getRow(i).dot(orthogonal[j]).divide(sizes[j]);
+                assertTrue(mu.abs().compareTo(BigFraction.HALF) <= 0);
+                assertEquals(mu, result.getGramSchmidtCoefficients().get(i, j));
+                orthogonal[i].subtractAndSet(orthogonal[j].multiply(mu));
+            }
+
+            sizes[i] = orthogonal[i].magnitudeSq();
+            assertEquals(sizes[i], result.getGramSchmidtSizes().get(i));
+
+            if (i > 0) {
+                BigFraction mu = result.getGramSchmidtCoefficients().get(i, i - 1);
+                assertTrue(sizes[i].compareTo(delta.subtract(mu.multiply(mu)).multiply(sizes[i - 1])) >= 0);
+            }
+        }
+    }
 }
@@ -9,6 +9,10 @@ import com.seedfinding.latticg.util.Pair;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class OptimizeTest {
     @Test
@@ -72,4 +76,98 @@ public class OptimizeTest {
         assertEquals(BigFractionUtil.fromString("-10547790643587294007/322288848333701120"), min.getSecond());
         assertEquals(BigFractionUtil.fromString("-4727348601358048099/151996487423754240"), max.getSecond());
     }
+
+    @Test
+    public void boxBounds() {
+        Optimize box = Optimize.Builder
+            .ofSize(2)
+            .withLowerBound(0, 3).withUpperBound(0, 7)
+            .withUpperBound(0, 5)
+            .withLowerBound(new BigVector(0, -2), new BigFraction(-8))
+            .withUpperBound(new BigVector(0, -2), new BigFraction(2))
+            .build();
+
+        assertEquals(new Pair<>(new BigVector(3, -1), new BigVector(5, 4)), box.getBoxBounds());
+
+        Optimize notBox = Optimize.Builder
+            .ofSize(2)
+            .withLowerBound(0, 3).withUpperBound(0, 5)
+            .withLowerBound(1, 3).withUpperBound(1, 5)
+            .withUpperBound(new BigVector(1, 1), new BigFraction(9))
+            .build();
+
+        assertNull(notBox.getBoxBounds());
+    }
+
+    @Test
+    public void contains() {
+        Optimize optimize = Optimize.Builder
+            .ofSize(2)
+            .withLowerBound(0, 0).withUpperBound(0, 10)
+            .withLowerBound(1, 0).withUpperBound(1, 10)
+            .withUpperBound(new BigVector(1, 1), new BigFraction(12))
+            .build();
+
+        assertTrue(optimize.contains(new BigVector(2, 10)));
+        assertFalse(optimize.contains(new BigVector(3, 10)));
+        assertFalse(optimize.contains(new BigVector(-1, 0)));
+
+        Optimize restricted = optimize.withStrictBound(new BigVector(1, -1), BigFraction.ZERO);
+
+        assertTrue(restricted.contains(new BigVector(6, 6)));
+        assertFalse(restricted.contains(new BigVector(5, 6)));
+    }
+
+    @Test
+    public void strictBoundsReuseParent() {
+        Optimize parent = Optimize.Builder
+            .ofSize(2)
+            .withLowerBound(0, 0).withUpperBound(0, 10)
+            .withLowerBound(1, 0).withUpperBound(1, 10)
+            .build();
+
+        // siblings bound the same lhs, and neither may disturb the parent
+        Optimize first = parent.withStrictBound(new BigVector(1, 1), new BigFraction(15));
+        Optimize second = parent.withStrictBound(new BigVector(1, 1), new BigFraction(4));
+
+        assertEquals(new BigFraction(5), first.minimize(new BigVector(1, 0)).getSecond());
+        assertEquals(new BigFraction(10), first.maximize(new BigVector(1, 0)).getSecond());
+        assertEquals(new BigFraction(0), second.minimize(new BigVector(1, 0)).getSecond());
+        assertEquals(new BigFraction(4), second.maximize(new BigVector(1, 0)).getSecond());
+        assertEquals(new BigFraction(20), parent.maximize(new BigVector(1, 1)).getSecond());
+
+        Optimize point = first.withStrictBound(new BigVector(1, -1), new BigFraction(-3));
+        assertEquals(new BigVector(6, 9), point.minimize(new BigVector(1, 0)).getFirst());
+
+        assertThrows(IllegalArgumentException.class, () -> first.withStrictBound(new BigVector(1, -1), new BigFraction(-7)));
+        assertThrows(IllegalArgumentException.class, () -> point.withStrictBound(new BigVector(0, 1), new BigFraction(8)));
+    }
+
+    @Test
+    public void infeasibleIsReturned() {
+        Optimize optimize = Optimize.Builder
+            .ofSize(2)
+            .withLowerBound(0, 0).withUpperBound(0, 10)
+            .withLowerBound(1, 0).withUpperBound(1, 10)
+            .withUpperBound(new BigVector(1, 1), new BigFraction(12))
+            .build();
+
+        assertNull(optimize.tryWithStrictBound(new BigVector(1, 1), new BigFraction(13)));
+        assertNull(optimize.tryWithStrictBound(new BigVector(1, -1), new BigFraction(11)));
+        assertEquals(new BigFraction(2), optimize.tryWithStrictBound(new BigVector(1, 1), new BigFraction(12)).minimize(new BigVector(1, 0)).getSecond());
+
+        // caught by the bounds of the variables alone, and by the simplex
+        assertNull(Optimize.Builder.ofSize(2)
+            .withLowerBound(0, 0).withUpperBound(0, 10)
+            .withLowerBound(1, 0).withUpperBound(1, 10)
+            .withLowerBound(new BigVector(1, 1), new BigFraction(21))
+            .tryBuild());
+        assertNull(Optimize.Builder.ofSize(2)
+            .withLowerBound(0, 0).withUpperBound(0, 10)
+            .withLowerBound(1, 0).withUpperBound(1, 10)
+            .withLowerBound(new BigVector(1, 1), new BigFraction(15))
+            .withUpperBound(new BigVector(1, -1), new BigFraction(-6))
+            .tryBuild());
+        assertThrows(IllegalArgumentException.class, () -> Optimize.Builder.ofSize(1).withLowerBound(0, 3).withUpperBound(0, 2).build());
+    }
 }
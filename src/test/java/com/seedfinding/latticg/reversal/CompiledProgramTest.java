@@ -0,0 +1,113 @@
+package com.seedfinding.latticg.reversal;
+
+import com.seedfinding.latticg.reversal.calltype.java.JavaCalls;
+import com.seedfinding.latticg.util.LCG;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompiledProgramTest {
+
+    @Test
+    public void testMatchesInstance() {
+        Program program = Program.builder(LCG.JAVA)
+            .add(JavaCalls.nextInt(16))
+            .add(JavaCalls.nextFloat().lessThan(0.5F))
+            .skip(1)
+            .add(JavaCalls.nextInt(16))
+            .add(JavaCalls.nextInt(16))
+            .add(JavaCalls.nextInt(16))
+            .add(JavaCalls.nextFloat().lessThan(0.5F))
+            .add(JavaCalls.nextInt(16))
+            .add(JavaCalls.nextInt(16))
+            .add(JavaCalls.nextInt(16))
+            .add(JavaCalls.nextInt(16))
+            .add(JavaCalls.nextInt(16))
+            .add(JavaCalls.nextInt(16))
+            .build();
+        CompiledProgram compiled = program.compile();
+
+        for (long seed : new long[]{123456789L, 987654321L, 42L}) {
+            Random random = new Random(seed ^ LCG.JAVA.multiplier);
+            Object[] observations = new Object[12];
+            observations[0] = random.nextInt(16);
+            observations[1] = random.nextFloat() < 0.5F;
+            random.nextInt();
+
+            for (int i = 2; i < observations.length; i++) {
+                if (i == 5) {
+                    observations[i] = random.nextFloat() < 0.5F;
+                } else {
+                    observations[i] = random.nextInt(16);
+                }
+            }
+
+            assertReversesTo(seed, program, compiled, observations);
+        }
+    }
+
+    @Test
+    public void testModuloCall() {
+        ProgramBuilder builder = Program.builder(LCG.JAVA);
+        Random random = new Random(123456789L ^ LCG.JAVA.multiplier);
+        Object[] observations = new Object[11];
+
+        for (int i = 0; i < observations.length; i++) {
+            int bound = i == observations.length - 1 ? 10 : 16;
+            builder.add(JavaCalls.nextInt(bound));
+            observations[i] = random.nextInt(bound);
+        }
+
+        Program program = builder.build();
+        assertReversesTo(123456789L, program, program.compile(), observations);
+    }
+
+    @Test
+    public void testFallsBackOnOtherLattice() {
+        // the inverse of a range in the middle cannot be measured, so its call is skipped instead
+        Program program = Program.builder(LCG.JAVA)
+            .add(JavaCalls.nextFloat().betweenII(0.25F, 0.5F))
+            .add(JavaCalls.nextLong())
+            .add(JavaCalls.nextLong())
+            .build();
+        CompiledProgram compiled = program.compile();
+        Random random = new Random(123456789L ^ LCG.JAVA.multiplier);
+        float value = random.nextFloat();
+        Object[] observations = {value >= 0.25F && value <= 0.5F, random.nextLong(), random.nextLong()};
+
+        assertEquals(
+            reverse(program, observations).boxed().collect(Collectors.toList()),
+            compiled.reverse(observations).boxed().collect(Collectors.toList())
+        );
+    }
+
+    @Test
+    public void testObservationCount() {
+        CompiledProgram compiled = Program.builder(LCG.JAVA).add(JavaCalls.nextInt(16)).build().compile();
+        assertThrows(IllegalStateException.class, compiled::reverse);
+        assertThrows(IndexOutOfBoundsException.class, () -> compiled.reverse(1, 2));
+    }
+
+    private static void assertReversesTo(long seed, Program program, CompiledProgram compiled, Object[] observations) {
+        long[] seeds = compiled.reverse(observations).toArray();
+        assertArrayEquals(reverse(program, observations).toArray(), seeds);
+        assertTrue(LongStream.of(seeds).anyMatch(s -> s == seed));
+    }
+
+    private static LongStream reverse(Program program, Object[] observations) {
+        ProgramInstance instance = program.start();
+
+        for (Object observation : observations) {
+            instance.add(observation);
+        }
+
+        return instance.reverse();
+    }
+}
@@ -1,5 +1,6 @@
 package com.seedfinding.latticg.reversal;
 
+import com.seedfinding.latticg.math.lattice.enumerate.EnumerationEstimate;
 import com.seedfinding.latticg.reversal.calltype.java.JavaCalls;
 import com.seedfinding.latticg.util.LCG;
 import org.junit.jupiter.api.Test;
@@ -8,11 +9,14 @@ import java.io.ByteArrayOutputStream;
 import java.io.FileDescriptor;
 import java.io.FileOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DynamicProgramTest {
@@ -112,6 +116,79 @@ public class DynamicProgramTest {
         );
     }
 
+    @Test
+    public void cursorResumes() {
+        long[] expected = floatsProgram().reverse().toArray();
+        List<Long> actual = new ArrayList<>();
+
+        // stop every 50 seeds and resume on a new program, as a new process would
+        ReversalCursor cursor = floatsProgram().reverseCursor();
+
+        while (true) {
+            int i = 0;
+            boolean more;
+
+            while ((more = cursor.advance()) && ++i < 50) {
+                actual.add(cursor.getSeed());
+            }
+
+            if (!more) {
+                break;
+            }
+
+            actual.add(cursor.getSeed());
+            cursor = floatsProgram().reverseCursor(cursor.checkpoint());
+        }
+
+        assertStreamEquals(actual.stream().mapToLong(Long::longValue), expected);
+    }
+
+    @Test
+    public void rangeCursorResumes() {
+        ReversalCursor cursor = ReversalCursor.ofRange(100, null);
+        cursor.advance();
+        cursor.advance();
+
+        ReversalCursor resumed = ReversalCursor.ofRange(100, cursor.checkpoint());
+        assertTrue(resumed.advance());
+        assertEquals(2, resumed.getSeed());
+    }
+
+    @Test
+    public void rangeCursorRejectsOtherCheckpoints() {
+        ReversalCursor cursor = floatsProgram().reverseCursor();
+        cursor.advance();
+        byte[] enumeration = cursor.checkpoint();
+        byte[] range = ReversalCursor.ofRange(100, null).checkpoint();
+
+        assertThrows(IllegalArgumentException.class, () -> ReversalCursor.ofRange(100, enumeration));
+        assertThrows(IllegalArgumentException.class, () -> floatsProgram().reverseCursor(range));
+        // a bare position without the header, then position 90 within and past the end, and position -1
+        assertThrows(IllegalArgumentException.class, () -> ReversalCursor.ofRange(100, new byte[]{4}));
+        ReversalCursor.ofRange(100, new byte[]{2, 4, (byte) 180, 1});
+        assertThrows(IllegalArgumentException.class, () -> ReversalCursor.ofRange(50, new byte[]{2, 4, (byte) 180, 1}));
+        assertThrows(IllegalArgumentException.class, () -> ReversalCursor.ofRange(100, new byte[]{2, 4, 3}));
+    }
+
+    @Test
+    public void estimateMatchesReverse() {
+        DynamicProgram program = floatsProgram();
+        EnumerationEstimate estimate = program.estimate();
+        long actual = program.reverse().count();
+
+        assertEquals(12, estimate.getLevelCount());
+        assertTrue(estimate.getSolutions() > actual / 4.0 && estimate.getSolutions() < actual * 4.0, "estimate " + estimate + " for " + actual + " seeds");
+        assertTrue(estimate.getNodes() >= estimate.getSolutions());
+    }
+
+    private DynamicProgram floatsProgram() {
+        DynamicProgram program = DynamicProgram.create(LCG.JAVA);
+        for (int i = 0; i < 12; i++) {
+            program.add(JavaCalls.nextFloat().betweenII(0.0f, 0.1f));
+        }
+        return program;
+    }
+
     private void assertStreamEquals(LongStream stream, long... expected) {
         long[] actual = stream.toArray();
         Arrays.sort(expected);